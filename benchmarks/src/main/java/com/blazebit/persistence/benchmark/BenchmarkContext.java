@@ -0,0 +1,181 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.benchmark.view.DocumentCorrelatedView;
+import com.blazebit.persistence.benchmark.view.DocumentView;
+import com.blazebit.persistence.benchmark.view.PersonView;
+import com.blazebit.persistence.benchmark.view.VersionView;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.base.jpa.DataSourceImpl;
+import com.blazebit.persistence.testsuite.base.jpa.MutablePersistenceUnitInfo;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.IntIdEntity;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.entity.Version;
+import com.blazebit.persistence.testsuite.entity.Workflow;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.spi.PersistenceUnitTransactionType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared state of all benchmarks. Boots Hibernate against an in-memory H2 database with the core testsuite entity model
+ * and populates it with a configurable amount of documents.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    private static final Class<?>[] ENTITY_CLASSES = {
+        Document.class,
+        Version.class,
+        Person.class,
+        Workflow.class,
+        IntIdEntity.class
+    };
+    private static final int VERSIONS_PER_DOCUMENT = 3;
+
+    @Param({ "1000" })
+    public int documentCount;
+
+    private EntityManagerFactory emf;
+    private CriteriaBuilderFactory cbf;
+    private EntityViewManager evm;
+    private EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        emf = createEntityManagerFactory();
+        CriteriaBuilderConfiguration config = Criteria.getDefault();
+        cbf = config.createCriteriaBuilderFactory(emf);
+
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(DocumentView.class);
+        cfg.addEntityView(DocumentCorrelatedView.class);
+        cfg.addEntityView(PersonView.class);
+        cfg.addEntityView(VersionView.class);
+        evm = cfg.createEntityViewManager(cbf);
+
+        populate();
+        em = emf.createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (em != null) {
+            em.close();
+        }
+        if (emf != null) {
+            emf.close();
+        }
+    }
+
+    public EntityManagerFactory getEntityManagerFactory() {
+        return emf;
+    }
+
+    public CriteriaBuilderFactory getCriteriaBuilderFactory() {
+        return cbf;
+    }
+
+    public EntityViewManager getEntityViewManager() {
+        return evm;
+    }
+
+    public EntityManager getEntityManager() {
+        return em;
+    }
+
+    private void populate() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            // Every owner gets a handful of documents so that correlations have something to batch
+            Person owner = null;
+            for (int i = 0; i < documentCount; i++) {
+                if (i % 10 == 0) {
+                    // Flush and clear whenever the owner changes so that the persistence context stays small
+                    em.flush();
+                    em.clear();
+                    owner = new Person("Person " + i);
+                    owner.setAge(i % 100);
+                    em.persist(owner);
+                }
+                Version[] versions = new Version[VERSIONS_PER_DOCUMENT];
+                for (int j = 0; j < versions.length; j++) {
+                    versions[j] = new Version(j);
+                }
+                Document document = new Document("Doc " + i, owner, versions);
+                document.setAge(i);
+                em.persist(document);
+                for (Version version : versions) {
+                    em.persist(version);
+                }
+            }
+            tx.commit();
+        } finally {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            em.close();
+        }
+    }
+
+    private static EntityManagerFactory createEntityManagerFactory() {
+        MutablePersistenceUnitInfo persistenceUnitInfo = new MutablePersistenceUnitInfo();
+        persistenceUnitInfo.setPersistenceUnitName("Benchmark");
+        persistenceUnitInfo.setTransactionType(PersistenceUnitTransactionType.RESOURCE_LOCAL);
+        persistenceUnitInfo.setNonJtaDataSource(new DataSourceImpl(
+                System.getProperty("jdbc.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1"),
+                System.getProperty("jdbc.user", "admin"),
+                System.getProperty("jdbc.password", "admin")
+        ));
+        persistenceUnitInfo.setExcludeUnlistedClasses(true);
+        persistenceUnitInfo.setPersistenceUnitRootUrl(BenchmarkContext.class.getProtectionDomain().getCodeSource().getLocation());
+        for (Class<?> clazz : ENTITY_CLASSES) {
+            persistenceUnitInfo.addManagedClassName(clazz.getName());
+        }
+
+        Map<Object, Object> properties = new HashMap<>();
+        properties.put("javax.persistence.sharedCache.mode", "NONE");
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        // Hibernate 5 uses sequences by default but h2 seems to have a bug with sequences in a limited query
+        properties.put("hibernate.id.new_generator_mappings", "false");
+        properties.put("hibernate.jdbc.batch_size", "100");
+        properties.put("hibernate.order_inserts", "true");
+        return new HibernatePersistenceProvider().createContainerEntityManagerFactory(persistenceUnitInfo, properties);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.integration.hibernate.base.spi.HibernateVersionProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * The manifest of the benchmark uber jar hides the one of Hibernate, so we read the version that was filtered in at build time.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BenchmarkHibernateVersionProvider implements HibernateVersionProvider {
+
+    private static final String PROPERTIES = "META-INF/blaze-persistence-benchmarks.properties";
+
+    @Override
+    public String getVersion() {
+        try (InputStream is = BenchmarkHibernateVersionProvider.class.getClassLoader().getResourceAsStream(PROPERTIES)) {
+            if (is == null) {
+                return org.hibernate.Version.getVersionString();
+            }
+            Properties properties = new Properties();
+            properties.load(is);
+            return properties.getProperty("hibernate.version");
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read the Hibernate version", e);
+        }
+    }
+}
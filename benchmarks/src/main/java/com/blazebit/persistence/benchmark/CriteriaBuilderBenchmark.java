@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.Tuple;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of criteria builders and the rendering of the resulting JPQL.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CriteriaBuilderBenchmark {
+
+    @Benchmark
+    public CriteriaBuilder<Document> createSimple(BenchmarkContext context) {
+        return simple(context);
+    }
+
+    @Benchmark
+    public String renderSimple(BenchmarkContext context) {
+        return simple(context).getQueryString();
+    }
+
+    @Benchmark
+    public CriteriaBuilder<Tuple> createComplex(BenchmarkContext context) {
+        return complex(context);
+    }
+
+    @Benchmark
+    public String renderComplex(BenchmarkContext context) {
+        return complex(context).getQueryString();
+    }
+
+    private static CriteriaBuilder<Document> simple(BenchmarkContext context) {
+        return context.getCriteriaBuilderFactory().create(context.getEntityManager(), Document.class, "d")
+                .where("d.name").eq("Doc 1")
+                .orderByAsc("d.id");
+    }
+
+    private static CriteriaBuilder<Tuple> complex(BenchmarkContext context) {
+        return context.getCriteriaBuilderFactory().create(context.getEntityManager(), Tuple.class)
+                .from(Document.class, "d")
+                .select("d.id")
+                .select("d.name")
+                .select("UPPER(d.owner.name)")
+                .select("COUNT(versions.id)")
+                .leftJoin("d.versions", "versions")
+                .where("d.age").betweenExpression(":minAge").andExpression(":maxAge")
+                .where("d.owner.name").like().value("Person%").noEscape()
+                .whereOr()
+                    .where("d.archived").eqExpression("false")
+                    .where("d.lastModified").isNull()
+                .endOr()
+                .groupBy("d.id", "d.name", "d.owner.name")
+                .having("COUNT(versions.id)").gt(0L)
+                .orderByDesc("d.age")
+                .orderByAsc("d.id")
+                .setParameter("minAge", 0L)
+                .setParameter("maxAge", 500L);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.benchmark.view.DocumentCorrelatedView;
+import com.blazebit.persistence.benchmark.view.DocumentView;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.EntityViewSetting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures applying entity view settings and the materialization of entity views through the object builder pipeline.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityViewBenchmark {
+
+    private static final int MAX_RESULTS = 100;
+
+    @Benchmark
+    public String applySetting(BenchmarkContext context) {
+        return apply(context, DocumentView.class).getQueryString();
+    }
+
+    @Benchmark
+    public List<DocumentView> fetchJoinedCollectionView(BenchmarkContext context) {
+        return apply(context, DocumentView.class).getResultList();
+    }
+
+    @Benchmark
+    public List<DocumentCorrelatedView> fetchSelectCorrelatedView(BenchmarkContext context) {
+        return apply(context, DocumentCorrelatedView.class).getResultList();
+    }
+
+    private static <T> CriteriaBuilder<T> apply(BenchmarkContext context, Class<T> viewClass) {
+        CriteriaBuilder<Document> cb = context.getCriteriaBuilderFactory().create(context.getEntityManager(), Document.class, "d")
+                .where("d.age").lt((long) MAX_RESULTS)
+                .orderByAsc("d.id");
+        return context.getEntityViewManager().applySetting(EntityViewSetting.create(viewClass), cb);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
+import com.blazebit.persistence.parser.predicate.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures expression parsing with and without the expression cache.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionParsingBenchmark {
+
+    static final String[] SIMPLE_EXPRESSIONS = {
+        "d.name",
+        "d.owner.name",
+        ":param",
+        "UPPER(d.name)",
+        "COALESCE(d.owner.name, d.name, '')",
+        "CASE WHEN d.age > 10 THEN 'old' ELSE 'young' END",
+        "KEY(d.contacts)",
+        "SIZE(d.versions)",
+        "d.age * 2 + 1",
+        "CONCAT(d.name, ' ', d.owner.name)"
+    };
+    static final String[] BOOLEAN_EXPRESSIONS = {
+        "d.name = :name",
+        "d.age BETWEEN 1 AND 10",
+        "d.owner.name LIKE 'Person%'",
+        "d.id IN :ids",
+        "d.name IS NOT NULL AND d.age > 5 OR d.archived = false",
+        "d.owner.age >= 18 AND NOT(d.name LIKE 'A%')"
+    };
+
+    @Param({ "true", "false" })
+    public boolean cached;
+
+    private ExpressionFactory expressionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExpressionFactory delegate = new ExpressionFactoryImpl(new HashSet<String>(), true, true);
+        if (cached) {
+            expressionFactory = new SimpleCachingExpressionFactory(delegate);
+        } else {
+            expressionFactory = delegate;
+        }
+    }
+
+    @Benchmark
+    public void parseSimpleExpressions(Blackhole blackhole) {
+        for (String expression : SIMPLE_EXPRESSIONS) {
+            Expression result = expressionFactory.createSimpleExpression(expression, false, null, null);
+            blackhole.consume(result);
+        }
+    }
+
+    @Benchmark
+    public void parseBooleanExpressions(Blackhole blackhole) {
+        for (String expression : BOOLEAN_EXPRESSIONS) {
+            Predicate result = expressionFactory.createBooleanExpression(expression, false, null, null);
+            blackhole.consume(result);
+        }
+    }
+}
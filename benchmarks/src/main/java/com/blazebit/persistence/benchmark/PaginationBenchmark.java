@@ -0,0 +1,91 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.testsuite.entity.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.TypedQuery;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures offset and keyset pagination, both the query preparation and the execution.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private KeysetPage keysetPage;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        PagedList<Document> firstPage = base(context)
+                .page(0, PAGE_SIZE)
+                .withKeysetExtraction(true)
+                .getResultList();
+        keysetPage = firstPage.getKeysetPage();
+    }
+
+    @Benchmark
+    public TypedQuery<Document> prepareOffsetPage(BenchmarkContext context) {
+        return base(context).page(PAGE_SIZE, PAGE_SIZE).getQuery();
+    }
+
+    @Benchmark
+    public TypedQuery<Document> prepareKeysetPage(BenchmarkContext context) {
+        return base(context).page(keysetPage, PAGE_SIZE, PAGE_SIZE).getQuery();
+    }
+
+    @Benchmark
+    public PagedList<Document> fetchOffsetPage(BenchmarkContext context) {
+        return base(context).page(PAGE_SIZE, PAGE_SIZE).getResultList();
+    }
+
+    @Benchmark
+    public PagedList<Document> fetchKeysetPage(BenchmarkContext context) {
+        return base(context).page(keysetPage, PAGE_SIZE, PAGE_SIZE).getResultList();
+    }
+
+    private static CriteriaBuilder<Document> base(BenchmarkContext context) {
+        return context.getCriteriaBuilderFactory().create(context.getEntityManager(), Document.class, "d")
+                .where("d.owner.name").like().value("Person%").noEscape()
+                .orderByDesc("d.age")
+                .orderByAsc("d.id");
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.view.impl.collection.CollectionInstantiator;
+import com.blazebit.persistence.view.impl.collection.RecordingCollection;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.CollectionTupleListTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the tuple list transformation of collection mappings without a database.
+ * Run with <code>-prof gc</code> to see the allocation rate per transformed tuple list.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TupleTransformationBenchmark {
+
+    @Param({ "10", "100" })
+    public int parents;
+    @Param({ "1", "10" })
+    public int elementsPerParent;
+    // Duplicate tuples are produced by joins that don't contribute to the selection
+    @Param({ "1", "3" })
+    public int duplicatesPerElement;
+
+    private CollectionTupleListTransformer transformer;
+    private List<Object[]> tuples;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transformer = new CollectionTupleListTransformer(new int[]{ 0 }, 1, new ListInstantiator(), false, null);
+    }
+
+    @Setup(Level.Invocation)
+    public void createTuples() {
+        // The transformer removes tuples from the list, so a fresh list is needed for every invocation
+        tuples = new LinkedList<>();
+        for (int i = 0; i < parents; i++) {
+            Long parentId = (long) i;
+            for (int j = 0; j < elementsPerParent; j++) {
+                String element = "element-" + j;
+                for (int k = 0; k < duplicatesPerElement; k++) {
+                    tuples.add(new Object[]{ parentId, element });
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Object[]> transformCollection() {
+        return transformer.transform(tuples);
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class ListInstantiator implements CollectionInstantiator {
+
+        @Override
+        public boolean allowsDuplicates() {
+            return true;
+        }
+
+        @Override
+        public boolean requiresPostConstruct() {
+            return false;
+        }
+
+        @Override
+        public void postConstruct(Collection<?> collection) {
+        }
+
+        @Override
+        public Collection<?> createCollection(int size) {
+            return new ArrayList<>(size);
+        }
+
+        @Override
+        public Collection<?> createJpaCollection(int size) {
+            return new ArrayList<>(size);
+        }
+
+        @Override
+        public RecordingCollection<?, ?> createRecordingCollection(int size) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+/**
+ * The strategies for determining the total size of a {@link PagedList}.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ * @see PaginatedCriteriaBuilder#withCountStrategy(CountStrategy)
+ */
+public enum CountStrategy {
+
+    /**
+     * The count query is executed for every page.
+     */
+    EXACT,
+    /**
+     * The result of the count query is cached for the count query string and parameter values.
+     * The result might be outdated by up to the configured time to live.
+     */
+    CACHED,
+    /**
+     * The total size is estimated by the database e.g. based on the query plan or table statistics.
+     * Falls back to {@link #EXACT} if the DBMS doesn't support estimation or the count query has parameters.
+     */
+    ESTIMATED;
+
+}
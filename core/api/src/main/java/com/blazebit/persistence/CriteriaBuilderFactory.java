@@ -21,6 +21,7 @@ import com.blazebit.persistence.spi.JpqlFunction;
 import com.blazebit.persistence.spi.ServiceProvider;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -75,6 +76,47 @@ public interface CriteriaBuilderFactory extends ServiceProvider, ConfigurationSo
      */
     public <T> CriteriaBuilder<T> create(EntityManager entityManager, Class<T> resultClass, String alias);
 
+    /**
+     * Captures the fully prepared state of the given criteria builder as query template and registers it under the given name.
+     * If a query template is already registered under the name, the existing query template is returned and the criteria builder is ignored.
+     *
+     * Query templates are only supported for criteria builders that can be represented as plain JPQL query.
+     * Criteria builders that use CTEs, set operations, VALUES clauses or other features that require SQL replacement are rejected.
+     * Criteria builders that use a custom {@link ObjectBuilder} are rejected as well, because every query of the template needs its own object builder
+     * and custom object builders can't be recreated.
+     *
+     * @param name The name of the query template
+     * @param criteriaBuilder The criteria builder to capture
+     * @param <T> The query result type
+     * @return The registered query template
+     * @throws IllegalArgumentException If the criteria builder can't be represented as query template
+     * @since 1.4.0
+     */
+    public <T> QueryTemplate<T> registerQueryTemplate(String name, CriteriaBuilder<T> criteriaBuilder);
+
+    /**
+     * Captures the fully prepared state of the given criteria builder as query template without registering it.
+     * The name of the resulting query template is <code>null</code>. This is useful for integrations that manage the lifecycle of query templates themselves.
+     *
+     * @param criteriaBuilder The criteria builder to capture
+     * @param <T> The query result type
+     * @return The query template
+     * @throws IllegalArgumentException If the criteria builder can't be represented as query template
+     * @since 1.4.0
+     * @see #registerQueryTemplate(String, CriteriaBuilder)
+     */
+    public <T> QueryTemplate<T> createQueryTemplate(CriteriaBuilder<T> criteriaBuilder);
+
+    /**
+     * Returns the query template registered under the given name or <code>null</code> if there is none.
+     *
+     * @param name The name of the query template
+     * @param <T> The query result type
+     * @return The registered query template or <code>null</code>
+     * @since 1.4.0
+     */
+    public <T> QueryTemplate<T> getQueryTemplate(String name);
+
     /**
      * Like {@link CriteriaBuilderFactory#delete(javax.persistence.EntityManager, java.lang.Class, java.lang.String)} but with the alias
      * equivalent to the camel cased result of what {@link Class#getSimpleName()} of the delete class returns.
@@ -200,4 +242,17 @@ public interface CriteriaBuilderFactory extends ServiceProvider, ConfigurationSo
      * @since 1.2.0
      */
     public <T> InsertCriteriaBuilder<T> insertCollection(EntityManager entityManager, Class<T> insertOwnerClass, String collectionName);
+
+    /**
+     * Creates a new insert values builder that inserts the given objects as entities of the given entity class
+     * via a VALUES clause in batches. This requires a JPA provider that supports insert statements and the VALUES clause.
+     *
+     * @param entityManager The entity manager to use for the insert statements
+     * @param insertClass The entity class for the insert
+     * @param values The objects to insert
+     * @param <T> The type of the entity for the insert
+     * @return A new insert values builder
+     * @since 1.4.0
+     */
+    public <T> InsertValuesBuilder<T> insertValues(EntityManager entityManager, Class<T> insertClass, Collection<T> values);
 }
@@ -61,6 +61,11 @@ class EmptyPagedList<T> implements PagedList<T> {
         return 0;
     }
 
+    @Override
+    public CountStrategy getCountStrategy() {
+        return CountStrategy.EXACT;
+    }
+
     @Override
     public KeysetPage getKeysetPage() {
         return null;
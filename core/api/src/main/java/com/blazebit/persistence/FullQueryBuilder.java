@@ -56,6 +56,32 @@ public interface FullQueryBuilder<T, X extends FullQueryBuilder<T, X>> extends Q
      */
     public String getCountQueryString();
 
+    /**
+     * Like {@link #getResultIterator(int)} but uses a fetch size of 100.
+     *
+     * @return An iterator over the results which must be closed
+     * @since 1.4.0
+     */
+    public CloseableIterator<T> getResultIterator();
+
+    /**
+     * Executes the query and returns an iterator over the results that are fetched lazily from a database cursor.
+     * Results are transformed by the {@link ObjectBuilder} in chunks of the given fetch size,
+     * so the memory consumption does not depend on the result size but only on the fetch size.
+     * Note that entities that are part of the results are still managed by the persistence context,
+     * so the persistence context should be cleared regularly when iterating over entities.
+     *
+     * If the JPA provider does not support advanced SQL, the results are materialized into a list before iterating.
+     * Since a custom {@link ObjectBuilder} might combine multiple rows into one object, e.g. for entity views with join fetched collections,
+     * queries with a custom object builder that join collections can't be iterated.
+     *
+     * @param fetchSize The amount of rows to fetch at once and transform together
+     * @return An iterator over the results which must be closed
+     * @throws IllegalStateException If the query uses a custom object builder and joins collections
+     * @since 1.4.0
+     */
+    public CloseableIterator<T> getResultIterator(int fetchSize);
+
     /**
      * Invokes {@link FullQueryBuilder#pageBy(int, int, String, String...)} with the identifiers of the query root entity.
      *
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+import javax.persistence.Tuple;
+
+/**
+ * A builder for inserting a collection of objects as entities via <code>INSERT ... SELECT</code> statements that select from a VALUES clause.
+ * The objects are inserted in batches so that a statement doesn't exceed the parameter limit of the DBMS.
+ *
+ * @param <T> The entity type for which values should be inserted
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public interface InsertValuesBuilder<T> {
+
+    /**
+     * Binds the value of the given attribute of the objects to the attribute of the inserted entities.
+     *
+     * @param attribute The attribute that should be inserted
+     * @return The builder for chaining calls
+     */
+    public InsertValuesBuilder<T> bind(String attribute);
+
+    /**
+     * Sets the maximum number of objects that are inserted by a single statement.
+     * By default, the batch size is derived from the maximum parameter count of the DBMS.
+     *
+     * @param batchSize The maximum number of objects per statement
+     * @return The builder for chaining calls
+     */
+    public InsertValuesBuilder<T> setBatchSize(int batchSize);
+
+    /**
+     * Returns the maximum number of objects that are inserted by a single statement.
+     *
+     * @return The maximum number of objects per statement
+     */
+    public int getBatchSize();
+
+    /**
+     * Executes the insert statements and returns the number of inserted entities.
+     *
+     * @return The number of inserted entities
+     */
+    public int executeUpdate();
+
+    /**
+     * Executes the insert statements and returns the given attributes of the inserted entities as tuples.
+     *
+     * @param attributes The attributes of the inserted entities to return
+     * @return A result wrapper containing the insert count and the values of the attributes
+     * @see ModificationCriteriaBuilder#executeWithReturning(String...)
+     */
+    public ReturningResult<Tuple> executeWithReturning(String... attributes);
+
+    /**
+     * Executes the insert statements and returns the given attribute of the inserted entities with the specified type.
+     *
+     * @param attribute The attribute of the inserted entities to return
+     * @param type The type of the attribute
+     * @param <Z> The result type of the attribute
+     * @return A result wrapper containing the insert count and the values of the attribute
+     * @see ModificationCriteriaBuilder#executeWithReturning(String, Class)
+     */
+    public <Z> ReturningResult<Z> executeWithReturning(String attribute, Class<Z> type);
+}
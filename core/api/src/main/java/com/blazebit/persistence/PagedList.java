@@ -50,6 +50,15 @@ public interface PagedList<T> extends List<T> {
      */
     public long getTotalSize();
 
+    /**
+     * Returns the strategy that was used for determining the total size or <code>null</code> if no count query was executed.
+     * If the strategy is not {@link CountStrategy#EXACT}, the total size might be inaccurate.
+     *
+     * @return The count strategy that was used for determining the total size
+     * @since 1.4.0
+     */
+    public CountStrategy getCountStrategy();
+
     /**
      * Returns the number of this page, numbered from 1.
      * 
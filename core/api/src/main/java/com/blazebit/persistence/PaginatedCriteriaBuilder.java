@@ -16,7 +16,9 @@
 
 package com.blazebit.persistence;
 
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.TypedQuery;
+import java.util.concurrent.Executor;
 
 /**
  * A builder for paginated criteria queries.
@@ -101,6 +103,49 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
      */
     public boolean isWithCountQuery();
 
+    /**
+     * Enables concurrent execution of the count query. The count query is executed via the given executor
+     * on a separate entity manager created by the given entity manager factory while the id and object queries run on the caller thread.
+     * Since the separate entity manager does not see uncommitted changes of the query builder's entity manager,
+     * this should only be used for read only use cases. The count query is executed serially as usual
+     * if the query requires custom SQL or a page is navigated to by a reference entity id.
+     *
+     * Passing <code>null</code> for either argument disables concurrent count query execution.
+     *
+     * @param entityManagerFactory The entity manager factory to use for creating the entity manager for the count query
+     * @param executor The executor to run the count query with
+     * @return The query builder for chaining calls
+     * @since 1.4.0
+     */
+    public PaginatedCriteriaBuilder<T> withConcurrentCountQuery(EntityManagerFactory entityManagerFactory, Executor executor);
+
+    /**
+     * Returns whether concurrent count query execution is enabled or not.
+     *
+     * @return true when enabled, false otherwise
+     * @since 1.4.0
+     */
+    public boolean isWithConcurrentCountQuery();
+
+    /**
+     * Sets the strategy for determining the total size of the result. By default, the count query is executed for every page.
+     * Non-exact strategies are never executed concurrently.
+     *
+     * @param countStrategy The count strategy
+     * @return The query builder for chaining calls
+     * @since 1.4.0
+     * @see PagedList#getCountStrategy()
+     */
+    public PaginatedCriteriaBuilder<T> withCountStrategy(CountStrategy countStrategy);
+
+    /**
+     * Returns the strategy for determining the total size of the result.
+     *
+     * @return The count strategy
+     * @since 1.4.0
+     */
+    public CountStrategy getCountStrategy();
+
     /**
      * Forces the use of an id query even if the pagination would not need it.
      *
@@ -136,6 +181,27 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
      */
     public int getHighestKeysetOffset();
 
+    /**
+     * Enables or disables the slice mode which is suited for "infinite scrolling" use cases.
+     * In slice mode, the count query is never executed. Instead, the page size plus one elements are fetched
+     * to determine whether a next page exists which is then exposed via {@link SlicedList#hasNext()}.
+     * The additional element is not part of the resulting list and also doesn't influence the keyset of the page.
+     * Combined with keyset pagination, this results in a seek only query without an offset.
+     *
+     * @param withSlice true to enable, false to disable the slice mode
+     * @return The query builder for chaining calls
+     * @since 1.4.0
+     */
+    public PaginatedCriteriaBuilder<T> withSlice(boolean withSlice);
+
+    /**
+     * Returns whether the slice mode is enabled or not.
+     *
+     * @return true when enabled, false otherwise
+     * @since 1.4.0
+     */
+    public boolean isWithSlice();
+
     /**
      * Execute the query and return the result as a type PagedList.
      *
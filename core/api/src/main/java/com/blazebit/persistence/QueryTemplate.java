@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.Set;
+
+/**
+ * A query template is the captured state of a fully prepared {@link CriteriaBuilder}.
+ * Creating a query from a template only binds parameters and skips building, analyzing and rendering the criteria builder.
+ * Query templates are immutable and can be shared between threads.
+ *
+ * Values of parameters that were bound when capturing the template are used as default values for every query
+ * created from the template. Parameter value transformations like the conversion of entities to their identifiers
+ * are applied to parameter values that are set on the created query.
+ *
+ * @param <T> The query result type
+ * @author Christian Beikov
+ * @since 1.4.0
+ * @see CriteriaBuilderFactory#registerQueryTemplate(String, CriteriaBuilder)
+ */
+public interface QueryTemplate<T> {
+
+    /**
+     * Returns the name under which the query template is registered or <code>null</code> if the query template isn't registered.
+     *
+     * @return The name of the query template
+     */
+    public String getName();
+
+    /**
+     * Returns the JPQL query string of the query template.
+     *
+     * @return The query string
+     */
+    public String getQueryString();
+
+    /**
+     * Returns the names of the parameters of the query template.
+     *
+     * @return The parameter names
+     */
+    public Set<String> getParameterNames();
+
+    /**
+     * Creates a new query for the given entity manager based on this template.
+     * Every query uses a new instance of the object builder of the captured criteria builder.
+     *
+     * @param entityManager The entity manager to use for the query
+     * @return A new query
+     */
+    public TypedQuery<T> createQuery(EntityManager entityManager);
+}
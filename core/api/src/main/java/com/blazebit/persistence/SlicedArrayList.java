@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+import java.util.Collection;
+
+/**
+ * A simple implementation of {@link SlicedList} based on {@link PagedArrayList}.
+ *
+ * @param <T> the type of elements in this list
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class SlicedArrayList<T> extends PagedArrayList<T> implements SlicedList<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean hasNext;
+
+    /**
+     * Constructs a new empty sliced array list.
+     *
+     * @param keyset      The keyset page for this page
+     * @param firstResult The first result index within the overall result
+     * @param maxResults  The maximum result count for a page
+     * @param hasNext     Whether there are further elements after this page
+     */
+    public SlicedArrayList(KeysetPage keyset, int firstResult, int maxResults, boolean hasNext) {
+        super(keyset, -1L, firstResult, maxResults);
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Constructs a new sliced array list from the given collection.
+     *
+     * @param collection  The collection of elements for this page
+     * @param keyset      The keyset page for this page
+     * @param firstResult The first result index within the overall result
+     * @param maxResults  The maximum result count for a page
+     * @param hasNext     Whether there are further elements after this page
+     */
+    public SlicedArrayList(Collection<? extends T> collection, KeysetPage keyset, int firstResult, int maxResults, boolean hasNext) {
+        super(collection, keyset, -1L, firstResult, maxResults);
+        this.hasNext = hasNext;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+}
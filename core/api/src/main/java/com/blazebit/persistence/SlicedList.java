@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+/**
+ * A {@link PagedList} for a page that was loaded in slice mode via {@link PaginatedCriteriaBuilder#withSlice(boolean)}.
+ * A slice knows no total size, but whether further elements follow after this page.
+ *
+ * @param <T> the type of elements in this list
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public interface SlicedList<T> extends PagedList<T> {
+
+    /**
+     * Returns whether there are further elements after this page.
+     *
+     * @return true if there is a next page, false otherwise
+     */
+    public boolean hasNext();
+
+}
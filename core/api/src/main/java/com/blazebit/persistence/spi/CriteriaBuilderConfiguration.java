@@ -19,6 +19,7 @@ package com.blazebit.persistence.spi;
 import com.blazebit.persistence.CriteriaBuilderFactory;
 
 import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -41,6 +42,19 @@ public interface CriteriaBuilderConfiguration {
      */
     public CriteriaBuilderConfiguration withPackageOpener(PackageOpener packageOpener);
 
+    /**
+     * Adds the given expressions to the set of expressions that are parsed in parallel and put into the expression cache
+     * when creating a criteria builder factory. A snapshot of the cached expressions of a running criteria builder factory,
+     * including the mapping expressions of entity views, can be retrieved through the <code>ExpressionCache</code> service
+     * so that a newly deployed application instance can start with a warm cache.
+     * The number of threads that are used for parsing can be configured via the property <code>com.blazebit.persistence.expression.cache_warmup_parallelism</code>.
+     *
+     * @param expressions The expression strings by cache name
+     * @return this for method chaining
+     * @since 1.4.0
+     */
+    public CriteriaBuilderConfiguration withExpressionCacheWarmup(Map<String, ? extends Collection<String>> expressions);
+
     /**
      * Registers the given type under the given name. This makes the type usable for the <code>VALUES</code> clause.
      *
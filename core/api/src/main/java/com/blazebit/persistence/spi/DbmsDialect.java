@@ -293,4 +293,42 @@ public interface DbmsDialect {
      * @since 1.2.0
      */
     public ResultSet extractReturningResult(PreparedStatement ps) throws SQLException;
+
+    /**
+     * Returns the SQL for retrieving the query plan of the given count query SQL
+     * or <code>null</code> if the estimation of row counts is not supported.
+     * The count query is always a <code>COUNT(*)</code> query without collection joins,
+     * so the number of rows that are counted is the number of rows of the input of the aggregate.
+     *
+     * @param countQuerySql The SQL of the count query
+     * @return The SQL for retrieving the query plan or <code>null</code>
+     * @since 1.4.0
+     */
+    public String getRowCountEstimateSql(String countQuerySql);
+
+    /**
+     * Extracts the estimated number of rows that are counted by a count query from the result of the query
+     * returned by {@link #getRowCountEstimateSql(String)}.
+     *
+     * @param resultList The result list of the query plan query
+     * @return The estimated row count or <code>-1</code> if no estimate could be extracted
+     * @since 1.4.0
+     */
+    public long extractRowCountEstimate(List<?> resultList);
+
+    /**
+     * Returns the maximum number of parameters that may be used in a single statement.
+     *
+     * @return The maximum number of parameters
+     * @since 1.4.0
+     */
+    public int getMaximumParameterCount();
+
+    /**
+     * Returns the maximum number of elements that may be used in a single IN predicate.
+     *
+     * @return The maximum number of IN list elements
+     * @since 1.4.0
+     */
+    public int getMaximumInListSize();
 }
@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.spi;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.ReturningResult;
 
 import javax.persistence.EntityManager;
@@ -100,6 +101,21 @@ public interface ExtendedQuerySupport {
     @SuppressWarnings("rawtypes")
     public List getResultList(ServiceProvider serviceProvider, List<Query> participatingQueries, Query query, String sqlOverride);
 
+    /**
+     * Returns an iterator over the results of the Query by replacing the SQL with the given overriding SQL query.
+     * The results are fetched lazily from a database cursor with the given fetch size.
+     *
+     * @param serviceProvider The service provider to access {@linkplain EntityManager} and others
+     * @param participatingQueries The list of participating queries from which to combine parameters
+     * @param query The main query to execute
+     * @param sqlOverride The actual SQL query to execute instead of the query's original SQL
+     * @param fetchSize The JDBC fetch size to use
+     * @return The iterator over the results of the query which must be closed
+     * @since 1.4.0
+     */
+    @SuppressWarnings("rawtypes")
+    public CloseableIterator getResultIterator(ServiceProvider serviceProvider, List<Query> participatingQueries, Query query, String sqlOverride, int fetchSize);
+
     /**
      * Returns the single result of the Query by replacing the SQL with the given overriding SQL query.
      *
@@ -123,6 +139,18 @@ public interface ExtendedQuerySupport {
      */
     public int executeUpdate(ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String sqlOverride);
 
+    /**
+     * Executes the given modification queries, which must all have the same query string, as a single JDBC batch
+     * through one prepared statement and returns the update counts in the order of the given queries.
+     * An update count might be {@link java.sql.Statement#SUCCESS_NO_INFO} if the JDBC driver doesn't report update counts for batches.
+     *
+     * @param em The entity manager the queries are associated to
+     * @param queries The modification queries to execute
+     * @return The update counts of the queries
+     * @since 1.4.0
+     */
+    public int[] executeBatchUpdate(EntityManager em, List<Query> queries);
+
     /**
      * Executes and returns the returning result of the Query by replacing the SQL with the given overriding SQL query.
      *
@@ -74,6 +74,7 @@ import com.blazebit.persistence.parser.expression.SubqueryExpressionFactory;
 import com.blazebit.persistence.parser.expression.VisitorAdapter;
 import com.blazebit.persistence.parser.expression.modifier.ExpressionModifier;
 import com.blazebit.persistence.parser.predicate.Predicate;
+import com.blazebit.persistence.parser.predicate.PredicateRestrictionSupport;
 import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
 import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.spi.DbmsDialect;
@@ -125,7 +126,7 @@ import java.util.Set;
  * @author Moritz Becker
  * @since 1.0.0
  */
-public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, SetReturn, SubquerySetReturn, FinalSetReturn extends BaseFinalSetOperationBuilderImpl<?, ?, ?>> implements ServiceProvider, ConfigurationSource {
+public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, SetReturn, SubquerySetReturn, FinalSetReturn extends BaseFinalSetOperationBuilderImpl<?, ?, ?>> implements ServiceProvider, ConfigurationSource, PredicateRestrictionSupport {
 
     public static final String ID_PARAM_NAME = "ids";
 
@@ -430,6 +431,10 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     public boolean isCacheable() {
         return this.mainQuery.getQueryConfiguration().isCacheable();
     }
+
+    public QueryConfiguration getQueryConfiguration() {
+        return this.mainQuery.getQueryConfiguration();
+    }
     
     public Map<String, String> getProperties() {
         return this.mainQuery.getQueryConfiguration().getProperties();
@@ -1254,6 +1259,12 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return whereManager.restrictExpressionSubqueries((BuilderType) this, predicate);
     }
 
+    @Override
+    public void setWherePredicate(Predicate predicate) {
+        prepareForModification(ClauseType.WHERE);
+        whereManager.restrictExpression(predicate);
+    }
+
     /*
      * Group by methods
      */
@@ -1412,6 +1423,15 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return havingManager.restrictExpressionSubqueries((BuilderType) this, predicate);
     }
 
+    @Override
+    public void setHavingPredicate(Predicate predicate) {
+        prepareForModification(ClauseType.HAVING);
+        if (groupByManager.isEmpty()) {
+            throw new IllegalStateException("Having without group by");
+        }
+        havingManager.restrictExpression(predicate);
+    }
+
     /*
      * Order by methods
      */
@@ -1911,6 +1931,41 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return applyObjectBuilder(query);
     }
 
+    QueryTemplateImpl<QueryResultType> createQueryTemplate(String name) {
+        String baseQueryString = getBaseQueryStringWithCheck();
+        Set<JoinNode> keyRestrictedLeftJoins = joinManager.getKeyRestrictedLeftJoins();
+        final boolean needsSqlReplacement = isMainQuery && mainQuery.cteManager.hasCtes() || joinManager.hasEntityFunctions() || !keyRestrictedLeftJoins.isEmpty() || !isMainQuery && hasLimit();
+        if (needsSqlReplacement) {
+            throw new IllegalArgumentException("The query can't be captured as query template because it requires SQL replacement: " + getQueryString());
+        }
+        Map<String, ParameterValueTransformer> transformers = parameterManager.getTransformers();
+        if (!transformers.isEmpty() && !mainQuery.jpaProvider.supportsTransientEntityAsParameter()) {
+            // The transformers would refer to the entity manager of this query builder
+            throw new IllegalArgumentException("The query can't be captured as query template because it uses entity parameters which aren't supported by the JPA provider: " + getQueryString());
+        }
+
+        // Determine the parameters that are actually part of the query
+        Set<String> parameterNames = new HashSet<>();
+        for (Parameter<?> parameter : em.createQuery(baseQueryString).getParameters()) {
+            parameterNames.add(parameter.getName() == null ? parameter.getPosition().toString() : parameter.getName());
+        }
+
+        return new QueryTemplateImpl<>(
+                name,
+                baseQueryString,
+                selectManager.getExpectedQueryResultType(),
+                firstResult,
+                maxResults,
+                isCacheable(),
+                ParameterManager.getInListPaddingLimit(mainQuery),
+                mainQuery.jpaProvider,
+                selectManager.getSelectObjectBuilderFactory(),
+                parameterNames,
+                parameterManager.getBoundParameterSnapshot(),
+                transformers
+        );
+    }
+
     protected List<String> getKeyRestrictedLeftJoinAliases(Query baseQuery, Set<JoinNode> keyRestrictedLeftJoins, Set<ClauseType> clauseExclusions) {
         List<String> keyRestrictedLeftJoinAliases = new ArrayList<String>();
         if (!keyRestrictedLeftJoins.isEmpty()) {
@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.CaseWhenStarterBuilder;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.HavingOrBuilder;
 import com.blazebit.persistence.JoinType;
@@ -34,10 +35,14 @@ import com.blazebit.persistence.impl.query.CTENode;
 import com.blazebit.persistence.impl.query.CustomQuerySpecification;
 import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
 import com.blazebit.persistence.impl.query.EntityFunctionNode;
+import com.blazebit.persistence.impl.query.MaterializedResultIterator;
+import com.blazebit.persistence.impl.query.ObjectBuilderResultIterator;
+import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
 import com.blazebit.persistence.impl.query.QuerySpecification;
 import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.PathExpression;
 import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import com.blazebit.persistence.spi.JpaMetamodelAccessor;
 
 import javax.persistence.TypedQuery;
@@ -71,10 +76,16 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
     protected static final Set<ClauseType> OBJECT_QUERY_WITHOUT_GROUP_BY_EXCLUSIONS = EnumSet.of(ClauseType.GROUP_BY);
     protected static final Set<ClauseType> COUNT_QUERY_CLAUSE_EXCLUSIONS = EnumSet.of(ClauseType.ORDER_BY, ClauseType.SELECT);
     protected static final Set<ClauseType> COUNT_QUERY_GROUP_BY_CLAUSE_EXCLUSIONS = EnumSet.of(ClauseType.ORDER_BY, ClauseType.SELECT, ClauseType.GROUP_BY);
+    private static final int DEFAULT_FETCH_SIZE = 100;
 
     protected String cachedCountQueryString;
     protected String cachedExternalCountQueryString;
     protected Set<JoinNode> cachedIdentifierExpressionsToUseNonRootJoinNodes;
+    /**
+     * Whether the last page count query that counts the identifier expressions has to count distinct values,
+     * because it joins collections or the identifier expressions aren't unique.
+     */
+    protected boolean pageCountQueryDistinct;
 
     /**
      * This flag indicates whether the current builder has been used to create a
@@ -198,7 +209,8 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
 
             // Instead of a count distinct, we render a count(*) if we have no collection joins and the identifier expression is result unique
             // It is result unique when it contains the query root primary key or a unique key that of a uniqueness preserving association of that
-            if (!hasCollectionJoinUsages && isResultUnique) {
+            pageCountQueryDistinct = hasCollectionJoinUsages || !isResultUnique;
+            if (!pageCountQueryDistinct) {
                 String countStar;
                 if (mainQuery.jpaProvider.supportsCountStar()) {
                     countStar = "COUNT(*";
@@ -316,6 +328,46 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
         return getCountQuery(getCountQueryStringWithoutCheck());
     }
 
+    @Override
+    public CloseableIterator<T> getResultIterator() {
+        return getResultIterator(DEFAULT_FETCH_SIZE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CloseableIterator<T> getResultIterator(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("The fetch size must be positive but was: " + fetchSize);
+        }
+        TypedQuery<?> query = getQuery();
+        if (selectManager.hasCustomObjectBuilder() && joinManager.hasCollections()) {
+            // The object builder might combine multiple rows into one object which could span the chunks
+            throw new IllegalStateException("Iterating over the results of a query with a custom object builder is not supported when the query joins collections. Use getResultList() instead: " + getQueryString());
+        }
+        ObjectBuilder<T> objectBuilder = null;
+        if (query instanceof ObjectBuilderTypedQuery<?>) {
+            objectBuilder = ((ObjectBuilderTypedQuery<T>) query).getObjectBuilder();
+            query = ((ObjectBuilderTypedQuery<T>) query).getDelegate();
+        }
+
+        CloseableIterator<?> tupleIterator;
+        ExtendedQuerySupport extendedQuerySupport = cbf.getExtendedQuerySupport();
+        if (query instanceof CustomSQLTypedQuery<?>) {
+            tupleIterator = ((CustomSQLTypedQuery<?>) query).getResultIterator(fetchSize);
+        } else if (extendedQuerySupport != null && extendedQuerySupport.supportsAdvancedSql()) {
+            String sql = extendedQuerySupport.getSql(em, query);
+            tupleIterator = extendedQuerySupport.getResultIterator(this, Collections.<javax.persistence.Query>singletonList(query), query, sql, fetchSize);
+        } else {
+            // Without advanced SQL support we can't scroll, so we have to materialize the results
+            return new MaterializedResultIterator<>(getResultList());
+        }
+
+        if (objectBuilder == null) {
+            return (CloseableIterator<T>) tupleIterator;
+        }
+        return new ObjectBuilderResultIterator<>(tupleIterator, objectBuilder, fetchSize);
+    }
+
     protected TypedQuery<Long> getCountQuery(String countQueryString) {
         prepareAndCheck();
         // We can only use the query directly if we have no ctes, entity functions or hibernate bugs
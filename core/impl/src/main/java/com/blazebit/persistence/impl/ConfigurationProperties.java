@@ -16,6 +16,8 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+
 /**
  *
  * @author Christian Beikov
@@ -103,11 +105,36 @@ public final class ConfigurationProperties {
 
     /**
      * The full qualified expression cache implementation class name.
+     * If the class has a public constructor accepting a {@link java.util.Map}, it is invoked with the configuration properties,
+     * otherwise the default constructor is used.
+     * Use <code>com.blazebit.persistence.parser.expression.BoundedExpressionCache</code> for a cache with a bounded size.
      *
      * @since 1.2.0
      */
     public static final String EXPRESSION_CACHE_CLASS = "com.blazebit.persistence.expression.cache_class";
 
+    /**
+     * The maximum number of expressions per cache name that are cached by the bounded expression cache {@link BoundedExpressionCache}.
+     * The maximum size of a specific cache can be configured by appending a dot and the cache name
+     * e.g. <code>com.blazebit.persistence.expression.cache_maximum_size.PathExpression</code>.
+     * Valid values are positive integers.
+     * Default is <code>10000</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String EXPRESSION_CACHE_MAXIMUM_SIZE = BoundedExpressionCache.MAXIMUM_SIZE_PROPERTY;
+
+    /**
+     * The number of threads that are used for parsing the expressions that are registered via
+     * {@link com.blazebit.persistence.spi.CriteriaBuilderConfiguration#withExpressionCacheWarmup(java.util.Map)}
+     * when creating a criteria builder factory. A value of 1 parses the expressions on the thread creating the factory.
+     * Valid values are positive integers.
+     * Default is the number of available processors
+     *
+     * @since 1.4.0
+     */
+    public static final String EXPRESSION_CACHE_WARMUP_PARALLELISM = "com.blazebit.persistence.expression.cache_warmup_parallelism";
+
     /**
      * If set to false, tuples of a VALUES clause with all null values won't be filtered out.
      * Valid values for this property are <code>true</code> or <code>false</code>.
@@ -141,6 +168,70 @@ public final class ConfigurationProperties {
      * @since 1.2.0
      */
     public static final String OPTIMIZED_KEYSET_PREDICATE_RENDERING = "com.blazebit.persistence.optimized_keyset_predicate_rendering";
+
+    /**
+     * If set to true, the values of collection valued parameters are padded to the next power of two size by repeating
+     * the last element. This reduces the number of distinct SQL statements for IN predicates which allows the JPA provider
+     * query plan cache and the database statement cache to be reused.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     * Default is <code>false</code>
+     *
+     * The property can be changed for a criteria builder before constructing a query.
+     *
+     * @since 1.4.0
+     */
+    public static final String IN_LIST_PADDING = "com.blazebit.persistence.in_list_padding";
+
+    /**
+     * The time to live in milliseconds of the total counts that are cached for paginated criteria builders using
+     * the count strategy {@link com.blazebit.persistence.CountStrategy#CACHED}.
+     * Valid values are non-negative integers.
+     * Default is <code>60000</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String COUNT_CACHE_TIME_TO_LIVE = "com.blazebit.persistence.count_cache_time_to_live";
+
+    /**
+     * The maximum number of total counts that are cached for paginated criteria builders using
+     * the count strategy {@link com.blazebit.persistence.CountStrategy#CACHED}.
+     * Valid values are positive integers.
+     * Default is <code>1000</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String COUNT_CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.count_cache_maximum_size";
+
+    /**
+     * The maximum number of final SQL queries of custom query specifications i.e. queries that use CTEs, entity functions or VALUES,
+     * that are cached across criteria builders so that the SQL rewriting can be skipped for repeated queries.
+     * Valid values are positive integers.
+     * Default is <code>1000</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String CUSTOM_SQL_CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.custom_sql_cache_maximum_size";
+
+    /**
+     * The maximum number of expression parser instances that are pooled and reused for parsing expressions.
+     * A value of 0 disables pooling so that a new parser is created for every expression that isn't cached.
+     * Valid values are non-negative integers.
+     * Default is <code>0</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String EXPRESSION_PARSER_POOL_SIZE = "com.blazebit.persistence.expression.parser_pool_size";
+
+    /**
+     * The maximum number of states in the DFA cache of the expression parser after which the cache is cleared.
+     * The DFA cache is shared by all parsers and otherwise grows for the life of the JVM.
+     * A value of 0 disables clearing of the DFA cache.
+     * Valid values are non-negative integers.
+     * Default is <code>0</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String EXPRESSION_PARSER_DFA_MAXIMUM_STATES = "com.blazebit.persistence.expression.parser_dfa_maximum_states";
     
     private ConfigurationProperties() {
     }
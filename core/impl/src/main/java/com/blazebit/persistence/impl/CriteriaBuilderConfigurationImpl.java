@@ -162,8 +162,10 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -186,6 +188,7 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
     private final Map<String, JpqlMacro> macros = new HashMap<String, JpqlMacro>();
     private final List<EntityManagerFactoryIntegrator> entityManagerIntegrators = new ArrayList<EntityManagerFactoryIntegrator>();
     private PackageOpener packageOpener;
+    private final Map<String, Set<String>> expressionCacheWarmup = new HashMap<>();
     private Properties properties = new Properties();
     private ExtendedQuerySupport extendedQuerySupport;
 
@@ -582,6 +585,23 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
         return packageOpener;
     }
 
+    @Override
+    public CriteriaBuilderConfiguration withExpressionCacheWarmup(Map<String, ? extends Collection<String>> expressions) {
+        for (Map.Entry<String, ? extends Collection<String>> entry : expressions.entrySet()) {
+            Set<String> cachedExpressions = expressionCacheWarmup.get(entry.getKey());
+            if (cachedExpressions == null) {
+                cachedExpressions = new HashSet<>();
+                expressionCacheWarmup.put(entry.getKey(), cachedExpressions);
+            }
+            cachedExpressions.addAll(entry.getValue());
+        }
+        return this;
+    }
+
+    Map<String, Set<String>> getExpressionCacheWarmup() {
+        return expressionCacheWarmup;
+    }
+
     @Override
     public CriteriaBuilderConfiguration registerFunction(JpqlFunctionGroup jpqlFunctionGroup) {
         String functionName = jpqlFunctionGroup.getName().toLowerCase();
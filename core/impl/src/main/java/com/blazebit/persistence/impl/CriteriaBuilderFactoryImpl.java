@@ -20,9 +20,13 @@ import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.CriteriaBuilderFactory;
 import com.blazebit.persistence.DeleteCriteriaBuilder;
 import com.blazebit.persistence.InsertCriteriaBuilder;
+import com.blazebit.persistence.InsertValuesBuilder;
 import com.blazebit.persistence.LeafOngoingFinalSetOperationCriteriaBuilder;
+import com.blazebit.persistence.QueryTemplate;
 import com.blazebit.persistence.StartOngoingSetOperationCriteriaBuilder;
 import com.blazebit.persistence.UpdateCriteriaBuilder;
+import com.blazebit.persistence.impl.query.CountCache;
+import com.blazebit.persistence.impl.query.CustomSqlCache;
 import com.blazebit.persistence.parser.expression.ExpressionCache;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
@@ -32,6 +36,8 @@ import com.blazebit.persistence.parser.expression.SubqueryExpressionFactory;
 import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.EntityManagerFactoryIntegrator;
+import com.blazebit.persistence.spi.ExtendedAttribute;
+import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import com.blazebit.persistence.spi.JpaProvider;
 import com.blazebit.persistence.spi.JpaProviderFactory;
@@ -42,12 +48,16 @@ import com.blazebit.persistence.spi.PackageOpener;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.metamodel.Metamodel;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  *
@@ -74,6 +84,9 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
     private final Map<String, JpqlFunction> configuredRegisteredFunctions;
     private final JpaProviderFactory configuredJpaProviderFactory;
     private final JpaProvider jpaProvider;
+    private final ConcurrentMap<String, QueryTemplate<?>> queryTemplates = new ConcurrentHashMap<>();
+    private final CountCache countCache;
+    private final CustomSqlCache customSqlCache;
 
     public CriteriaBuilderFactoryImpl(CriteriaBuilderConfigurationImpl config, EntityManagerFactory entityManagerFactory) {
         List<EntityManagerFactoryIntegrator> integrators = config.getEntityManagerIntegrators();
@@ -114,24 +127,56 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         this.aggregateFunctions = resolveAggregateFunctions(config.getFunctions());
         this.namedTypes = resolveNamedTypes(config.getNamedTypes());
 
-        ExpressionFactory originalExpressionFactory = new ExpressionFactoryImpl(aggregateFunctions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), !compatibleMode, optimize);
-        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass());
-        ExpressionFactory cachingExpressionFactory = new SimpleCachingExpressionFactory(originalExpressionFactory, expressionCache);
-        ExpressionFactory cachingSubqueryExpressionFactory = new SimpleCachingExpressionFactory(new SubqueryExpressionFactory(aggregateFunctions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), !compatibleMode, optimize, originalExpressionFactory));
+        int parserPoolSize = (int) getLongProperty(config.getProperties(), ConfigurationProperties.EXPRESSION_PARSER_POOL_SIZE, 0L);
+        int dfaMaximumStates = (int) getLongProperty(config.getProperties(), ConfigurationProperties.EXPRESSION_PARSER_DFA_MAXIMUM_STATES, 0L);
+        ExpressionFactory originalExpressionFactory = new ExpressionFactoryImpl(aggregateFunctions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), !compatibleMode, optimize, parserPoolSize, dfaMaximumStates);
+        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass(), (Map<String, String>) (Map<?, ?>) config.getProperties());
+        this.countCache = new CountCache(
+                getLongProperty(config.getProperties(), ConfigurationProperties.COUNT_CACHE_TIME_TO_LIVE, 60000L),
+                (int) getLongProperty(config.getProperties(), ConfigurationProperties.COUNT_CACHE_MAXIMUM_SIZE, 1000L)
+        );
+        this.customSqlCache = new CustomSqlCache((int) getLongProperty(config.getProperties(), ConfigurationProperties.CUSTOM_SQL_CACHE_MAXIMUM_SIZE, 1000L));
+        SimpleCachingExpressionFactory cachingExpressionFactory = new SimpleCachingExpressionFactory(originalExpressionFactory, expressionCache);
+        ExpressionFactory cachingSubqueryExpressionFactory = new SimpleCachingExpressionFactory(new SubqueryExpressionFactory(aggregateFunctions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), !compatibleMode, optimize, parserPoolSize, dfaMaximumStates, originalExpressionFactory));
         this.macroConfiguration = MacroConfiguration.of(JpqlMacroAdapter.createMacros(config.getMacros(), cachingExpressionFactory));
+        if (!config.getExpressionCacheWarmup().isEmpty()) {
+            int warmupParallelism = (int) getLongProperty(config.getProperties(), ConfigurationProperties.EXPRESSION_CACHE_WARMUP_PARALLELISM, Runtime.getRuntime().availableProcessors());
+            if (warmupParallelism < 1) {
+                throw new IllegalArgumentException("Invalid value for property " + ConfigurationProperties.EXPRESSION_CACHE_WARMUP_PARALLELISM + ": " + warmupParallelism);
+            }
+            cachingExpressionFactory.warmUp(config.getExpressionCacheWarmup(), macroConfiguration, warmupParallelism);
+        }
         JpqlMacroStorage macroStorage = new JpqlMacroStorage(null, macroConfiguration);
         this.expressionFactory = new JpqlMacroAwareExpressionFactory(cachingExpressionFactory, macroStorage);
         this.subqueryExpressionFactory = new JpqlMacroAwareExpressionFactory(cachingSubqueryExpressionFactory, macroStorage);
     }
 
-    private ExpressionCache createCache(String className) {
+    private ExpressionCache createCache(String className, Map<String, String> properties) {
         try {
-            return (ExpressionCache) Class.forName(className).newInstance();
+            Class<?> cacheClass = Class.forName(className);
+            try {
+                // Caches that need configuration can retrieve it through a constructor accepting the properties
+                return (ExpressionCache) cacheClass.getConstructor(Map.class).newInstance(properties);
+            } catch (NoSuchMethodException ex) {
+                return (ExpressionCache) cacheClass.newInstance();
+            }
         } catch (Exception ex) {
             throw new IllegalArgumentException("Could not instantiate expression cache: " + className, ex);
         }
     }
 
+    private static long getLongProperty(Map<?, ?> properties, String name, long defaultValue) {
+        Object value = properties.get(name);
+        if (value == null || value.toString().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid value for property " + name + ": " + value, ex);
+        }
+    }
+
     private static Set<String> resolveAggregateFunctions(Map<String, JpqlFunctionGroup> functions) {
         Set<String> aggregateFunctions = new HashSet<String>();
         for (Map.Entry<String, JpqlFunctionGroup> entry : functions.entrySet()) {
@@ -180,6 +225,10 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         return extendedQuerySupport;
     }
 
+    public CountCache getCountCache() {
+        return countCache;
+    }
+
     public Set<String> getAggregateFunctions() {
         return aggregateFunctions;
     }
@@ -253,6 +302,40 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         return cb;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> QueryTemplate<T> registerQueryTemplate(String name, CriteriaBuilder<T> criteriaBuilder) {
+        if (name == null) {
+            throw new NullPointerException("name");
+        }
+        QueryTemplate<T> queryTemplate = (QueryTemplate<T>) queryTemplates.get(name);
+        if (queryTemplate != null) {
+            return queryTemplate;
+        }
+        queryTemplate = createQueryTemplate(name, criteriaBuilder);
+        QueryTemplate<T> oldQueryTemplate = (QueryTemplate<T>) queryTemplates.putIfAbsent(name, queryTemplate);
+        return oldQueryTemplate == null ? queryTemplate : oldQueryTemplate;
+    }
+
+    @Override
+    public <T> QueryTemplate<T> createQueryTemplate(CriteriaBuilder<T> criteriaBuilder) {
+        return createQueryTemplate(null, criteriaBuilder);
+    }
+
+    private <T> QueryTemplate<T> createQueryTemplate(String name, CriteriaBuilder<T> criteriaBuilder) {
+        if (!(criteriaBuilder instanceof CriteriaBuilderImpl<?>)) {
+            throw new IllegalArgumentException("Unsupported criteria builder for query template: " + criteriaBuilder);
+        }
+
+        return ((CriteriaBuilderImpl<T>) criteriaBuilder).createQueryTemplate(name);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> QueryTemplate<T> getQueryTemplate(String name) {
+        return (QueryTemplate<T>) queryTemplates.get(name);
+    }
+
     @Override
     public <T> DeleteCriteriaBuilder<T> delete(EntityManager entityManager, Class<T> deleteClass) {
         return delete(entityManager, deleteClass, null);
@@ -315,6 +398,22 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         return cb;
     }
 
+    @Override
+    public <T> InsertValuesBuilder<T> insertValues(EntityManager entityManager, Class<T> insertClass, Collection<T> values) {
+        // Providers without VALUES clause support can't execute insert statements at all, so there is nothing to fall back to
+        if (!jpaProvider.supportsInsertStatement()) {
+            throw new IllegalStateException("JPA provider does not support insert statements!");
+        }
+        if (extendedQuerySupport == null || !extendedQuerySupport.supportsAdvancedSql()) {
+            throw new IllegalStateException("Illegal use of VALUES clause! There is no extended query support for the JPA provider yet!");
+        }
+        // The VALUES clause binds a parameter for every attribute path of a value
+        Map<String, ExtendedAttribute<?, ?>> attributes = new TreeMap<>(metamodel.getManagedType(ExtendedManagedType.class, insertClass).getAttributes());
+        int parameterCount = Math.max(1, JpaUtils.getEmbeddedPropertyPaths(attributes, null, jpaProvider.needsElementCollectionIdCutoff(), true).size());
+        int batchSize = Math.max(1, Math.min(InsertValuesBuilderImpl.DEFAULT_BATCH_SIZE, configuredDbmsDialect.getMaximumParameterCount() / parameterCount));
+        return new InsertValuesBuilderImpl<>(this, entityManager, configuredDbmsDialect, insertClass, values, batchSize);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getService(Class<T> serviceClass) {
@@ -334,6 +433,8 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
             return (T) jpaProvider;
         } else if (ExpressionCache.class.equals(serviceClass)) {
             return (T) expressionCache;
+        } else if (CustomSqlCache.class.equals(serviceClass)) {
+            return (T) customSqlCache;
         } else if (Metamodel.class.isAssignableFrom(serviceClass)) {
             return (T) metamodel;
         } else if (EntityManagerFactory.class.equals(serviceClass)) {
@@ -40,6 +40,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
     private final boolean valuesClauseFilterNullsEnabled;
     private final boolean parameterAsLiteralRenderingEnabled;
     private final boolean optimizedKeysetPredicateRenderingEnabled;
+    private final boolean inListPaddingEnabled;
 
     public ImmutableQueryConfiguration(Map<String, String> properties) {
         this.compatibleModeEnabled = PropertyUtils.getAsBooleanProperty(properties, ConfigurationProperties.COMPATIBLE_MODE, false);
@@ -54,6 +55,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         this.valuesClauseFilterNullsEnabled =               getBooleanProperty(properties, ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS,         "true");
         this.parameterAsLiteralRenderingEnabled =           getBooleanProperty(properties, ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING,     "true");
         this.optimizedKeysetPredicateRenderingEnabled =     getBooleanProperty(properties, ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING,     "true");
+        this.inListPaddingEnabled =                         getBooleanProperty(properties, ConfigurationProperties.IN_LIST_PADDING, "false");
     }
 
     @Override
@@ -111,6 +113,11 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         return optimizedKeysetPredicateRenderingEnabled;
     }
 
+    @Override
+    public boolean isInListPaddingEnabled() {
+        return inListPaddingEnabled;
+    }
+
     @Override
     public void setCacheable(boolean cacheable) {
         throw new UnsupportedOperationException("Can't set cacheable on immutable query configuration!");
@@ -135,6 +142,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS: return Boolean.toString(valuesClauseFilterNullsEnabled);
             case ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING: return Boolean.toString(parameterAsLiteralRenderingEnabled);
             case ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING: return Boolean.toString(optimizedKeysetPredicateRenderingEnabled);
+            case ConfigurationProperties.IN_LIST_PADDING: return Boolean.toString(inListPaddingEnabled);
             default: return null;
         }
     }
@@ -153,6 +161,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         properties.put(ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS, Boolean.toString(valuesClauseFilterNullsEnabled));
         properties.put(ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING, Boolean.toString(parameterAsLiteralRenderingEnabled));
         properties.put(ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING, Boolean.toString(optimizedKeysetPredicateRenderingEnabled));
+        properties.put(ConfigurationProperties.IN_LIST_PADDING, Boolean.toString(inListPaddingEnabled));
         return properties;
     }
 
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.InsertCriteriaBuilder;
+import com.blazebit.persistence.InsertValuesBuilder;
+import com.blazebit.persistence.ReturningResult;
+import com.blazebit.persistence.spi.DbmsDialect;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inserts the values in batches through insert criteria builders that select from a VALUES clause.
+ *
+ * @param <T> The entity type for which values should be inserted
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class InsertValuesBuilderImpl<T> implements InsertValuesBuilder<T> {
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final String VALUES_ALIAS = "insertValue";
+
+    private final CriteriaBuilderFactory criteriaBuilderFactory;
+    private final EntityManager entityManager;
+    private final DbmsDialect dbmsDialect;
+    private final Class<T> insertClass;
+    private final Collection<T> values;
+    private final List<String> attributes = new ArrayList<>();
+    private int batchSize;
+
+    public InsertValuesBuilderImpl(CriteriaBuilderFactory criteriaBuilderFactory, EntityManager entityManager, DbmsDialect dbmsDialect, Class<T> insertClass, Collection<T> values, int batchSize) {
+        if (values == null) {
+            throw new NullPointerException("values");
+        }
+        this.criteriaBuilderFactory = criteriaBuilderFactory;
+        this.entityManager = entityManager;
+        this.dbmsDialect = dbmsDialect;
+        this.insertClass = insertClass;
+        this.values = values;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public InsertValuesBuilder<T> bind(String attribute) {
+        if (attribute == null) {
+            throw new NullPointerException("attribute");
+        }
+        attributes.add(attribute);
+        return this;
+    }
+
+    @Override
+    public InsertValuesBuilder<T> setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int executeUpdate() {
+        int updateCount = 0;
+        for (List<T> batch : getBatches()) {
+            updateCount += createInsert(batch).executeUpdate();
+        }
+        return updateCount;
+    }
+
+    @Override
+    public ReturningResult<Tuple> executeWithReturning(String... returningAttributes) {
+        List<ReturningResult<Tuple>> results = new ArrayList<>();
+        for (List<T> batch : getBatches()) {
+            results.add(createInsert(batch).executeWithReturning(returningAttributes));
+        }
+        return mergeResults(results);
+    }
+
+    @Override
+    public <Z> ReturningResult<Z> executeWithReturning(String attribute, Class<Z> type) {
+        List<ReturningResult<Z>> results = new ArrayList<>();
+        for (List<T> batch : getBatches()) {
+            results.add(createInsert(batch).executeWithReturning(attribute, type));
+        }
+        return mergeResults(results);
+    }
+
+    private List<List<T>> getBatches() {
+        if (attributes.isEmpty()) {
+            throw new IllegalStateException("No attributes bound for the insert of " + insertClass.getName());
+        }
+        if (values.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<List<T>> batches = new ArrayList<>((values.size() + batchSize - 1) / batchSize);
+        List<T> batch = new ArrayList<>(Math.min(batchSize, values.size()));
+        for (T value : values) {
+            if (batch.size() == batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+            batch.add(value);
+        }
+        batches.add(batch);
+        return batches;
+    }
+
+    private InsertCriteriaBuilder<T> createInsert(List<T> batch) {
+        InsertCriteriaBuilder<T> cb = criteriaBuilderFactory.insert(entityManager, insertClass);
+        cb.fromValues(insertClass, VALUES_ALIAS, batch);
+        for (String attribute : attributes) {
+            cb.bind(attribute).select(VALUES_ALIAS + "." + attribute);
+        }
+        return cb;
+    }
+
+    private <Z> ReturningResult<Z> mergeResults(List<ReturningResult<Z>> results) {
+        List<Z> resultList = new ArrayList<>();
+        int updateCount = 0;
+        for (ReturningResult<Z> result : results) {
+            updateCount += result.getUpdateCount();
+            if (dbmsDialect.supportsReturningAllGeneratedKeys()) {
+                resultList.addAll(result.getResultList());
+            } else if (result.getUpdateCount() > 0) {
+                // Only the last result is available in this case
+                resultList.add(result.getLastResult());
+            }
+        }
+        return new DefaultReturningResult<>(resultList, updateCount, dbmsDialect);
+    }
+}
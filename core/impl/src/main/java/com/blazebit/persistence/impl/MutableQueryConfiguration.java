@@ -37,6 +37,7 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
     private boolean valuesClauseFilterNullsEnabled;
     private boolean parameterAsLiteralRenderingEnabled;
     private boolean optimizedKeysetPredicateRenderingEnabled;
+    private boolean inListPaddingEnabled;
     private boolean cacheable;
 
     public MutableQueryConfiguration(QueryConfiguration queryConfiguration) {
@@ -51,6 +52,7 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         this.valuesClauseFilterNullsEnabled = queryConfiguration.isValuesClauseFilterNullsEnabled();
         this.parameterAsLiteralRenderingEnabled = queryConfiguration.isParameterAsLiteralRenderingEnabled();
         this.optimizedKeysetPredicateRenderingEnabled = queryConfiguration.isOptimizedKeysetPredicateRenderingEnabled();
+        this.inListPaddingEnabled = queryConfiguration.isInListPaddingEnabled();
         this.cacheable = queryConfiguration.isCacheable();
     }
 
@@ -109,6 +111,11 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         return optimizedKeysetPredicateRenderingEnabled;
     }
 
+    @Override
+    public boolean isInListPaddingEnabled() {
+        return inListPaddingEnabled;
+    }
+
     @Override
     public void setCacheable(boolean cacheable) {
         this.cacheable = cacheable;
@@ -141,6 +148,7 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS:            valuesClauseFilterNullsEnabled = booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING:        parameterAsLiteralRenderingEnabled = booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING:  optimizedKeysetPredicateRenderingEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.IN_LIST_PADDING:                       inListPaddingEnabled = booleanOrFail(propertyName, propertyValue); break;
             default: break;
         }
         // CHECKSTYLE:ON: OneStatementPerLine
@@ -17,6 +17,8 @@
 package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.CaseWhenStarterBuilder;
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.CountStrategy;
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.HavingOrBuilder;
 import com.blazebit.persistence.KeysetPage;
@@ -36,12 +38,18 @@ import com.blazebit.persistence.impl.keyset.KeysetMode;
 import com.blazebit.persistence.impl.keyset.KeysetPaginationHelper;
 import com.blazebit.persistence.impl.keyset.SimpleKeysetLink;
 import com.blazebit.persistence.impl.query.CTENode;
+import com.blazebit.persistence.impl.query.ConcurrentCountTypedQuery;
+import com.blazebit.persistence.impl.query.CountStrategyTypedQuery;
 import com.blazebit.persistence.impl.query.CustomQuerySpecification;
 import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
 import com.blazebit.persistence.impl.query.EntityFunctionNode;
+import com.blazebit.persistence.impl.query.MaterializedResultIterator;
 import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
 import com.blazebit.persistence.impl.query.QuerySpecification;
+import com.blazebit.persistence.parser.predicate.Predicate;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
 
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.Parameter;
 import javax.persistence.TypedQuery;
 import java.util.AbstractMap;
@@ -54,6 +62,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  *
@@ -74,6 +83,10 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     private boolean withCountQuery = true;
     private boolean withForceIdQuery = false;
     private int highestOffset = 0;
+    private boolean withSlice;
+    private EntityManagerFactory countQueryEntityManagerFactory;
+    private Executor countQueryExecutor;
+    private CountStrategy countStrategy = CountStrategy.EXACT;
     private final KeysetPage keysetPage;
     private final ResolvedExpression[] identifierExpressions;
 
@@ -131,6 +144,9 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         }
 
         builder.withKeysetExtraction(keysetExtraction);
+        builder.withConcurrentCountQuery(countQueryEntityManagerFactory, countQueryExecutor);
+        builder.withCountStrategy(countStrategy);
+        builder.withSlice(withSlice);
         return builder;
     }
 
@@ -186,6 +202,37 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return withCountQuery;
     }
 
+    @Override
+    public PaginatedCriteriaBuilder<T> withConcurrentCountQuery(EntityManagerFactory entityManagerFactory, Executor executor) {
+        if (entityManagerFactory == null || executor == null) {
+            this.countQueryEntityManagerFactory = null;
+            this.countQueryExecutor = null;
+        } else {
+            this.countQueryEntityManagerFactory = entityManagerFactory;
+            this.countQueryExecutor = executor;
+        }
+        return this;
+    }
+
+    @Override
+    public boolean isWithConcurrentCountQuery() {
+        return countQueryExecutor != null;
+    }
+
+    @Override
+    public PaginatedCriteriaBuilder<T> withCountStrategy(CountStrategy countStrategy) {
+        if (countStrategy == null) {
+            throw new NullPointerException("countStrategy");
+        }
+        this.countStrategy = countStrategy;
+        return this;
+    }
+
+    @Override
+    public CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
     @Override
     public PaginatedCriteriaBuilder<T> withForceIdQuery(boolean withForceIdQuery) {
         this.withForceIdQuery = withForceIdQuery;
@@ -208,6 +255,17 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return highestOffset;
     }
 
+    @Override
+    public PaginatedCriteriaBuilder<T> withSlice(boolean withSlice) {
+        this.withSlice = withSlice;
+        return this;
+    }
+
+    @Override
+    public boolean isWithSlice() {
+        return withSlice;
+    }
+
     @Override
     protected ResolvedExpression[] getIdentifierExpressions() {
         if (identifierExpressions != null) {
@@ -251,6 +309,57 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return countQuery;
     }
 
+    private TypedQuery<Long> getConcurrentCountQuery(String countQueryString, TypedQuery<Long> countQuery) {
+        // Determine the parameters that are actually part of the query
+        Set<String> parameterNames = new HashSet<>();
+        for (Parameter<?> parameter : countQuery.getParameters()) {
+            parameterNames.add(parameter.getName() == null ? parameter.getPosition().toString() : parameter.getName());
+        }
+
+        Map<String, ParameterValueTransformer> transformers = parameterManager.getTransformers();
+        if (!transformers.isEmpty() && !mainQuery.jpaProvider.supportsTransientEntityAsParameter()) {
+            // The transformers would refer to the entity manager of this query builder, so we can't execute the count query concurrently
+            return countQuery;
+        }
+
+        // Parameters that are set after the query construction are replayed on the concurrent query and need to be transformed there
+        QueryTemplateImpl<Long> countQueryTemplate = new QueryTemplateImpl<>(
+                null,
+                countQueryString,
+                Long.class,
+                0,
+                Integer.MAX_VALUE,
+                isCacheable(),
+                ParameterManager.getInListPaddingLimit(mainQuery),
+                mainQuery.jpaProvider,
+                null,
+                parameterNames,
+                parameterManager.getBoundParameterSnapshot(),
+                transformers
+        );
+        return new ConcurrentCountTypedQuery<>(countQuery, countQueryTemplate, countQueryEntityManagerFactory, countQueryExecutor);
+    }
+
+    private TypedQuery<Long> getCountStrategyQuery(String countQueryString, TypedQuery<Long> countQuery, boolean customSql) {
+        Map<Object, Object> parameterValues = new HashMap<>();
+        for (Parameter<?> parameter : countQuery.getParameters()) {
+            if (parameter.getName() != null) {
+                ParameterManager.ParameterImpl<?> param = parameterManager.getParameter(parameter.getName());
+                if (param != null) {
+                    parameterValues.put(parameter.getName(), param.getValue());
+                }
+            }
+        }
+
+        // The SQL of the count query can only be determined if it doesn't require custom SQL
+        // A row estimate is only meaningful for a count(*) query, as it would count the joined rows rather than the distinct identifiers
+        ExtendedQuerySupport extendedQuerySupport = cbf.getExtendedQuerySupport();
+        if (customSql || pageCountQueryDistinct || extendedQuerySupport == null || !extendedQuerySupport.supportsAdvancedSql()) {
+            extendedQuerySupport = null;
+        }
+        return new CountStrategyTypedQuery(countQuery, countStrategy, countQueryString, parameterValues, cbf.getCountCache(), em, mainQuery.dbmsDialect, extendedQuerySupport);
+    }
+
     @Override
     public PaginatedTypedQueryImpl<T> getQuery() {
         prepareAndCheck();
@@ -262,7 +371,15 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
         if (entityId == null) {
             // No reference entity id, so just do a simple count query
-            countQuery = getCountQuery(countQueryString, Long.class, normalQueryMode, keyRestrictedLeftJoins);
+            TypedQuery<Long> simpleCountQuery = getCountQuery(countQueryString, Long.class, normalQueryMode, keyRestrictedLeftJoins);
+            boolean customSql = !normalQueryMode || !isEmpty(keyRestrictedLeftJoins, COUNT_QUERY_CLAUSE_EXCLUSIONS);
+            if (countStrategy != CountStrategy.EXACT) {
+                simpleCountQuery = getCountStrategyQuery(countQueryString, simpleCountQuery, customSql);
+            } else if (withCountQuery && !withSlice && countQueryExecutor != null && !customSql) {
+                // Concurrent execution is only possible if the count query doesn't require custom SQL
+                simpleCountQuery = getConcurrentCountQuery(countQueryString, simpleCountQuery);
+            }
+            countQuery = simpleCountQuery;
         } else {
             countQuery = getCountQuery(countQueryString, Object[].class, normalQueryMode, keyRestrictedLeftJoins);
         }
@@ -281,7 +398,8 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             objectBuilder = entry.getValue();
         }
         PaginatedTypedQueryImpl<T> query = new PaginatedTypedQueryImpl<>(
-                withCountQuery,
+                withCountQuery && !withSlice,
+                withSlice,
                 highestOffset,
                 countQuery,
                 idQuery,
@@ -305,6 +423,12 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return getQuery().getResultList();
     }
 
+    @Override
+    public CloseableIterator<T> getResultIterator(int fetchSize) {
+        // A page is bounded by the max results, so there is no need to scroll
+        return new MaterializedResultIterator<>(getResultList());
+    }
+
     @Override
     public String getCountQueryString() {
         return getPageCountQueryString();
@@ -587,10 +711,12 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         ObjectBuilder<T> transformerObjectBuilder = selectManager.getSelectObjectBuilder();
 
         if (keysetExtraction) {
+            // In slice mode, the additional element must not influence the extracted keyset
+            int keysetTupleLimit = withSlice ? maxResults : Integer.MAX_VALUE;
             if (transformerObjectBuilder == null) {
-                objectBuilder = new KeysetExtractionObjectBuilder<T>(keysetToSelectIndexMapping, keysetMode, selectManager.getExpectedQueryResultType() != Object[].class);
+                objectBuilder = new KeysetExtractionObjectBuilder<T>(keysetToSelectIndexMapping, keysetMode, selectManager.getExpectedQueryResultType() != Object[].class, keysetTupleLimit);
             } else {
-                objectBuilder = new DelegatingKeysetExtractionObjectBuilder<T>(transformerObjectBuilder, keysetToSelectIndexMapping, keysetMode);
+                objectBuilder = new DelegatingKeysetExtractionObjectBuilder<T>(transformerObjectBuilder, keysetToSelectIndexMapping, keysetMode, keysetTupleLimit);
             }
 
             transformerObjectBuilder = objectBuilder;
@@ -995,6 +1121,11 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         throw new IllegalStateException("Calling having() on a PaginatedCriteriaBuilder is not allowed.");
     }
 
+    @Override
+    public void setHavingPredicate(Predicate predicate) {
+        throw new IllegalStateException("Calling having() on a PaginatedCriteriaBuilder is not allowed.");
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <Y> SelectObjectBuilder<PaginatedCriteriaBuilder<Y>> selectNew(Class<Y> clazz) {
@@ -16,14 +16,18 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.CountStrategy;
 import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.PagedArrayList;
 import com.blazebit.persistence.PagedList;
 import com.blazebit.persistence.PaginatedTypedQuery;
+import com.blazebit.persistence.SlicedArrayList;
 import com.blazebit.persistence.impl.builder.object.KeysetExtractionObjectBuilder;
 import com.blazebit.persistence.impl.keyset.KeysetMode;
 import com.blazebit.persistence.impl.keyset.KeysetPageImpl;
 import com.blazebit.persistence.impl.keyset.KeysetPaginationHelper;
+import com.blazebit.persistence.impl.query.ConcurrentCountTypedQuery;
+import com.blazebit.persistence.impl.query.CountStrategyTypedQuery;
 import com.blazebit.persistence.impl.util.SetView;
 
 import javax.persistence.FlushModeType;
@@ -37,6 +41,7 @@ import javax.persistence.TemporalType;
 import javax.persistence.TypedQuery;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.Future;
 
 /**
  * @author Christian Beikov
@@ -45,6 +50,7 @@ import java.util.*;
 public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
 
     private final boolean withCount;
+    private final boolean withSlice;
     private final int highestOffset;
     private final TypedQuery<?> countQuery;
     private final TypedQuery<?> idQuery;
@@ -63,9 +69,10 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
     private final KeysetMode keysetMode;
     private final KeysetPage keysetPage;
 
-    public PaginatedTypedQueryImpl(boolean withCount, int highestOffset, TypedQuery<?> countQuery, TypedQuery<?> idQuery, TypedQuery<X> objectQuery, KeysetExtractionObjectBuilder<X> objectBuilder, Set<Parameter<?>> parameters,
+    public PaginatedTypedQueryImpl(boolean withCount, boolean withSlice, int highestOffset, TypedQuery<?> countQuery, TypedQuery<?> idQuery, TypedQuery<X> objectQuery, KeysetExtractionObjectBuilder<X> objectBuilder, Set<Parameter<?>> parameters,
                                    Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage) {
         this.withCount = withCount;
+        this.withSlice = withSlice;
         this.highestOffset = highestOffset;
         this.countQuery = countQuery;
         this.idQuery = idQuery;
@@ -144,7 +151,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
     public List<X> getPageResultList() {
         int queryFirstResult = firstResult;
         int firstRow = firstResult;
-        return getResultList(queryFirstResult, firstRow, -1L);
+        return getResultList(queryFirstResult, firstRow, -1L, null);
     }
 
     @Override
@@ -154,7 +161,16 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         int firstRow = firstResult;
         long totalSize = -1L;
         if (withCount) {
-            if (entityId == null) {
+            if (countQuery instanceof ConcurrentCountTypedQuery<?>) {
+                // The count query runs concurrently and is only awaited when constructing the result
+                Future<Long> totalSizeFuture = ((ConcurrentCountTypedQuery<Long>) countQuery).submit();
+                try {
+                    return getResultList(queryFirstResult, firstRow, totalSize, totalSizeFuture);
+                } finally {
+                    // Prevent the count query from starting if the page queries failed early
+                    totalSizeFuture.cancel(false);
+                }
+            } else if (entityId == null) {
                 totalSize = ((Number) countQuery.getSingleResult()).longValue();
             } else {
                 Object[] result = (Object[]) countQuery.getSingleResult();
@@ -173,15 +189,18 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         }
 
         if (totalSize == 0L) {
-            return new PagedArrayList<X>(null, totalSize, queryFirstResult, pageSize);
+            return new PagedArrayList<X>(null, totalSize, getCountStrategy(totalSize), queryFirstResult, pageSize);
         }
 
-        return getResultList(queryFirstResult, firstRow, totalSize);
+        return getResultList(queryFirstResult, firstRow, totalSize, null);
     }
 
-    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize) {
+    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize, Future<Long> totalSizeFuture) {
+        // In slice mode we fetch one additional element to determine whether a next page exists
+        int queryMaxResults = withSlice ? pageSize + 1 : pageSize;
+        boolean hasNext = false;
         if (idQuery != null) {
-            idQuery.setMaxResults(pageSize);
+            idQuery.setMaxResults(queryMaxResults);
 
             if (keysetMode == KeysetMode.NONE) {
                 idQuery.setFirstResult(firstRow);
@@ -198,7 +217,15 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     newKeysetPage = keysetPage;
                 }
 
-                return new PagedArrayList<X>(newKeysetPage, totalSize, queryFirstResult, pageSize);
+                return createEmptyList(newKeysetPage, totalSize, totalSizeFuture, queryFirstResult);
+            }
+
+            if (withSlice) {
+                hasNext = keysetMode == KeysetMode.PREVIOUS;
+                if (ids.size() > pageSize) {
+                    hasNext = true;
+                    ids = new ArrayList<Object>(ids.subList(0, pageSize));
+                }
             }
 
             Serializable[] lowest = null;
@@ -206,7 +233,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
 
             if (needsNewIdList) {
                 if (keysetToSelectIndexMapping != null) {
-                    int keysetPageSize = pageSize - highestOffset;
+                    int keysetPageSize = withSlice ? pageSize : pageSize - highestOffset;
                     if (ids.get(0) instanceof Object[]) {
                         lowest = KeysetPaginationHelper.extractKey((Object[]) ids.get(0), keysetToSelectIndexMapping, keysetSuffix);
                         highest = KeysetPaginationHelper.extractKey((Object[]) (ids.size() >= keysetPageSize ? ids.get(keysetPageSize - 1) : ids.get(ids.size() - 1)), keysetToSelectIndexMapping, keysetSuffix);
@@ -275,10 +302,9 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
 
             List<X> queryResultList = objectQuery.getResultList();
 
-            PagedList<X> pagedResultList = new PagedArrayList<X>(queryResultList, newKeyset, totalSize, queryFirstResult, pageSize);
-            return pagedResultList;
+            return createList(queryResultList, newKeyset, totalSize, totalSizeFuture, queryFirstResult, hasNext);
         } else {
-            objectQuery.setMaxResults(pageSize);
+            objectQuery.setMaxResults(queryMaxResults);
 
             if (keysetMode == KeysetMode.NONE) {
                 objectQuery.setFirstResult(firstRow);
@@ -286,6 +312,10 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 objectQuery.setFirstResult(0);
             }
 
+            if (objectBuilder != null) {
+                objectBuilder.reset();
+            }
+
             List<X> result = objectQuery.getResultList();
 
             if (result.isEmpty()) {
@@ -295,7 +325,15 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     newKeysetPage = keysetPage;
                 }
 
-                return new PagedArrayList<X>(newKeysetPage, totalSize, queryFirstResult, pageSize);
+                return createEmptyList(newKeysetPage, totalSize, totalSizeFuture, queryFirstResult);
+            }
+
+            if (withSlice) {
+                hasNext = keysetMode == KeysetMode.PREVIOUS;
+                if (result.size() > pageSize) {
+                    hasNext = true;
+                    result = result.subList(0, pageSize);
+                }
             }
 
             if (keysetMode == KeysetMode.PREVIOUS) {
@@ -310,9 +348,41 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 newKeyset = new KeysetPageImpl(firstRow, pageSize, lowest, highest);
             }
 
-            PagedList<X> pagedResultList = new PagedArrayList<X>(result, newKeyset, totalSize, queryFirstResult, pageSize);
-            return pagedResultList;
+            return createList(result, newKeyset, totalSize, totalSizeFuture, queryFirstResult, hasNext);
+        }
+    }
+
+    private PagedList<X> createEmptyList(KeysetPage newKeysetPage, long totalSize, Future<Long> totalSizeFuture, int queryFirstResult) {
+        if (withSlice) {
+            return new SlicedArrayList<X>(newKeysetPage, queryFirstResult, pageSize, keysetMode == KeysetMode.PREVIOUS);
+        }
+        long resolvedTotalSize = getTotalSize(totalSize, totalSizeFuture);
+        return new PagedArrayList<X>(newKeysetPage, resolvedTotalSize, getCountStrategy(resolvedTotalSize), queryFirstResult, pageSize);
+    }
+
+    private PagedList<X> createList(List<X> list, KeysetPage newKeyset, long totalSize, Future<Long> totalSizeFuture, int queryFirstResult, boolean hasNext) {
+        if (withSlice) {
+            return new SlicedArrayList<X>(list, newKeyset, queryFirstResult, pageSize, hasNext);
+        }
+        long resolvedTotalSize = getTotalSize(totalSize, totalSizeFuture);
+        return new PagedArrayList<X>(list, newKeyset, resolvedTotalSize, getCountStrategy(resolvedTotalSize), queryFirstResult, pageSize);
+    }
+
+    private CountStrategy getCountStrategy(long totalSize) {
+        if (totalSize == -1L) {
+            return null;
+        }
+        if (countQuery instanceof CountStrategyTypedQuery) {
+            return ((CountStrategyTypedQuery) countQuery).getUsedCountStrategy();
+        }
+        return CountStrategy.EXACT;
+    }
+
+    private static long getTotalSize(long totalSize, Future<Long> totalSizeFuture) {
+        if (totalSizeFuture == null) {
+            return totalSize;
         }
+        return ConcurrentCountTypedQuery.getResult(totalSizeFuture);
     }
 
     @Override
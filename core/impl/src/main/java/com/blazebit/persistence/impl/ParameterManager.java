@@ -18,6 +18,7 @@ package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.ParameterExpression;
+import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.reflection.PropertyPathExpression;
 
 import javax.persistence.Parameter;
@@ -51,8 +52,10 @@ public class ParameterManager {
     private final ParameterRegistrationVisitor parameterRegistrationVisitor;
     private final ParameterUnregistrationVisitor parameterUnregistrationVisitor;
     private int positionalOffset = -1; // Records the last positional parameter index that was used
+    private final MainQuery mainQuery;
 
-    public ParameterManager() {
+    public ParameterManager(MainQuery mainQuery) {
+        this.mainQuery = mainQuery;
         this.parameterRegistrationVisitor = new ParameterRegistrationVisitor(this);
         this.parameterUnregistrationVisitor = new ParameterUnregistrationVisitor(this);
     }
@@ -100,6 +103,28 @@ public class ParameterManager {
         }
     }
 
+    Map<String, ParameterImpl<?>> getBoundParameterSnapshot() {
+        Map<String, ParameterImpl<?>> boundParameters = new HashMap<>(parameters.size());
+        for (Map.Entry<String, ParameterImpl<?>> entry : parameters.entrySet()) {
+            ParameterImpl<Object> param = (ParameterImpl<Object>) entry.getValue();
+            if (param.isValueSet()) {
+                Object paramValue;
+                if (param.getParameterValue() == null) {
+                    paramValue = param.getValue();
+                } else {
+                    paramValue = param.getParameterValue().copy();
+                }
+
+                if (param.getName() == null) {
+                    boundParameters.put(entry.getKey(), new ParameterImpl<>(param.getPosition(), param.isCollectionValued(), paramValue));
+                } else {
+                    boundParameters.put(entry.getKey(), new ParameterImpl<>(param.getName(), param.isCollectionValued(), paramValue));
+                }
+            }
+        }
+        return boundParameters;
+    }
+
     void copyFrom(ParameterManager parameterManager) {
         this.counter = parameterManager.counter;
         this.valuesParameters.putAll(parameterManager.valuesParameters);
@@ -215,6 +240,7 @@ public class ParameterManager {
     }
 
     void parameterizeQuery(Query q, String skippedParameterPrefix) {
+        int inListPaddingLimit = getInListPaddingLimit(mainQuery);
         Set<String> requestedValueParameters = new HashSet<String>();
         for (Parameter<?> p : q.getParameters()) {
             String parameterName = p.getName();
@@ -242,7 +268,7 @@ public class ParameterManager {
                     q.setParameter(parameterName, parameter.getValue());
                 }
             } else {
-                parameter.bind(q);
+                parameter.bind(q, inListPaddingLimit);
             }
         }
 
@@ -476,6 +502,49 @@ public class ParameterManager {
 
     // TODO: needs equals-hashCode implementation
 
+    static int getInListPaddingLimit(MainQuery mainQuery) {
+        return getInListPaddingLimit(mainQuery.getQueryConfiguration(), mainQuery.dbmsDialect);
+    }
+
+    /**
+     * Returns the maximum size to which collection parameters may be padded or <code>0</code> if IN list padding is disabled.
+     *
+     * @param queryConfiguration The query configuration
+     * @param dbmsDialect The DBMS dialect
+     * @return The maximum padded size or <code>0</code>
+     */
+    public static int getInListPaddingLimit(QueryConfiguration queryConfiguration, DbmsDialect dbmsDialect) {
+        if (queryConfiguration.isInListPaddingEnabled()) {
+            return dbmsDialect.getMaximumInListSize();
+        }
+        return 0;
+    }
+
+    /**
+     * Pads the given collection to the next power of two size by repeating the last element,
+     * so that only a logarithmic number of distinct IN predicate renderings exist.
+     * The padded size never exceeds the given maximum and collections reaching the maximum are left untouched.
+     *
+     * @param values The collection to pad
+     * @param maximumSize The maximum number of elements allowed in an IN list
+     * @return The padded collection or the given collection if no padding is necessary
+     */
+    public static Collection<?> padCollection(Collection<?> values, int maximumSize) {
+        int size = values.size();
+        // Sizes that are a power of two don't need padding and sizes above the maximum can't be padded
+        if (size < 3 || (size & (size - 1)) == 0 || size >= maximumSize) {
+            return values;
+        }
+        int paddedSize = Math.min(Integer.highestOneBit(size) << 1, maximumSize);
+        List<Object> paddedValues = new ArrayList<>(paddedSize);
+        paddedValues.addAll(values);
+        Object lastValue = paddedValues.get(size - 1);
+        for (int i = size; i < paddedSize; i++) {
+            paddedValues.add(lastValue);
+        }
+        return paddedValues;
+    }
+
     /**
      * @author Christian Beikov
      * @since 1.2.0
@@ -631,6 +700,10 @@ public class ParameterManager {
         }
 
         public void bind(Query q) {
+            bind(q, 0);
+        }
+
+        public void bind(Query q, int inListPaddingLimit) {
             if (valueSet) {
                 if (value instanceof ParameterValue) {
                     if (name == null) {
@@ -639,6 +712,10 @@ public class ParameterManager {
                         ((ParameterValue) value).bind(q, name);
                     }
                 } else {
+                    Object value = this.value;
+                    if (inListPaddingLimit > 0 && value instanceof Collection<?>) {
+                        value = padCollection((Collection<?>) value, inListPaddingLimit);
+                    }
                     if (name == null) {
                         q.setParameter(position, value);
                     } else {
@@ -47,6 +47,8 @@ public interface QueryConfiguration {
 
     public boolean isOptimizedKeysetPredicateRenderingEnabled();
 
+    public boolean isInListPaddingEnabled();
+
     public String getProperty(String name);
 
     public Map<String, String> getProperties();
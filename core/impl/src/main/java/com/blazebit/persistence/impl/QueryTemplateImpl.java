@@ -0,0 +1,126 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.QueryTemplate;
+import com.blazebit.persistence.impl.builder.object.ObjectBuilderFactory;
+import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
+import com.blazebit.persistence.impl.query.ParameterTransformingTypedQuery;
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class QueryTemplateImpl<T> implements QueryTemplate<T> {
+
+    private final String name;
+    private final String queryString;
+    private final Class<?> queryResultType;
+    private final int firstResult;
+    private final int maxResults;
+    private final boolean cacheable;
+    private final int inListPaddingLimit;
+    private final JpaProvider jpaProvider;
+    private final ObjectBuilderFactory<T> objectBuilderFactory;
+    private final Set<String> parameterNames;
+    private final List<ParameterManager.ParameterImpl<?>> boundParameters;
+    private final Map<String, ParameterValueTransformer> transformers;
+
+    public QueryTemplateImpl(String name, String queryString, Class<?> queryResultType, int firstResult, int maxResults, boolean cacheable, int inListPaddingLimit, JpaProvider jpaProvider, ObjectBuilderFactory<T> objectBuilderFactory,
+                             Set<String> parameterNames, Map<String, ParameterManager.ParameterImpl<?>> boundParameters, Map<String, ParameterValueTransformer> transformers) {
+        this.name = name;
+        this.queryString = queryString;
+        this.queryResultType = queryResultType;
+        this.firstResult = firstResult;
+        this.maxResults = maxResults;
+        this.cacheable = cacheable;
+        this.inListPaddingLimit = inListPaddingLimit;
+        this.jpaProvider = jpaProvider;
+        this.objectBuilderFactory = objectBuilderFactory;
+        this.parameterNames = Collections.unmodifiableSet(parameterNames);
+        // Only parameters that are part of the query can be bound
+        List<ParameterManager.ParameterImpl<?>> parameters = new ArrayList<>(boundParameters.size());
+        for (Map.Entry<String, ParameterManager.ParameterImpl<?>> entry : boundParameters.entrySet()) {
+            if (parameterNames.contains(entry.getKey())) {
+                parameters.add(entry.getValue());
+            }
+        }
+        this.boundParameters = parameters;
+        this.transformers = transformers;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public Set<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public TypedQuery<T> createQuery(EntityManager entityManager) {
+        TypedQuery<T> query = (TypedQuery<T>) entityManager.createQuery(queryString, queryResultType);
+        if (firstResult != 0) {
+            query.setFirstResult(firstResult);
+        }
+        if (maxResults != Integer.MAX_VALUE) {
+            query.setMaxResults(maxResults);
+        }
+        if (cacheable) {
+            jpaProvider.setCacheable(query);
+        }
+        // The captured values are already transformed
+        for (int i = 0; i < boundParameters.size(); i++) {
+            boundParameters.get(i).bind(query, inListPaddingLimit);
+        }
+        if (!transformers.isEmpty() || inListPaddingLimit > 0) {
+            query = new ParameterTransformingTypedQuery<>(query, transformers, inListPaddingLimit);
+        }
+        if (objectBuilderFactory != null) {
+            // Object builders aren't shared between queries as they might keep per-query state
+            query = new ObjectBuilderTypedQuery<>(query, objectBuilderFactory.createObjectBuilder());
+        }
+
+        return query;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryTemplate{" +
+                "name='" + name + '\'' +
+                ", queryString='" + queryString + '\'' +
+                '}';
+    }
+}
@@ -32,6 +32,7 @@ import com.blazebit.persistence.impl.builder.expression.SimpleCaseWhenBuilderImp
 import com.blazebit.persistence.impl.builder.expression.SuperExpressionSubqueryBuilderListener;
 import com.blazebit.persistence.impl.builder.object.ClassObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.ConstructorObjectBuilder;
+import com.blazebit.persistence.impl.builder.object.ObjectBuilderFactory;
 import com.blazebit.persistence.impl.builder.object.SelectObjectBuilderImpl;
 import com.blazebit.persistence.impl.builder.object.TupleObjectBuilder;
 import com.blazebit.persistence.impl.transform.ExpressionModifierVisitor;
@@ -75,6 +76,7 @@ public class SelectManager<T> extends AbstractManager<SelectInfo> {
     private boolean hasSizeSelect;
     private SelectObjectBuilderImpl<?> selectObjectBuilder;
     private ObjectBuilder<T> objectBuilder;
+    private ObjectBuilderFactory<T> objectBuilderFactory;
     private SubqueryBuilderListenerImpl<?> subqueryBuilderListener;
     // needed for tuple/alias matching
     private final Map<String, Integer> selectAliasToPositionMap = new HashMap<String, Integer>();
@@ -125,6 +127,38 @@ public class SelectManager<T> extends AbstractManager<SelectInfo> {
         return objectBuilder;
     }
 
+    /**
+     * Returns a factory for fresh instances of the select object builder or <code>null</code> if no object builder is used.
+     * Object builders that were passed in via {@link #selectNew(FullQueryBuilder, ObjectBuilder)} might keep per-query state and can't be recreated.
+     *
+     * @return The factory for the select object builder
+     * @throws IllegalArgumentException If the object builder can't be recreated
+     */
+    ObjectBuilderFactory<T> getSelectObjectBuilderFactory() {
+        if (objectBuilder == null) {
+            if (resultClazz.equals(Tuple.class)) {
+                final List<SelectInfo> tupleSelectInfos = new ArrayList<>(selectInfos);
+                final Map<String, Integer> tupleSelectAliasToPositionMap = new HashMap<>(selectAliasToPositionMap);
+                return new ObjectBuilderFactory<T>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public ObjectBuilder<T> createObjectBuilder() {
+                        return (ObjectBuilder<T>) new TupleObjectBuilder(tupleSelectInfos, tupleSelectAliasToPositionMap);
+                    }
+                };
+            }
+            return null;
+        }
+        if (objectBuilderFactory == null) {
+            throw new IllegalArgumentException("The custom object builder " + objectBuilder + " can't be recreated for other queries because it might keep per-query state");
+        }
+        return objectBuilderFactory;
+    }
+
+    boolean hasCustomObjectBuilder() {
+        return objectBuilder != null && objectBuilderFactory == null;
+    }
+
     public List<SelectInfo> getSelectInfos() {
         return selectInfos;
     }
@@ -463,7 +497,7 @@ public class SelectManager<T> extends AbstractManager<SelectInfo> {
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    <Y, X extends AbstractFullQueryBuilder<?, ?, ?, ?, ?>> SelectObjectBuilder<? extends FullQueryBuilder<Y, ?>> selectNew(X builder, Class<Y> clazz) {
+    <Y, X extends AbstractFullQueryBuilder<?, ?, ?, ?, ?>> SelectObjectBuilder<? extends FullQueryBuilder<Y, ?>> selectNew(X builder, final Class<Y> clazz) {
         verifyBuilderEnded();
         clearDefaultSelects();
 
@@ -473,11 +507,17 @@ public class SelectManager<T> extends AbstractManager<SelectInfo> {
 
         selectObjectBuilder = selectObjectBuilderEndedListener.startBuilder(new SelectObjectBuilderImpl(builder, selectObjectBuilderEndedListener, subqueryInitFactory, expressionFactory));
         objectBuilder = new ClassObjectBuilder(clazz);
+        objectBuilderFactory = new ObjectBuilderFactory<T>() {
+            @Override
+            public ObjectBuilder<T> createObjectBuilder() {
+                return new ClassObjectBuilder(clazz);
+            }
+        };
         return (SelectObjectBuilder) selectObjectBuilder;
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    <Y, X extends AbstractFullQueryBuilder<?, ?, ?, ?, ?>> SelectObjectBuilder<? extends FullQueryBuilder<Y, ?>> selectNew(X builder, Constructor<Y> constructor) {
+    <Y, X extends AbstractFullQueryBuilder<?, ?, ?, ?, ?>> SelectObjectBuilder<? extends FullQueryBuilder<Y, ?>> selectNew(X builder, final Constructor<Y> constructor) {
         verifyBuilderEnded();
         clearDefaultSelects();
 
@@ -487,6 +527,12 @@ public class SelectManager<T> extends AbstractManager<SelectInfo> {
 
         selectObjectBuilder = selectObjectBuilderEndedListener.startBuilder(new SelectObjectBuilderImpl(builder, selectObjectBuilderEndedListener, subqueryInitFactory, expressionFactory));
         objectBuilder = new ConstructorObjectBuilder(constructor);
+        objectBuilderFactory = new ObjectBuilderFactory<T>() {
+            @Override
+            public ObjectBuilder<T> createObjectBuilder() {
+                return new ConstructorObjectBuilder(constructor);
+            }
+        };
         return (SelectObjectBuilder) selectObjectBuilder;
     }
 
@@ -501,6 +547,7 @@ public class SelectManager<T> extends AbstractManager<SelectInfo> {
 
         objectBuilder.applySelects(builder);
         this.objectBuilder = (ObjectBuilder<T>) objectBuilder;
+        this.objectBuilderFactory = null;
     }
 
     void setDefaultSelect(Map<JoinNode, JoinNode> nodeMapping, List<SelectInfo> selectInfos) {
@@ -35,13 +35,20 @@ public class KeysetExtractionObjectBuilder<T> implements ObjectBuilder<T> {
     private final int keysetSuffix;
     private final KeysetMode keysetMode;
     private final boolean unwrap;
+    private final int keysetTupleLimit;
+    private int tupleCount;
     private Object[] first;
     private Object[] last;
 
     public KeysetExtractionObjectBuilder(int[] keysetToSelectIndexMapping, KeysetMode keysetMode, boolean unwrap) {
+        this(keysetToSelectIndexMapping, keysetMode, unwrap, Integer.MAX_VALUE);
+    }
+
+    public KeysetExtractionObjectBuilder(int[] keysetToSelectIndexMapping, KeysetMode keysetMode, boolean unwrap, int keysetTupleLimit) {
         this.keysetToSelectIndexMapping = keysetToSelectIndexMapping;
         this.keysetMode = keysetMode;
         this.unwrap = unwrap;
+        this.keysetTupleLimit = keysetTupleLimit;
         int suffix = 0;
         for (int i = 0; i < keysetToSelectIndexMapping.length; i++) {
             if (keysetToSelectIndexMapping[i] == -1) {
@@ -54,17 +61,13 @@ public class KeysetExtractionObjectBuilder<T> implements ObjectBuilder<T> {
     @SuppressWarnings("unchecked")
     @Override
     public T build(Object[] tuple) {
-        if (keysetMode == KeysetMode.PREVIOUS) {
+        // Tuples beyond the limit are only fetched to determine if further elements exist
+        if (tupleCount++ < keysetTupleLimit) {
             if (first == null) {
                 first = tuple;
                 last = tuple;
-            } else {
-                first = tuple;
-            }
-        } else {
-            if (first == null) {
+            } else if (keysetMode == KeysetMode.PREVIOUS) {
                 first = tuple;
-                last = tuple;
             } else {
                 last = tuple;
             }
@@ -79,6 +82,15 @@ public class KeysetExtractionObjectBuilder<T> implements ObjectBuilder<T> {
         }
     }
 
+    /**
+     * Resets the extracted keysets so that the builder can be reused for a further query execution.
+     */
+    public void reset() {
+        tupleCount = 0;
+        first = null;
+        last = null;
+    }
+
     public Serializable[] getLowest() {
         if (first == null) {
             return null;
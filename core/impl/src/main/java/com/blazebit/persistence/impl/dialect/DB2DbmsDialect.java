@@ -69,6 +69,11 @@ public class DB2DbmsDialect extends DefaultDbmsDialect {
         return true;
     }
 
+    @Override
+    public int getMaximumParameterCount() {
+        return 32767;
+    }
+
     @Override
     public boolean supportsModificationQueryInWithClause() {
         return true;
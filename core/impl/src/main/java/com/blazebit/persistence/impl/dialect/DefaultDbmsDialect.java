@@ -480,6 +480,26 @@ public class DefaultDbmsDialect implements DbmsDialect {
         return ps.getGeneratedKeys();
     }
 
+    @Override
+    public String getRowCountEstimateSql(String countQuerySql) {
+        return null;
+    }
+
+    @Override
+    public long extractRowCountEstimate(List<?> resultList) {
+        return -1L;
+    }
+
+    @Override
+    public int getMaximumParameterCount() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getMaximumInListSize() {
+        return getMaximumParameterCount();
+    }
+
     public void appendLimit(StringBuilder sqlSb, boolean isSubquery, String limit, String offset) {
         createLimitHandler().applySql(sqlSb, isSubquery, limit, offset);
     }
@@ -55,6 +55,12 @@ public class MSSQLDbmsDialect extends DefaultDbmsDialect {
         return true;
     }
 
+    @Override
+    public int getMaximumParameterCount() {
+        // The limit is 2100 per request, but the JDBC driver might need up to two parameters for sp_prepexec/sp_cursorprepexec
+        return 2098;
+    }
+
     @Override
     protected String getOperator(SetOperationType type) {
         if (type == null) {
@@ -109,6 +109,11 @@ public class MySQLDbmsDialect extends DefaultDbmsDialect {
         return ValuesStrategy.SELECT_UNION;
     }
 
+    @Override
+    public int getMaximumParameterCount() {
+        return 65535;
+    }
+
     @Override
     public boolean needsCastParameters() {
         return false;
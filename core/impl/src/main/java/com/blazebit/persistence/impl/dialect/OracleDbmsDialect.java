@@ -203,6 +203,17 @@ public class OracleDbmsDialect extends DefaultDbmsDialect {
         return true;
     }
 
+    @Override
+    public int getMaximumParameterCount() {
+        return 65535;
+    }
+
+    @Override
+    public int getMaximumInListSize() {
+        // ORA-01795: maximum number of expressions in a list is 1000
+        return 1000;
+    }
+
     @Override
     public boolean supportsFullRowValueComparison() {
         return false;
@@ -50,6 +50,11 @@ public class PostgreSQLDbmsDialect extends DefaultDbmsDialect {
         return true;
     }
 
+    @Override
+    public int getMaximumParameterCount() {
+        return 32767;
+    }
+
     @Override
     public boolean supportsIntersect(boolean all) {
         return true;
@@ -244,6 +249,44 @@ public class PostgreSQLDbmsDialect extends DefaultDbmsDialect {
         }
     }
 
+    @Override
+    public String getRowCountEstimateSql(String countQuerySql) {
+        return "explain " + countQuerySql;
+    }
+
+    @Override
+    public long extractRowCountEstimate(List<?> resultList) {
+        if (resultList.isEmpty()) {
+            return -1L;
+        }
+        // The root plan node is the count aggregate, so we use the row estimate of its first input node
+        String planLine = null;
+        for (Object row : resultList) {
+            String line = (String) (row instanceof Object[] ? ((Object[]) row)[0] : row);
+            if (line.contains("->")) {
+                planLine = line;
+                break;
+            }
+        }
+        if (planLine == null) {
+            planLine = (String) (resultList.get(0) instanceof Object[] ? ((Object[]) resultList.get(0))[0] : resultList.get(0));
+        }
+
+        int startIndex = planLine.indexOf("rows=");
+        if (startIndex == -1) {
+            return -1L;
+        }
+        startIndex += "rows=".length();
+        int endIndex = startIndex;
+        while (endIndex < planLine.length() && Character.isDigit(planLine.charAt(endIndex))) {
+            endIndex++;
+        }
+        if (endIndex == startIndex) {
+            return -1L;
+        }
+        return Long.parseLong(planLine.substring(startIndex, endIndex));
+    }
+
     private static int indexOfOrEnd(StringBuilder sb, char needle, int startIndex, int endIndex) {
         while (startIndex < endIndex) {
             if (sb.charAt(startIndex) == needle) {
@@ -16,9 +16,11 @@
 
 package com.blazebit.persistence.impl.plan;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.ReturningObjectBuilder;
 import com.blazebit.persistence.ReturningResult;
 import com.blazebit.persistence.impl.DefaultReturningResult;
+import com.blazebit.persistence.impl.query.MaterializedResultIterator;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import com.blazebit.persistence.spi.ServiceProvider;
@@ -95,4 +97,9 @@ public class CustomReturningModificationQueryPlan<T> implements ModificationQuer
         }
         return new DefaultReturningResult<T>(resultList, updateCount, dbmsDialect, objectBuilder);
     }
+
+    @Override
+    public CloseableIterator<ReturningResult<T>> getResultIterator(int fetchSize) {
+        return new MaterializedResultIterator<>(getResultList());
+    }
 }
@@ -16,6 +16,9 @@
 
 package com.blazebit.persistence.impl.plan;
 
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.impl.query.MaterializedResultIterator;
+
 import javax.persistence.Query;
 import java.util.List;
 
@@ -49,4 +52,10 @@ public class DefaultSelectQueryPlan<T> implements SelectQueryPlan<T> {
         query.setMaxResults(maxResults);
         return (T) query.getSingleResult();
     }
+
+    @Override
+    public CloseableIterator<T> getResultIterator(int fetchSize) {
+        // Plain JPA queries don't support scrolling
+        return new MaterializedResultIterator<>(getResultList());
+    }
 }
@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.impl.query;
 
+import com.blazebit.persistence.impl.ParameterManager;
 import com.blazebit.persistence.impl.ParameterValueTransformer;
 import com.blazebit.persistence.impl.ValuesParameterBinder;
 import com.blazebit.persistence.impl.util.SetView;
@@ -196,6 +197,10 @@ public abstract class AbstractCustomQuery<T> implements Query, CteQueryWrapper {
                 value = transformer.transform(value);
             }
             if (value instanceof Collection<?>) {
+                int inListPaddingLimit = querySpecification.getInListPaddingLimit();
+                if (inListPaddingLimit > 0) {
+                    value = ParameterManager.padCollection((Collection<?>) value, inListPaddingLimit);
+                }
                 querySpecification.onCollectionParameterChange(name, (Collection<?>) value);
             }
             valueBinders.put(name, new DefaultValueBinder(value));
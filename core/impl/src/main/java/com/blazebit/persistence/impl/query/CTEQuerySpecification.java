@@ -53,14 +53,29 @@ public class CTEQuerySpecification extends CustomQuerySpecification<Object> {
         }
 
         String sqlQuery = extendedQuerySupport.getSql(em, baseQuery);
+        String cacheKey = getCacheKey(sqlQuery);
+        participatingQueries.add(baseQuery);
+        if (cacheKey != null) {
+            CustomSqlCache.Entry entry = customSqlCache.get(cacheKey);
+            if (entry != null) {
+                this.sql = entry.getSql();
+                this.participatingQueries = participatingQueries;
+                this.dirty = false;
+                return;
+            }
+        }
+
         StringBuilder sqlSb = applySqlTransformations(sqlQuery);
         // Need to inline LIMIT and OFFSET
         dbmsDialect.appendExtendedSql(sqlSb, statementType, false, true, null, limit, offset, null, null);
-        participatingQueries.add(baseQuery);
 
         this.sql = sqlSb.toString();
         this.participatingQueries = participatingQueries;
         this.dirty = false;
+
+        if (cacheKey != null) {
+            customSqlCache.put(cacheKey, sql, participatingQueries, participatingQueries, null, false);
+        }
     }
 
     @Override
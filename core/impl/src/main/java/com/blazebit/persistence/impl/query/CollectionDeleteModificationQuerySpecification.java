@@ -51,13 +51,21 @@ public class CollectionDeleteModificationQuerySpecification<T> extends Modificat
 
     @Override
     protected void initialize() {
-        List<Query> participatingQueries = new ArrayList<Query>();
-
         for (Map.Entry<String, Collection<?>> entry : listParameters.entrySet()) {
             baseQuery.setParameter(entry.getKey(), entry.getValue());
         }
 
-        StringBuilder sqlSb = new StringBuilder(extendedQuerySupport.getSql(em, baseQuery));
+        String sqlQuery = extendedQuerySupport.getSql(em, baseQuery);
+        String cacheKey = getCacheKey(sqlQuery);
+        List<Query> candidateQueries = cacheKey == null ? null : getCandidateQueries();
+        CustomSqlCache.Entry entry = applyCachedSql(cacheKey, candidateQueries);
+        if (entry != null) {
+            query = getModificationQuery(entry.hasWithClause(), deleteExampleQuery);
+            return;
+        }
+
+        List<Query> participatingQueries = new ArrayList<Query>();
+        StringBuilder sqlSb = new StringBuilder(sqlQuery);
 
         // Replace the "select ... from ..." part of the base query by the "delete from collectionTable" part
         int whereIndex = SqlUtils.indexOfWhere(sqlSb);
@@ -75,17 +83,19 @@ public class CollectionDeleteModificationQuerySpecification<T> extends Modificat
         Map<String, String> addedCtes = applyExtendedSql(sqlSb, false, isEmbedded, withClause, returningColumns, includedModificationStates);
         participatingQueries.add(baseQuery);
 
-        // Some dbms like DB2 will need to wrap modification queries in select queries when using CTEs
-        boolean hasCtes = withClause != null && withClause.length() != 0 || addedCtes != null && !addedCtes.isEmpty();
-        if (hasCtes && returningAttributeBindingMap.isEmpty() && !dbmsDialect.usesExecuteUpdateWhenWithClauseInModificationQuery()) {
-            query = exampleQuery;
-        } else {
-            query = deleteExampleQuery;
-        }
-
         this.sql = sqlSb.toString();
         this.participatingQueries = participatingQueries;
         this.addedCtes = addedCtes;
         this.dirty = false;
+        query = getModificationQuery(withClause != null, deleteExampleQuery);
+
+        putCachedSql(cacheKey, candidateQueries, withClause != null);
+    }
+
+    @Override
+    protected void appendCacheKey(StringBuilder sb) {
+        super.appendCacheKey(sb);
+        appendCacheKeyPart(sb, deleteSql);
+        appendCacheKeyPart(sb, columnExpressionRemappings);
     }
 }
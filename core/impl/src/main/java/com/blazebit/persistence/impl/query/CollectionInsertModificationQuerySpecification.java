@@ -51,13 +51,20 @@ public class CollectionInsertModificationQuerySpecification<T> extends Modificat
 
     @Override
     protected void initialize() {
-        List<Query> participatingQueries = new ArrayList<Query>();
-
         for (Map.Entry<String, Collection<?>> entry : listParameters.entrySet()) {
             baseQuery.setParameter(entry.getKey(), entry.getValue());
         }
 
         String sql = extendedQuerySupport.getSql(em, baseQuery);
+        String cacheKey = getCacheKey(sql);
+        List<Query> candidateQueries = cacheKey == null ? null : getCandidateQueries();
+        CustomSqlCache.Entry entry = applyCachedSql(cacheKey, candidateQueries);
+        if (entry != null) {
+            query = getModificationQuery(entry.hasWithClause(), insertExampleQuery);
+            return;
+        }
+
+        List<Query> participatingQueries = new ArrayList<Query>();
         StringBuilder sqlSb = applySqlTransformations(sql);
         if (cutoffColumns > 0) {
             final List<String> tableAliasesToRemove = new ArrayList<>();
@@ -106,17 +113,19 @@ public class CollectionInsertModificationQuerySpecification<T> extends Modificat
         Map<String, String> addedCtes = applyExtendedSql(sqlSb, false, isEmbedded, withClause, returningColumns, includedModificationStates);
         participatingQueries.add(baseQuery);
 
-        // Some dbms like DB2 will need to wrap modification queries in select queries when using CTEs
-        boolean hasCtes = withClause != null && withClause.length() != 0 || addedCtes != null && !addedCtes.isEmpty();
-        if (hasCtes && returningAttributeBindingMap.isEmpty() && !dbmsDialect.usesExecuteUpdateWhenWithClauseInModificationQuery()) {
-            query = exampleQuery;
-        } else {
-            query = insertExampleQuery;
-        }
-
         this.sql = sqlSb.toString();
         this.participatingQueries = participatingQueries;
         this.addedCtes = addedCtes;
         this.dirty = false;
+        query = getModificationQuery(withClause != null, insertExampleQuery);
+
+        putCachedSql(cacheKey, candidateQueries, withClause != null);
+    }
+
+    @Override
+    protected void appendCacheKey(StringBuilder sb) {
+        super.appendCacheKey(sb);
+        appendCacheKeyPart(sb, insertSql);
+        appendCacheKeyPart(sb, Integer.toString(cutoffColumns));
     }
 }
@@ -55,19 +55,41 @@ public class CollectionUpdateModificationQuerySpecification<T> extends Modificat
 
     @Override
     protected void initialize() {
-        List<Query> participatingQueries = new ArrayList<Query>();
-
         for (Map.Entry<String, Collection<?>> entry : listParameters.entrySet()) {
             baseQuery.setParameter(entry.getKey(), entry.getValue());
         }
 
-        StringBuilder sqlSb = new StringBuilder(extendedQuerySupport.getSql(em, baseQuery));
+        String sqlQuery = extendedQuerySupport.getSql(em, baseQuery);
+        // The set clause entries are rendered by separate queries, so their SQL is part of the cache key as well
+        StringBuilder keySqlSb = new StringBuilder(sqlQuery.length() * (setExpressionContainingUpdateQueries.size() + 1));
+        appendCacheKeyPart(keySqlSb, sqlQuery);
+        List<String> setExpressionSqls = new ArrayList<>(setExpressionContainingUpdateQueries.size());
+        for (Query updateQuery : setExpressionContainingUpdateQueries) {
+            String setExpressionSql = extendedQuerySupport.getSql(em, updateQuery);
+            setExpressionSqls.add(setExpressionSql);
+            appendCacheKeyPart(keySqlSb, setExpressionSql);
+        }
+
+        String cacheKey = getCacheKey(keySqlSb.toString());
+        List<Query> candidateQueries = null;
+        if (cacheKey != null) {
+            candidateQueries = new ArrayList<>(setExpressionContainingUpdateQueries);
+            candidateQueries.addAll(getCandidateQueries());
+        }
+        CustomSqlCache.Entry entry = applyCachedSql(cacheKey, candidateQueries);
+        if (entry != null) {
+            query = getModificationQuery(entry.hasWithClause(), updateExampleQuery);
+            return;
+        }
+
+        List<Query> participatingQueries = new ArrayList<Query>();
+        StringBuilder sqlSb = new StringBuilder(sqlQuery);
         StringBuilder setClauseSqlSb = new StringBuilder(updateSql);
 
         // The queries are in sequence, each containing set clause entries for the source or target table
-        for (Query updateQuery : setExpressionContainingUpdateQueries) {
-            participatingQueries.add(updateQuery);
-            String setExpressionSql = extendedQuerySupport.getSql(em, updateQuery);
+        for (int i = 0; i < setExpressionContainingUpdateQueries.size(); i++) {
+            participatingQueries.add(setExpressionContainingUpdateQueries.get(i));
+            String setExpressionSql = setExpressionSqls.get(i);
             int assignIndex = SqlUtils.indexOfWhere(setExpressionSql) + " where ".length();
             // TODO: fix this for row values/embeddables which might have parenthesis around or use OR
             int columnOnlyRemappingStartIndex = setClauseSqlSb.length();
@@ -95,17 +117,20 @@ public class CollectionUpdateModificationQuerySpecification<T> extends Modificat
         Map<String, String> addedCtes = applyExtendedSql(sqlSb, false, isEmbedded, withClause, returningColumns, includedModificationStates);
         participatingQueries.add(baseQuery);
 
-        // Some dbms like DB2 will need to wrap modification queries in select queries when using CTEs
-        boolean hasCtes = withClause != null && withClause.length() != 0 || addedCtes != null && !addedCtes.isEmpty();
-        if (hasCtes && returningAttributeBindingMap.isEmpty() && !dbmsDialect.usesExecuteUpdateWhenWithClauseInModificationQuery()) {
-            query = exampleQuery;
-        } else {
-            query = updateExampleQuery;
-        }
-
         this.sql = sqlSb.toString();
         this.participatingQueries = participatingQueries;
         this.addedCtes = addedCtes;
         this.dirty = false;
+        query = getModificationQuery(withClause != null, updateExampleQuery);
+
+        putCachedSql(cacheKey, candidateQueries, withClause != null);
+    }
+
+    @Override
+    protected void appendCacheKey(StringBuilder sb) {
+        super.appendCacheKey(sb);
+        appendCacheKeyPart(sb, updateSql);
+        appendCacheKeyPart(sb, columnOnlyRemappings);
+        appendCacheKeyPart(sb, columnExpressionRemappings);
     }
 }
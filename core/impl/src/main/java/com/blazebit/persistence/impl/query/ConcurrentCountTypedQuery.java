@@ -0,0 +1,273 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.impl.QueryTemplateImpl;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.FlushModeType;
+import javax.persistence.LockModeType;
+import javax.persistence.Parameter;
+import javax.persistence.PersistenceException;
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A count query wrapper that can additionally submit the count query for execution on a separate entity manager.
+ * Parameters, hints and the flush mode that are set on this query after construction are recorded and replayed on the separate query.
+ * If a lock mode is set or the executor rejects the count query, it is executed synchronously on the entity manager of this query instead,
+ * since a lock can only be acquired in the transaction of that entity manager.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ConcurrentCountTypedQuery<X> extends TypedQueryWrapper<X> {
+
+    private final QueryTemplateImpl<X> queryTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Executor executor;
+    private final Map<Object, ParameterBinding> parameterBindings = new LinkedHashMap<>();
+    private final Map<String, Object> hints = new LinkedHashMap<>();
+    private FlushModeType flushMode;
+    private LockModeType lockMode;
+
+    public ConcurrentCountTypedQuery(TypedQuery<X> delegate, QueryTemplateImpl<X> queryTemplate, EntityManagerFactory entityManagerFactory, Executor executor) {
+        super(delegate);
+        this.queryTemplate = queryTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.executor = executor;
+    }
+
+    /**
+     * Submits the count query for execution on a separate entity manager and returns a future for the single result.
+     *
+     * @return The future for the single result
+     */
+    public Future<X> submit() {
+        if (lockMode != null && lockMode != LockModeType.NONE) {
+            return executeSynchronously();
+        }
+        // Snapshot the bindings and hints in the caller thread so that later parameter changes don't interfere
+        final List<ParameterBinding> bindings = new ArrayList<>(parameterBindings.values());
+        final Map<String, Object> hintSnapshot = new LinkedHashMap<>(hints);
+        final FlushModeType flushModeSnapshot = flushMode;
+        FutureTask<X> task = new FutureTask<>(new Callable<X>() {
+            @Override
+            public X call() throws Exception {
+                EntityManager entityManager = entityManagerFactory.createEntityManager();
+                try {
+                    TypedQuery<X> query = queryTemplate.createQuery(entityManager);
+                    for (int i = 0; i < bindings.size(); i++) {
+                        bindings.get(i).bind(query);
+                    }
+                    for (Map.Entry<String, Object> entry : hintSnapshot.entrySet()) {
+                        query.setHint(entry.getKey(), entry.getValue());
+                    }
+                    if (flushModeSnapshot != null) {
+                        query.setFlushMode(flushModeSnapshot);
+                    }
+                    return query.getSingleResult();
+                } finally {
+                    entityManager.close();
+                }
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            // Like without a concurrent count query, the count query is executed on the entity manager of this query
+            return executeSynchronously();
+        }
+        return task;
+    }
+
+    private Future<X> executeSynchronously() {
+        FutureTask<X> task = new FutureTask<>(new Callable<X>() {
+            @Override
+            public X call() throws Exception {
+                return delegate.getSingleResult();
+            }
+        });
+        task.run();
+        return task;
+    }
+
+    /**
+     * Waits for the given future and unwraps execution exceptions.
+     *
+     * @param future The future as returned by {@link #submit()}
+     * @param <X> The result type
+     * @return The result of the future
+     */
+    public static <X> X getResult(Future<X> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new PersistenceException("Interrupted while waiting for the count query", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PersistenceException("Could not execute the count query", cause);
+        }
+    }
+
+    @Override
+    public TypedQuery<X> setHint(String string, Object o) {
+        delegate.setHint(string, o);
+        hints.put(string, o);
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setFlushMode(FlushModeType fmt) {
+        delegate.setFlushMode(fmt);
+        flushMode = fmt;
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setLockMode(LockModeType lmt) {
+        delegate.setLockMode(lmt);
+        lockMode = lmt;
+        return this;
+    }
+
+    @Override
+    public <T> TypedQuery<X> setParameter(Parameter<T> prmtr, T t) {
+        if (prmtr.getName() == null) {
+            return setParameter(prmtr.getPosition(), t);
+        }
+        return setParameter(prmtr.getName(), t);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(Parameter<Calendar> prmtr, Calendar clndr, TemporalType tt) {
+        if (prmtr.getName() == null) {
+            return setParameter(prmtr.getPosition(), clndr, tt);
+        }
+        return setParameter(prmtr.getName(), clndr, tt);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(Parameter<Date> prmtr, Date date, TemporalType tt) {
+        if (prmtr.getName() == null) {
+            return setParameter(prmtr.getPosition(), date, tt);
+        }
+        return setParameter(prmtr.getName(), date, tt);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(final String string, final Object o) {
+        delegate.setParameter(string, o);
+        parameterBindings.put(string, new ParameterBinding() {
+            @Override
+            public void bind(TypedQuery<?> query) {
+                query.setParameter(string, o);
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(final String string, final Calendar clndr, final TemporalType tt) {
+        delegate.setParameter(string, clndr, tt);
+        parameterBindings.put(string, new ParameterBinding() {
+            @Override
+            public void bind(TypedQuery<?> query) {
+                query.setParameter(string, clndr, tt);
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(final String string, final Date date, final TemporalType tt) {
+        delegate.setParameter(string, date, tt);
+        parameterBindings.put(string, new ParameterBinding() {
+            @Override
+            public void bind(TypedQuery<?> query) {
+                query.setParameter(string, date, tt);
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(final int i, final Object o) {
+        delegate.setParameter(i, o);
+        parameterBindings.put(i, new ParameterBinding() {
+            @Override
+            public void bind(TypedQuery<?> query) {
+                query.setParameter(i, o);
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(final int i, final Calendar clndr, final TemporalType tt) {
+        delegate.setParameter(i, clndr, tt);
+        parameterBindings.put(i, new ParameterBinding() {
+            @Override
+            public void bind(TypedQuery<?> query) {
+                query.setParameter(i, clndr, tt);
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(final int i, final Date date, final TemporalType tt) {
+        delegate.setParameter(i, date, tt);
+        parameterBindings.put(i, new ParameterBinding() {
+            @Override
+            public void bind(TypedQuery<?> query) {
+                query.setParameter(i, date, tt);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private interface ParameterBinding {
+
+        public void bind(TypedQuery<?> query);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache for the results of count queries that is keyed by the count query string and the parameter values.
+ * Entries expire after the configured time to live. When the maximum size is reached, the least recently used entry is evicted.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CountCache {
+
+    private final long timeToLive;
+    private final Entries entries;
+
+    public CountCache(long timeToLive, int maximumSize) {
+        if (timeToLive < 0L) {
+            throw new IllegalArgumentException("Invalid count cache time to live: " + timeToLive);
+        }
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Invalid count cache maximum size: " + maximumSize);
+        }
+        this.timeToLive = timeToLive;
+        this.entries = new Entries(maximumSize);
+    }
+
+    public Long get(String queryString, Map<Object, Object> parameterValues) {
+        Key key = new Key(queryString, parameterValues);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiration < System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.count;
+        }
+    }
+
+    public void put(String queryString, Map<Object, Object> parameterValues, long count) {
+        Entry entry = new Entry(count, System.currentTimeMillis() + timeToLive);
+        Key key = new Key(queryString, parameterValues);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * An access ordered map that removes the least recently used entry when exceeding the maximum size.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class Entries extends LinkedHashMap<Key, Entry> {
+
+        private final int maximumSize;
+
+        public Entries(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maximumSize;
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class Key {
+
+        private final String queryString;
+        private final Map<Object, Object> parameterValues;
+        private final int hashCode;
+
+        public Key(String queryString, Map<Object, Object> parameterValues) {
+            this.queryString = queryString;
+            this.parameterValues = parameterValues;
+            this.hashCode = 31 * queryString.hashCode() + parameterValues.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return queryString.equals(key.queryString) && parameterValues.equals(key.parameterValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class Entry {
+
+        private final long count;
+        private final long expiration;
+
+        public Entry(long count, long expiration) {
+            this.count = count;
+            this.expiration = expiration;
+        }
+    }
+}
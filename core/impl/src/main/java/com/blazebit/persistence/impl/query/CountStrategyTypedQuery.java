@@ -0,0 +1,180 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.CountStrategy;
+import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Parameter;
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A count query wrapper that determines the count according to a {@link CountStrategy}.
+ * The parameter values are recorded so that they can be used as part of the cache key for cached counts.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CountStrategyTypedQuery extends TypedQueryWrapper<Long> {
+
+    private final CountStrategy countStrategy;
+    private final String queryString;
+    private final Map<Object, Object> parameterValues;
+    private final CountCache countCache;
+    private final EntityManager em;
+    private final DbmsDialect dbmsDialect;
+    private final ExtendedQuerySupport extendedQuerySupport;
+    private CountStrategy usedCountStrategy;
+
+    /**
+     * Creates a new count query wrapper.
+     *
+     * @param delegate The count query
+     * @param countStrategy The count strategy to use
+     * @param queryString The count query string
+     * @param parameterValues The already bound parameter values of the count query
+     * @param countCache The cache for cached counts
+     * @param em The entity manager
+     * @param dbmsDialect The DBMS dialect
+     * @param extendedQuerySupport The extended query support or <code>null</code> if the count query can't be estimated
+     */
+    public CountStrategyTypedQuery(TypedQuery<Long> delegate, CountStrategy countStrategy, String queryString, Map<Object, Object> parameterValues, CountCache countCache, EntityManager em, DbmsDialect dbmsDialect, ExtendedQuerySupport extendedQuerySupport) {
+        super(delegate);
+        this.countStrategy = countStrategy;
+        this.queryString = queryString;
+        this.parameterValues = new HashMap<>(parameterValues);
+        this.countCache = countCache;
+        this.em = em;
+        this.dbmsDialect = dbmsDialect;
+        this.extendedQuerySupport = extendedQuerySupport;
+    }
+
+    /**
+     * Returns the strategy that was used for the last execution or <code>null</code> if the query wasn't executed yet.
+     *
+     * @return The count strategy that was used
+     */
+    public CountStrategy getUsedCountStrategy() {
+        return usedCountStrategy;
+    }
+
+    @Override
+    public Long getSingleResult() {
+        if (countStrategy == CountStrategy.CACHED) {
+            Map<Object, Object> parameterValues = new HashMap<>(this.parameterValues);
+            Long count = countCache.get(queryString, parameterValues);
+            if (count != null) {
+                usedCountStrategy = CountStrategy.CACHED;
+                return count;
+            }
+            count = delegate.getSingleResult();
+            countCache.put(queryString, parameterValues, count);
+            usedCountStrategy = CountStrategy.EXACT;
+            return count;
+        } else if (countStrategy == CountStrategy.ESTIMATED && extendedQuerySupport != null && delegate.getParameters().isEmpty()) {
+            // The plan query is executed as native query which is why we can only estimate counts for queries without parameters
+            String sql = dbmsDialect.getRowCountEstimateSql(extendedQuerySupport.getSql(em, delegate));
+            if (sql != null) {
+                long estimate = dbmsDialect.extractRowCountEstimate(em.createNativeQuery(sql).getResultList());
+                if (estimate != -1L) {
+                    usedCountStrategy = CountStrategy.ESTIMATED;
+                    return estimate;
+                }
+            }
+        }
+
+        usedCountStrategy = CountStrategy.EXACT;
+        return delegate.getSingleResult();
+    }
+
+    @Override
+    public <T> TypedQuery<Long> setParameter(Parameter<T> prmtr, T t) {
+        delegate.setParameter(prmtr, t);
+        parameterValues.put(getKey(prmtr), t);
+        return this;
+    }
+
+    @Override
+    public TypedQuery<Long> setParameter(Parameter<Calendar> prmtr, Calendar clndr, TemporalType tt) {
+        delegate.setParameter(prmtr, clndr, tt);
+        parameterValues.put(getKey(prmtr), clndr);
+        return this;
+    }
+
+    @Override
+    public TypedQuery<Long> setParameter(Parameter<Date> prmtr, Date date, TemporalType tt) {
+        delegate.setParameter(prmtr, date, tt);
+        parameterValues.put(getKey(prmtr), date);
+        return this;
+    }
+
+    @Override
+    public TypedQuery<Long> setParameter(String string, Object o) {
+        delegate.setParameter(string, o);
+        parameterValues.put(string, o);
+        return this;
+    }
+
+    @Override
+    public TypedQuery<Long> setParameter(String string, Calendar clndr, TemporalType tt) {
+        delegate.setParameter(string, clndr, tt);
+        parameterValues.put(string, clndr);
+        return this;
+    }
+
+    @Override
+    public TypedQuery<Long> setParameter(String string, Date date, TemporalType tt) {
+        delegate.setParameter(string, date, tt);
+        parameterValues.put(string, date);
+        return this;
+    }
+
+    @Override
+    public TypedQuery<Long> setParameter(int i, Object o) {
+        delegate.setParameter(i, o);
+        parameterValues.put(i, o);
+        return this;
+    }
+
+    @Override
+    public TypedQuery<Long> setParameter(int i, Calendar clndr, TemporalType tt) {
+        delegate.setParameter(i, clndr, tt);
+        parameterValues.put(i, clndr);
+        return this;
+    }
+
+    @Override
+    public TypedQuery<Long> setParameter(int i, Date date, TemporalType tt) {
+        delegate.setParameter(i, date, tt);
+        parameterValues.put(i, date);
+        return this;
+    }
+
+    private static Object getKey(Parameter<?> parameter) {
+        if (parameter.getName() == null) {
+            return parameter.getPosition();
+        }
+        return parameter.getName();
+    }
+}
@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl.query;
 
 import com.blazebit.persistence.impl.AbstractCommonQueryBuilder;
+import com.blazebit.persistence.impl.ParameterManager;
 import com.blazebit.persistence.impl.plan.CustomSelectQueryPlan;
 import com.blazebit.persistence.impl.plan.ModificationQueryPlan;
 import com.blazebit.persistence.impl.plan.SelectQueryPlan;
@@ -63,6 +64,8 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
     protected final boolean recursive;
     protected final List<CTENode> ctes;
     protected final boolean shouldRenderCtes;
+    protected final int inListPaddingLimit;
+    protected final CustomSqlCache customSqlCache;
 
     protected boolean dirty;
     protected String sql;
@@ -91,6 +94,8 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
         this.recursive = recursive;
         this.ctes = ctes;
         this.shouldRenderCtes = shouldRenderCtes;
+        this.inListPaddingLimit = ParameterManager.getInListPaddingLimit(commonQueryBuilder.getQueryConfiguration(), dbmsDialect);
+        this.customSqlCache = commonQueryBuilder.getService(CustomSqlCache.class);
         this.dirty = true;
     }
 
@@ -149,6 +154,11 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
         }
     }
 
+    @Override
+    public int getInListPaddingLimit() {
+        return inListPaddingLimit;
+    }
+
     protected void initialize() {
         List<Query> participatingQueries = new ArrayList<>();
 
@@ -157,6 +167,12 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
         }
 
         String sqlQuery = extendedQuerySupport.getSql(em, baseQuery);
+        String cacheKey = getCacheKey(sqlQuery);
+        List<Query> candidateQueries = cacheKey == null ? null : getCandidateQueries();
+        if (applyCachedSql(cacheKey, candidateQueries) != null) {
+            return;
+        }
+
         StringBuilder sqlSb = applySqlTransformations(sqlQuery);
         StringBuilder withClause = applyCtes(sqlSb, baseQuery, participatingQueries);
         Map<String, String> addedCtes = applyExtendedSql(sqlSb, false, false, withClause, null, null);
@@ -166,6 +182,186 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
         this.participatingQueries = participatingQueries;
         this.addedCtes = addedCtes;
         this.dirty = false;
+
+        putCachedSql(cacheKey, candidateQueries, withClause != null);
+    }
+
+    /**
+     * Applies the SQL, the participating queries and the added CTEs of the cache entry for the given key.
+     *
+     * @param cacheKey The cache key or <code>null</code>
+     * @param candidateQueries The candidate queries from which the participating queries are reconstructed
+     * @return The applied cache entry or <code>null</code> if there is none
+     */
+    protected CustomSqlCache.Entry applyCachedSql(String cacheKey, List<Query> candidateQueries) {
+        if (cacheKey == null) {
+            return null;
+        }
+        CustomSqlCache.Entry entry = customSqlCache.get(cacheKey);
+        if (entry != null) {
+            this.sql = entry.getSql();
+            this.participatingQueries = entry.getParticipatingQueries(candidateQueries);
+            this.addedCtes = entry.getAddedCtes();
+            this.dirty = false;
+        }
+        return entry;
+    }
+
+    /**
+     * Puts the SQL, the participating queries and the added CTEs of this query specification into the cache.
+     *
+     * @param cacheKey The cache key or <code>null</code>
+     * @param candidateQueries The candidate queries which must contain all participating queries
+     * @param withClause Whether a with clause was rendered for the CTEs
+     */
+    protected void putCachedSql(String cacheKey, List<Query> candidateQueries, boolean withClause) {
+        if (cacheKey != null) {
+            customSqlCache.put(cacheKey, sql, participatingQueries, candidateQueries, addedCtes, withClause);
+        }
+    }
+
+    /**
+     * Returns the key under which the final SQL of this query specification is cached or <code>null</code> if it shouldn't be cached.
+     * The key contains the given SQL of the base query, which already reflects the sizes of the list parameters,
+     * the SQL of the CTE queries and everything else that is used during the SQL rewriting.
+     *
+     * @param sqlQuery The SQL of the base query
+     * @return The cache key or <code>null</code>
+     */
+    protected String getCacheKey(String sqlQuery) {
+        if (customSqlCache == null || !requiresSqlRewriting()) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder(sqlQuery.length() + ctes.size() * 200 + entityFunctionNodes.size() * 100);
+        appendCacheKeyPart(sb, getClass().getName());
+        appendCacheKeyPart(sb, statementType.name());
+        appendCacheKeyPart(sb, limit);
+        appendCacheKeyPart(sb, offset);
+        appendCacheKeyPart(sb, Boolean.toString(recursive));
+        appendCacheKeyPart(sb, Boolean.toString(shouldRenderCtes));
+        for (Map.Entry<String, Collection<?>> entry : listParameters.entrySet()) {
+            appendCacheKeyPart(sb, entry.getKey());
+            appendCacheKeyPart(sb, Integer.toString(entry.getValue().size()));
+        }
+        for (String keyRestrictedLeftJoinAlias : keyRestrictedLeftJoinAliases) {
+            appendCacheKeyPart(sb, keyRestrictedLeftJoinAlias);
+        }
+        for (EntityFunctionNode node : entityFunctionNodes) {
+            appendCacheKeyPart(sb, node.getValuesClause());
+            appendCacheKeyPart(sb, node.getValuesAliases());
+            appendCacheKeyPart(sb, node.getEntityName());
+            appendCacheKeyPart(sb, node.getTableAlias());
+            appendCacheKeyPart(sb, node.getPluralCollectionTableAlias());
+            appendCacheKeyPart(sb, node.getPluralTableAlias());
+            appendCacheKeyPart(sb, node.getPluralTableJoin());
+            appendCacheKeyPart(sb, node.getSyntheticPredicate());
+        }
+        for (CTENode cteInfo : ctes) {
+            appendCacheKeyPart(sb, cteInfo.getName());
+            appendCacheKeyPart(sb, cteInfo.getEntityName());
+            appendCacheKeyPart(sb, cteInfo.getHead());
+            if (cteInfo.getAliases() != null) {
+                for (String alias : cteInfo.getAliases()) {
+                    appendCacheKeyPart(sb, alias);
+                }
+            }
+            appendCacheKeyPart(sb, Boolean.toString(cteInfo.isUnionAll()));
+            appendCacheKeyPart(sb, cteInfo.getNonRecursiveWithClauseSuffix());
+            appendCacheKeyPart(sb, cteInfo.getNonRecursiveQuerySpecification(), cteInfo.getNonRecursiveTableNameRemappings());
+            if (cteInfo.isRecursive()) {
+                appendCacheKeyPart(sb, cteInfo.getRecursiveQuerySpecification(), cteInfo.getRecursiveTableNameRemappings());
+            }
+        }
+        appendCacheKey(sb);
+        appendCacheKeyPart(sb, sqlQuery);
+        return sb.toString();
+    }
+
+    /**
+     * Returns whether the SQL of the base query must be rewritten. Only queries that need text rewriting are worth caching.
+     *
+     * @return true if the SQL must be rewritten, false otherwise
+     */
+    protected boolean requiresSqlRewriting() {
+        return !ctes.isEmpty() || !entityFunctionNodes.isEmpty() || !keyRestrictedLeftJoinAliases.isEmpty();
+    }
+
+    /**
+     * Appends the parts that are specific to a query specification type and influence the SQL rewriting to the cache key.
+     *
+     * @param sb The cache key builder
+     */
+    protected void appendCacheKey(StringBuilder sb) {
+    }
+
+    private static void appendCacheKeyPart(StringBuilder sb, QuerySpecification<?> querySpecification, Map<String, String> tableNameRemappings) {
+        appendCacheKeyPart(sb, querySpecification.getSql());
+        appendCacheKeyPart(sb, Integer.toString(querySpecification.getParticipatingQueries().size()));
+        Map<String, String> addedCtes = querySpecification.getAddedCtes();
+        if (addedCtes != null) {
+            for (Map.Entry<String, String> entry : addedCtes.entrySet()) {
+                appendCacheKeyPart(sb, entry.getKey());
+                appendCacheKeyPart(sb, entry.getValue());
+            }
+        }
+        if (tableNameRemappings != null) {
+            for (Map.Entry<String, String> entry : tableNameRemappings.entrySet()) {
+                appendCacheKeyPart(sb, entry.getKey());
+                appendCacheKeyPart(sb, entry.getValue());
+            }
+        }
+    }
+
+    protected static void appendCacheKeyPart(StringBuilder sb, Map<String, String> map) {
+        if (map == null) {
+            appendCacheKeyPart(sb, (String) null);
+        } else {
+            appendCacheKeyPart(sb, Integer.toString(map.size()));
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                appendCacheKeyPart(sb, entry.getKey());
+                appendCacheKeyPart(sb, entry.getValue());
+            }
+        }
+    }
+
+    protected static void appendCacheKeyPart(StringBuilder sb, String[] parts) {
+        if (parts == null) {
+            appendCacheKeyPart(sb, (String) null);
+        } else {
+            appendCacheKeyPart(sb, Integer.toString(parts.length));
+            for (String part : parts) {
+                appendCacheKeyPart(sb, part);
+            }
+        }
+    }
+
+    protected static void appendCacheKeyPart(StringBuilder sb, String part) {
+        // The NUL character separates the parts as it won't appear in SQL or aliases
+        if (part != null) {
+            sb.append(part);
+        }
+        sb.append('\0');
+    }
+
+    /**
+     * Returns the queries that can possibly participate in this query specification.
+     * The participating queries of a cache entry are stored as indexes into this list.
+     *
+     * @return The candidate queries
+     */
+    protected List<Query> getCandidateQueries() {
+        List<Query> candidateQueries = new ArrayList<>();
+        for (CTENode cteInfo : ctes) {
+            QuerySpecification<?> nonRecursiveQuerySpecification = cteInfo.getNonRecursiveQuerySpecification();
+            candidateQueries.addAll(nonRecursiveQuerySpecification.getParticipatingQueries());
+            candidateQueries.add(nonRecursiveQuerySpecification.getBaseQuery());
+            if (cteInfo.isRecursive()) {
+                candidateQueries.addAll(cteInfo.getRecursiveQuerySpecification().getParticipatingQueries());
+            }
+        }
+        candidateQueries.add(baseQuery);
+        return candidateQueries;
     }
 
     protected Map<String, String> applyExtendedSql(StringBuilder sqlSb, boolean isSubquery, boolean isEmbedded, StringBuilder withClause, String[] returningColumns, Map<DbmsModificationState, String> includedModificationStates) {
@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.impl.query;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.impl.ParameterValueTransformer;
 import com.blazebit.persistence.impl.ValuesParameterBinder;
 
@@ -58,6 +59,12 @@ public class CustomSQLTypedQuery<X> extends AbstractCustomQuery<X> implements Ty
         return querySpecification.createSelectPlan(firstResult, maxResults).getSingleResult();
     }
 
+    @SuppressWarnings("unchecked")
+    public CloseableIterator<X> getResultIterator(int fetchSize) {
+        bindParameters();
+        return querySpecification.createSelectPlan(firstResult, maxResults).getResultIterator(fetchSize);
+    }
+
     @Override
     public int executeUpdate() {
         throw new IllegalArgumentException("Can not call executeUpdate on a select query!");
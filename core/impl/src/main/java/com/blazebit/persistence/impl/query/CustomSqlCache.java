@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCache;
+
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache for the final SQL of custom query specifications that is shared by all builders of a criteria builder factory.
+ * The key is made up of the SQL of the participating queries and everything else that influences the text rewriting
+ * for CTEs, entity functions and VALUES clauses, so that repeated queries can skip the whole rewriting pipeline.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CustomSqlCache {
+
+    private static final String CACHE_NAME = "CustomSql";
+
+    private final ExpressionCache<Entry> cache;
+
+    public CustomSqlCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Invalid custom sql cache maximum size: " + maximumSize);
+        }
+        this.cache = new BoundedExpressionCache<>(maximumSize, Collections.<String, Integer>emptyMap());
+    }
+
+    public Entry get(String key) {
+        return cache.get(CACHE_NAME, key);
+    }
+
+    public void put(String key, String sql, List<Query> participatingQueries, List<Query> candidateQueries, Map<String, String> addedCtes, boolean withClause) {
+        int[] participatingQueryIndexes = new int[participatingQueries.size()];
+        for (int i = 0; i < participatingQueryIndexes.length; i++) {
+            int index = indexOf(candidateQueries, participatingQueries.get(i));
+            if (index == -1) {
+                // We can't reconstruct the participating queries, so don't cache this at all
+                return;
+            }
+            participatingQueryIndexes[i] = index;
+        }
+        Map<String, String> cachedAddedCtes = addedCtes == null ? null : Collections.unmodifiableMap(addedCtes);
+        cache.putIfAbsent(CACHE_NAME, key, new Entry(sql, participatingQueryIndexes, cachedAddedCtes, withClause));
+    }
+
+    private static int indexOf(List<Query> queries, Query query) {
+        // Queries don't necessarily implement equals, so we compare by identity
+        for (int i = 0; i < queries.size(); i++) {
+            if (queries.get(i) == query) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    public static final class Entry {
+
+        private final String sql;
+        private final int[] participatingQueryIndexes;
+        private final Map<String, String> addedCtes;
+        private final boolean withClause;
+
+        private Entry(String sql, int[] participatingQueryIndexes, Map<String, String> addedCtes, boolean withClause) {
+            this.sql = sql;
+            this.participatingQueryIndexes = participatingQueryIndexes;
+            this.addedCtes = addedCtes;
+            this.withClause = withClause;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<Query> getParticipatingQueries(List<Query> candidateQueries) {
+            List<Query> participatingQueries = new ArrayList<>(participatingQueryIndexes.length);
+            for (int i = 0; i < participatingQueryIndexes.length; i++) {
+                participatingQueries.add(candidateQueries.get(participatingQueryIndexes[i]));
+            }
+            return participatingQueries;
+        }
+
+        public Map<String, String> getAddedCtes() {
+            return addedCtes;
+        }
+
+        /**
+         * Returns whether a with clause was rendered for the CTEs of the query.
+         *
+         * @return true if a with clause was rendered, false otherwise
+         */
+        public boolean hasWithClause() {
+            return withClause;
+        }
+    }
+}
@@ -94,4 +94,10 @@ public class DefaultQuerySpecification implements QuerySpecification {
             query.setParameter(parameterName, value);
         }
     }
+
+    @Override
+    public int getInListPaddingLimit() {
+        // Default specifications only describe participating queries, parameters are bound through the owning custom query
+        return 0;
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.CloseableIterator;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A result iterator over an already materialized result list.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class MaterializedResultIterator<X> implements CloseableIterator<X> {
+
+    private final Iterator<X> iterator;
+
+    public MaterializedResultIterator(List<X> resultList) {
+        this.iterator = resultList.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public X next() {
+        return iterator.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing results is not supported!");
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+}
@@ -89,31 +89,70 @@ public class ModificationQuerySpecification<T> extends CustomQuerySpecification<
 
     @Override
     protected void initialize() {
-        List<Query> participatingQueries = new ArrayList<Query>();
-
         for (Map.Entry<String, Collection<?>> entry : listParameters.entrySet()) {
             baseQuery.setParameter(entry.getKey(), entry.getValue());
         }
 
         String sqlQuery = extendedQuerySupport.getSql(em, baseQuery);
+        String cacheKey = getCacheKey(sqlQuery);
+        List<Query> candidateQueries = cacheKey == null ? null : getCandidateQueries();
+        CustomSqlCache.Entry entry = applyCachedSql(cacheKey, candidateQueries);
+        if (entry != null) {
+            query = getModificationQuery(entry.hasWithClause(), baseQuery);
+            return;
+        }
+
+        List<Query> participatingQueries = new ArrayList<Query>();
         StringBuilder sqlSb = applySqlTransformations(sqlQuery);
         StringBuilder withClause = applyCtes(sqlSb, baseQuery, participatingQueries);
         // NOTE: CTEs will only be added, if this is a subquery
         Map<String, String> addedCtes = applyExtendedSql(sqlSb, false, isEmbedded, withClause, returningColumns, includedModificationStates);
         participatingQueries.add(baseQuery);
 
-        // Some dbms like DB2 will need to wrap modification queries in select queries when using CTEs
-        boolean hasCtes = withClause != null && withClause.length() != 0 || addedCtes != null && !addedCtes.isEmpty();
-        if (hasCtes && returningAttributeBindingMap.isEmpty() && !dbmsDialect.usesExecuteUpdateWhenWithClauseInModificationQuery()) {
-            query = exampleQuery;
-        } else {
-            query = baseQuery;
-        }
-
         this.sql = sqlSb.toString();
         this.participatingQueries = participatingQueries;
         this.addedCtes = addedCtes;
         this.dirty = false;
+        query = getModificationQuery(withClause != null, baseQuery);
+
+        putCachedSql(cacheKey, candidateQueries, withClause != null);
+    }
+
+    @Override
+    protected boolean requiresSqlRewriting() {
+        return true;
+    }
+
+    @Override
+    protected void appendCacheKey(StringBuilder sb) {
+        appendCacheKeyPart(sb, Boolean.toString(isEmbedded));
+        appendCacheKeyPart(sb, returningColumns);
+        if (includedModificationStates == null) {
+            appendCacheKeyPart(sb, (String) null);
+        } else {
+            appendCacheKeyPart(sb, Integer.toString(includedModificationStates.size()));
+            for (Map.Entry<DbmsModificationState, String> entry : includedModificationStates.entrySet()) {
+                appendCacheKeyPart(sb, entry.getKey().name());
+                appendCacheKeyPart(sb, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns the query that is executed for this modification query specification.
+     *
+     * @param withClause Whether a with clause was rendered for the CTEs
+     * @param modificationQuery The query to use if the modification query doesn't have to be wrapped
+     * @return The query to execute
+     */
+    protected final Query getModificationQuery(boolean withClause, Query modificationQuery) {
+        // Some dbms like DB2 will need to wrap modification queries in select queries when using CTEs
+        boolean hasCtes = withClause || addedCtes != null && !addedCtes.isEmpty();
+        if (hasCtes && returningAttributeBindingMap.isEmpty() && !dbmsDialect.usesExecuteUpdateWhenWithClauseInModificationQuery()) {
+            return exampleQuery;
+        } else {
+            return modificationQuery;
+        }
     }
 
     protected final void remapColumnExpressions(StringBuilder sqlSb, Map<String, String> columnExpressionRemappings) {
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.ObjectBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A result iterator that transforms the tuples of an underlying iterator with an object builder.
+ * Tuples are transformed in chunks so that list transformations like batched correlations still work.
+ * Since a chunk is transformed independently of other chunks, the object builder must not combine multiple tuples into one object.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ObjectBuilderResultIterator<X> implements CloseableIterator<X> {
+
+    private final CloseableIterator<?> tupleIterator;
+    private final ObjectBuilder<X> builder;
+    private final int chunkSize;
+    private final Object[] singleObjectTuple = new Object[1];
+    private List<X> chunk = Collections.emptyList();
+    private int chunkIndex;
+
+    public ObjectBuilderResultIterator(CloseableIterator<?> tupleIterator, ObjectBuilder<X> builder, int chunkSize) {
+        this.tupleIterator = tupleIterator;
+        this.builder = builder;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (chunkIndex < chunk.size()) {
+            return true;
+        }
+        // Fetch chunks until we find a non-empty one because list transformations might filter elements
+        while (tupleIterator.hasNext()) {
+            chunk = nextChunk();
+            chunkIndex = 0;
+            if (!chunk.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<X> nextChunk() {
+        List<X> newChunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize && tupleIterator.hasNext(); i++) {
+            Object tuple = tupleIterator.next();
+            if (tuple instanceof Object[]) {
+                newChunk.add(builder.build((Object[]) tuple));
+            } else {
+                singleObjectTuple[0] = tuple;
+                newChunk.add(builder.build(singleObjectTuple));
+            }
+        }
+        return builder.buildList(newChunk);
+    }
+
+    @Override
+    public X next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return chunk.get(chunkIndex++);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing results is not supported!");
+    }
+
+    @Override
+    public void close() {
+        chunk = Collections.emptyList();
+        tupleIterator.close();
+    }
+}
@@ -40,6 +40,14 @@ public class ObjectBuilderTypedQuery<X> extends TypedQueryWrapper<X> {
         this.builder = builder;
     }
 
+    public TypedQuery<?> getDelegate() {
+        return delegate;
+    }
+
+    public ObjectBuilder<X> getObjectBuilder() {
+        return builder;
+    }
+
     @Override
     public X getSingleResult() {
         List<X> list = getResultList();
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.impl.ParameterManager;
+import com.blazebit.persistence.impl.ParameterValueTransformer;
+
+import javax.persistence.Parameter;
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A query wrapper that applies parameter value transformers and IN list padding to values before binding them.
+ * All parameter binding variants are covered, so that the values are transformed regardless of how the parameter is addressed.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ParameterTransformingTypedQuery<X> extends TypedQueryWrapper<X> {
+
+    private final Map<String, ParameterValueTransformer> transformers;
+    private final int inListPaddingLimit;
+
+    public ParameterTransformingTypedQuery(TypedQuery<X> delegate, Map<String, ParameterValueTransformer> transformers, int inListPaddingLimit) {
+        super(delegate);
+        Map<String, ParameterValueTransformer> newTransformers = new HashMap<>(transformers.size());
+        for (Map.Entry<String, ParameterValueTransformer> entry : transformers.entrySet()) {
+            newTransformers.put(entry.getKey(), entry.getValue().forQuery(delegate));
+        }
+        this.transformers = newTransformers;
+        this.inListPaddingLimit = inListPaddingLimit;
+    }
+
+    @Override
+    public <T> TypedQuery<X> setParameter(Parameter<T> prmtr, T t) {
+        if (prmtr.getName() == null) {
+            return setParameter(prmtr.getPosition(), t);
+        }
+        return setParameter(prmtr.getName(), t);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(Parameter<Calendar> prmtr, Calendar clndr, TemporalType tt) {
+        if (prmtr.getName() == null) {
+            return setParameter(prmtr.getPosition(), clndr, tt);
+        }
+        return setParameter(prmtr.getName(), clndr, tt);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(Parameter<Date> prmtr, Date date, TemporalType tt) {
+        if (prmtr.getName() == null) {
+            return setParameter(prmtr.getPosition(), date, tt);
+        }
+        return setParameter(prmtr.getName(), date, tt);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(String string, Object o) {
+        delegate.setParameter(string, transformValue(string, o));
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(String string, Calendar clndr, TemporalType tt) {
+        Object value = transformValue(string, clndr);
+        if (value == clndr) {
+            delegate.setParameter(string, clndr, tt);
+        } else {
+            delegate.setParameter(string, value);
+        }
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(String string, Date date, TemporalType tt) {
+        Object value = transformValue(string, date);
+        if (value == date) {
+            delegate.setParameter(string, date, tt);
+        } else {
+            delegate.setParameter(string, value);
+        }
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(int i, Object o) {
+        delegate.setParameter(i, transformValue(Integer.toString(i), o));
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(int i, Calendar clndr, TemporalType tt) {
+        Object value = transformValue(Integer.toString(i), clndr);
+        if (value == clndr) {
+            delegate.setParameter(i, clndr, tt);
+        } else {
+            delegate.setParameter(i, value);
+        }
+        return this;
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(int i, Date date, TemporalType tt) {
+        Object value = transformValue(Integer.toString(i), date);
+        if (value == date) {
+            delegate.setParameter(i, date, tt);
+        } else {
+            delegate.setParameter(i, value);
+        }
+        return this;
+    }
+
+    private Object transformValue(String parameterName, Object value) {
+        ParameterValueTransformer transformer = transformers.get(parameterName);
+        if (transformer != null) {
+            value = transform(transformer, value);
+        }
+        if (inListPaddingLimit > 0 && value instanceof Collection<?>) {
+            value = ParameterManager.padCollection((Collection<?>) value, inListPaddingLimit);
+        }
+        return value;
+    }
+
+    private static Object transform(ParameterValueTransformer transformer, Object value) {
+        if (value instanceof Collection<?>) {
+            Collection<?> values = (Collection<?>) value;
+            List<Object> list = new ArrayList<>(values.size());
+            for (Object o : values) {
+                list.add(transformer.transform(o));
+            }
+            return list;
+        } else {
+            return transformer.transform(value);
+        }
+    }
+}
@@ -49,4 +49,6 @@ public interface QuerySpecification<T> {
 
     public void onCollectionParameterChange(String parameterName, Collection<?> value);
 
+    public int getInListPaddingLimit();
+
 }
@@ -44,7 +44,12 @@ public class ReturningModificationQuerySpecification<T> extends CustomQuerySpeci
 
     public ReturningModificationQuerySpecification(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> commonQueryBuilder, Query baseQuery, Query exampleQuery, Set<Parameter<?>> parameters, Set<String> parameterListNames, boolean recursive, List<CTENode> ctes, boolean shouldRenderCteNodes,
                                                    String[] returningColumns, ReturningObjectBuilder<T> objectBuilder) {
-        super(commonQueryBuilder, baseQuery, parameters, parameterListNames, null, null, Collections.EMPTY_LIST, Collections.EMPTY_LIST, recursive, ctes, shouldRenderCteNodes);
+        this(commonQueryBuilder, baseQuery, exampleQuery, parameters, parameterListNames, Collections.<EntityFunctionNode>emptyList(), recursive, ctes, shouldRenderCteNodes, returningColumns, objectBuilder);
+    }
+
+    public ReturningModificationQuerySpecification(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> commonQueryBuilder, Query baseQuery, Query exampleQuery, Set<Parameter<?>> parameters, Set<String> parameterListNames, List<EntityFunctionNode> entityFunctionNodes,
+                                                   boolean recursive, List<CTENode> ctes, boolean shouldRenderCteNodes, String[] returningColumns, ReturningObjectBuilder<T> objectBuilder) {
+        super(commonQueryBuilder, baseQuery, parameters, parameterListNames, null, null, Collections.<String>emptyList(), entityFunctionNodes, recursive, ctes, shouldRenderCteNodes);
         this.exampleQuery = exampleQuery;
         this.returningColumns = returningColumns;
         this.objectBuilder = objectBuilder;
@@ -69,13 +74,19 @@ public class ReturningModificationQuerySpecification<T> extends CustomQuerySpeci
 
     @Override
     protected void initialize() {
-        List<Query> participatingQueries = new ArrayList<Query>();
-
         for (Map.Entry<String, Collection<?>> entry : listParameters.entrySet()) {
             baseQuery.setParameter(entry.getKey(), entry.getValue());
         }
 
-        StringBuilder sqlSb = new StringBuilder(extendedQuerySupport.getSql(em, baseQuery));
+        String sqlQuery = extendedQuerySupport.getSql(em, baseQuery);
+        String cacheKey = getCacheKey(sqlQuery);
+        List<Query> candidateQueries = cacheKey == null ? null : getCandidateQueries();
+        if (applyCachedSql(cacheKey, candidateQueries) != null) {
+            return;
+        }
+
+        List<Query> participatingQueries = new ArrayList<Query>();
+        StringBuilder sqlSb = applySqlTransformations(sqlQuery);
         StringBuilder withClause = applyCtes(sqlSb, baseQuery, participatingQueries);
         // NOTE: CTEs will only be added, if this is a subquery
         Map<String, String> addedCtes = applyExtendedSql(sqlSb, false, false, withClause, returningColumns, null);
@@ -85,5 +96,17 @@ public class ReturningModificationQuerySpecification<T> extends CustomQuerySpeci
         this.participatingQueries = participatingQueries;
         this.addedCtes = addedCtes;
         this.dirty = false;
+
+        putCachedSql(cacheKey, candidateQueries, withClause != null);
+    }
+
+    @Override
+    protected boolean requiresSqlRewriting() {
+        return true;
+    }
+
+    @Override
+    protected void appendCacheKey(StringBuilder sb) {
+        appendCacheKeyPart(sb, returningColumns);
     }
 }
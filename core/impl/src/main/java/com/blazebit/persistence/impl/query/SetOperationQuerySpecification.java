@@ -63,7 +63,6 @@ public class SetOperationQuerySpecification<T> extends CustomQuerySpecification<
     protected void initialize() {
         String sqlQuery;
         List<Query> participatingQueries = new ArrayList<Query>();
-        List<Query> cteQueries = new ArrayList<Query>();
 
         bindListParameters(baseQuery);
         if (leftMostQuery instanceof CustomSQLQuery) {
@@ -112,6 +111,22 @@ public class SetOperationQuerySpecification<T> extends CustomQuerySpecification<
             size += setOperandSql.length() + 30;
         }
 
+        // The SQL of all set operands makes up the SQL of the base query
+        StringBuilder keySqlSb = new StringBuilder(size);
+        for (String setOperand : setOperands) {
+            appendCacheKeyPart(keySqlSb, setOperand);
+        }
+        String cacheKey = getCacheKey(keySqlSb.toString());
+        List<Query> candidateQueries = null;
+        if (cacheKey != null) {
+            candidateQueries = getCandidateQueries();
+            candidateQueries.addAll(participatingQueries);
+        }
+        if (applyCachedSql(cacheKey, candidateQueries) != null) {
+            return;
+        }
+
+        List<Query> cteQueries = new ArrayList<Query>();
         StringBuilder sqlSb = new StringBuilder(size);
 
         dbmsDialect.appendSet(sqlSb, operator, nested, setOperands, orderByElements, limit, offset);
@@ -125,6 +140,27 @@ public class SetOperationQuerySpecification<T> extends CustomQuerySpecification<
         this.participatingQueries = participatingQueries;
         this.addedCtes = addedCtes;
         this.dirty = false;
+
+        putCachedSql(cacheKey, candidateQueries, withClause != null);
+    }
+
+    @Override
+    protected boolean requiresSqlRewriting() {
+        return true;
+    }
+
+    @Override
+    protected void appendCacheKey(StringBuilder sb) {
+        // The operator is null when one side of the set operation is empty
+        appendCacheKeyPart(sb, String.valueOf(operator));
+        appendCacheKeyPart(sb, Boolean.toString(nested));
+        appendCacheKeyPart(sb, Integer.toString(orderByElements.size()));
+        for (OrderByElement orderByElement : orderByElements) {
+            appendCacheKeyPart(sb, Integer.toString(orderByElement.getPosition()));
+            appendCacheKeyPart(sb, Boolean.toString(orderByElement.isAscending()));
+            appendCacheKeyPart(sb, Boolean.toString(orderByElement.isNullable()));
+            appendCacheKeyPart(sb, Boolean.toString(orderByElement.isNullsFirst()));
+        }
     }
 
     @Override
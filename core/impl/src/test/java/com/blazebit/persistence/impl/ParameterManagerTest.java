@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.persistence.Query;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ParameterManagerTest {
+
+    @Test
+    public void padCollectionToNextPowerOfTwo() {
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 3), ParameterManager.padCollection(Arrays.asList(1, 2, 3), Integer.MAX_VALUE));
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5, 5, 5, 5), ParameterManager.padCollection(Arrays.asList(1, 2, 3, 4, 5), Integer.MAX_VALUE));
+        Assert.assertEquals(16, ParameterManager.padCollection(Collections.nCopies(9, 1), Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void padCollectionKeepsPowerOfTwoSizes() {
+        Collection<?> empty = Collections.emptyList();
+        Collection<?> single = Collections.singletonList(1);
+        Collection<?> two = Arrays.asList(1, 2);
+        Collection<?> four = Arrays.asList(1, 2, 3, 4);
+        Assert.assertSame(empty, ParameterManager.padCollection(empty, Integer.MAX_VALUE));
+        Assert.assertSame(single, ParameterManager.padCollection(single, Integer.MAX_VALUE));
+        Assert.assertSame(two, ParameterManager.padCollection(two, Integer.MAX_VALUE));
+        Assert.assertSame(four, ParameterManager.padCollection(four, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void padCollectionRespectsMaximumSize() {
+        // Oracle only allows 1000 elements in an IN list
+        Assert.assertEquals(1000, ParameterManager.padCollection(Collections.nCopies(600, 1), 1000).size());
+        Collection<?> maximum = Collections.nCopies(1000, 1);
+        Collection<?> aboveMaximum = Collections.nCopies(1001, 1);
+        Assert.assertSame(maximum, ParameterManager.padCollection(maximum, 1000));
+        Assert.assertSame(aboveMaximum, ParameterManager.padCollection(aboveMaximum, 1000));
+    }
+
+    @Test
+    public void bindPadsCollectionValue() {
+        Map<String, Object> boundValues = new HashMap<>();
+        Query query = recordingQuery(boundValues);
+        new ParameterManager.ParameterImpl<>("values", true, Arrays.asList(1, 2, 3)).bind(query, 1000);
+        new ParameterManager.ParameterImpl<>("unpadded", true, Arrays.asList(1, 2, 3)).bind(query, 0);
+        new ParameterManager.ParameterImpl<>("capped", true, Collections.nCopies(600, 1)).bind(query, 1000);
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 3), boundValues.get("values"));
+        Assert.assertEquals(Arrays.asList(1, 2, 3), boundValues.get("unpadded"));
+        Assert.assertEquals(1000, ((List<?>) boundValues.get("capped")).size());
+    }
+
+    private static Query recordingQuery(final Map<String, Object> boundValues) {
+        return (Query) Proxy.newProxyInstance(ParameterManagerTest.class.getClassLoader(), new Class<?>[]{ Query.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("setParameter".equals(method.getName()) && args.length == 2) {
+                    boundValues.put((String) args[0], args[1]);
+                    return proxy;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.dialect;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class PostgreSQLDbmsDialectTest {
+
+    private final PostgreSQLDbmsDialect dialect = new PostgreSQLDbmsDialect();
+
+    @Test
+    public void extractRowCountEstimateFromInputNode() {
+        long estimate = dialect.extractRowCountEstimate(Arrays.asList(
+                "Aggregate  (cost=20.88..20.89 rows=1 width=8)",
+                "  ->  Seq Scan on document d  (cost=0.00..18.70 rows=870 width=0)",
+                "        Filter: (age > 10)"
+        ));
+        Assert.assertEquals(870L, estimate);
+    }
+
+    @Test
+    public void extractRowCountEstimateFromArrayRows() {
+        long estimate = dialect.extractRowCountEstimate(Arrays.asList(
+                new Object[]{ "Aggregate  (cost=20.88..20.89 rows=1 width=8)" },
+                new Object[]{ "  ->  Index Only Scan using document_pkey on document d  (cost=0.15..12.40 rows=42 width=0)" }
+        ));
+        Assert.assertEquals(42L, estimate);
+    }
+
+    @Test
+    public void extractRowCountEstimateFromSingleNodePlan() {
+        Assert.assertEquals(123L, dialect.extractRowCountEstimate(Collections.singletonList("Result  (cost=0.00..0.01 rows=123 width=8)")));
+    }
+
+    @Test
+    public void extractRowCountEstimateWithoutEstimate() {
+        Assert.assertEquals(-1L, dialect.extractRowCountEstimate(Collections.emptyList()));
+        Assert.assertEquals(-1L, dialect.extractRowCountEstimate(Collections.singletonList("Result  (cost=0.00..0.01 width=8)")));
+        Assert.assertEquals(-1L, dialect.extractRowCountEstimate(Collections.singletonList("Result  (cost=0.00..0.01 rows=? width=8)")));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CountCacheTest {
+
+    private static final Map<Object, Object> NO_PARAMETERS = Collections.emptyMap();
+
+    @Test
+    public void evictLeastRecentlyUsedEntryWhenFull() {
+        CountCache cache = new CountCache(60000L, 2);
+        cache.put("q1", NO_PARAMETERS, 1L);
+        cache.put("q2", NO_PARAMETERS, 2L);
+        // Accessing q1 makes q2 the least recently used entry
+        Assert.assertEquals(Long.valueOf(1L), cache.get("q1", NO_PARAMETERS));
+        cache.put("q3", NO_PARAMETERS, 3L);
+
+        Assert.assertEquals(Long.valueOf(1L), cache.get("q1", NO_PARAMETERS));
+        Assert.assertNull(cache.get("q2", NO_PARAMETERS));
+        Assert.assertEquals(Long.valueOf(3L), cache.get("q3", NO_PARAMETERS));
+    }
+
+    @Test
+    public void keyIncludesParameterValues() {
+        CountCache cache = new CountCache(60000L, 10);
+        cache.put("q1", Collections.<Object, Object>singletonMap("p", 1), 1L);
+        cache.put("q1", Collections.<Object, Object>singletonMap("p", 2), 2L);
+
+        Assert.assertEquals(Long.valueOf(1L), cache.get("q1", Collections.<Object, Object>singletonMap("p", 1)));
+        Assert.assertEquals(Long.valueOf(2L), cache.get("q1", Collections.<Object, Object>singletonMap("p", 2)));
+        Assert.assertNull(cache.get("q1", NO_PARAMETERS));
+    }
+
+    @Test
+    public void expiredEntriesAreNotReturned() throws InterruptedException {
+        CountCache cache = new CountCache(0L, 10);
+        cache.put("q1", NO_PARAMETERS, 1L);
+        Thread.sleep(5L);
+
+        Assert.assertNull(cache.get("q1", NO_PARAMETERS));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.impl.ParameterValueTransformer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ParameterTransformingTypedQueryTest {
+
+    private final Map<Object, Object> boundValues = new HashMap<>();
+    private TypedQuery<Object> query;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        TypedQuery<Object> delegate = (TypedQuery<Object>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ TypedQuery.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if ("setParameter".equals(method.getName())) {
+                    boundValues.put(args[0], args[1]);
+                }
+                return proxy;
+            }
+        });
+        Map<String, ParameterValueTransformer> transformers = new HashMap<>();
+        transformers.put("named", new PrefixingTransformer());
+        transformers.put("1", new PrefixingTransformer());
+        query = new ParameterTransformingTypedQuery<>(delegate, transformers, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void transformNamedParameter() {
+        query.setParameter("named", "a");
+        query.setParameter("other", "b");
+        Assert.assertEquals("x-a", boundValues.get("named"));
+        Assert.assertEquals("b", boundValues.get("other"));
+    }
+
+    @Test
+    public void transformPositionalParameter() {
+        query.setParameter(1, "a");
+        query.setParameter(2, "b");
+        Assert.assertEquals("x-a", boundValues.get(1));
+        Assert.assertEquals("b", boundValues.get(2));
+    }
+
+    @Test
+    public void transformParameterObject() {
+        query.setParameter(new ParameterImpl("named", null), "a");
+        query.setParameter(new ParameterImpl(null, 1), "b");
+        Assert.assertEquals("x-a", boundValues.get("named"));
+        Assert.assertEquals("x-b", boundValues.get(1));
+    }
+
+    @Test
+    public void transformTemporalParameter() {
+        Date date = new Date();
+        query.setParameter("named", date, TemporalType.DATE);
+        query.setParameter(2, date, TemporalType.DATE);
+        Assert.assertEquals("x-" + date, boundValues.get("named"));
+        Assert.assertSame(date, boundValues.get(2));
+    }
+
+    @Test
+    public void padCollectionParameters() {
+        query.setParameter("other", Arrays.asList("a", "b", "c"));
+        query.setParameter(2, Arrays.asList("a", "b", "c"));
+        query.setParameter("named", Arrays.asList("a", "b", "c"));
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "c"), boundValues.get("other"));
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "c"), boundValues.get(2));
+        Assert.assertEquals(Arrays.asList("x-a", "x-b", "x-c", "x-c"), boundValues.get("named"));
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static class PrefixingTransformer implements ParameterValueTransformer {
+
+        @Override
+        public ParameterValueTransformer forQuery(Query query) {
+            return this;
+        }
+
+        @Override
+        public Object transform(Object originalValue) {
+            return "x-" + originalValue;
+        }
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static class ParameterImpl implements Parameter<Object> {
+
+        private final String name;
+        private final Integer position;
+
+        public ParameterImpl(String name, Integer position) {
+            this.name = name;
+            this.position = position;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Integer getPosition() {
+            return position;
+        }
+
+        @Override
+        public Class<Object> getParameterType() {
+            return Object.class;
+        }
+    }
+}
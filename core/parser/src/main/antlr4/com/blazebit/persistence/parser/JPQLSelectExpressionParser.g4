@@ -28,6 +28,12 @@ public JPQLSelectExpressionParser(TokenStream input, boolean allowCaseWhen, bool
        this.allowQuantifiedPredicates = allowQuantifiedPredicates;
        this.allowTreatJoinExtension = allowTreatJoinExtension;
 }
+public void setFeatures(boolean allowCaseWhen, boolean allowQuantifiedPredicates, boolean allowTreatJoinExtension){
+       this.allowOuter = false;
+       this.allowCaseWhen = allowCaseWhen;
+       this.allowQuantifiedPredicates = allowQuantifiedPredicates;
+       this.allowTreatJoinExtension = allowTreatJoinExtension;
+}
 
 }
 
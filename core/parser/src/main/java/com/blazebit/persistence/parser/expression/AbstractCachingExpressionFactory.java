@@ -18,13 +18,20 @@ package com.blazebit.persistence.parser.expression;
 
 import com.blazebit.persistence.parser.predicate.Predicate;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  *
@@ -134,6 +141,41 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
         }
     };
 
+    private static final Logger LOG = Logger.getLogger("com.blazebit.persistence.parser");
+    private static final String PATH_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.PathExpression";
+    private static final String JOIN_BASE_PATH_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.JoinBasePathExpression";
+    private static final String JOIN_PATH_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.JoinPathExpression";
+    private static final String SIMPLE_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.SimpleExpression";
+    private static final String SIMPLE_OR_OBJECT_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.SimpleOrObjectExpression";
+    private static final String CASE_OPERAND_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.CaseOperandExpression";
+    private static final String SCALAR_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.ScalarExpression";
+    private static final String ARITHMETIC_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.ArithmeticExpression";
+    private static final String STRING_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.StringExpression";
+    private static final String ORDER_BY_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.OrderByExpression";
+    private static final String IN_ITEM_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.InPredicateExpression";
+    private static final String IN_ITEM_OR_PATH_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.InPredicateSingleExpression";
+    private static final String BOOLEAN_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.PredicateExpression";
+
+    private static final Map<String, ExpressionSupplier> EXPRESSION_SUPPLIERS;
+
+    static {
+        Map<String, ExpressionSupplier> suppliers = new HashMap<>();
+        suppliers.put(PATH_EXPRESSION_CACHE, PATH_EXPRESSION_SUPPLIER);
+        suppliers.put(JOIN_BASE_PATH_EXPRESSION_CACHE, JOIN_BASE_PATH_EXPRESSION_SUPPLIER);
+        suppliers.put(JOIN_PATH_EXPRESSION_CACHE, JOIN_PATH_EXPRESSION_SUPPLIER);
+        suppliers.put(SIMPLE_EXPRESSION_CACHE, SIMPLE_EXPRESSION_SUPPLIER);
+        suppliers.put(SIMPLE_OR_OBJECT_EXPRESSION_CACHE, SIMPLE_OR_OBJECT_EXPRESSION_SUPPLIER);
+        suppliers.put(CASE_OPERAND_EXPRESSION_CACHE, CASE_OPERAND_EXPRESSION_SUPPLIER);
+        suppliers.put(SCALAR_EXPRESSION_CACHE, SCALAR_EXPRESSION_SUPPLIER);
+        suppliers.put(ARITHMETIC_EXPRESSION_CACHE, ARITHMETIC_EXPRESSION_SUPPLIER);
+        suppliers.put(STRING_EXPRESSION_CACHE, STRING_EXPRESSION_SUPPLIER);
+        suppliers.put(ORDER_BY_EXPRESSION_CACHE, ORDER_BY_EXPRESSION_SUPPLIER);
+        suppliers.put(IN_ITEM_EXPRESSION_CACHE, IN_ITEM_EXPRESSION_SUPPLIER);
+        suppliers.put(IN_ITEM_OR_PATH_EXPRESSION_CACHE, IN_ITEM_OR_PATH_EXPRESSION_SUPPLIER);
+        suppliers.put(BOOLEAN_EXPRESSION_CACHE, BOOLEAN_EXPRESSION_SUPPLIER);
+        EXPRESSION_SUPPLIERS = suppliers;
+    }
+
     private final ExpressionFactory delegate;
     private final ExpressionCache<ExpressionCacheEntry> expressionCache;
 
@@ -157,52 +199,52 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
 
     @Override
     public PathExpression createPathExpression(final String expression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.PathExpression", delegate, expression, false, macroConfiguration, PATH_EXPRESSION_SUPPLIER);
+        return getOrDefault(PATH_EXPRESSION_CACHE, delegate, expression, false, macroConfiguration, PATH_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public PathExpression createJoinBasePathExpression(String expression, MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.JoinBasePathExpression", delegate, expression, false, macroConfiguration, JOIN_BASE_PATH_EXPRESSION_SUPPLIER);
+        return getOrDefault(JOIN_BASE_PATH_EXPRESSION_CACHE, delegate, expression, false, macroConfiguration, JOIN_BASE_PATH_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createJoinPathExpression(final String expression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.JoinPathExpression", delegate, expression, false, macroConfiguration, JOIN_PATH_EXPRESSION_SUPPLIER);
+        return getOrDefault(JOIN_PATH_EXPRESSION_CACHE, delegate, expression, false, macroConfiguration, JOIN_PATH_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createSimpleExpression(final String expression, final boolean allowQuantifiedPredicates, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.SimpleExpression", delegate, expression, allowQuantifiedPredicates, macroConfiguration, SIMPLE_EXPRESSION_SUPPLIER);
+        return getOrDefault(SIMPLE_EXPRESSION_CACHE, delegate, expression, allowQuantifiedPredicates, macroConfiguration, SIMPLE_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createSimpleOrObjectExpression(final String expression, boolean allowQuantifiedPredicates, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.SimpleOrObjectExpression", delegate, expression, allowQuantifiedPredicates, macroConfiguration, SIMPLE_OR_OBJECT_EXPRESSION_SUPPLIER);
+        return getOrDefault(SIMPLE_OR_OBJECT_EXPRESSION_CACHE, delegate, expression, allowQuantifiedPredicates, macroConfiguration, SIMPLE_OR_OBJECT_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createCaseOperandExpression(final String expression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.CaseOperandExpression", delegate, expression, false, macroConfiguration, CASE_OPERAND_EXPRESSION_SUPPLIER);
+        return getOrDefault(CASE_OPERAND_EXPRESSION_CACHE, delegate, expression, false, macroConfiguration, CASE_OPERAND_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createScalarExpression(final String expression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.ScalarExpression", delegate, expression, false, macroConfiguration, SCALAR_EXPRESSION_SUPPLIER);
+        return getOrDefault(SCALAR_EXPRESSION_CACHE, delegate, expression, false, macroConfiguration, SCALAR_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createArithmeticExpression(final String expression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.ArithmeticExpression", delegate, expression, false, macroConfiguration, ARITHMETIC_EXPRESSION_SUPPLIER);
+        return getOrDefault(ARITHMETIC_EXPRESSION_CACHE, delegate, expression, false, macroConfiguration, ARITHMETIC_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createStringExpression(final String expression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.StringExpression", delegate, expression, false, macroConfiguration, STRING_EXPRESSION_SUPPLIER);
+        return getOrDefault(STRING_EXPRESSION_CACHE, delegate, expression, false, macroConfiguration, STRING_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createOrderByExpression(final String expression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.OrderByExpression", delegate, expression, false, macroConfiguration, ORDER_BY_EXPRESSION_SUPPLIER);
+        return getOrDefault(ORDER_BY_EXPRESSION_CACHE, delegate, expression, false, macroConfiguration, ORDER_BY_EXPRESSION_SUPPLIER);
     }
 
     @Override
@@ -229,17 +271,78 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
 
     @Override
     public Expression createInItemExpression(final String parameterOrLiteralExpression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.InPredicateExpression", delegate, parameterOrLiteralExpression, false, macroConfiguration, IN_ITEM_EXPRESSION_SUPPLIER);
+        return getOrDefault(IN_ITEM_EXPRESSION_CACHE, delegate, parameterOrLiteralExpression, false, macroConfiguration, IN_ITEM_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createInItemOrPathExpression(final String parameterOrLiteralExpression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.InPredicateSingleExpression", delegate, parameterOrLiteralExpression, false, macroConfiguration, IN_ITEM_OR_PATH_EXPRESSION_SUPPLIER);
+        return getOrDefault(IN_ITEM_OR_PATH_EXPRESSION_CACHE, delegate, parameterOrLiteralExpression, false, macroConfiguration, IN_ITEM_OR_PATH_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Predicate createBooleanExpression(final String expression, final boolean allowQuantifiedPredicates, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.PredicateExpression", delegate, expression, allowQuantifiedPredicates, macroConfiguration, BOOLEAN_EXPRESSION_SUPPLIER);
+        return getOrDefault(BOOLEAN_EXPRESSION_CACHE, delegate, expression, allowQuantifiedPredicates, macroConfiguration, BOOLEAN_EXPRESSION_SUPPLIER);
+    }
+
+    /**
+     * Parses the given expressions in parallel and puts them into the expression cache so that later requests hit the cache.
+     * Unknown cache names and expressions that fail to parse are skipped, the latter are logged on the level <code>FINE</code>.
+     *
+     * @param expressions The expression strings by cache name as returned by {@link ExpressionCache#getCachedExpressions()}
+     * @param macroConfiguration The macro configuration to use for parsing
+     * @param parallelism The number of threads to use for parsing
+     * @since 1.4.0
+     */
+    public void warmUp(Map<String, ? extends Collection<String>> expressions, final MacroConfiguration macroConfiguration, int parallelism) {
+        final List<Map.Entry<String, String>> entries = new ArrayList<>();
+        for (Map.Entry<String, ? extends Collection<String>> entry : expressions.entrySet()) {
+            if (EXPRESSION_SUPPLIERS.containsKey(entry.getKey())) {
+                for (String expression : entry.getValue()) {
+                    entries.add(new AbstractMap.SimpleEntry<>(entry.getKey(), expression));
+                }
+            }
+        }
+
+        int threads = Math.min(parallelism, entries.size());
+        if (threads < 2) {
+            warmUp(entries, macroConfiguration, 0, 1);
+            return;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                final int offset = i;
+                final int step = threads;
+                tasks.add(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        warmUp(entries, macroConfiguration, offset, step);
+                        return null;
+                    }
+                });
+            }
+            executorService.invokeAll(tasks);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void warmUp(List<Map.Entry<String, String>> entries, MacroConfiguration macroConfiguration, int offset, int step) {
+        for (int i = offset; i < entries.size(); i += step) {
+            Map.Entry<String, String> entry = entries.get(i);
+            try {
+                getOrDefault(entry.getKey(), delegate, entry.getValue(), false, macroConfiguration, EXPRESSION_SUPPLIERS.get(entry.getKey()));
+            } catch (RuntimeException ex) {
+                // The expression might be invalid in the current configuration e.g. because of a missing macro, so we just skip it
+                if (LOG.isLoggable(Level.FINE)) {
+                    LOG.log(Level.FINE, "Skipping warmup of expression '" + entry.getValue() + "' for cache " + entry.getKey(), ex);
+                }
+            }
+        }
     }
 
     private <E extends Expression> E getOrDefault(String cacheName, ExpressionFactory expressionFactory, String expression, boolean allowQuantifiedPredicates, MacroConfiguration macroConfiguration, ExpressionSupplier defaultExpressionSupplier) {
@@ -20,21 +20,31 @@ import com.blazebit.persistence.parser.JPQLSelectExpressionLexer;
 import com.blazebit.persistence.parser.JPQLSelectExpressionParser;
 import com.blazebit.persistence.parser.predicate.Predicate;
 import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.ANTLRErrorStrategy;
 import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.atn.ATNConfigSet;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -172,8 +182,44 @@ public abstract class AbstractExpressionFactory extends AbstractExpressionFactor
     private final int minEnumSegmentCount;
     private final int minEntitySegmentCount;
     private final ExpressionOptimizer optimizer = new ExpressionOptimizer();
+    private final int parserPoolSize;
+    private final int dfaMaximumStates;
+    private final Queue<ParserEntry> parserPool;
+    private final AtomicInteger pooledParserCount = new AtomicInteger();
+    private final AtomicLong parseCount = new AtomicLong();
+    private final AtomicLong fallbackCount = new AtomicLong();
+    private final AtomicLong totalParseTimeNanos = new AtomicLong();
+    private final AtomicLong maxParseTimeNanos = new AtomicLong();
+    private final AtomicLong dfaResetCount = new AtomicLong();
 
     protected AbstractExpressionFactory(Set<String> aggregateFunctions, Map<String, Class<?>> entityTypes, Map<String, Class<Enum<?>>> enumTypes, boolean allowTreatJoinExtension, boolean optimize) {
+        this(aggregateFunctions, entityTypes, enumTypes, allowTreatJoinExtension, optimize, 0, 0);
+    }
+
+    /**
+     * Creates an expression factory that pools up to <code>parserPoolSize</code> parser instances for reuse
+     * and clears the shared DFA cache of the parser when it grows beyond <code>dfaMaximumStates</code> states.
+     * A value of 0 disables the pooling or the DFA cache reset respectively.
+     *
+     * @param aggregateFunctions The names of the aggregate functions
+     * @param entityTypes The entity types by name
+     * @param enumTypes The enum types by name
+     * @param allowTreatJoinExtension Whether to allow the treat join extension
+     * @param optimize Whether to optimize parsed expressions
+     * @param parserPoolSize The maximum number of pooled parsers
+     * @param dfaMaximumStates The maximum number of DFA states after which the DFA cache is cleared
+     * @since 1.4.0
+     */
+    protected AbstractExpressionFactory(Set<String> aggregateFunctions, Map<String, Class<?>> entityTypes, Map<String, Class<Enum<?>>> enumTypes, boolean allowTreatJoinExtension, boolean optimize, int parserPoolSize, int dfaMaximumStates) {
+        if (parserPoolSize < 0) {
+            throw new IllegalArgumentException("Invalid negative parser pool size: " + parserPoolSize);
+        }
+        if (dfaMaximumStates < 0) {
+            throw new IllegalArgumentException("Invalid negative maximum DFA states: " + dfaMaximumStates);
+        }
+        this.parserPoolSize = parserPoolSize;
+        this.dfaMaximumStates = dfaMaximumStates;
+        this.parserPool = parserPoolSize == 0 ? null : new ConcurrentLinkedQueue<ParserEntry>();
         this.aggregateFunctions = aggregateFunctions;
         this.entityTypes = entityTypes;
         this.enumTypes = enumTypes;
@@ -222,28 +268,119 @@ public abstract class AbstractExpressionFactory extends AbstractExpressionFactor
         if (expression.isEmpty()) {
             throw new IllegalArgumentException("expression");
         }
-        JPQLSelectExpressionLexer l = new JPQLSelectExpressionLexer(new ANTLRInputStream(expression));
+        ParserEntry entry = acquireParser(new ANTLRInputStream(expression), allowCaseWhen, allowQuantifiedPredicates, allowTreatJoinExtension);
+        try {
+            ParserRuleContext ctx;
+            long start = System.nanoTime();
+            try {
+                ctx = invokeRule(ruleInvoker, entry);
+            } catch (SyntaxErrorException ex) {
+                throw new SyntaxErrorException("Could not parse expression '" + expression + "', " + ex.getMessage(), ex);
+            } finally {
+                recordParse(entry.parser, System.nanoTime() - start);
+            }
+
+            if (LOG.isLoggable(Level.FINEST)) {
+                LOG.finest(ctx.toStringTree());
+            }
+
+            JPQLSelectExpressionVisitorImpl visitor = new JPQLSelectExpressionVisitorImpl(aggregateFunctions, enumTypes, entityTypes, minEnumSegmentCount, minEntitySegmentCount, macroConfiguration == null ? Collections.EMPTY_MAP : macroConfiguration.macros, usedMacros);
+            Expression parsedExpression = visitor.visit(ctx);
+            if (optimize) {
+                parsedExpression = parsedExpression.accept(optimizer);
+            }
+            return parsedExpression;
+        } finally {
+            releaseParser(entry);
+        }
+    }
+
+    private ParserEntry acquireParser(CharStream input, boolean allowCaseWhen, boolean allowQuantifiedPredicates, boolean allowTreatJoinExtension) {
+        if (parserPool != null) {
+            ParserEntry entry = parserPool.poll();
+            if (entry != null) {
+                pooledParserCount.decrementAndGet();
+                entry.reset(input, allowCaseWhen, allowQuantifiedPredicates, allowTreatJoinExtension);
+                return entry;
+            }
+        }
+
+        JPQLSelectExpressionLexer l = new JPQLSelectExpressionLexer(input);
         configureLexer(l);
         CommonTokenStream tokens = new CommonTokenStream(l);
         JPQLSelectExpressionParser p = new JPQLSelectExpressionParser(tokens, allowCaseWhen, allowQuantifiedPredicates, allowTreatJoinExtension);
         configureParser(p);
-        ParserRuleContext ctx;
+        return new ParserEntry(l, p);
+    }
+
+    private void releaseParser(ParserEntry entry) {
+        if (parserPool != null) {
+            if (pooledParserCount.incrementAndGet() <= parserPoolSize) {
+                parserPool.offer(entry);
+            } else {
+                pooledParserCount.decrementAndGet();
+            }
+        }
+    }
+
+    private ParserRuleContext invokeRule(RuleInvoker ruleInvoker, ParserEntry entry) {
+        JPQLSelectExpressionParser parser = entry.parser;
+        ParserATNSimulator interpreter = parser.getInterpreter();
+        // Only apply the two-stage parsing when the parser wasn't configured to use a special prediction mode
+        if (interpreter.getPredictionMode() != PredictionMode.LL) {
+            return ruleInvoker.invokeRule(parser);
+        }
+
+        // The SLL prediction mode is a lot faster and succeeds for almost all expressions
+        // Only if it fails, we have to parse again with full LL prediction which will also report errors properly
+        interpreter.setPredictionMode(PredictionMode.SLL);
+        parser.setErrorHandler(entry.bailErrorStrategy);
+        parser.removeErrorListeners();
         try {
-            ctx = ruleInvoker.invokeRule(p);
-        } catch (SyntaxErrorException ex) {
-            throw new SyntaxErrorException("Could not parse expression '" + expression + "', " + ex.getMessage(), ex);
+            return ruleInvoker.invokeRule(parser);
+        } catch (ParseCancellationException ex) {
+            fallbackCount.incrementAndGet();
+            parser.reset();
+            entry.restoreErrorHandling();
+            interpreter.setPredictionMode(PredictionMode.LL);
+            return ruleInvoker.invokeRule(parser);
+        } finally {
+            // Restore the configuration so that the parser can be reused
+            entry.restoreErrorHandling();
+            interpreter.setPredictionMode(PredictionMode.LL);
         }
+    }
 
-        if (LOG.isLoggable(Level.FINEST)) {
-            LOG.finest(ctx.toStringTree());
+    private void recordParse(JPQLSelectExpressionParser parser, long parseTimeNanos) {
+        parseCount.incrementAndGet();
+        totalParseTimeNanos.addAndGet(parseTimeNanos);
+        long maxParseTime = maxParseTimeNanos.get();
+        while (parseTimeNanos > maxParseTime && !maxParseTimeNanos.compareAndSet(maxParseTime, parseTimeNanos)) {
+            maxParseTime = maxParseTimeNanos.get();
         }
 
-        JPQLSelectExpressionVisitorImpl visitor = new JPQLSelectExpressionVisitorImpl(aggregateFunctions, enumTypes, entityTypes, minEnumSegmentCount, minEntitySegmentCount, macroConfiguration == null ? Collections.EMPTY_MAP : macroConfiguration.macros, usedMacros);
-        Expression parsedExpression = visitor.visit(ctx);
-        if (optimize) {
-            parsedExpression = parsedExpression.accept(optimizer);
+        if (dfaMaximumStates > 0) {
+            ParserATNSimulator interpreter = parser.getInterpreter();
+            int stateCount = 0;
+            for (DFA dfa : interpreter.decisionToDFA) {
+                stateCount += dfa.states.size();
+            }
+            if (stateCount > dfaMaximumStates) {
+                // Note that the DFA is shared by all parsers, so this affects parsers of other expression factories as well
+                interpreter.clearDFA();
+                dfaResetCount.incrementAndGet();
+            }
         }
-        return parsedExpression;
+    }
+
+    /**
+     * Returns a snapshot of the parse statistics of this expression factory.
+     *
+     * @return the parse statistics
+     * @since 1.4.0
+     */
+    public ExpressionParserStatistics getParserStatistics() {
+        return new ExpressionParserStatistics(parseCount.get(), fallbackCount.get(), totalParseTimeNanos.get(), maxParseTimeNanos.get(), dfaResetCount.get(), pooledParserCount.get());
     }
 
     protected abstract RuleInvoker getSimpleExpressionRuleInvoker();
@@ -345,6 +482,42 @@ public abstract class AbstractExpressionFactory extends AbstractExpressionFactor
         parser.addErrorListener(ERR_LISTENER);
     }
 
+    /**
+     * A lexer and parser pair with the configured error handling so that it can be reused.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class ParserEntry {
+
+        private final JPQLSelectExpressionLexer lexer;
+        private final JPQLSelectExpressionParser parser;
+        private final ANTLRErrorStrategy errorHandler;
+        private final List<ANTLRErrorListener> errorListeners;
+        private final BailErrorStrategy bailErrorStrategy = new BailErrorStrategy();
+
+        public ParserEntry(JPQLSelectExpressionLexer lexer, JPQLSelectExpressionParser parser) {
+            this.lexer = lexer;
+            this.parser = parser;
+            this.errorHandler = parser.getErrorHandler();
+            this.errorListeners = new ArrayList<ANTLRErrorListener>(parser.getErrorListeners());
+        }
+
+        public void reset(CharStream input, boolean allowCaseWhen, boolean allowQuantifiedPredicates, boolean allowTreatJoinExtension) {
+            lexer.setInputStream(input);
+            parser.setTokenStream(new CommonTokenStream(lexer));
+            parser.setFeatures(allowCaseWhen, allowQuantifiedPredicates, allowTreatJoinExtension);
+        }
+
+        public void restoreErrorHandling() {
+            parser.setErrorHandler(errorHandler);
+            parser.removeErrorListeners();
+            for (ANTLRErrorListener errorListener : errorListeners) {
+                parser.addErrorListener(errorListener);
+            }
+        }
+    }
+
     /**
      *
      * @author Christian Beikov
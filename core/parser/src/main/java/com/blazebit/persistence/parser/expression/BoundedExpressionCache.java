@@ -0,0 +1,460 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An expression cache that bounds the number of entries per cache name.
+ *
+ * The eviction policy is a simplified W-TinyLFU. New entries enter a small LRU window and compete with the least recently
+ * used entry of a segmented LRU main region when leaving the window. An approximate access frequency, recorded in a
+ * count-min sketch, decides which one of the two is evicted. This keeps frequently used expressions cached even when
+ * many one-off expressions e.g. with inlined literals are parsed.
+ *
+ * Reordering entries on a cache hit is skipped when another thread currently holds the eviction lock of a region, so
+ * reads never block.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BoundedExpressionCache<T> implements ExpressionCache<T> {
+
+    /**
+     * The configuration property for the default maximum size of every cache region,
+     * which is also exposed as <code>com.blazebit.persistence.impl.ConfigurationProperties.EXPRESSION_CACHE_MAXIMUM_SIZE</code>.
+     * A cache specific maximum size can be configured by appending a dot and the cache name or the simple cache name
+     * e.g. <code>com.blazebit.persistence.expression.cache_maximum_size.PathExpression</code>.
+     */
+    public static final String MAXIMUM_SIZE_PROPERTY = "com.blazebit.persistence.expression.cache_maximum_size";
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final int defaultMaximumSize;
+    private final Map<String, Integer> maximumSizes;
+    private final ConcurrentMap<String, Region<T>> regions;
+
+    public BoundedExpressionCache() {
+        this(DEFAULT_MAXIMUM_SIZE, Collections.<String, Integer>emptyMap());
+    }
+
+    public BoundedExpressionCache(Map<String, String> properties) {
+        this(parseDefaultMaximumSize(properties), parseMaximumSizes(properties));
+    }
+
+    public BoundedExpressionCache(int defaultMaximumSize, Map<String, Integer> maximumSizes) {
+        if (defaultMaximumSize < 1) {
+            throw new IllegalArgumentException("Invalid default maximum size: " + defaultMaximumSize);
+        }
+        this.defaultMaximumSize = defaultMaximumSize;
+        this.maximumSizes = new HashMap<>(maximumSizes);
+        this.regions = new ConcurrentHashMap<>();
+    }
+
+    private static int parseDefaultMaximumSize(Map<String, String> properties) {
+        Object value = ((Map<?, ?>) properties).get(MAXIMUM_SIZE_PROPERTY);
+        if (value == null || value.toString().isEmpty()) {
+            return DEFAULT_MAXIMUM_SIZE;
+        }
+        return parseSize(MAXIMUM_SIZE_PROPERTY, value.toString());
+    }
+
+    private static Map<String, Integer> parseMaximumSizes(Map<String, String> properties) {
+        Map<String, Integer> maximumSizes = new HashMap<>();
+        String prefix = MAXIMUM_SIZE_PROPERTY + ".";
+        // The properties might contain arbitrary objects when passed in from java.util.Properties
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) properties).entrySet()) {
+            if (entry.getKey() instanceof String && ((String) entry.getKey()).startsWith(prefix)) {
+                String key = (String) entry.getKey();
+                maximumSizes.put(key.substring(prefix.length()), parseSize(key, String.valueOf(entry.getValue())));
+            }
+        }
+        return maximumSizes;
+    }
+
+    private static int parseSize(String propertyName, String value) {
+        try {
+            int size = Integer.parseInt(value.trim());
+            if (size > 0) {
+                return size;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through
+        }
+        throw new IllegalArgumentException("Illegal value '" + value + "' for positive integer property '" + propertyName + "'");
+    }
+
+    @Override
+    public T get(String cacheName, String expression) {
+        return getOrCreateRegion(cacheName).get(expression);
+    }
+
+    @Override
+    public T putIfAbsent(String cacheName, String expression, T value) {
+        return getOrCreateRegion(cacheName).putIfAbsent(expression, value);
+    }
+
+    @Override
+    public Map<String, Set<String>> getCachedExpressions() {
+        Map<String, Set<String>> cachedExpressions = new HashMap<>(regions.size());
+        for (Map.Entry<String, Region<T>> entry : regions.entrySet()) {
+            cachedExpressions.put(entry.getKey(), new HashSet<>(entry.getValue().data.keySet()));
+        }
+        return cachedExpressions;
+    }
+
+    @Override
+    public ExpressionCacheStatistics getStatistics(String cacheName) {
+        Region<T> region = regions.get(cacheName);
+        return region == null ? null : region.getStatistics();
+    }
+
+    @Override
+    public Map<String, ExpressionCacheStatistics> getStatistics() {
+        Map<String, ExpressionCacheStatistics> statistics = new HashMap<>(regions.size());
+        for (Map.Entry<String, Region<T>> entry : regions.entrySet()) {
+            statistics.put(entry.getKey(), entry.getValue().getStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns the maximum size that is used for the cache with the given name.
+     *
+     * @param cacheName The cache name
+     * @return The maximum size
+     */
+    public int getMaximumSize(String cacheName) {
+        Integer maximumSize = maximumSizes.get(cacheName);
+        if (maximumSize == null) {
+            maximumSize = maximumSizes.get(cacheName.substring(cacheName.lastIndexOf('.') + 1));
+        }
+        return maximumSize == null ? defaultMaximumSize : maximumSize;
+    }
+
+    private Region<T> getOrCreateRegion(String cacheName) {
+        Region<T> region = regions.get(cacheName);
+        if (region == null) {
+            region = new Region<>(getMaximumSize(cacheName));
+            Region<T> oldRegion = regions.putIfAbsent(cacheName, region);
+            if (oldRegion != null) {
+                region = oldRegion;
+            }
+        }
+        return region;
+    }
+
+    /**
+     * The queue a node currently is linked into.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private enum QueueType {
+        NONE,
+        WINDOW,
+        PROBATION,
+        PROTECTED;
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class Node<T> {
+        private final String key;
+        private final T value;
+        private QueueType queueType = QueueType.NONE;
+        private Node<T> previous;
+        private Node<T> next;
+
+        public Node(String key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A doubly linked queue in access order, the head being the least recently used node.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class AccessOrderQueue<T> {
+        private final QueueType queueType;
+        private Node<T> head;
+        private Node<T> tail;
+        private int size;
+
+        public AccessOrderQueue(QueueType queueType) {
+            this.queueType = queueType;
+        }
+
+        public void add(Node<T> node) {
+            node.queueType = queueType;
+            node.previous = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        public void remove(Node<T> node) {
+            if (node.previous == null) {
+                head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            node.queueType = QueueType.NONE;
+            size--;
+        }
+
+        public void moveToTail(Node<T> node) {
+            if (node != tail) {
+                remove(node);
+                add(node);
+            }
+        }
+
+        public Node<T> poll() {
+            Node<T> node = head;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * The bounded storage for a single cache name.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class Region<T> {
+        private final int maximumSize;
+        private final int windowMaximumSize;
+        private final int protectedMaximumSize;
+        private final ConcurrentMap<String, Node<T>> data;
+        private final FrequencySketch sketch;
+        private final ReentrantLock evictionLock = new ReentrantLock();
+        private final AccessOrderQueue<T> window = new AccessOrderQueue<>(QueueType.WINDOW);
+        private final AccessOrderQueue<T> probation = new AccessOrderQueue<>(QueueType.PROBATION);
+        private final AccessOrderQueue<T> protectedQueue = new AccessOrderQueue<>(QueueType.PROTECTED);
+        private final AtomicLong hitCount = new AtomicLong();
+        private final AtomicLong missCount = new AtomicLong();
+        private final AtomicLong evictionCount = new AtomicLong();
+
+        public Region(int maximumSize) {
+            this.maximumSize = maximumSize;
+            // Like in W-TinyLFU, 1% of the capacity is used as admission window and 80% of the main region is protected
+            this.windowMaximumSize = Math.max(1, maximumSize / 100);
+            int mainMaximumSize = Math.max(0, maximumSize - windowMaximumSize);
+            this.protectedMaximumSize = (int) (mainMaximumSize * 0.8);
+            this.data = new ConcurrentHashMap<>(Math.min(maximumSize, 16));
+            this.sketch = new FrequencySketch(maximumSize);
+        }
+
+        public T get(String key) {
+            sketch.increment(key);
+            Node<T> node = data.get(key);
+            if (node == null) {
+                missCount.incrementAndGet();
+                return null;
+            }
+            hitCount.incrementAndGet();
+            // Skip reordering under contention, an LRU order that is slightly off doesn't hurt
+            if (evictionLock.tryLock()) {
+                try {
+                    onAccess(node);
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+            return node.value;
+        }
+
+        public T putIfAbsent(String key, T value) {
+            Node<T> node = new Node<>(key, value);
+            Node<T> oldNode = data.putIfAbsent(key, node);
+            if (oldNode != null) {
+                return oldNode.value;
+            }
+            evictionLock.lock();
+            try {
+                // The node might have been evicted concurrently already
+                if (data.get(key) == node) {
+                    window.add(node);
+                    evict();
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+            return value;
+        }
+
+        public ExpressionCacheStatistics getStatistics() {
+            return new ExpressionCacheStatistics(hitCount.get(), missCount.get(), evictionCount.get(), data.size(), maximumSize);
+        }
+
+        private void onAccess(Node<T> node) {
+            switch (node.queueType) {
+                case WINDOW:
+                    window.moveToTail(node);
+                    break;
+                case PROBATION:
+                    probation.remove(node);
+                    protectedQueue.add(node);
+                    // Demote the least recently used protected nodes so that the protected region stays within bounds
+                    while (protectedQueue.size > protectedMaximumSize) {
+                        probation.add(protectedQueue.poll());
+                    }
+                    break;
+                case PROTECTED:
+                    protectedQueue.moveToTail(node);
+                    break;
+                default:
+                    // The node is not linked yet or was evicted concurrently
+                    break;
+            }
+        }
+
+        private void evict() {
+            while (window.size > windowMaximumSize) {
+                probation.add(window.poll());
+            }
+            while (window.size + probation.size + protectedQueue.size > maximumSize) {
+                Node<T> candidate = probation.tail;
+                Node<T> victim = probation.head;
+                if (candidate == null || victim == candidate) {
+                    // Can only happen for very small caches, so just evict in LRU order
+                    Node<T> node = victim != null ? victim : (protectedQueue.head != null ? protectedQueue.head : window.head);
+                    remove(node);
+                } else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                    remove(victim);
+                } else {
+                    remove(candidate);
+                }
+            }
+        }
+
+        private void remove(Node<T> node) {
+            switch (node.queueType) {
+                case WINDOW:
+                    window.remove(node);
+                    break;
+                case PROBATION:
+                    probation.remove(node);
+                    break;
+                case PROTECTED:
+                    protectedQueue.remove(node);
+                    break;
+                default:
+                    break;
+            }
+            data.remove(node.key, node);
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * A count-min sketch with 4 hash functions and saturating counters that is periodically halved so that the recorded
+     * frequencies adapt to changing access patterns. Updates are not synchronized as the frequency is only an estimate anyway.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = { 0x97cb3127, 0x9e3779b9, 0x7f4a7c15, 0x2545f491 };
+        private static final int MAXIMUM_FREQUENCY = 15;
+
+        private final byte[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        public FrequencySketch(int maximumSize) {
+            // Use 4 counters per entry to keep the error due to hash collisions low
+            int size = Integer.highestOneBit(Math.max(16, Math.min(maximumSize, 1 << 22)) - 1) << 3;
+            this.table = new byte[size];
+            this.mask = size - 1;
+            this.sampleSize = 10 * Math.max(16, maximumSize);
+        }
+
+        public int frequency(String key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAXIMUM_FREQUENCY;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, table[index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        public void increment(String key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = index(hash, i);
+                if (table[index] < MAXIMUM_FREQUENCY) {
+                    table[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            additions = 0;
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (byte) (table[i] >>> 1);
+            }
+        }
+
+        private int index(int hash, int i) {
+            int h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 16;
+            return h & mask;
+        }
+
+        private static int spread(int hash) {
+            int h = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+            h = ((h >>> 16) ^ h) * 0x45d9f3b;
+            return (h >>> 16) ^ h;
+        }
+    }
+}
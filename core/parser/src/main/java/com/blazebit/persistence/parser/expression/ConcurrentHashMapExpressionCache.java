@@ -16,6 +16,11 @@
 
 package com.blazebit.persistence.parser.expression;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -59,4 +64,24 @@ public class ConcurrentHashMapExpressionCache<T> implements ExpressionCache<T> {
 
         return value;
     }
+
+    @Override
+    public Map<String, Set<String>> getCachedExpressions() {
+        Map<String, Set<String>> cachedExpressions = new HashMap<>(cacheManager.size());
+        for (Map.Entry<String, ConcurrentMap<String, T>> entry : cacheManager.entrySet()) {
+            cachedExpressions.put(entry.getKey(), new HashSet<>(entry.getValue().keySet()));
+        }
+        return cachedExpressions;
+    }
+
+    @Override
+    public ExpressionCacheStatistics getStatistics(String cacheName) {
+        // This cache is unbounded and doesn't record statistics
+        return null;
+    }
+
+    @Override
+    public Map<String, ExpressionCacheStatistics> getStatistics() {
+        return Collections.emptyMap();
+    }
 }
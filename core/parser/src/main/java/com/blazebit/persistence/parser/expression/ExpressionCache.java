@@ -16,6 +16,9 @@
 
 package com.blazebit.persistence.parser.expression;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
  *
  * @author Christian Beikov
@@ -27,4 +30,31 @@ public interface ExpressionCache<T> {
 
     public T putIfAbsent(String cacheName, String expression, T value);
 
+    /**
+     * Returns a snapshot of the cached expression strings by cache name.
+     * The snapshot can be used to warm up the cache of a new criteria builder factory
+     * via <code>CriteriaBuilderConfiguration.withExpressionCacheWarmup</code>.
+     *
+     * @return The cached expression strings by cache name
+     * @since 1.4.0
+     */
+    public Map<String, Set<String>> getCachedExpressions();
+
+    /**
+     * Returns the statistics for the cache with the given name.
+     *
+     * @param cacheName The cache name
+     * @return The statistics, or <code>null</code> if the cache was never used or the cache implementation doesn't record statistics
+     * @since 1.4.0
+     */
+    public ExpressionCacheStatistics getStatistics(String cacheName);
+
+    /**
+     * Returns the statistics of all caches by cache name.
+     *
+     * @return The statistics by cache name, empty if the cache implementation doesn't record statistics
+     * @since 1.4.0
+     */
+    public Map<String, ExpressionCacheStatistics> getStatistics();
+
 }
@@ -47,6 +47,10 @@ public final class ExpressionFactoryImpl extends AbstractExpressionFactory {
         super(aggregateFunctions, entityTypes, enumTypes, allowTreatJoinExtension, optimize);
     }
 
+    public ExpressionFactoryImpl(Set<String> aggregateFunctions, Map<String, Class<?>> entityTypes, Map<String, Class<Enum<?>>> enumTypes, boolean allowTreatJoinExtension, boolean optimize, int parserPoolSize, int dfaMaximumStates) {
+        super(aggregateFunctions, entityTypes, enumTypes, allowTreatJoinExtension, optimize, parserPoolSize, dfaMaximumStates);
+    }
+
     @Override
     protected RuleInvoker getSimpleExpressionRuleInvoker() {
         return SIMPLE_EXPRESSION_RULE_INVOKER;
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+/**
+ * A snapshot of the parse statistics of an expression factory.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public final class ExpressionParserStatistics {
+
+    private final long parseCount;
+    private final long fallbackCount;
+    private final long totalParseTimeNanos;
+    private final long maxParseTimeNanos;
+    private final long dfaResetCount;
+    private final int pooledParserCount;
+
+    public ExpressionParserStatistics(long parseCount, long fallbackCount, long totalParseTimeNanos, long maxParseTimeNanos, long dfaResetCount, int pooledParserCount) {
+        this.parseCount = parseCount;
+        this.fallbackCount = fallbackCount;
+        this.totalParseTimeNanos = totalParseTimeNanos;
+        this.maxParseTimeNanos = maxParseTimeNanos;
+        this.dfaResetCount = dfaResetCount;
+        this.pooledParserCount = pooledParserCount;
+    }
+
+    public long getParseCount() {
+        return parseCount;
+    }
+
+    /**
+     * Returns the number of parses that had to fall back from SLL to full LL prediction.
+     *
+     * @return the number of parses with full LL prediction
+     */
+    public long getFallbackCount() {
+        return fallbackCount;
+    }
+
+    public long getTotalParseTimeNanos() {
+        return totalParseTimeNanos;
+    }
+
+    public long getAverageParseTimeNanos() {
+        return parseCount == 0 ? 0 : totalParseTimeNanos / parseCount;
+    }
+
+    public long getMaxParseTimeNanos() {
+        return maxParseTimeNanos;
+    }
+
+    public long getDfaResetCount() {
+        return dfaResetCount;
+    }
+
+    public int getPooledParserCount() {
+        return pooledParserCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionParserStatistics{" +
+                "parseCount=" + parseCount +
+                ", fallbackCount=" + fallbackCount +
+                ", totalParseTimeNanos=" + totalParseTimeNanos +
+                ", maxParseTimeNanos=" + maxParseTimeNanos +
+                ", dfaResetCount=" + dfaResetCount +
+                ", pooledParserCount=" + pooledParserCount +
+                '}';
+    }
+}
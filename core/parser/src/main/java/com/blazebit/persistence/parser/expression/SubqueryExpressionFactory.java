@@ -47,6 +47,11 @@ public class SubqueryExpressionFactory extends AbstractExpressionFactory {
         this.delegate = delegate;
     }
 
+    public SubqueryExpressionFactory(Set<String> aggregateFunctions, Map<String, Class<?>> entityTypes, Map<String, Class<Enum<?>>> enumTypes, boolean allowTreatJoinExtension, boolean optimize, int parserPoolSize, int dfaMaximumStates, ExpressionFactory delegate) {
+        super(aggregateFunctions, entityTypes, enumTypes, allowTreatJoinExtension, optimize, parserPoolSize, dfaMaximumStates);
+        this.delegate = delegate;
+    }
+
     @Override
     public Expression createSimpleExpression(String expression, boolean allowQuantifiedPredicates, MacroConfiguration macroConfiguration, Set<String> usedMacros) {
         return super.createSimpleExpression(expression, allowQuantifiedPredicates, macroConfiguration, usedMacros);
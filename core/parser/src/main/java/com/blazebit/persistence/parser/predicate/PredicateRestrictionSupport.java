@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser.predicate;
+
+/**
+ * An internal SPI implemented by query builders to accept restrictions as already built predicate trees.
+ * Integrations that construct queries programmatically, like the JPA Criteria API implementation, can use this
+ * to avoid rendering a predicate to a JPQL string just to have it parsed again.
+ *
+ * The passed predicates are owned by the builder afterwards and must not be shared.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public interface PredicateRestrictionSupport {
+
+    /**
+     * Sets the given predicate as the where clause restriction.
+     *
+     * @param predicate The predicate
+     */
+    public void setWherePredicate(Predicate predicate);
+
+    /**
+     * Sets the given predicate as the having clause restriction.
+     *
+     * @param predicate The predicate
+     */
+    public void setHavingPredicate(Predicate predicate);
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser;
+
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ExpressionCacheStatistics;
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BoundedExpressionCacheTest {
+
+    private static final String CACHE_NAME = "com.blazebit.persistence.parser.expression.cache.PathExpression";
+
+    @Test
+    public void testSizeIsBounded() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(100, Collections.<String, Integer>emptyMap());
+        for (int i = 0; i < 1000; i++) {
+            cache.putIfAbsent(CACHE_NAME, "e" + i, "v" + i);
+        }
+
+        ExpressionCacheStatistics statistics = cache.getStatistics(CACHE_NAME);
+        Assert.assertEquals(100, statistics.getSize());
+        Assert.assertEquals(900, statistics.getEvictionCount());
+    }
+
+    @Test
+    public void testFrequentlyUsedEntriesSurvive() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(100, Collections.<String, Integer>emptyMap());
+        for (int i = 0; i < 50; i++) {
+            String key = "hot" + i;
+            cache.putIfAbsent(CACHE_NAME, key, key);
+            for (int j = 0; j < 5; j++) {
+                cache.get(CACHE_NAME, key);
+            }
+        }
+        // One-off expressions interleaved with the regular use of the hot expressions
+        for (int i = 0; i < 10000; i++) {
+            String key = "cold" + i;
+            if (cache.get(CACHE_NAME, key) == null) {
+                cache.putIfAbsent(CACHE_NAME, key, key);
+            }
+            cache.get(CACHE_NAME, "hot" + (i % 50));
+        }
+
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals("hot" + i, cache.get(CACHE_NAME, "hot" + i));
+        }
+    }
+
+    @Test
+    public void testStatistics() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>();
+        Assert.assertNull(cache.get(CACHE_NAME, "a"));
+        cache.putIfAbsent(CACHE_NAME, "a", "1");
+        Assert.assertEquals("1", cache.putIfAbsent(CACHE_NAME, "a", "2"));
+        Assert.assertEquals("1", cache.get(CACHE_NAME, "a"));
+
+        ExpressionCacheStatistics statistics = cache.getStatistics(CACHE_NAME);
+        Assert.assertEquals(1, statistics.getHitCount());
+        Assert.assertEquals(1, statistics.getMissCount());
+        Assert.assertEquals(0, statistics.getEvictionCount());
+        Assert.assertEquals(1, statistics.getSize());
+        Assert.assertEquals(BoundedExpressionCache.DEFAULT_MAXIMUM_SIZE, statistics.getMaximumSize());
+        Assert.assertEquals(1, cache.getStatistics().size());
+    }
+
+    @Test
+    public void testMaximumSizeConfiguration() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(BoundedExpressionCache.MAXIMUM_SIZE_PROPERTY, "500");
+        properties.put(BoundedExpressionCache.MAXIMUM_SIZE_PROPERTY + ".PathExpression", "20");
+        properties.put(BoundedExpressionCache.MAXIMUM_SIZE_PROPERTY + ".com.blazebit.persistence.parser.expression.cache.PredicateExpression", "30");
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(properties);
+
+        Assert.assertEquals(20, cache.getMaximumSize(CACHE_NAME));
+        Assert.assertEquals(30, cache.getMaximumSize("com.blazebit.persistence.parser.expression.cache.PredicateExpression"));
+        Assert.assertEquals(500, cache.getMaximumSize("com.blazebit.persistence.parser.expression.cache.SimpleExpression"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSize() {
+        new BoundedExpressionCache<String>(Collections.singletonMap(BoundedExpressionCache.MAXIMUM_SIZE_PROPERTY, "0"));
+    }
+
+    @Test
+    public void testCachingExpressionFactory() {
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashSet<String>(), true, true), new BoundedExpressionCache());
+        Expression expr1 = ef.createPathExpression("a.b.c", null, null);
+        Expression expr2 = ef.createPathExpression("a.b.c", null, null);
+
+        Assert.assertFalse(expr1 == expr2);
+        Assert.assertEquals(expr1, expr2);
+    }
+}
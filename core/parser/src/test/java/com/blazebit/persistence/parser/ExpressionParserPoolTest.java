@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser;
+
+import com.blazebit.persistence.parser.expression.AbstractExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.ExpressionParserStatistics;
+import com.blazebit.persistence.parser.expression.SyntaxErrorException;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ExpressionParserPoolTest {
+
+    @Test
+    public void testPooledParserIsReused() {
+        AbstractExpressionFactory ef = ef(2, 0);
+        AbstractExpressionFactory nonPooledEf = ef(0, 0);
+        for (int i = 0; i < 2; i++) {
+            for (String expression : TwoStageParsingTest.CORPUS) {
+                assertEquals(expression, nonPooledEf.createSimpleExpression(expression, false, null, null), ef.createSimpleExpression(expression, false, null, null));
+            }
+            for (String predicate : TwoStageParsingTest.PREDICATE_CORPUS) {
+                assertEquals(predicate, nonPooledEf.createBooleanExpression(predicate, false, null, null), ef.createBooleanExpression(predicate, false, null, null));
+            }
+        }
+
+        int parses = 2 * (TwoStageParsingTest.CORPUS.length + TwoStageParsingTest.PREDICATE_CORPUS.length);
+        ExpressionParserStatistics statistics = ef.getParserStatistics();
+        assertEquals(parses, statistics.getParseCount());
+        assertEquals(1, statistics.getPooledParserCount());
+        assertTrue(statistics.getMaxParseTimeNanos() > 0);
+        assertEquals(0, nonPooledEf.getParserStatistics().getPooledParserCount());
+    }
+
+    @Test
+    public void testPooledParserFeaturesAreReset() {
+        AbstractExpressionFactory ef = ef(1, 0);
+        ef.createSimpleExpression("CASE WHEN d.age > 1 THEN 1 ELSE 0 END", false, null, null);
+        try {
+            ef.createPathExpression("CASE WHEN d.age > 1 THEN 1 ELSE 0 END", null, null);
+            fail("Expected syntax error");
+        } catch (SyntaxErrorException ex) {
+            // Expected
+        }
+        assertEquals(1, ef.getParserStatistics().getPooledParserCount());
+    }
+
+    @Test
+    public void testPooledParserUsableAfterSyntaxError() {
+        AbstractExpressionFactory ef = ef(1, 0);
+        try {
+            ef.createSimpleExpression("d.name = = 1", false, null, null);
+            fail("Expected syntax error");
+        } catch (SyntaxErrorException ex) {
+            // Expected
+        }
+        assertEquals(ef(0, 0).createSimpleExpression("d.owner.name", false, null, null), ef.createSimpleExpression("d.owner.name", false, null, null));
+        assertEquals(2, ef.getParserStatistics().getParseCount());
+    }
+
+    @Test
+    public void testDfaReset() {
+        AbstractExpressionFactory ef = ef(0, 1);
+        ef.createSimpleExpression("COALESCE(d.name, 'test')", false, null, null);
+        assertTrue(ef.getParserStatistics().getDfaResetCount() > 0);
+    }
+
+    private static AbstractExpressionFactory ef(int parserPoolSize, int dfaMaximumStates) {
+        return new ExpressionFactoryImpl(new HashSet<String>(), Collections.<String, Class<?>>singletonMap("Person", Object.class), Collections.<String, Class<Enum<?>>>emptyMap(), true, false, parserPoolSize, dfaMaximumStates);
+    }
+}
@@ -23,7 +23,9 @@ import com.carrotsearch.junitbenchmarks.BenchmarkRule;
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -71,6 +73,60 @@ public class ParserPerformanceTest {
         doTest(expression);
     }
     
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 5)
+    @Test
+    public void testCorpusFullLL() {
+        for (String expression : TwoStageParsingTest.CORPUS) {
+            JPQLSelectExpressionParser p = createParser(expression);
+            p.getInterpreter().setPredictionMode(PredictionMode.LL);
+            p.parseSimpleExpression();
+        }
+        for (String expression : TwoStageParsingTest.PREDICATE_CORPUS) {
+            JPQLSelectExpressionParser p = createParser(expression);
+            p.getInterpreter().setPredictionMode(PredictionMode.LL);
+            p.parsePredicateExpression();
+        }
+    }
+
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 5)
+    @Test
+    public void testCorpusTwoStage() {
+        for (String expression : TwoStageParsingTest.CORPUS) {
+            parseTwoStage(expression, false);
+        }
+        for (String expression : TwoStageParsingTest.PREDICATE_CORPUS) {
+            parseTwoStage(expression, true);
+        }
+    }
+
+    private void parseTwoStage(String expression, boolean predicate) {
+        JPQLSelectExpressionParser p = createParser(expression);
+        p.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        p.setErrorHandler(new BailErrorStrategy());
+        try {
+            parse(p, predicate);
+        } catch (ParseCancellationException ex) {
+            p.reset();
+            p.setErrorHandler(new DefaultErrorStrategy());
+            p.getInterpreter().setPredictionMode(PredictionMode.LL);
+            parse(p, predicate);
+        }
+    }
+
+    private void parse(JPQLSelectExpressionParser p, boolean predicate) {
+        if (predicate) {
+            p.parsePredicateExpression();
+        } else {
+            p.parseSimpleExpression();
+        }
+    }
+
+    private JPQLSelectExpressionParser createParser(String expression) {
+        JPQLSelectExpressionLexer l = new JPQLSelectExpressionLexer(new ANTLRInputStream(expression));
+        CommonTokenStream tokens = new CommonTokenStream(l);
+        return new JPQLSelectExpressionParser(tokens, true, true, true);
+    }
+    
     private void doTest(String expression) {
         JPQLSelectExpressionLexer l = new JPQLSelectExpressionLexer(new ANTLRInputStream(expression));
         CommonTokenStream tokens = new CommonTokenStream(l);
@@ -17,6 +17,7 @@
 package com.blazebit.persistence.parser;
 
 import com.blazebit.persistence.parser.expression.ArrayExpression;
+import com.blazebit.persistence.parser.expression.ConcurrentHashMapExpressionCache;
 import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
@@ -32,8 +33,11 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  *
@@ -104,4 +108,26 @@ public class SimpleCachingExpressionFactoryTest {
         Assert.assertFalse(expr1 == expr2);
         Assert.assertEquals(expr1, expr2);
     }
+
+    @Test
+    public void testWarmUpFromCachedExpressions() {
+        ConcurrentHashMapExpressionCache<Object> cache = new ConcurrentHashMapExpressionCache<>();
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashSet<String>(), true, true), cache);
+        ef.createSimpleExpression("SIZE(d.people) + 1", false, null, null);
+        ef.createPathExpression("d.owner.name", null, null);
+        ef.createBooleanExpression("d.age > :minAge", false, null, null);
+        Map<String, Set<String>> cachedExpressions = cache.getCachedExpressions();
+        Assert.assertEquals(3, cachedExpressions.size());
+
+        Map<String, Set<String>> warmup = new HashMap<>(cachedExpressions);
+        warmup.put("com.blazebit.persistence.parser.expression.cache.PathExpression", new HashSet<>(Arrays.asList("d.owner.name", "d.owner.(")));
+        warmup.put("unknown", Collections.singleton("d.name"));
+
+        ConcurrentHashMapExpressionCache<Object> newCache = new ConcurrentHashMapExpressionCache<>();
+        SimpleCachingExpressionFactory newEf = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashSet<String>(), true, true), newCache);
+        newEf.warmUp(warmup, null, 2);
+
+        // Invalid expressions and unknown caches are skipped
+        Assert.assertEquals(cachedExpressions, newCache.getCachedExpressions());
+    }
 }
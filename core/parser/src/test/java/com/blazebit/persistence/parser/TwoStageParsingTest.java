@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser;
+
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.SyntaxErrorException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Verifies that parsing with SLL prediction first produces the same results as full LL prediction.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class TwoStageParsingTest extends AbstractParserTest {
+
+    /**
+     * Scalar expressions as they are used throughout the core testsuite.
+     */
+    static final String[] CORPUS = {
+        "d.id",
+        "d.owner.name",
+        "d.contacts[1].name",
+        "d.contacts[:index]",
+        "KEY(d.contacts)",
+        "VALUE(d.contacts).name",
+        "ENTRY(d.contacts)",
+        "INDEX(d.people)",
+        "TREAT(d.owner AS Person).name",
+        ":param",
+        "?1",
+        "'abc'",
+        "1L",
+        "1.5D",
+        "d.age + 1",
+        "-d.age * (d.idx - 2) / 3",
+        "COUNT(*)",
+        "COUNT(DISTINCT d.id)",
+        "SUM(d.age)",
+        "COALESCE(d.name, 'test')",
+        "UPPER(d.name)",
+        "CONCAT(d.name, ' ', d.owner.name)",
+        "SIZE(d.contacts)",
+        "FUNCTION('LIMIT', d.id, 1)",
+        "CASE WHEN d.age > 1 THEN 'a' ELSE 'b' END",
+        "CASE d.age WHEN 0 THEN 'zero' WHEN 1 THEN 'one' ELSE 'many' END",
+    };
+
+    /**
+     * Predicates as they are used throughout the core testsuite.
+     */
+    static final String[] PREDICATE_CORPUS = {
+        "d.name = :name",
+        "d.name <> 'test' AND d.age > 1",
+        "d.age BETWEEN 1 AND 10",
+        "d.age NOT BETWEEN :min AND :max",
+        "d.name LIKE 'abc%' ESCAPE 'x'",
+        "d.name NOT LIKE :pattern",
+        "d.owner IS NULL",
+        "d.contacts IS EMPTY",
+        "d.owner MEMBER OF d.people",
+        "d.id IN (1, 2, 3)",
+        "d.id NOT IN :ids",
+        "NOT (d.age > 1 OR d.age < 0)",
+        "(d.age > 1 OR d.age < 0) AND d.name IS NOT NULL",
+        "TYPE(d.owner) = Person",
+        "d.creationDate > CURRENT_TIMESTAMP",
+        "d.lastModified = {ts '2000-01-01 00:00:00'}",
+        "d.age > 1 OR d.name = :name AND d.id IN (1, 2)"
+    };
+
+    @Test
+    public void testSameResultAsFullLLPrediction() {
+        aggregateFunctions.add("COUNT");
+        aggregateFunctions.add("SUM");
+        entityTypes.put("Person", Object.class);
+        ExpressionFactory twoStageEf = new ExpressionFactoryImpl(aggregateFunctions, entityTypes, enumTypes, true, false);
+        ExpressionFactory llEf = ef();
+        for (String expression : CORPUS) {
+            assertEquals(expression, llEf.createSimpleExpression(expression, false, null, null), twoStageEf.createSimpleExpression(expression, false, null, null));
+        }
+        for (String predicate : PREDICATE_CORPUS) {
+            assertEquals(predicate, llEf.createBooleanExpression(predicate, false, null, null), twoStageEf.createBooleanExpression(predicate, false, null, null));
+        }
+        assertEquals(llEf.createOrderByExpression("d.name", null, null), twoStageEf.createOrderByExpression("d.name", null, null));
+        assertEquals(llEf.createJoinPathExpression("d.contacts", null, null), twoStageEf.createJoinPathExpression("d.contacts", null, null));
+    }
+
+    @Test
+    public void testSyntaxErrorStillReported() {
+        ExpressionFactory twoStageEf = new ExpressionFactoryImpl(aggregateFunctions, true, false);
+        try {
+            twoStageEf.createSimpleExpression("d.name = = 1", false, null, null);
+            fail("Expected syntax error");
+        } catch (SyntaxErrorException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("Could not parse expression 'd.name = = 1', line 1:"));
+        }
+    }
+}
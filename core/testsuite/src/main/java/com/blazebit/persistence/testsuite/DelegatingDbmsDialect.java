@@ -193,4 +193,24 @@ public class DelegatingDbmsDialect implements DbmsDialect {
     public ResultSet extractReturningResult(PreparedStatement ps) throws SQLException {
         return delegate.extractReturningResult(ps);
     }
+
+    @Override
+    public String getRowCountEstimateSql(String countQuerySql) {
+        return delegate.getRowCountEstimateSql(countQuerySql);
+    }
+
+    @Override
+    public long extractRowCountEstimate(List<?> resultList) {
+        return delegate.extractRowCountEstimate(resultList);
+    }
+
+    @Override
+    public int getMaximumParameterCount() {
+        return delegate.getMaximumParameterCount();
+    }
+
+    @Override
+    public int getMaximumInListSize() {
+        return delegate.getMaximumInListSize();
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.impl.ConfigurationProperties;
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCacheStatistics;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.entity.Document;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BoundedExpressionCacheTest extends AbstractCoreTest {
+
+    private static final String SIMPLE_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.SimpleExpression";
+
+    @Override
+    protected CriteriaBuilderConfiguration configure(CriteriaBuilderConfiguration config) {
+        config = super.configure(config);
+        config.setProperty(ConfigurationProperties.EXPRESSION_CACHE_CLASS, BoundedExpressionCache.class.getName());
+        config.setProperty(ConfigurationProperties.EXPRESSION_CACHE_MAXIMUM_SIZE, "100");
+        config.setProperty(ConfigurationProperties.EXPRESSION_CACHE_MAXIMUM_SIZE + ".SimpleExpression", "10");
+        return config;
+    }
+
+    @Test
+    public void testConfiguredCacheIsBounded() {
+        ExpressionCache<?> expressionCache = cbf.getService(ExpressionCache.class);
+        assertTrue(expressionCache instanceof BoundedExpressionCache);
+        BoundedExpressionCache<?> cache = (BoundedExpressionCache<?>) expressionCache;
+        assertEquals(10, cache.getMaximumSize(SIMPLE_EXPRESSION_CACHE));
+        assertEquals(100, cache.getMaximumSize("com.blazebit.persistence.parser.expression.cache.PredicateExpression"));
+
+        for (int i = 0; i < 20; i++) {
+            CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                    .orderByAsc("d.name")
+                    .orderByAsc("COALESCE(d.name, 'doc" + i + "')")
+                    .orderByAsc("d.id");
+            criteria.getQueryString();
+        }
+
+        // The statistics are available without casting to the implementation
+        ExpressionCacheStatistics statistics = expressionCache.getStatistics(SIMPLE_EXPRESSION_CACHE);
+        assertTrue(statistics.getSize() <= 10);
+        assertTrue(statistics.getHitCount() > 0);
+    }
+}
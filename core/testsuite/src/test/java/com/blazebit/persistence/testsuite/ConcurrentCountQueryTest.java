@@ -0,0 +1,220 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.PaginatedTypedQuery;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ConcurrentCountQueryTest extends AbstractCoreTest {
+
+    private ExecutorService executorService;
+    private CountingExecutor executor;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+
+                em.persist(new Document("doc1", o1));
+                em.persist(new Document("doc2", o1));
+                em.persist(new Document("doc3", o1));
+                em.persist(new Document("doc4", o2));
+                em.persist(new Document("doc5", o2));
+            }
+        });
+    }
+
+    @Before
+    public void createExecutor() {
+        executorService = Executors.newSingleThreadExecutor();
+        executor = new CountingExecutor(executorService);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCountQuery() {
+        PaginatedCriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withConcurrentCountQuery(emf, executor);
+
+        assertTrue(criteria.isWithConcurrentCountQuery());
+        PagedList<Document> result = criteria.getResultList();
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals(3, result.getTotalPages());
+        assertEquals("doc1", result.get(0).getName());
+        assertEquals(1, executor.executions.get());
+    }
+
+    @Test
+    public void testConcurrentCountQueryWithCollectionFetch() {
+        PaginatedCriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .fetch("d.contacts")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(2, 2)
+                .withConcurrentCountQuery(emf, executor);
+
+        PagedList<Document> result = criteria.getResultList();
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc3", result.get(0).getName());
+        assertEquals(1, executor.executions.get());
+    }
+
+    @Test
+    public void testConcurrentCountQueryParameterChange() {
+        PaginatedTypedQuery<Document> query = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eqExpression(":ownerName")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withConcurrentCountQuery(emf, executor)
+                .setParameter("ownerName", "Karl1")
+                .getQuery();
+
+        assertEquals(3, query.getResultList().getTotalSize());
+
+        query.setParameter("ownerName", "Karl2");
+        PagedList<Document> result = query.getResultList();
+        assertEquals(2, result.getTotalSize());
+        assertEquals("doc4", result.get(0).getName());
+        assertEquals(2, query.getTotalCount());
+        assertEquals(2, executor.executions.get());
+    }
+
+    @Test
+    public void testConcurrentCountQueryEntityParameterChange() {
+        Person karl1 = cbf.create(em, Person.class, "p").where("p.name").eq("Karl1").getSingleResult();
+        Person karl2 = cbf.create(em, Person.class, "p").where("p.name").eq("Karl2").getSingleResult();
+        PaginatedTypedQuery<Document> query = cbf.create(em, Document.class, "d")
+                .where("d.owner").eqExpression(":owner")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withConcurrentCountQuery(emf, executor)
+                .setParameter("owner", karl1)
+                .getQuery();
+
+        assertEquals(3, query.getResultList().getTotalSize());
+
+        // The entity parameter is replayed on the concurrent count query and must be transformed like the bound value
+        query.setParameter("owner", karl2);
+        PagedList<Document> result = query.getResultList();
+        assertEquals(2, result.getTotalSize());
+        assertEquals("doc4", result.get(0).getName());
+        assertEquals(2, query.getTotalCount());
+        assertEquals(2, executor.executions.get());
+    }
+
+    @Test
+    public void testConcurrentCountQueryRejectedExecution() {
+        executorService.shutdown();
+        PaginatedCriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withConcurrentCountQuery(emf, executor);
+
+        // The rejected count query is executed on the entity manager of the query instead
+        PagedList<Document> result = criteria.getResultList();
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals(1, executor.executions.get());
+    }
+
+    @Test
+    public void testNoConcurrentCountQueryForNavigation() {
+        Document doc4 = cbf.create(em, Document.class, "d")
+                .where("d.name").eq("doc4")
+                .getSingleResult();
+        PaginatedCriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .pageAndNavigate(doc4.getId(), 2)
+                .withConcurrentCountQuery(emf, executor);
+
+        PagedList<Document> result = criteria.getResultList();
+        assertEquals(5, result.getTotalSize());
+        assertEquals(2, result.getPage());
+        assertEquals(0, executor.executions.get());
+    }
+
+    @Test
+    public void testDisableConcurrentCountQuery() {
+        PaginatedCriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withConcurrentCountQuery(emf, executor)
+                .withConcurrentCountQuery(null, null);
+
+        assertFalse(criteria.isWithConcurrentCountQuery());
+        assertEquals(5, criteria.getResultList().getTotalSize());
+        assertEquals(0, executor.executions.get());
+    }
+
+    private static class CountingExecutor implements Executor {
+
+        private final Executor delegate;
+        private final AtomicInteger executions = new AtomicInteger();
+
+        public CountingExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            executions.incrementAndGet();
+            delegate.execute(command);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CountStrategy;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CountStrategyTest extends AbstractCoreTest {
+
+    private static final long ESTIMATE = 1000L;
+
+    @Override
+    protected CriteriaBuilderConfiguration configure(CriteriaBuilderConfiguration config) {
+        config = super.configure(config);
+        DbmsDialect dialect = config.createCriteriaBuilderFactory(em.getEntityManagerFactory()).getService(DbmsDialect.class);
+        config.registerDialect(dbms, new DelegatingDbmsDialect(dialect) {
+            @Override
+            public String getRowCountEstimateSql(String countQuerySql) {
+                return countQuerySql;
+            }
+
+            @Override
+            public long extractRowCountEstimate(List<?> resultList) {
+                return ESTIMATE;
+            }
+        });
+        return config;
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("Karl1");
+                Person p2 = new Person("Karl2");
+                Person p3 = new Person("Karl3");
+                em.persist(p1);
+                em.persist(p2);
+                em.persist(p3);
+
+                Document doc1 = new Document("Doc1", p1);
+                Document doc2 = new Document("Doc2", p1);
+                doc1.getPeople().add(p1);
+                doc2.getPeople().add(p2);
+                doc2.getPeople().add(p3);
+                em.persist(doc1);
+                em.persist(doc2);
+                em.persist(new Document("Doc3", p1));
+                em.persist(new Document("Doc4", p2));
+            }
+        });
+    }
+
+    @Test
+    public void testExactCount() {
+        PagedList<Document> result = create("Karl1").getResultList();
+        assertEquals(3L, result.getTotalSize());
+        assertEquals(CountStrategy.EXACT, result.getCountStrategy());
+    }
+
+    @Test
+    public void testCachedCount() {
+        PagedList<Document> result = create("Karl2").withCountStrategy(CountStrategy.CACHED).getResultList();
+        assertEquals(1L, result.getTotalSize());
+        assertEquals(CountStrategy.EXACT, result.getCountStrategy());
+
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p2 = cbf.create(em, Person.class).where("name").eq("Karl2").getSingleResult();
+                em.persist(new Document("Doc5", p2));
+            }
+        });
+
+        // The cached count is reused although the actual count changed
+        result = create("Karl2").withCountStrategy(CountStrategy.CACHED).getResultList();
+        assertEquals(1L, result.getTotalSize());
+        assertEquals(CountStrategy.CACHED, result.getCountStrategy());
+        assertEquals(2, result.size());
+
+        // A different parameter value is a different cache entry
+        result = create("Karl1").withCountStrategy(CountStrategy.CACHED).getResultList();
+        assertEquals(3L, result.getTotalSize());
+        assertEquals(CountStrategy.EXACT, result.getCountStrategy());
+    }
+
+    @Test
+    public void testCountDisabled() {
+        PagedList<Document> result = create("Karl1").withCountQuery(false).withCountStrategy(CountStrategy.CACHED).getResultList();
+        assertEquals(-1L, result.getTotalSize());
+        assertEquals(null, result.getCountStrategy());
+    }
+
+    @Test
+    public void testEstimatedCountFallsBackToExactCountWithParameters() {
+        PagedList<Document> result = create("Karl1").withCountStrategy(CountStrategy.ESTIMATED).getResultList();
+        assertEquals(3L, result.getTotalSize());
+        assertEquals(CountStrategy.EXACT, result.getCountStrategy());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testEstimatedCount() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withCountStrategy(CountStrategy.ESTIMATED)
+                .getResultList();
+        assertEquals(ESTIMATE, result.getTotalSize());
+        assertEquals(CountStrategy.ESTIMATED, result.getCountStrategy());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testEstimatedCountFallsBackToExactCountWithCollectionJoins() {
+        // The estimate would be the number of joined rows rather than the number of distinct documents
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .where("d.people.id").isNotNull()
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withCountStrategy(CountStrategy.ESTIMATED)
+                .getResultList();
+        assertEquals(2L, result.getTotalSize());
+        assertEquals(CountStrategy.EXACT, result.getCountStrategy());
+    }
+
+    private PaginatedCriteriaBuilder<Document> create(String ownerName) {
+        return cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq(ownerName)
+                .orderByAsc("d.id")
+                .page(0, 2);
+    }
+}
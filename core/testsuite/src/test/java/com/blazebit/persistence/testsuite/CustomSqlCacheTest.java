@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.FinalSetOperationCriteriaBuilder;
+import com.blazebit.persistence.InsertCriteriaBuilder;
+import com.blazebit.persistence.impl.query.CustomSQLQuery;
+import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.RecursiveEntity;
+import com.blazebit.persistence.testsuite.entity.TestCTE;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CustomSqlCacheTest extends AbstractCoreTest {
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return new Class<?>[]{
+            RecursiveEntity.class,
+            TestCTE.class
+        };
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                RecursiveEntity root1 = new RecursiveEntity("root1");
+                RecursiveEntity child1_1 = new RecursiveEntity("child1_1", root1);
+                RecursiveEntity child1_2 = new RecursiveEntity("child1_2", root1);
+                RecursiveEntity child1_1_1 = new RecursiveEntity("child1_1_1", child1_1);
+
+                em.persist(root1);
+                em.persist(child1_1);
+                em.persist(child1_2);
+                em.persist(child1_1_1);
+            }
+        });
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoMySQL.class })
+    public void testSqlIsReusedAcrossBuilders() {
+        CriteriaBuilder<TestCTE> cb1 = createRecursiveQuery(Arrays.asList("child1_1", "child1_1_1"));
+        CriteriaBuilder<TestCTE> cb2 = createRecursiveQuery(Arrays.asList("child1_2", "child1_1_1"));
+
+        List<TestCTE> resultList1 = cb1.getResultList();
+        List<TestCTE> resultList2 = cb2.getResultList();
+
+        assertSame(getSql(cb1), getSql(cb2));
+        assertEquals(2, resultList1.size());
+        assertEquals("child1_1", resultList1.get(0).getName());
+        assertEquals("child1_1_1", resultList1.get(1).getName());
+        assertEquals(2, resultList2.size());
+        assertEquals("child1_2", resultList2.get(0).getName());
+        assertEquals("child1_1_1", resultList2.get(1).getName());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoMySQL.class })
+    public void testListParameterSizeIsPartOfKey() {
+        CriteriaBuilder<TestCTE> cb1 = createRecursiveQuery(Arrays.asList("child1_1"));
+        CriteriaBuilder<TestCTE> cb2 = createRecursiveQuery(Arrays.asList("child1_1", "child1_2", "child1_1_1"));
+
+        List<TestCTE> resultList1 = cb1.getResultList();
+        List<TestCTE> resultList2 = cb2.getResultList();
+
+        assertNotEquals(getSql(cb1), getSql(cb2));
+        assertEquals(1, resultList1.size());
+        assertEquals(3, resultList2.size());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testSetOperationSqlIsReusedAcrossBuilders() {
+        FinalSetOperationCriteriaBuilder<String> cb1 = createSetOperationQuery("root1", "child1_1");
+        FinalSetOperationCriteriaBuilder<String> cb2 = createSetOperationQuery("child1_2", "child1_1_1");
+
+        List<String> resultList1 = cb1.getResultList();
+        List<String> resultList2 = cb2.getResultList();
+
+        assertSame(getSql(cb1.getQuery()), getSql(cb2.getQuery()));
+        assertEquals(Arrays.asList("child1_1", "root1"), resultList1);
+        assertEquals(Arrays.asList("child1_1_1", "child1_2"), resultList2);
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testModificationSqlIsReusedAcrossBuilders() {
+        InsertCriteriaBuilder<RecursiveEntity> cb1 = createInsertQuery("root1");
+        InsertCriteriaBuilder<RecursiveEntity> cb2 = createInsertQuery("child1_1");
+
+        assertSame(getSql(cb1.getQuery()), getSql(cb2.getQuery()));
+    }
+
+    private FinalSetOperationCriteriaBuilder<String> createSetOperationQuery(String name1, String name2) {
+        return cbf.create(em, String.class)
+                .from(RecursiveEntity.class, "e1")
+                .select("e1.name")
+                .where("e1.name").eq(name1)
+            .union()
+                .from(RecursiveEntity.class, "e2")
+                .select("e2.name")
+                .where("e2.name").eq(name2)
+            .endSet()
+            .orderByAsc("name");
+    }
+
+    private InsertCriteriaBuilder<RecursiveEntity> createInsertQuery(String parentName) {
+        InsertCriteriaBuilder<RecursiveEntity> cb = cbf.insert(em, RecursiveEntity.class);
+        cb.from(RecursiveEntity.class, "e");
+        cb.bind("name").select("CONCAT(e.name, '_copy')");
+        cb.bind("parent").select("e");
+        cb.where("e.name").eq(parentName);
+        return cb;
+    }
+
+    private CriteriaBuilder<TestCTE> createRecursiveQuery(List<String> names) {
+        return cbf.create(em, TestCTE.class, "t")
+            .withRecursive(TestCTE.class)
+                .from(RecursiveEntity.class, "e")
+                .bind("id").select("e.id")
+                .bind("name").select("e.name")
+                .bind("level").select("0")
+                .where("e.parent").isNull()
+            .unionAll()
+                .from(TestCTE.class, "t")
+                .innerJoinOn(RecursiveEntity.class, "e")
+                    .on("t.id").eqExpression("e.parent.id")
+                .end()
+                .bind("id").select("e.id")
+                .bind("name").select("e.name")
+                .bind("level").select("t.level + 1")
+            .end()
+            .where("t.name").in(names)
+            .orderByAsc("t.level")
+            .orderByAsc("t.name");
+    }
+
+    private static String getSql(CriteriaBuilder<?> cb) {
+        return getSql(cb.getQuery());
+    }
+
+    private static String getSql(Query query) {
+        if (query instanceof CustomSQLQuery) {
+            return ((CustomSQLQuery) query).getQuerySpecification().getSql();
+        }
+        return ((CustomSQLTypedQuery<?>) query).getQuerySpecification().getSql();
+    }
+}
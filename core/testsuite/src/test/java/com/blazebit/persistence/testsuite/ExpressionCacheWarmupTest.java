@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.impl.ConfigurationProperties;
+import com.blazebit.persistence.parser.expression.ExpressionCache;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ExpressionCacheWarmupTest extends AbstractCoreTest {
+
+    private static final String PATH_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.PathExpression";
+    private static final String BOOLEAN_EXPRESSION_CACHE = "com.blazebit.persistence.parser.expression.cache.PredicateExpression";
+
+    @Override
+    protected CriteriaBuilderConfiguration configure(CriteriaBuilderConfiguration config) {
+        config = super.configure(config);
+        Map<String, Set<String>> warmup = new HashMap<>();
+        warmup.put(PATH_EXPRESSION_CACHE, new HashSet<>(Arrays.asList("warmupAlias.warmupOwner.warmupName", "warmupAlias.(")));
+        warmup.put(BOOLEAN_EXPRESSION_CACHE, Collections.singleton("warmupAlias.warmupAge > :warmupAge"));
+        config.withExpressionCacheWarmup(warmup);
+        config.setProperty(ConfigurationProperties.EXPRESSION_CACHE_WARMUP_PARALLELISM, "2");
+        return config;
+    }
+
+    @Test
+    public void testCacheIsWarmedUpWhenCreatingFactory() {
+        // No query used these expressions yet, so they must have been parsed while creating the factory
+        Map<String, Set<String>> cachedExpressions = cbf.getService(ExpressionCache.class).getCachedExpressions();
+        assertNotNull(cachedExpressions.get(PATH_EXPRESSION_CACHE));
+        assertTrue(cachedExpressions.get(PATH_EXPRESSION_CACHE).contains("warmupAlias.warmupOwner.warmupName"));
+        assertTrue(cachedExpressions.get(BOOLEAN_EXPRESSION_CACHE).contains("warmupAlias.warmupAge > :warmupAge"));
+        // Invalid expressions are skipped
+        assertFalse(cachedExpressions.get(PATH_EXPRESSION_CACHE).contains("warmupAlias.("));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.impl.ConfigurationProperties;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class InListPaddingTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p = new Person("Karl");
+                em.persist(p);
+
+                em.persist(new Document("Doc1", p));
+                em.persist(new Document("Doc2", p));
+                em.persist(new Document("Doc3", p));
+                em.persist(new Document("Doc4", p));
+                em.persist(new Document("Doc5", p));
+            }
+        });
+    }
+
+    @Test
+    public void testPaddedCollectionParameter() {
+        CriteriaBuilder<String> criteria = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.name").inExpressions(":names")
+                .orderByAsc("d.name");
+        criteria.setProperty(ConfigurationProperties.IN_LIST_PADDING, "true");
+        criteria.setParameter("names", Arrays.asList("Doc1", "Doc2", "Doc3"));
+
+        List<String> result = criteria.getResultList();
+        assertEquals(Arrays.asList("Doc1", "Doc2", "Doc3"), result);
+    }
+
+    @Test
+    public void testPaddedCollectionParameterIsBound() {
+        Map<String, Object> boundValues = new HashMap<>();
+        CriteriaBuilder<String> criteria = cbf.create(recordingEntityManager(em, boundValues), String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.name").inExpressions(":names")
+                .orderByAsc("d.name");
+        criteria.setProperty(ConfigurationProperties.IN_LIST_PADDING, "true");
+        criteria.setParameter("names", Arrays.asList("Doc1", "Doc2", "Doc3", "Doc4", "Doc5"));
+
+        assertEquals(Arrays.asList("Doc1", "Doc2", "Doc3", "Doc4", "Doc5"), criteria.getResultList());
+        assertEquals(Arrays.asList("Doc1", "Doc2", "Doc3", "Doc4", "Doc5", "Doc5", "Doc5", "Doc5"), boundValues.get("names"));
+    }
+
+    @Test
+    public void testPaddedCollectionParameterRebound() {
+        CriteriaBuilder<String> criteria = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.name").inExpressions(":names")
+                .orderByAsc("d.name");
+        criteria.setProperty(ConfigurationProperties.IN_LIST_PADDING, "true");
+        criteria.setParameter("names", Arrays.asList("Doc1", "Doc2", "Doc3", "Doc4"));
+
+        TypedQuery<String> query = criteria.getQuery();
+        assertEquals(Arrays.asList("Doc1", "Doc2", "Doc3", "Doc4"), query.getResultList());
+
+        query.setParameter("names", Arrays.asList("Doc2", "Doc3", "Doc4", "Doc5", "Doc1"));
+        assertEquals(Arrays.asList("Doc1", "Doc2", "Doc3", "Doc4", "Doc5"), query.getResultList());
+    }
+
+    @Test
+    public void testPaddedCollectionParameterInSubquery() {
+        CriteriaBuilder<String> criteria = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.id").in()
+                    .from(Document.class, "sub")
+                    .select("sub.id")
+                    .where("sub.name").inExpressions(":names")
+                .end()
+                .orderByAsc("d.name");
+        criteria.setProperty(ConfigurationProperties.IN_LIST_PADDING, "true");
+        criteria.setParameter("names", Arrays.asList("Doc5", "Doc3", "Doc1"));
+
+        assertEquals(Arrays.asList("Doc1", "Doc3", "Doc5"), criteria.getResultList());
+    }
+
+    private static EntityManager recordingEntityManager(final EntityManager em, final Map<String, Object> boundValues) {
+        return (EntityManager) Proxy.newProxyInstance(InListPaddingTest.class.getClassLoader(), new Class<?>[]{ EntityManager.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result = invokeDelegate(em, method, args);
+                if ("createQuery".equals(method.getName()) && result instanceof TypedQuery<?>) {
+                    return recordingQuery((TypedQuery<?>) result, boundValues);
+                }
+                return result;
+            }
+        });
+    }
+
+    private static TypedQuery<?> recordingQuery(final TypedQuery<?> query, final Map<String, Object> boundValues) {
+        return (TypedQuery<?>) Proxy.newProxyInstance(InListPaddingTest.class.getClassLoader(), new Class<?>[]{ TypedQuery.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result = invokeDelegate(query, method, args);
+                if ("setParameter".equals(method.getName()) && args.length == 2 && args[0] instanceof String) {
+                    boundValues.put((String) args[0], args[1]);
+                }
+                return result == query ? proxy : result;
+            }
+        });
+    }
+
+    private static Object invokeDelegate(Object delegate, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.InsertValuesBuilder;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOracle;
+import com.blazebit.persistence.testsuite.entity.IntIdEntity;
+import com.blazebit.persistence.testsuite.tx.TxWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+// NOTE: Oracle is problematic due to #306
+public class InsertValuesParameterLimitTest extends AbstractCoreTest {
+
+    // Every IntIdEntity row binds the id, name and value parameters, so at most 2 rows fit into a statement
+    private static final int MAXIMUM_PARAMETER_COUNT = 7;
+
+    @Override
+    protected CriteriaBuilderConfiguration configure(CriteriaBuilderConfiguration config) {
+        config = super.configure(config);
+        DbmsDialect dialect = config.createCriteriaBuilderFactory(em.getEntityManagerFactory()).getService(DbmsDialect.class);
+        config.registerDialect(dbms, new DelegatingDbmsDialect(dialect) {
+            @Override
+            public int getMaximumParameterCount() {
+                return MAXIMUM_PARAMETER_COUNT;
+            }
+        });
+        return config;
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testBatchSizeIsLimitedByParameterCount() {
+        InsertValuesBuilder<IntIdEntity> insert = cbf.insertValues(em, IntIdEntity.class, new ArrayList<IntIdEntity>());
+        assertEquals(2, insert.getBatchSize());
+    }
+
+    @Test
+    @Category({ NoOracle.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testInsertValuesInParameterLimitedBatches() {
+        final List<IntIdEntity> entities = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            entities.add(new IntIdEntity("E" + i, i));
+        }
+        int updateCount = transactional(new TxWork<Integer>() {
+            @Override
+            public Integer work(EntityManager em) {
+                return cbf.insertValues(em, IntIdEntity.class, entities)
+                        .bind("name")
+                        .bind("value")
+                        .executeUpdate();
+            }
+        });
+
+        assertEquals(5, updateCount);
+        List<IntIdEntity> result = cbf.create(em, IntIdEntity.class).orderByAsc("name").getResultList();
+        assertEquals(5, result.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("E" + (i + 1), result.get(i).getName());
+            assertEquals(Integer.valueOf(i + 1), result.get(i).getValue());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.InsertValuesBuilder;
+import com.blazebit.persistence.ReturningResult;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOracle;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.testsuite.tx.TxWork;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+// NOTE: Oracle is problematic due to #306
+public class InsertValuesTest extends AbstractCoreTest {
+
+    private Person p1;
+    private Person p2;
+
+    @Before
+    public void setUp() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                p1 = new Person("P1");
+                em.persist(p1);
+                p2 = new Person("P2");
+                em.persist(p2);
+            }
+        });
+    }
+
+    @Test
+    @Category({ NoOracle.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testInsertValuesInBatches() {
+        int updateCount = transactional(new TxWork<Integer>() {
+            @Override
+            public Integer work(EntityManager em) {
+                return cbf.insertValues(em, Document.class, documents())
+                        .bind("name")
+                        .bind("age")
+                        .bind("idx")
+                        .bind("owner")
+                        .setBatchSize(2)
+                        .executeUpdate();
+            }
+        });
+
+        assertEquals(3, updateCount);
+        List<Document> documents = cbf.create(em, Document.class).fetch("owner").orderByAsc("name").getResultList();
+        assertEquals(3, documents.size());
+        assertEquals("D1", documents.get(0).getName());
+        assertEquals(1L, documents.get(0).getAge());
+        assertEquals(p1.getId(), documents.get(0).getOwner().getId());
+        assertEquals("D3", documents.get(2).getName());
+        assertEquals(3L, documents.get(2).getAge());
+        assertEquals(p2.getId(), documents.get(2).getOwner().getId());
+    }
+
+    @Test
+    @Category({ NoOracle.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testInsertValuesReturningLast() {
+        ReturningResult<Long> result = transactional(new TxWork<ReturningResult<Long>>() {
+            @Override
+            public ReturningResult<Long> work(EntityManager em) {
+                return cbf.insertValues(em, Document.class, documents())
+                        .bind("name")
+                        .bind("age")
+                        .bind("idx")
+                        .bind("owner")
+                        .setBatchSize(2)
+                        .executeWithReturning("id", Long.class);
+            }
+        });
+
+        assertEquals(3, result.getUpdateCount());
+        Document lastDocument = cbf.create(em, Document.class).where("name").eq("D3").getSingleResult();
+        assertEquals(lastDocument.getId(), result.getLastResult());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testEmptyValues() {
+        InsertValuesBuilder<Document> insert = cbf.insertValues(em, Document.class, Collections.<Document>emptyList()).bind("name");
+        assertTrue(insert.getBatchSize() >= 1);
+        assertEquals(0, insert.executeUpdate());
+    }
+
+    private List<Document> documents() {
+        Document d1 = new Document("D1", 1L);
+        d1.setIdx(1);
+        d1.setOwner(p1);
+        Document d2 = new Document("D2", 2L);
+        d2.setIdx(2);
+        d2.setOwner(p1);
+        Document d3 = new Document("D3", 3L);
+        d3.setIdx(3);
+        d3.setOwner(p2);
+        return Arrays.asList(d1, d2, d3);
+    }
+}
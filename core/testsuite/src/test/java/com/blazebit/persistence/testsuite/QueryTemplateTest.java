@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.QueryTemplate;
+import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.model.DocumentViewModel;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static com.googlecode.catchexception.CatchException.verifyException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class QueryTemplateTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("Karl1");
+                Person p2 = new Person("Karl2");
+                em.persist(p1);
+                em.persist(p2);
+
+                em.persist(new Document("Doc1", p1));
+                em.persist(new Document("Doc2", p1));
+                em.persist(new Document("Doc3", p2));
+            }
+        });
+    }
+
+    @Test
+    public void testQueryTemplate() {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eqExpression(":ownerName")
+                .orderByAsc("d.name");
+        QueryTemplate<Document> template = cbf.registerQueryTemplate("QueryTemplateTest.testQueryTemplate", criteria);
+
+        assertSame(template, cbf.getQueryTemplate("QueryTemplateTest.testQueryTemplate"));
+        assertEquals(criteria.getQueryString(), template.getQueryString());
+        assertEquals(Collections.singleton("ownerName"), template.getParameterNames());
+
+        List<Document> result = template.createQuery(em).setParameter("ownerName", "Karl1").getResultList();
+        assertEquals(2, result.size());
+        assertEquals("Doc1", result.get(0).getName());
+        assertEquals("Doc2", result.get(1).getName());
+
+        result = template.createQuery(em).setParameter("ownerName", "Karl2").getResultList();
+        assertEquals(1, result.size());
+        assertEquals("Doc3", result.get(0).getName());
+    }
+
+    @Test
+    public void testQueryTemplateUsesBoundParameterValues() {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq("Karl1")
+                .where("d.name").notEqExpression(":excludedName")
+                .orderByAsc("d.name");
+        QueryTemplate<Document> template = cbf.registerQueryTemplate("QueryTemplateTest.testQueryTemplateUsesBoundParameterValues", criteria);
+
+        assertEquals(new HashSet<>(Arrays.asList("param_0", "excludedName")), template.getParameterNames());
+        List<Document> result = template.createQuery(em).setParameter("excludedName", "Doc1").getResultList();
+        assertEquals(1, result.size());
+        assertEquals("Doc2", result.get(0).getName());
+
+        // Bound values can be overridden
+        result = template.createQuery(em).setParameter("param_0", "Karl2").setParameter("excludedName", "Doc1").getResultList();
+        assertEquals(1, result.size());
+        assertEquals("Doc3", result.get(0).getName());
+    }
+
+    @Test
+    public void testQueryTemplateWithObjectBuilder() {
+        CriteriaBuilder<DocumentViewModel> criteria = cbf.create(em, Document.class, "d")
+                .selectNew(DocumentViewModel.class).with("d.name").end()
+                .where("d.owner.name").eqExpression(":ownerName")
+                .orderByAsc("d.name");
+        QueryTemplate<DocumentViewModel> template = cbf.registerQueryTemplate("QueryTemplateTest.testQueryTemplateWithObjectBuilder", criteria);
+
+        List<DocumentViewModel> result = template.createQuery(em).setParameter("ownerName", "Karl1").getResultList();
+        assertEquals(2, result.size());
+        assertEquals("Doc1", result.get(0).getName());
+        assertEquals("Doc2", result.get(1).getName());
+    }
+
+    @Test
+    public void testRegisterReturnsExistingQueryTemplate() {
+        QueryTemplate<Document> template = cbf.registerQueryTemplate("QueryTemplateTest.testRegisterReturnsExistingQueryTemplate", cbf.create(em, Document.class, "d"));
+        QueryTemplate<Document> otherTemplate = cbf.registerQueryTemplate("QueryTemplateTest.testRegisterReturnsExistingQueryTemplate", cbf.create(em, Document.class, "d").where("d.name").eq("Doc1"));
+
+        assertSame(template, otherTemplate);
+        assertNull(cbf.getQueryTemplate("QueryTemplateTest.unknown"));
+    }
+
+    @Test
+    public void testCreateUnregisteredQueryTemplate() {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eqExpression(":ownerName");
+        QueryTemplate<Document> template = cbf.createQueryTemplate(criteria);
+
+        assertNull(template.getName());
+        assertEquals(criteria.getQueryString(), template.getQueryString());
+        List<Document> result = template.createQuery(em).setParameter("ownerName", "Karl2").getResultList();
+        assertEquals(1, result.size());
+        assertEquals("Doc3", result.get(0).getName());
+    }
+
+    @Test
+    public void testQueryTemplateRejectsSqlReplacement() {
+        CriteriaBuilder<Integer> criteria = cbf.create(em, Integer.class)
+                .fromValues(Integer.class, "val", Collections.singletonList(1))
+                .select("val");
+        verifyException(cbf, IllegalArgumentException.class).registerQueryTemplate("QueryTemplateTest.testQueryTemplateRejectsSqlReplacement", criteria);
+    }
+
+    @Test
+    public void testQueryTemplateRejectsCustomObjectBuilder() {
+        CriteriaBuilder<String> criteria = cbf.create(em, Document.class, "d")
+                .selectNew(new ObjectBuilder<String>() {
+                    @Override
+                    public <X extends SelectBuilder<X>> void applySelects(X queryBuilder) {
+                        queryBuilder.select("d.name");
+                    }
+
+                    @Override
+                    public String build(Object[] tuple) {
+                        return (String) tuple[0];
+                    }
+
+                    @Override
+                    public List<String> buildList(List<String> list) {
+                        return list;
+                    }
+                });
+        verifyException(cbf, IllegalArgumentException.class).createQueryTemplate(criteria);
+    }
+}
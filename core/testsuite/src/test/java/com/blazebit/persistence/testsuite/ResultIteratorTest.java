@@ -0,0 +1,193 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.IntIdEntity;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.entity.TestCTE;
+import com.blazebit.persistence.testsuite.entity.Version;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ResultIteratorTest extends AbstractCoreTest {
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return new Class<?>[] {
+                Document.class,
+                Person.class,
+                IntIdEntity.class,
+                Version.class,
+                TestCTE.class
+        };
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p = new Person("Karl");
+                em.persist(p);
+
+                em.persist(new Document("Doc1", p));
+                em.persist(new Document("Doc2", p));
+                em.persist(new Document("Doc3", p));
+                em.persist(new Document("Doc4", p));
+                em.persist(new Document("Doc5", p));
+            }
+        });
+    }
+
+    @Test
+    public void testIterateEntities() {
+        CloseableIterator<Document> iterator = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .getResultIterator(2);
+
+        List<String> names = new ArrayList<>();
+        try {
+            while (iterator.hasNext()) {
+                names.add(iterator.next().getName());
+            }
+        } finally {
+            iterator.close();
+        }
+
+        assertEquals(Arrays.asList("Doc1", "Doc2", "Doc3", "Doc4", "Doc5"), names);
+    }
+
+    @Test
+    public void testIterateScalars() {
+        CloseableIterator<String> iterator = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .orderByAsc("d.name")
+                .getResultIterator();
+
+        List<String> names = new ArrayList<>();
+        try {
+            while (iterator.hasNext()) {
+                names.add(iterator.next());
+            }
+        } finally {
+            iterator.close();
+        }
+
+        assertEquals(Arrays.asList("Doc1", "Doc2", "Doc3", "Doc4", "Doc5"), names);
+    }
+
+    @Test
+    public void testObjectBuilderIsAppliedPerChunk() {
+        final List<Integer> chunkSizes = new ArrayList<>();
+        CloseableIterator<String> iterator = cbf.create(em, Document.class)
+                .from(Document.class, "d")
+                .orderByAsc("d.name")
+                .selectNew(new ObjectBuilder<String>() {
+                    @Override
+                    public <X extends SelectBuilder<X>> void applySelects(X selectBuilder) {
+                        selectBuilder.select("d.name").select("d.owner.name");
+                    }
+
+                    @Override
+                    public String build(Object[] tuple) {
+                        return tuple[0] + "-" + tuple[1];
+                    }
+
+                    @Override
+                    public List<String> buildList(List<String> list) {
+                        chunkSizes.add(list.size());
+                        return list;
+                    }
+                })
+                .getResultIterator(2);
+
+        List<String> results = new ArrayList<>();
+        try {
+            while (iterator.hasNext()) {
+                results.add(iterator.next());
+            }
+        } finally {
+            iterator.close();
+        }
+
+        assertEquals(Arrays.asList("Doc1-Karl", "Doc2-Karl", "Doc3-Karl", "Doc4-Karl", "Doc5-Karl"), results);
+        assertEquals(Arrays.asList(2, 2, 1), chunkSizes);
+    }
+
+    @Test
+    public void testCloseBeforeExhaustion() {
+        CloseableIterator<Document> iterator = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .getResultIterator(1);
+
+        assertTrue(iterator.hasNext());
+        assertEquals("Doc1", iterator.next().getName());
+        iterator.close();
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoMySQL.class })
+    public void testIterateCteQuery() {
+        CloseableIterator<TestCTE> iterator = cbf.create(em, TestCTE.class)
+                .with(TestCTE.class)
+                    .from(Document.class, "d")
+                    .bind("id").select("d.id")
+                    .bind("name").select("d.name")
+                    .bind("level").select("1")
+                .end()
+                .from(TestCTE.class, "t")
+                .orderByAsc("t.name")
+                .getResultIterator(2);
+
+        List<String> names = new ArrayList<>();
+        try {
+            while (iterator.hasNext()) {
+                names.add(iterator.next().getName());
+            }
+            assertFalse(iterator.hasNext());
+        } finally {
+            iterator.close();
+        }
+
+        assertEquals(Arrays.asList("Doc1", "Doc2", "Doc3", "Doc4", "Doc5"), names);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.SlicedList;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class SlicePaginationTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p = new Person("Karl");
+                em.persist(p);
+
+                em.persist(new Document("Doc1", p));
+                em.persist(new Document("Doc2", p));
+                em.persist(new Document("Doc3", p));
+                em.persist(new Document("Doc4", p));
+                em.persist(new Document("Doc5", p));
+            }
+        });
+    }
+
+    @Test
+    public void testSliceWithObjectQuery() {
+        assertSlices(false);
+    }
+
+    @Test
+    public void testSliceWithIdQuery() {
+        assertSlices(true);
+    }
+
+    @Test
+    public void testSliceWithOffset() {
+        PagedList<String> result = create().page(2, 2).withSlice(true).getResultList();
+        assertSlice(result, true, "Doc3", "Doc4");
+        result = create().page(4, 2).withSlice(true).getResultList();
+        assertSlice(result, false, "Doc5");
+    }
+
+    private void assertSlices(boolean forceIdQuery) {
+        PagedList<String> result = create().page(null, 0, 2).withForceIdQuery(forceIdQuery).withSlice(true).getResultList();
+        assertSlice(result, true, "Doc1", "Doc2");
+        KeysetPage firstPage = result.getKeysetPage();
+        assertEquals("Doc2", firstPage.getHighest().getTuple()[0]);
+
+        result = create().page(firstPage, 2, 2).withForceIdQuery(forceIdQuery).withSlice(true).getResultList();
+        assertSlice(result, true, "Doc3", "Doc4");
+        KeysetPage secondPage = result.getKeysetPage();
+        assertEquals("Doc3", secondPage.getLowest().getTuple()[0]);
+        assertEquals("Doc4", secondPage.getHighest().getTuple()[0]);
+
+        result = create().page(secondPage, 4, 2).withForceIdQuery(forceIdQuery).withSlice(true).getResultList();
+        assertSlice(result, false, "Doc5");
+
+        // Navigating back yields the same page and a previous page always has a next page
+        result = create().page(result.getKeysetPage(), 2, 2).withForceIdQuery(forceIdQuery).withSlice(true).getResultList();
+        assertSlice(result, true, "Doc3", "Doc4");
+        assertEquals("Doc3", result.getKeysetPage().getLowest().getTuple()[0]);
+        assertEquals("Doc4", result.getKeysetPage().getHighest().getTuple()[0]);
+    }
+
+    private void assertSlice(PagedList<String> result, boolean hasNext, String... expected) {
+        assertTrue(result instanceof SlicedList<?>);
+        assertEquals(Arrays.asList(expected), result);
+        assertEquals(-1L, result.getTotalSize());
+        if (hasNext) {
+            assertTrue(((SlicedList<String>) result).hasNext());
+        } else {
+            assertFalse(((SlicedList<String>) result).hasNext());
+        }
+    }
+
+    private CriteriaBuilder<String> create() {
+        return cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id");
+    }
+}
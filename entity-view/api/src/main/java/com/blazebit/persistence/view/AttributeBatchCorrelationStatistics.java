@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view;
+
+/**
+ * The runtime statistics of a batch correlated attribute.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ * @see BatchCorrelationStatistics
+ */
+public interface AttributeBatchCorrelationStatistics {
+
+    /**
+     * Returns the number of query executions for which the attribute was correlated.
+     *
+     * @return The number of executions
+     */
+    public long getExecutions();
+
+    /**
+     * Returns the number of executions for which the expected batch correlation mode was wrong and the correlation query had to be rebuilt.
+     *
+     * @return The number of expectation misses
+     */
+    public long getExpectationMisses();
+
+    /**
+     * Returns the total number of views for which the attribute was correlated.
+     *
+     * @return The number of views
+     */
+    public long getViews();
+
+    /**
+     * Returns the number of distinct view roots summed up over all executions.
+     *
+     * @return The number of view roots
+     */
+    public long getViewRoots();
+
+    /**
+     * Returns the number of distinct correlation values summed up over all executions.
+     *
+     * @return The number of correlation values
+     */
+    public long getCorrelationValues();
+
+    /**
+     * Returns the average number of distinct correlation values per view root.
+     *
+     * @return The average number of correlation values per view root
+     */
+    public double getCorrelationValuesPerViewRoot();
+
+    /**
+     * Returns the number of executed batch queries.
+     *
+     * @return The number of batch queries
+     */
+    public long getBatches();
+
+    /**
+     * Returns the total number of rows returned by the batch queries.
+     *
+     * @return The number of rows
+     */
+    public long getRows();
+
+    /**
+     * Returns the total execution time of the batch queries in nanoseconds.
+     *
+     * @return The execution time in nanoseconds
+     */
+    public long getBatchTimeNanos();
+
+    /**
+     * Returns the average execution time of a batch query in nanoseconds.
+     *
+     * @return The average execution time in nanoseconds
+     */
+    public double getAverageBatchTimeNanos();
+
+    /**
+     * Returns the moving average of the number of keys per execution that are batched.
+     *
+     * @return The average number of batched keys
+     */
+    public double getAverageBatchKeys();
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view;
+
+import java.util.Map;
+
+/**
+ * The runtime statistics of correlated attributes fetched with the {@linkplain FetchStrategy#SELECT}
+ * or {@linkplain FetchStrategy#LAZY} strategy that are collected when adaptive batching is enabled.
+ *
+ * An instance can be retrieved via {@link EntityViewManager#getService(Class)}.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public interface BatchCorrelationStatistics {
+
+    /**
+     * Returns the statistics for the attribute with the given path relative to the given entity view root type,
+     * or <code>null</code> if the attribute wasn't fetched with adaptive batching yet.
+     *
+     * @param entityViewClass The entity view root type
+     * @param attributePath The attribute path
+     * @return The statistics or <code>null</code>
+     */
+    public AttributeBatchCorrelationStatistics getAttributeStatistics(Class<?> entityViewClass, String attributePath);
+
+    /**
+     * Returns the statistics of all attributes keyed by the entity view root type name and the attribute path separated by <code>#</code>.
+     *
+     * @return The statistics of all attributes
+     */
+    public Map<String, ? extends AttributeBatchCorrelationStatistics> getAttributeStatistics();
+
+    /**
+     * Discards the collected statistics.
+     */
+    public void clear();
+}
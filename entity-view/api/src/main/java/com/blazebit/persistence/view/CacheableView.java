@@ -0,0 +1,39 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies that instances of the entity view returned by {@link EntityViewManager#find(javax.persistence.EntityManager, EntityViewSetting, Object)}
+ * may be cached in the {@link com.blazebit.persistence.view.spi.EntityViewCache} of the entity view manager.
+ *
+ * Only entity views that are neither updatable nor creatable can be cacheable. Cached instances are shared between callers
+ * and must not be modified. Cache entries are evicted when an entity view that maps one of the entity types the cacheable entity view
+ * depends on, is updated or removed through the entity view manager. Changes done through other means must be
+ * evicted explicitly via {@link EntityViewManager#evict(Class, Object)} or {@link EntityViewManager#evictAll(Class)}.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@Target({ ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheableView {
+}
@@ -23,6 +23,7 @@ import com.blazebit.persistence.view.change.SingularChangeModel;
 import com.blazebit.persistence.view.metamodel.ViewMetamodel;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
 
 /**
  * An interface that gives access to the metamodel and object builders.
@@ -53,6 +54,8 @@ public interface EntityViewManager {
 
     /**
      * Loads and returns an entity view as determined by the given type {@link EntityViewSetting} having the given entity id.
+     * If the entity view type is annotated with {@link CacheableView} and the setting has no filters, sorters or pagination,
+     * the entity view is served from the entity view cache if possible.
      *
      * @param entityManager The entity manager to use for querying
      * @param entityViewSetting The entity view setting to use
@@ -137,6 +140,17 @@ public interface EntityViewManager {
      */
     public void updateFull(EntityManager entityManager, Object view);
 
+    /**
+     * Updates the entities which the given entity views map to like {@link #update(EntityManager, Object)}.
+     * Update queries of entity views with the same type and the same dirty attributes are executed as JDBC batch
+     * if the JPA provider integration supports that. The update count is still verified for every entity view.
+     *
+     * @param entityManager The entity manager to use for the update
+     * @param views The views to use for updating
+     * @since 1.4.0
+     */
+    public void updateAll(EntityManager entityManager, Collection<?> views);
+
     /**
      * Removes the entity represented by the given view.
      * Also cascades deletes to attributes that have {@link CascadeType#DELETE} enabled.
@@ -147,6 +161,17 @@ public interface EntityViewManager {
      */
     public void remove(EntityManager entityManager, Object view);
 
+    /**
+     * Removes the entities represented by the given views like {@link #remove(EntityManager, Object)}.
+     * Delete queries of entity views with the same type are executed as JDBC batch if the JPA provider integration supports that
+     * and no deletes have to be cascaded after removing the entity.
+     *
+     * @param entityManager The entity manager to use for the removing
+     * @param views The views for which the entities should be removed
+     * @since 1.4.0
+     */
+    public void removeAll(EntityManager entityManager, Collection<?> views);
+
     /**
      * Removes the entity represented by the entity type defiend for the given view and the given entity id.
      * Also cascades deletes to attributes that have {@link CascadeType#DELETE} enabled.
@@ -158,6 +183,31 @@ public interface EntityViewManager {
      */
     public void remove(EntityManager entityManager, Class<?> entityViewClass, Object viewId);
 
+    /**
+     * Evicts the cached instances of the given {@link CacheableView} entity view class with the given id.
+     * This is necessary when the underlying data was changed without going through this entity view manager.
+     *
+     * @param entityViewClass The entity view class
+     * @param viewId The id of the entity view
+     * @since 1.4.0
+     */
+    public void evict(Class<?> entityViewClass, Object viewId);
+
+    /**
+     * Evicts all cached instances of the given {@link CacheableView} entity view class.
+     *
+     * @param entityViewClass The entity view class
+     * @since 1.4.0
+     */
+    public void evictAll(Class<?> entityViewClass);
+
+    /**
+     * Evicts all cached entity view instances.
+     *
+     * @since 1.4.0
+     */
+    public void evictAll();
+
     /**
      * Applies the entity view setting to the given criteria builder.
      *
@@ -183,4 +233,15 @@ public interface EntityViewManager {
      * @since 1.2.0
      */
     public <T, Q extends FullQueryBuilder<T, Q>> Q applySetting(EntityViewSetting<T, Q> setting, CriteriaBuilder<?> criteriaBuilder, String entityViewRoot);
+
+    /**
+     * Returns the service or null if none is available.
+     * The available services are the {@link com.blazebit.persistence.view.spi.EntityViewCache} and the {@link BatchCorrelationStatistics}.
+     *
+     * @param serviceClass The type of the service
+     * @param <T> The service type
+     * @return The service or null
+     * @since 1.4.0
+     */
+    public <T> T getService(Class<T> serviceClass);
 }
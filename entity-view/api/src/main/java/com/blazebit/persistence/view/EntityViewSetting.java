@@ -49,6 +49,7 @@ public final class EntityViewSetting<T, Q extends FullQueryBuilder<T, Q>> {
     private final Map<String, AttributeFilterActivation> attributeFilters;
     private final Map<String, Object> optionalParameters;
     private final Map<String, Object> properties;
+    private final Set<String> fetches;
     
     private KeysetPage keysetPage;
     private boolean keysetPaginated;
@@ -65,6 +66,7 @@ public final class EntityViewSetting<T, Q extends FullQueryBuilder<T, Q>> {
         this.attributeFilters = new LinkedHashMap<>();
         this.optionalParameters = new HashMap<>();
         this.properties = new HashMap<>();
+        this.fetches = new HashSet<>();
     }
 
     private EntityViewSetting(Class<T> entityViewClass, int firstResult, int maxResults, boolean paginate, String viewConstructorName) {
@@ -83,6 +85,7 @@ public final class EntityViewSetting<T, Q extends FullQueryBuilder<T, Q>> {
         this.attributeFilters = new LinkedHashMap<>();
         this.optionalParameters = new HashMap<>();
         this.properties = new HashMap<>();
+        this.fetches = new HashSet<>();
     }
 
     private EntityViewSetting(EntityViewSetting<? super T, ?> original, Class<T> subtype) {
@@ -99,6 +102,7 @@ public final class EntityViewSetting<T, Q extends FullQueryBuilder<T, Q>> {
         this.attributeFilters = new LinkedHashMap<>(original.attributeFilters);
         this.optionalParameters = new HashMap<>(original.optionalParameters);
         this.properties = new HashMap<>(original.properties);
+        this.fetches = new HashSet<>(original.fetches);
     }
 
     /**
@@ -556,6 +560,57 @@ public final class EntityViewSetting<T, Q extends FullQueryBuilder<T, Q>> {
         return Collections.unmodifiableMap(properties);
     }
 
+    /**
+     * Adds the given attribute path to the attributes that should be fetched.
+     * If no fetches are added, all attributes are fetched. Otherwise only the id attribute, attributes of a primitive type, filtered or sorted attributes,
+     * attributes of updatable or creatable entity views and the attributes that are on the path of one of the fetched attributes are fetched.
+     * The values of all other attributes will be <code>null</code>.
+     *
+     * Nested attributes are referred to by their dot separated path like e.g. <code>owner.name</code>.
+     * Fetching a subview attribute like <code>owner</code> fetches all of its attributes.
+     *
+     * @param attributePath The path of the attribute that should be fetched
+     * @return <code>this</code> for method chaining
+     * @since 1.4.0
+     */
+    public EntityViewSetting<T, Q> fetch(String attributePath) {
+        this.fetches.add(attributePath);
+        return this;
+    }
+
+    /**
+     * Adds the given attribute paths to the attributes that should be fetched.
+     *
+     * @param attributePaths The paths of the attributes that should be fetched
+     * @return <code>this</code> for method chaining
+     * @since 1.4.0
+     * @see #fetch(String)
+     */
+    public EntityViewSetting<T, Q> fetch(Collection<String> attributePaths) {
+        this.fetches.addAll(attributePaths);
+        return this;
+    }
+
+    /**
+     * Returns true if fetches have been added, otherwise false.
+     *
+     * @return true if fetches have been added, otherwise false
+     * @since 1.4.0
+     */
+    public boolean hasFetches() {
+        return !fetches.isEmpty();
+    }
+
+    /**
+     * Returns the attribute paths that should be fetched.
+     *
+     * @return The attribute paths that should be fetched
+     * @since 1.4.0
+     */
+    public Set<String> getFetches() {
+        return Collections.unmodifiableSet(fetches);
+    }
+
     /**
      * @author Moritz Becker
      * @since 1.2.0
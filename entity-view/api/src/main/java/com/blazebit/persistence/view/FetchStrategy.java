@@ -35,5 +35,15 @@ public enum FetchStrategy {
     /**
      * A strategy that defines that the target elements are selected in a single query containing the source query as subquery.
      */
-    SUBSELECT;
+    SUBSELECT,
+    /**
+     * A strategy that defines that the target elements are selected on first access of the collection like with {@link #SELECT}.
+     * The elements are loaded at once for all entity views that were loaded by the same query, honoring the {@link BatchFetch#size()}.
+     * This strategy is only supported for collection attributes of non-updatable entity views that are of the type
+     * {@link java.util.Collection}, {@link java.util.List} or {@link java.util.Set}. Since the elements are loaded through the entity manager
+     * that was used for loading the entity views, the entity manager must not be closed before the collection is accessed.
+     *
+     * @since 1.4.0
+     */
+    LAZY;
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.spi;
+
+/**
+ * A cache for instances of entity views annotated with {@link com.blazebit.persistence.view.CacheableView}.
+ * Entries are identified by the entity view class, the entity view id and a fingerprint of the entity view setting
+ * that was used for loading the entity view. Implementations must be thread safe.
+ *
+ * A custom implementation can be configured via the configuration property <code>com.blazebit.persistence.view.cache_class</code>.
+ * If the implementation has a public constructor accepting a {@link java.util.Map}, it is invoked with the configuration properties,
+ * otherwise the default constructor is used.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public interface EntityViewCache {
+
+    /**
+     * Returns the cached entity view or <code>null</code> if there is none.
+     *
+     * @param entityViewClass The entity view class
+     * @param id The entity view id
+     * @param fingerprint The fingerprint of the entity view setting
+     * @return The cached entity view or <code>null</code>
+     */
+    public Object get(Class<?> entityViewClass, Object id, Object fingerprint);
+
+    /**
+     * Puts the given entity view into the cache.
+     *
+     * @param entityViewClass The entity view class
+     * @param id The entity view id
+     * @param fingerprint The fingerprint of the entity view setting
+     * @param entityView The entity view to cache
+     */
+    public void put(Class<?> entityViewClass, Object id, Object fingerprint, Object entityView);
+
+    /**
+     * Evicts all entries of the given entity view class with the given id.
+     *
+     * @param entityViewClass The entity view class
+     * @param id The entity view id
+     */
+    public void evict(Class<?> entityViewClass, Object id);
+
+    /**
+     * Evicts all entries of the given entity view class.
+     *
+     * @param entityViewClass The entity view class
+     */
+    public void evictAll(Class<?> entityViewClass);
+
+    /**
+     * Evicts all entries.
+     */
+    public void evictAll();
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl;
+
+import com.blazebit.persistence.view.AttributeBatchCorrelationStatistics;
+
+/**
+ * The runtime statistics of a batch correlated attribute. Every execution of a query records the number of views, distinct view roots
+ * and distinct correlation values as well as the {@link BatchCorrelationMode} that turned out to be necessary.
+ * Every batch query records the number of returned rows and its latency.
+ *
+ * The recommended batch size is the next power of two of the average number of batched keys per execution, limited by the configured batch size.
+ * This avoids padding the batch parameters with <code>null</code> values when there are fewer keys than the configured batch size,
+ * while powers of two keep the number of distinct correlation queries low.
+ * The recommended batch correlation mode is the mode that was necessary most often.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public final class AttributeBatchCorrelationStatisticsImpl implements AttributeBatchCorrelationStatistics {
+
+    // The weight of the latest execution for the moving average of batched keys
+    private static final double SMOOTHING_FACTOR = 0.25d;
+
+    private final long[] modeCounts = new long[BatchCorrelationMode.values().length];
+    private long executions;
+    private long expectationMisses;
+    private long views;
+    private long viewRoots;
+    private long correlationValues;
+    private long batches;
+    private long rows;
+    private long batchTimeNanos;
+    private double averageBatchKeys;
+
+    AttributeBatchCorrelationStatisticsImpl() {
+    }
+
+    /**
+     * Records an execution of the correlation for the results of a query.
+     *
+     * @param mode The batch correlation mode that was necessary
+     * @param expectationMiss Whether the expected batch correlation mode was wrong and the correlation query had to be rebuilt
+     * @param views The number of views for which the attribute was correlated
+     * @param viewRoots The number of distinct view roots
+     * @param correlationValues The number of distinct correlation values
+     */
+    public synchronized void recordExecution(BatchCorrelationMode mode, boolean expectationMiss, int views, int viewRoots, int correlationValues) {
+        int batchKeys = mode == BatchCorrelationMode.VALUES ? correlationValues : viewRoots;
+        if (executions == 0) {
+            averageBatchKeys = batchKeys;
+        } else {
+            averageBatchKeys += (batchKeys - averageBatchKeys) * SMOOTHING_FACTOR;
+        }
+        executions++;
+        if (expectationMiss) {
+            expectationMisses++;
+        }
+        modeCounts[mode.ordinal()]++;
+        this.views += views;
+        this.viewRoots += viewRoots;
+        this.correlationValues += correlationValues;
+    }
+
+    /**
+     * Records the execution of a batch query.
+     *
+     * @param rows The number of rows returned by the query
+     * @param nanos The time it took to execute the query in nanoseconds
+     */
+    public synchronized void recordBatch(int rows, long nanos) {
+        batches++;
+        this.rows += rows;
+        batchTimeNanos += nanos;
+    }
+
+    /**
+     * Returns the batch size to use for the next execution.
+     *
+     * @param configuredBatchSize The configured batch size which is the upper bound
+     * @return The batch size to use
+     */
+    public synchronized int getRecommendedBatchSize(int configuredBatchSize) {
+        // A batch size of 1 doesn't require a VALUES clause which we must not introduce if it wasn't configured
+        if (executions == 0 || configuredBatchSize <= 1) {
+            return configuredBatchSize;
+        }
+        int keys = (int) Math.ceil(averageBatchKeys);
+        if (keys >= configuredBatchSize) {
+            return configuredBatchSize;
+        }
+        if (keys <= 1) {
+            return 1;
+        }
+        return Math.min(configuredBatchSize, Integer.highestOneBit(keys - 1) << 1);
+    }
+
+    /**
+     * Returns the batch correlation mode to expect for the next execution.
+     *
+     * @param configuredMode The configured batch correlation mode that is used if nothing was recorded yet
+     * @return The batch correlation mode to expect
+     */
+    public synchronized BatchCorrelationMode getRecommendedBatchCorrelationMode(BatchCorrelationMode configuredMode) {
+        BatchCorrelationMode mode = configuredMode;
+        long count = modeCounts[configuredMode.ordinal()];
+        for (BatchCorrelationMode batchCorrelationMode : BatchCorrelationMode.values()) {
+            if (modeCounts[batchCorrelationMode.ordinal()] > count) {
+                mode = batchCorrelationMode;
+                count = modeCounts[batchCorrelationMode.ordinal()];
+            }
+        }
+        return mode;
+    }
+
+    @Override
+    public synchronized long getExecutions() {
+        return executions;
+    }
+
+    @Override
+    public synchronized long getExpectationMisses() {
+        return expectationMisses;
+    }
+
+    public synchronized long getModeCount(BatchCorrelationMode mode) {
+        return modeCounts[mode.ordinal()];
+    }
+
+    @Override
+    public synchronized long getViews() {
+        return views;
+    }
+
+    @Override
+    public synchronized long getViewRoots() {
+        return viewRoots;
+    }
+
+    @Override
+    public synchronized long getCorrelationValues() {
+        return correlationValues;
+    }
+
+    @Override
+    public synchronized double getCorrelationValuesPerViewRoot() {
+        return viewRoots == 0 ? 0d : (double) correlationValues / viewRoots;
+    }
+
+    @Override
+    public synchronized long getBatches() {
+        return batches;
+    }
+
+    @Override
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    @Override
+    public synchronized long getBatchTimeNanos() {
+        return batchTimeNanos;
+    }
+
+    @Override
+    public synchronized double getAverageBatchTimeNanos() {
+        return batches == 0 ? 0d : (double) batchTimeNanos / batches;
+    }
+
+    @Override
+    public synchronized double getAverageBatchKeys() {
+        return averageBatchKeys;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AttributeBatchCorrelationStatisticsImpl{"
+                + "executions=" + executions
+                + ", expectationMisses=" + expectationMisses
+                + ", views=" + views
+                + ", viewRoots=" + viewRoots
+                + ", correlationValues=" + correlationValues
+                + ", batches=" + batches
+                + ", rows=" + rows
+                + ", batchTimeNanos=" + batchTimeNanos
+                + ", averageBatchKeys=" + averageBatchKeys
+                + '}';
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl;
+
+import com.blazebit.persistence.view.BatchCorrelationStatistics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects the runtime statistics of correlated attributes when adaptive batching is enabled.
+ * The statistics are used to determine the batch size and the expected {@link BatchCorrelationMode} of later executions.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public final class BatchCorrelationStatisticsImpl implements BatchCorrelationStatistics {
+
+    private final ConcurrentMap<String, AttributeBatchCorrelationStatisticsImpl> attributeStatistics = new ConcurrentHashMap<>();
+
+    @Override
+    public AttributeBatchCorrelationStatisticsImpl getAttributeStatistics(Class<?> entityViewClass, String attributePath) {
+        return attributeStatistics.get(getKey(entityViewClass, attributePath));
+    }
+
+    @Override
+    public Map<String, AttributeBatchCorrelationStatisticsImpl> getAttributeStatistics() {
+        return Collections.unmodifiableMap(attributeStatistics);
+    }
+
+    @Override
+    public void clear() {
+        attributeStatistics.clear();
+    }
+
+    AttributeBatchCorrelationStatisticsImpl getOrCreateAttributeStatistics(Class<?> entityViewClass, String attributePath) {
+        String key = getKey(entityViewClass, attributePath);
+        AttributeBatchCorrelationStatisticsImpl statistics = attributeStatistics.get(key);
+        if (statistics == null) {
+            statistics = new AttributeBatchCorrelationStatisticsImpl();
+            AttributeBatchCorrelationStatisticsImpl existing = attributeStatistics.putIfAbsent(key, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    private static String getKey(Class<?> entityViewClass, String attributePath) {
+        return entityViewClass.getName() + '#' + attributePath;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Executes independent tasks during the boot of the entity view manager either serially on the caller thread
+ * or in parallel on a fork join pool, depending on the configured parallelism.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public final class BootTaskExecutor {
+
+    private static final BootTaskExecutor SERIAL = new BootTaskExecutor(null);
+
+    private final ExecutorService executorService;
+
+    private BootTaskExecutor(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    public static BootTaskExecutor serial() {
+        return SERIAL;
+    }
+
+    public static BootTaskExecutor create(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid boot parallelism " + parallelism + " configured via " + ConfigurationProperties.BOOT_PARALLELISM + ". Only positive values are allowed!");
+        }
+        if (parallelism == 1) {
+            return SERIAL;
+        }
+        return new BootTaskExecutor(new ForkJoinPool(parallelism));
+    }
+
+    public void invokeAll(List<? extends Callable<?>> tasks) {
+        if (executorService == null || tasks.size() < 2) {
+            for (Callable<?> task : tasks) {
+                try {
+                    task.call();
+                } catch (RuntimeException | Error ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(tasks.size());
+        for (Callable<?> task : tasks) {
+            futures.add(executorService.submit(task));
+        }
+
+        Throwable failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause();
+                } else {
+                    failure.addSuppressed(ex.getCause());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for entity view boot tasks", ex);
+            }
+        }
+
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    public void shutdown() {
+        if (executorService != null) {
+            executorService.shutdown();
+        }
+    }
+}
@@ -49,6 +49,27 @@ public final class ConfigurationProperties {
      * @since 1.0.6
      */
     public static final String PROXY_UNSAFE_ALLOWED = "com.blazebit.persistence.view.proxy.unsafe_allowed";
+    /**
+     * The path to an existing directory to which the class files of generated proxy classes should be written.
+     * Combined with {@link #PROXY_EAGER_LOADING}, this can be used in a build step to generate the proxy classes ahead of time
+     * so that they can be packaged with the application and be loaded via {@link #PROXY_PREGENERATED}.
+     * By default no class files are written.
+     *
+     * @since 1.4.0
+     */
+    public static final String PROXY_DUMP_DIRECTORY = "com.blazebit.persistence.view.proxy.dump_directory";
+    /**
+     * A boolean flag to make it possible to load pre-generated proxy classes through the class loader of the entity view type
+     * instead of generating the proxy classes at runtime. Proxy classes that can't be found are generated at runtime as usual.
+     * Pre-generated proxy classes that were generated for a different entity view model are rejected.
+     * Unsafe proxies can't be pre-generated, so {@link #PROXY_UNSAFE_ALLOWED} should be disabled when using pre-generated proxies
+     * for entity views that make use of constructors.
+     * By default the proxy classes are generated at runtime.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     *
+     * @since 1.4.0
+     */
+    public static final String PROXY_PREGENERATED = "com.blazebit.persistence.view.proxy.pregenerated";
     /**
      * A boolean flag to make it possible to disable the expression validation.
      * By default the expression validation is enabled, but since the validation is not bullet proof, it can be disabled.
@@ -102,6 +123,33 @@ public final class ConfigurationProperties {
      * @since 1.3.0
      */
     public static final String EXPECT_BATCH_MODE = "com.blazebit.persistence.view.batch_mode";
+    /**
+     * A {@linkplain javax.persistence.EntityManagerFactory} that is used to create entity managers for executing
+     * batches of correlated attributes with the {@linkplain com.blazebit.persistence.view.FetchStrategy#SELECT} strategy concurrently.
+     * Concurrent execution is only enabled when this property and {@link #CORRELATION_EXECUTOR} are set via {@linkplain com.blazebit.persistence.view.EntityViewSetting#setProperty}.
+     *
+     * Since the batches are loaded through separate entity managers, entities that are part of correlation results will be detached
+     * once the entity managers are closed after loading. This is intended for correlations that result in entity views or basic values.
+     *
+     * @since 1.4.0
+     */
+    public static final String CORRELATION_ENTITY_MANAGER_FACTORY = "com.blazebit.persistence.view.correlation.entity_manager_factory";
+    /**
+     * A {@linkplain java.util.concurrent.Executor} that is used to execute batches of correlated attributes concurrently.
+     * See {@link #CORRELATION_ENTITY_MANAGER_FACTORY} for details.
+     *
+     * @since 1.4.0
+     */
+    public static final String CORRELATION_EXECUTOR = "com.blazebit.persistence.view.correlation.executor";
+    /**
+     * The maximum number of worker tasks that are submitted to the {@link #CORRELATION_EXECUTOR} for loading the batches of a correlated attribute concurrently.
+     * Every worker uses a separate entity manager and thus a separate connection, so this also bounds the number of connections used by one attribute.
+     * The calling thread always takes part in loading batches. By default at most 4 workers are used.
+     * Valid values for this property are integers greater than 0.
+     *
+     * @since 1.4.0
+     */
+    public static final String CORRELATION_PARALLELISM = "com.blazebit.persistence.view.correlation.parallelism";
     /**
      * A boolean flag to make it possible to prepare the entity view updater cache on startup.
      * By default the eager loading of entity view updates is disabled to have a better startup performance.
@@ -110,6 +158,16 @@ public final class ConfigurationProperties {
      * @since 1.2.0
      */
     public static final String UPDATER_EAGER_LOADING = "com.blazebit.persistence.view.updater.eager_loading";
+    /**
+     * The number of threads to use for validating the entity view metamodel and for the eager loading of proxies,
+     * view templates and entity view updaters when creating the entity view manager.
+     * By default everything is done on the thread that creates the entity view manager.
+     * Valid values are positive integers.
+     * Default is <code>1</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String BOOT_PARALLELISM = "com.blazebit.persistence.view.boot.parallelism";
     /**
      * An override for the flush mode of updatable entity views.
      * By default, the property is not set. This has the effect, that the flush modes configured for the respective updatable entity views are used.
@@ -144,6 +202,50 @@ public final class ConfigurationProperties {
      */
     public static final String UPDATER_DISALLOW_OWNED_UPDATABLE_SUBVIEW = "com.blazebit.persistence.view.updater.disallow_owned_updatable_subview";
 
+    /**
+     * An integer value that defines the maximum number of modification queries that are executed as one JDBC batch
+     * by {@link com.blazebit.persistence.view.EntityViewManager#updateAll(javax.persistence.EntityManager, java.util.Collection)}
+     * and {@link com.blazebit.persistence.view.EntityViewManager#removeAll(javax.persistence.EntityManager, java.util.Collection)}.
+     * Valid values are positive integers.
+     * Default is <code>100</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String UPDATER_BATCH_SIZE = "com.blazebit.persistence.view.updater.batch_size";
+
+    /**
+     * The full qualified class name of the {@link com.blazebit.persistence.view.spi.EntityViewCache} implementation
+     * that is used for caching {@link com.blazebit.persistence.view.CacheableView} entity views.
+     * If the class has a public constructor accepting a {@link java.util.Map}, it is invoked with the configuration properties,
+     * otherwise the default constructor is used.
+     * Default is <code>com.blazebit.persistence.view.impl.cache.BoundedEntityViewCache</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String CACHE_CLASS = "com.blazebit.persistence.view.cache_class";
+
+    /**
+     * The maximum number of entity views per entity view type that are cached by the default entity view cache.
+     * Valid values are positive integers.
+     * Default is <code>1000</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.view.cache_maximum_size";
+
+    /**
+     * A boolean flag to enable adaptive batching for correlated attributes using the {@linkplain com.blazebit.persistence.view.FetchStrategy#SELECT}
+     * or {@linkplain com.blazebit.persistence.view.FetchStrategy#LAZY} strategy. When enabled, the entity view manager records
+     * statistics per attribute and uses them to determine the batch size, bounded by the configured batch size, and the expected batch correlation mode
+     * of later executions. The statistics are accessible through {@link com.blazebit.persistence.view.BatchCorrelationStatistics}.
+     * By default adaptive batching is disabled. The property can be overridden via {@linkplain com.blazebit.persistence.view.EntityViewSetting#setProperty}.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     * Default is <code>false</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String ADAPTIVE_BATCHING = "com.blazebit.persistence.view.adaptive_batching";
+
     private ConfigurationProperties() {
     }
 }
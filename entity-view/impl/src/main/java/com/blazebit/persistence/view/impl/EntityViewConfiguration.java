@@ -19,10 +19,15 @@ package com.blazebit.persistence.view.impl;
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.view.impl.macro.EmbeddingViewJpqlMacro;
+import com.blazebit.persistence.view.metamodel.ManagedViewType;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * @author Christian Beikov
@@ -30,16 +35,31 @@ import java.util.Map;
  */
 public final class EntityViewConfiguration {
 
+    private static final int DEFAULT_CORRELATION_PARALLELISM = 4;
+
     private final FullQueryBuilder<?, ?> criteriaBuilder;
     private final ExpressionFactory expressionFactory;
     private final EmbeddingViewJpqlMacro embeddingViewJpqlMacro;
     private final Map<String, Object> optionalParameters;
     private final Map<String, Integer> batchSizeConfiguration;
     private final Map<String, BatchCorrelationMode> expectBatchCorrelationValuesConfiguration;
+    private final EntityManagerFactory correlationEntityManagerFactory;
+    private final Executor correlationExecutor;
+    private final int correlationParallelism;
+    private final BatchCorrelationStatisticsImpl batchCorrelationStatistics;
+    private final Set<String> fetches;
 
     public EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties) {
+        this(criteriaBuilder, expressionFactory, embeddingViewJpqlMacro, optionalParameters, properties, null, false, Collections.<String>emptySet());
+    }
+
+    public EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties,
+                                   BatchCorrelationStatisticsImpl batchCorrelationStatistics, boolean adaptiveBatching, Set<String> fetches) {
         Map<String, Integer> batchSizeConfiguration = new HashMap<String, Integer>(properties.size());
         Map<String, BatchCorrelationMode> expectBatchCorrelationValuesConfiguration = new HashMap<>(properties.size());
+        EntityManagerFactory correlationEntityManagerFactory = null;
+        Executor correlationExecutor = null;
+        int correlationParallelism = DEFAULT_CORRELATION_PARALLELISM;
 
         for (Map.Entry<String, Object> entry : properties.entrySet()) {
             String key = entry.getKey();
@@ -73,6 +93,20 @@ public final class EntityViewConfiguration {
                     key = key.substring(ConfigurationProperties.EXPECT_BATCH_MODE.length() + 1);
                     expectBatchCorrelationValuesConfiguration.put(key, value);
                 }
+            } else if (ConfigurationProperties.CORRELATION_ENTITY_MANAGER_FACTORY.equals(key)) {
+                if (entry.getValue() != null && !(entry.getValue() instanceof EntityManagerFactory)) {
+                    throw new IllegalArgumentException("Invalid correlation entity manager factory configuration for key: " + key);
+                }
+                correlationEntityManagerFactory = (EntityManagerFactory) entry.getValue();
+            } else if (ConfigurationProperties.CORRELATION_EXECUTOR.equals(key)) {
+                if (entry.getValue() != null && !(entry.getValue() instanceof Executor)) {
+                    throw new IllegalArgumentException("Invalid correlation executor configuration for key: " + key);
+                }
+                correlationExecutor = (Executor) entry.getValue();
+            } else if (ConfigurationProperties.CORRELATION_PARALLELISM.equals(key)) {
+                correlationParallelism = getCorrelationParallelism(key, entry.getValue());
+            } else if (ConfigurationProperties.ADAPTIVE_BATCHING.equals(key)) {
+                adaptiveBatching = getAdaptiveBatching(key, entry.getValue());
             }
         }
 
@@ -82,6 +116,11 @@ public final class EntityViewConfiguration {
         this.optionalParameters = new HashMap<String, Object>(optionalParameters);
         this.batchSizeConfiguration = Collections.unmodifiableMap(batchSizeConfiguration);
         this.expectBatchCorrelationValuesConfiguration = Collections.unmodifiableMap(expectBatchCorrelationValuesConfiguration);
+        this.correlationEntityManagerFactory = correlationEntityManagerFactory;
+        this.correlationExecutor = correlationExecutor;
+        this.correlationParallelism = correlationParallelism;
+        this.batchCorrelationStatistics = adaptiveBatching ? batchCorrelationStatistics : null;
+        this.fetches = Collections.unmodifiableSet(new HashSet<>(fetches));
         this.criteriaBuilder.registerMacro("embedding_view", embeddingViewJpqlMacro);
     }
 
@@ -92,6 +131,28 @@ public final class EntityViewConfiguration {
         this.optionalParameters = original.optionalParameters;
         this.batchSizeConfiguration = original.batchSizeConfiguration;
         this.expectBatchCorrelationValuesConfiguration = original.expectBatchCorrelationValuesConfiguration;
+        this.correlationEntityManagerFactory = original.correlationEntityManagerFactory;
+        this.correlationExecutor = original.correlationExecutor;
+        this.correlationParallelism = original.correlationParallelism;
+        this.batchCorrelationStatistics = original.batchCorrelationStatistics;
+        this.fetches = getSubviewFetches(original.fetches, attributePath);
+    }
+
+    private static Set<String> getSubviewFetches(Set<String> fetches, String attributePath) {
+        if (fetches.isEmpty()) {
+            return fetches;
+        }
+        String prefix = attributePath + ".";
+        Set<String> subviewFetches = new HashSet<>();
+        for (String fetch : fetches) {
+            if (fetch.startsWith(prefix)) {
+                subviewFetches.add(fetch.substring(prefix.length()));
+            } else if (attributePath.equals(fetch) || attributePath.startsWith(fetch + ".")) {
+                // The subview itself or one of its parents is fetched, so all attributes of the subview are fetched
+                return Collections.<String>emptySet();
+            }
+        }
+        return Collections.unmodifiableSet(subviewFetches);
     }
 
     public EntityViewConfiguration forSubview(FullQueryBuilder<?, ?> criteriaBuilder, String attributePath, EmbeddingViewJpqlMacro embeddingViewJpqlMacro) {
@@ -110,10 +171,80 @@ public final class EntityViewConfiguration {
         return optionalParameters;
     }
 
+    /**
+     * Returns the attribute paths relative to the current view that should be fetched or an empty set if all attributes should be fetched.
+     *
+     * @return The attribute paths to fetch
+     */
+    public Set<String> getFetches() {
+        return fetches;
+    }
+
     public EmbeddingViewJpqlMacro getEmbeddingViewJpqlMacro() {
         return embeddingViewJpqlMacro;
     }
 
+    public boolean isConcurrentCorrelation() {
+        return correlationEntityManagerFactory != null && correlationExecutor != null;
+    }
+
+    public EntityManagerFactory getCorrelationEntityManagerFactory() {
+        return correlationEntityManagerFactory;
+    }
+
+    public Executor getCorrelationExecutor() {
+        return correlationExecutor;
+    }
+
+    /**
+     * Returns the maximum number of workers that load batches of a correlated attribute concurrently.
+     *
+     * @return The maximum number of workers
+     */
+    public int getCorrelationParallelism() {
+        return correlationParallelism;
+    }
+
+    /**
+     * Returns the statistics of the attribute with the given path if adaptive batching is enabled, otherwise <code>null</code>.
+     *
+     * @param viewRootType The entity view root type
+     * @param attributePath The attribute path
+     * @return The statistics or <code>null</code>
+     */
+    public AttributeBatchCorrelationStatisticsImpl getBatchCorrelationStatistics(ManagedViewType<?> viewRootType, String attributePath) {
+        if (batchCorrelationStatistics == null) {
+            return null;
+        }
+        return batchCorrelationStatistics.getOrCreateAttributeStatistics(viewRootType.getJavaType(), attributePath);
+    }
+
+    private static int getCorrelationParallelism(String key, Object value) {
+        Integer val = null;
+        if (value instanceof Integer) {
+            val = (Integer) value;
+        } else if (value instanceof String) {
+            val = Integer.parseInt(value.toString());
+        }
+
+        if (val == null) {
+            throw new IllegalArgumentException("Invalid correlation parallelism configuration for key: " + key);
+        } else if (val < 1) {
+            throw new IllegalArgumentException("Invalid correlation parallelism configuration " + val + " for key: " + key);
+        }
+
+        return val;
+    }
+
+    private static boolean getAdaptiveBatching(String key, Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof String) {
+            return Boolean.parseBoolean((String) value);
+        }
+        throw new IllegalArgumentException("Invalid adaptive batching configuration for key: " + key);
+    }
+
     public int getBatchSize() {
         return getBatchSize("");
     }
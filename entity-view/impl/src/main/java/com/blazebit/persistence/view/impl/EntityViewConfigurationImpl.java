@@ -64,8 +64,14 @@ public class EntityViewConfigurationImpl implements EntityViewConfiguration {
     private void loadDefaultProperties() {
         properties.put(ConfigurationProperties.PROXY_EAGER_LOADING, "false");
         properties.put(ConfigurationProperties.PROXY_UNSAFE_ALLOWED, "true");
+        properties.put(ConfigurationProperties.PROXY_PREGENERATED, "false");
         properties.put(ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED, "false");
         properties.put(ConfigurationProperties.UPDATER_DISALLOW_OWNED_UPDATABLE_SUBVIEW, "true");
+        properties.put(ConfigurationProperties.UPDATER_BATCH_SIZE, "100");
+        properties.put(ConfigurationProperties.BOOT_PARALLELISM, "1");
+        properties.put(ConfigurationProperties.CACHE_CLASS, "com.blazebit.persistence.view.impl.cache.BoundedEntityViewCache");
+        properties.put(ConfigurationProperties.CACHE_MAXIMUM_SIZE, "1000");
+        properties.put(ConfigurationProperties.ADAPTIVE_BATCHING, "false");
 
         typeTestValues.put(boolean.class, true);
         typeTestValues.put(byte.class, Byte.MAX_VALUE);
@@ -30,10 +30,12 @@ import com.blazebit.persistence.parser.expression.MacroConfiguration;
 import com.blazebit.persistence.parser.expression.MacroFunction;
 import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
 import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import com.blazebit.persistence.spi.JpaProvider;
 import com.blazebit.persistence.spi.JpqlMacro;
 import com.blazebit.persistence.spi.PackageOpener;
 import com.blazebit.persistence.view.AttributeFilterProvider;
+import com.blazebit.persistence.view.BatchCorrelationStatistics;
 import com.blazebit.persistence.view.ConvertOption;
 import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.EntityViewSetting;
@@ -53,6 +55,7 @@ import com.blazebit.persistence.view.filter.StartsWithFilter;
 import com.blazebit.persistence.view.filter.StartsWithIgnoreCaseFilter;
 import com.blazebit.persistence.view.impl.accessor.AttributeAccessor;
 import com.blazebit.persistence.view.impl.accessor.EntityIdAttributeAccessor;
+import com.blazebit.persistence.view.impl.cache.EntityViewCacheSupport;
 import com.blazebit.persistence.view.impl.change.ViewChangeModel;
 import com.blazebit.persistence.view.impl.filter.ContainsFilterImpl;
 import com.blazebit.persistence.view.impl.filter.ContainsIgnoreCaseFilterImpl;
@@ -85,21 +88,30 @@ import com.blazebit.persistence.view.impl.update.EntityViewUpdater;
 import com.blazebit.persistence.view.impl.update.EntityViewUpdaterImpl;
 import com.blazebit.persistence.view.impl.update.SimpleUpdateContext;
 import com.blazebit.persistence.view.impl.update.UpdateContext;
+import com.blazebit.persistence.view.impl.update.UpdateQueryBatcher;
 import com.blazebit.persistence.view.impl.update.flush.CompositeAttributeFlusher;
 import com.blazebit.persistence.view.metamodel.ManagedViewType;
 import com.blazebit.persistence.view.metamodel.MappingConstructor;
 import com.blazebit.persistence.view.metamodel.ViewType;
+import com.blazebit.persistence.view.spi.EntityViewCache;
 import com.blazebit.persistence.view.spi.type.EntityViewProxy;
 
 import javax.persistence.EntityManager;
 import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.SingularAttribute;
 import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -110,6 +122,9 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class EntityViewManagerImpl implements EntityViewManager {
 
+    // The maximum number of templates for entity views with fetches since the fetched attribute paths are chosen by clients
+    private static final int PRUNED_OBJECT_BUILDER_CACHE_MAXIMUM_SIZE = 1000;
+
     private final CriteriaBuilderFactory cbf;
     private final JpaProvider jpaProvider;
     private final DbmsDialect dbmsDialect;
@@ -120,14 +135,21 @@ public class EntityViewManagerImpl implements EntityViewManager {
     private final ProxyFactory proxyFactory;
     private final boolean supportsTransientReference;
     private final ConcurrentMap<ViewTypeObjectBuilderTemplate.Key, ViewTypeObjectBuilderTemplate<?>> objectBuilderCache;
+    private final Map<ViewTypeObjectBuilderTemplate.Key, ViewTypeObjectBuilderTemplate<?>> prunedObjectBuilderCache;
     private final ConcurrentMap<ManagedViewType<?>, EntityViewUpdaterImpl> entityViewUpdaterCache;
     private final ConcurrentMap<ContextAwareUpdaterKey, EntityViewUpdaterImpl> contextAwareEntityViewUpdaterCache;
+    private final ThreadLocal<Map<Object, EntityViewUpdaterImpl>> pendingUpdaters = new ThreadLocal<>();
     private final ConcurrentMap<ViewMapper.Key<?, ?>, ViewMapper<?, ?>> entityViewMappers;
     private final ConcurrentMap<Class<?>, Constructor<?>> createConstructorCache;
     private final ConcurrentMap<Class<?>, Constructor<?>> referenceConstructorCache;
     private final Map<String, Class<? extends AttributeFilterProvider>> filterMappings;
     
     private final boolean unsafeDisabled;
+    private final ExtendedQuerySupport extendedQuerySupport;
+    private final int updaterBatchSize;
+    private final EntityViewCacheSupport cacheSupport;
+    private final boolean adaptiveBatching;
+    private final BatchCorrelationStatisticsImpl batchCorrelationStatistics = new BatchCorrelationStatisticsImpl();
 
     public EntityViewManagerImpl(EntityViewConfigurationImpl config, CriteriaBuilderFactory cbf) {
         this.cbf = cbf;
@@ -138,14 +160,20 @@ public class EntityViewManagerImpl implements EntityViewManager {
         this.packageOpener = cbf.getService(PackageOpener.class);
         this.entityIdAccessor = new EntityIdAttributeAccessor(jpaProvider);
         this.unsafeDisabled = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_UNSAFE_ALLOWED)));
-        this.proxyFactory = new ProxyFactory(unsafeDisabled, packageOpener);
+        this.proxyFactory = new ProxyFactory(unsafeDisabled, packageOpener, getProxyDumpDirectory(config), Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_PREGENERATED))));
+        this.extendedQuerySupport = cbf.getService(ExtendedQuerySupport.class);
+        this.updaterBatchSize = Integer.parseInt(String.valueOf(config.getProperty(ConfigurationProperties.UPDATER_BATCH_SIZE)));
+        if (updaterBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid updater batch size " + updaterBatchSize + " configured via " + ConfigurationProperties.UPDATER_BATCH_SIZE + ". Only positive values are allowed!");
+        }
+        this.adaptiveBatching = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.ADAPTIVE_BATCHING)));
 
         boolean validateManagedTypes = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED)));
         boolean validateExpressions = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.EXPRESSION_VALIDATION_DISABLED)));
 
         Set<String> errors = config.getBootContext().getErrors();
 
-        MetamodelBuildingContext context = new MetamodelBuildingContextImpl(
+        final MetamodelBuildingContext context = new MetamodelBuildingContextImpl(
                 config.getProperties(),
                 new DefaultBasicUserTypeRegistry(config.getUserTypeRegistry(), cbf),
                 entityMetamodel,
@@ -160,68 +188,152 @@ public class EntityViewManagerImpl implements EntityViewManager {
         ViewMetamodelImpl viewMetamodel = null;
         RuntimeException exception = null;
         Map<Class<?>, Object> typeTestValues = config.getTypeTestValues();
+        BootTaskExecutor bootTaskExecutor = BootTaskExecutor.create(Integer.parseInt(String.valueOf(config.getProperty(ConfigurationProperties.BOOT_PARALLELISM))));
 
         try {
-            viewMetamodel = new ViewMetamodelImpl(entityMetamodel, context, typeTestValues, validateManagedTypes, validateExpressions);
-        } catch (RuntimeException ex) {
-            exception = ex;
-        }
+            try {
+                viewMetamodel = new ViewMetamodelImpl(entityMetamodel, context, typeTestValues, validateManagedTypes, validateExpressions, bootTaskExecutor);
+            } catch (RuntimeException ex) {
+                exception = ex;
+            }
 
-        if (!errors.isEmpty()) {
-            StringBuilder sb = new StringBuilder();
-            sb.append("There are error(s) in entity views!");
+            if (!errors.isEmpty()) {
+                StringBuilder sb = new StringBuilder();
+                sb.append("There are error(s) in entity views!");
 
-            for (String error : errors) {
-                sb.append('\n');
-                sb.append(error);
+                for (String error : errors) {
+                    sb.append('\n');
+                    sb.append(error);
+                }
+
+                throw new IllegalArgumentException(sb.toString(), exception);
+            } else if (exception != null) {
+                throw new IllegalArgumentException("An error happened during entity view metamodel building!", exception);
             }
 
-            throw new IllegalArgumentException(sb.toString(), exception);
-        } else if (exception != null) {
-            throw new IllegalArgumentException("An error happened during entity view metamodel building!", exception);
-        }
-
-        this.metamodel = viewMetamodel;
-        this.supportsTransientReference = jpaProvider.supportsTransientEntityAsParameter();
-        this.objectBuilderCache = new ConcurrentHashMap<>();
-        this.entityViewUpdaterCache = new ConcurrentHashMap<>();
-        this.contextAwareEntityViewUpdaterCache = new ConcurrentHashMap<>();
-        this.entityViewMappers = new ConcurrentHashMap<>();
-        this.createConstructorCache = new ConcurrentHashMap<>();
-        this.referenceConstructorCache = new ConcurrentHashMap<>();
-        this.filterMappings = new HashMap<>();
-        registerFilterMappings();
-        
-        if (Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.TEMPLATE_EAGER_LOADING)))) {
-            for (ViewTypeImpl<?> view : metamodel.views()) {
-                // TODO: Might be a good idea to let the view root be overridden or specified via the annotation
-                String probableViewRoot = StringUtils.firstToLower(view.getEntityClass().getSimpleName());
-                ExpressionFactory macroAwareExpressionFactory = context.createMacroAwareExpressionFactory(probableViewRoot);
-                EmbeddingViewJpqlMacro embeddingViewJpqlMacro = (EmbeddingViewJpqlMacro) macroAwareExpressionFactory.getDefaultMacroConfiguration().get("EMBEDDING_VIEW").getState()[0];
-                getTemplate(macroAwareExpressionFactory, view, null, null, null, embeddingViewJpqlMacro);
-
-                for (MappingConstructor<?> constructor : view.getConstructors()) {
-                    getTemplate(macroAwareExpressionFactory, view, (MappingConstructorImpl) constructor, null, null, embeddingViewJpqlMacro);
+            this.metamodel = viewMetamodel;
+            this.supportsTransientReference = jpaProvider.supportsTransientEntityAsParameter();
+            this.objectBuilderCache = new ConcurrentHashMap<>();
+            this.prunedObjectBuilderCache = new LinkedHashMap<ViewTypeObjectBuilderTemplate.Key, ViewTypeObjectBuilderTemplate<?>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ViewTypeObjectBuilderTemplate.Key, ViewTypeObjectBuilderTemplate<?>> eldest) {
+                    return size() > PRUNED_OBJECT_BUILDER_CACHE_MAXIMUM_SIZE;
                 }
+            };
+            this.entityViewUpdaterCache = new ConcurrentHashMap<>();
+            this.contextAwareEntityViewUpdaterCache = new ConcurrentHashMap<>();
+            this.entityViewMappers = new ConcurrentHashMap<>();
+            this.createConstructorCache = new ConcurrentHashMap<>();
+            this.referenceConstructorCache = new ConcurrentHashMap<>();
+            this.filterMappings = new HashMap<>();
+            registerFilterMappings();
+            this.cacheSupport = new EntityViewCacheSupport(createEntityViewCache(config), viewMetamodel);
+
+            eagerLoad(config, context, bootTaskExecutor);
+        } finally {
+            bootTaskExecutor.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void eagerLoad(EntityViewConfigurationImpl config, final MetamodelBuildingContext context, BootTaskExecutor bootTaskExecutor) {
+        List<Callable<Void>> tasks = new ArrayList<>(metamodel.views().size());
+        if (Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.TEMPLATE_EAGER_LOADING)))) {
+            for (final ViewTypeImpl<?> view : metamodel.views()) {
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        // TODO: Might be a good idea to let the view root be overridden or specified via the annotation
+                        String probableViewRoot = StringUtils.firstToLower(view.getEntityClass().getSimpleName());
+                        ExpressionFactory macroAwareExpressionFactory = context.createMacroAwareExpressionFactory(probableViewRoot);
+                        EmbeddingViewJpqlMacro embeddingViewJpqlMacro = (EmbeddingViewJpqlMacro) macroAwareExpressionFactory.getDefaultMacroConfiguration().get("EMBEDDING_VIEW").getState()[0];
+                        getTemplate(macroAwareExpressionFactory, view, null, null, null, embeddingViewJpqlMacro);
+
+                        for (MappingConstructor<?> constructor : view.getConstructors()) {
+                            getTemplate(macroAwareExpressionFactory, view, (MappingConstructorImpl) constructor, null, null, embeddingViewJpqlMacro);
+                        }
+                        return null;
+                    }
+                });
             }
         } else if (Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_EAGER_LOADING)))) {
             // Loading template will always involve also loading the proxies, so we use else if
-            for (ViewType<?> view : metamodel.getViews()) {
-                proxyFactory.getProxy(this, (ManagedViewTypeImplementor<Object>) view, null);
+            for (final ViewType<?> view : metamodel.getViews()) {
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        proxyFactory.getProxy(EntityViewManagerImpl.this, (ManagedViewTypeImplementor<Object>) view, null);
+                        return null;
+                    }
+                });
             }
         }
 
         if (Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.UPDATER_EAGER_LOADING)))) {
-            for (ManagedViewType<?> view : metamodel.getViews()) {
-                getUpdater((ManagedViewTypeImplementor<?>) view, null, null, null);
+            for (final ManagedViewType<?> view : metamodel.getViews()) {
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        getUpdater((ManagedViewTypeImplementor<?>) view, null, null, null);
+                        return null;
+                    }
+                });
             }
         }
+
+        bootTaskExecutor.invokeAll(tasks);
+    }
+
+    private static EntityViewCache createEntityViewCache(EntityViewConfigurationImpl config) {
+        String className = String.valueOf(config.getProperty(ConfigurationProperties.CACHE_CLASS));
+        try {
+            Class<?> cacheClass = Class.forName(className);
+            try {
+                // Caches that need configuration can retrieve it through a constructor accepting the properties
+                return (EntityViewCache) cacheClass.getConstructor(Map.class).newInstance(config.getProperties());
+            } catch (NoSuchMethodException ex) {
+                return (EntityViewCache) cacheClass.newInstance();
+            }
+        } catch (Exception ex) {
+            throw new IllegalArgumentException("Could not instantiate entity view cache: " + className, ex);
+        }
+    }
+
+    private static java.nio.file.Path getProxyDumpDirectory(EntityViewConfigurationImpl config) {
+        Object property = config.getProperty(ConfigurationProperties.PROXY_DUMP_DIRECTORY);
+        if (property == null) {
+            return null;
+        }
+        java.nio.file.Path directory = property instanceof java.nio.file.Path ? (java.nio.file.Path) property : Paths.get(property.toString());
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("The proxy dump directory '" + directory.toAbsolutePath() + "' configured via " + ConfigurationProperties.PROXY_DUMP_DIRECTORY + " does not exist!");
+        }
+        return directory.toAbsolutePath();
     }
 
     public CriteriaBuilderFactory getCriteriaBuilderFactory() {
         return cbf;
     }
 
+    public boolean isAdaptiveBatching() {
+        return adaptiveBatching;
+    }
+
+    public BatchCorrelationStatisticsImpl getBatchCorrelationStatistics() {
+        return batchCorrelationStatistics;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getService(Class<T> serviceClass) {
+        if (BatchCorrelationStatistics.class.equals(serviceClass)) {
+            return (T) batchCorrelationStatistics;
+        } else if (EntityViewCache.class.equals(serviceClass)) {
+            return (T) cacheSupport.getCache();
+        }
+        return null;
+    }
+
     @Override
     public ViewMetamodelImpl getMetamodel() {
         return metamodel;
@@ -249,14 +361,44 @@ public class EntityViewManagerImpl implements EntityViewManager {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T find(EntityManager entityManager, EntityViewSetting<T, CriteriaBuilder<T>> entityViewSetting, Object entityId) {
         ViewTypeImpl<T> managedViewType = metamodel.view(entityViewSetting.getEntityViewClass());
         EntityType<?> entityType = (EntityType<?>) managedViewType.getJpaManagedType();
         SingularAttribute<?, ?> idAttribute = JpaMetamodelUtils.getSingleIdAttribute(entityType);
+        Object fingerprint = cacheSupport.getFingerprint(entityViewSetting, entityId);
+        if (fingerprint != null) {
+            T cachedView = (T) cacheSupport.getCache().get(entityViewSetting.getEntityViewClass(), entityId, fingerprint);
+            if (cachedView != null) {
+                return cachedView;
+            }
+        }
         CriteriaBuilder<?> cb = cbf.create(entityManager, managedViewType.getEntityClass())
                 .where(idAttribute.getName()).eq(entityId);
         List<T> resultList = applySetting(entityViewSetting, cb).getResultList();
-        return resultList.isEmpty() ? null : resultList.get(0);
+        if (resultList.isEmpty()) {
+            return null;
+        }
+        T view = resultList.get(0);
+        if (fingerprint != null) {
+            cacheSupport.getCache().put(entityViewSetting.getEntityViewClass(), entityId, fingerprint, view);
+        }
+        return view;
+    }
+
+    @Override
+    public void evict(Class<?> entityViewClass, Object viewId) {
+        cacheSupport.getCache().evict(entityViewClass, viewId);
+    }
+
+    @Override
+    public void evictAll(Class<?> entityViewClass) {
+        cacheSupport.getCache().evictAll(entityViewClass);
+    }
+
+    @Override
+    public void evictAll() {
+        cacheSupport.getCache().evictAll();
     }
 
     @Override
@@ -411,6 +553,7 @@ public class EntityViewManagerImpl implements EntityViewManager {
                 }
             } else {
                 updater.remove(context, proxy);
+                cacheSupport.invalidate(context, viewType, proxy.$$_getId());
             }
         } catch (Throwable t) {
             context.getSynchronizationStrategy().markRollbackOnly();
@@ -428,6 +571,72 @@ public class EntityViewManagerImpl implements EntityViewManager {
         EntityViewUpdater updater = getUpdater(viewType, null, null, null);
         try {
             updater.remove(context, viewId);
+            cacheSupport.invalidate(context, viewType, viewId);
+        } catch (Throwable t) {
+            context.getSynchronizationStrategy().markRollbackOnly();
+            ExceptionUtils.doThrow(t);
+        }
+    }
+
+    @Override
+    public void updateAll(EntityManager entityManager, Collection<?> views) {
+        for (Object view : views) {
+            if (!(view instanceof MutableStateTrackable)) {
+                throw new IllegalArgumentException("Can't update non-updatable entity views: " + view);
+            }
+        }
+
+        DefaultUpdateContext context = new DefaultUpdateContext(this, entityManager, false, new UpdateQueryBatcher(extendedQuerySupport, updaterBatchSize));
+        try {
+            for (Object view : views) {
+                MutableStateTrackable updatableProxy = (MutableStateTrackable) view;
+                ManagedViewTypeImplementor<?> viewType = metamodel.managedView(updatableProxy.$$_getEntityViewClass());
+                EntityViewUpdater updater = getUpdater(viewType, null, null, null);
+                if (updatableProxy.$$_isNew()) {
+                    updater.executePersist(context, updatableProxy);
+                } else {
+                    updater.executeUpdate(context, updatableProxy);
+                }
+            }
+            context.getUpdateQueryBatcher().execute(context);
+            for (Object view : views) {
+                MutableStateTrackable updatableProxy = (MutableStateTrackable) view;
+                cacheSupport.invalidate(context, metamodel.managedView(updatableProxy.$$_getEntityViewClass()), updatableProxy.$$_getId());
+            }
+        } catch (Throwable t) {
+            context.getSynchronizationStrategy().markRollbackOnly();
+            ExceptionUtils.doThrow(t);
+        }
+    }
+
+    @Override
+    public void removeAll(EntityManager entityManager, Collection<?> views) {
+        for (Object view : views) {
+            if (!(view instanceof EntityViewProxy)) {
+                throw new IllegalArgumentException("Can't remove non entity view object: " + view);
+            }
+        }
+
+        DefaultUpdateContext context = new DefaultUpdateContext(this, entityManager, false, new UpdateQueryBatcher(extendedQuerySupport, updaterBatchSize));
+        try {
+            for (Object view : views) {
+                EntityViewProxy proxy = (EntityViewProxy) view;
+                if (proxy.$$_isNew()) {
+                    MutableStateTrackable updatableProxy = (MutableStateTrackable) proxy;
+                    // If it has a parent, we can't just ignore this call
+                    if (updatableProxy.$$_hasParent()) {
+                        throw new IllegalStateException("Can't remove not-yet-persisted object [" + view + "] that is referenced by: " + updatableProxy.$$_getParent());
+                    }
+                } else {
+                    ManagedViewTypeImplementor<?> viewType = metamodel.managedView(proxy.$$_getEntityViewClass());
+                    getUpdater(viewType, null, null, null).remove(context, proxy);
+                }
+            }
+            context.getUpdateQueryBatcher().execute(context);
+            for (Object view : views) {
+                EntityViewProxy proxy = (EntityViewProxy) view;
+                cacheSupport.invalidate(context, metamodel.managedView(proxy.$$_getEntityViewClass()), proxy.$$_getId());
+            }
         } catch (Throwable t) {
             context.getSynchronizationStrategy().markRollbackOnly();
             ExceptionUtils.doThrow(t);
@@ -453,6 +662,7 @@ public class EntityViewManagerImpl implements EntityViewManager {
             } else {
                 updater.executeUpdate(context, updatableProxy);
             }
+            cacheSupport.invalidate(context, viewType, updatableProxy.$$_getId());
         } catch (Throwable t) {
             context.getSynchronizationStrategy().markRollbackOnly();
             ExceptionUtils.doThrow(t);
@@ -621,7 +831,7 @@ public class EntityViewManagerImpl implements EntityViewManager {
         ef = new MacroConfigurationExpressionFactory(cachingExpressionFactory, macroConfiguration);
         criteriaBuilder.registerMacro("view_root", viewRootJpqlMacro);
 
-        return getTemplate(ef, viewType, mappingConstructor, viewName, entityViewRoot, embeddingViewPath, embeddingViewJpqlMacro, offset)
+        return getTemplate(ef, viewType, mappingConstructor, viewName, entityViewRoot, embeddingViewPath, embeddingViewJpqlMacro, offset, configuration.getFetches())
             .createObjectBuilder(criteriaBuilder, configuration.getOptionalParameters(), configuration, suffix);
     }
 
@@ -635,7 +845,15 @@ public class EntityViewManagerImpl implements EntityViewManager {
     }
 
     public ViewTypeObjectBuilderTemplate<?> getTemplate(ExpressionFactory ef, ManagedViewTypeImplementor<?> viewType, MappingConstructorImpl<?> mappingConstructor, String name, String entityViewRoot, String embeddingViewPath, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, int offset) {
-        ViewTypeObjectBuilderTemplate.Key key = new ViewTypeObjectBuilderTemplate.Key(ef, viewType, mappingConstructor, name, entityViewRoot, embeddingViewPath, offset);
+        return getTemplate(ef, viewType, mappingConstructor, name, entityViewRoot, embeddingViewPath, embeddingViewJpqlMacro, offset, Collections.<String>emptySet());
+    }
+
+    public ViewTypeObjectBuilderTemplate<?> getTemplate(ExpressionFactory ef, ManagedViewTypeImplementor<?> viewType, MappingConstructorImpl<?> mappingConstructor, String name, String entityViewRoot, String embeddingViewPath, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, int offset, Set<String> fetches) {
+        // The fetches are part of the key, so every distinct set of fetched attributes gets its own pruned template
+        ViewTypeObjectBuilderTemplate.Key key = new ViewTypeObjectBuilderTemplate.Key(ef, viewType, mappingConstructor, name, entityViewRoot, embeddingViewPath, offset, fetches);
+        if (!fetches.isEmpty()) {
+            return getPrunedTemplate(key, embeddingViewJpqlMacro);
+        }
         ViewTypeObjectBuilderTemplate<?> value = objectBuilderCache.get(key);
 
         if (value == null) {
@@ -650,35 +868,81 @@ public class EntityViewManagerImpl implements EntityViewManager {
         return value;
     }
 
-    public void addUpdater(ManagedViewTypeImplementor<?> viewType, ManagedViewTypeImplementor<?> declaredViewType, EntityViewUpdaterImpl owner, String ownerMapping, EntityViewUpdaterImpl updater) {
-        if (declaredViewType != null && declaredViewType != viewType || owner != null) {
-            ContextAwareUpdaterKey key = new ContextAwareUpdaterKey(viewType, declaredViewType, owner, ownerMapping);
-            contextAwareEntityViewUpdaterCache.put(key, updater);
-        } else {
-            entityViewUpdaterCache.put(viewType, updater);
+    private ViewTypeObjectBuilderTemplate<?> getPrunedTemplate(ViewTypeObjectBuilderTemplate.Key key, EmbeddingViewJpqlMacro embeddingViewJpqlMacro) {
+        ViewTypeObjectBuilderTemplate<?> value;
+        synchronized (prunedObjectBuilderCache) {
+            value = prunedObjectBuilderCache.get(key);
         }
+
+        if (value == null) {
+            // The template is created outside of the lock as it might need templates of subviews
+            value = key.createValue(this, proxyFactory, embeddingViewJpqlMacro);
+            synchronized (prunedObjectBuilderCache) {
+                ViewTypeObjectBuilderTemplate<?> oldValue = prunedObjectBuilderCache.get(key);
+                if (oldValue == null) {
+                    prunedObjectBuilderCache.put(key, value);
+                } else {
+                    value = oldValue;
+                }
+            }
+        }
+
+        return value;
+    }
+
+    public void addUpdater(ManagedViewTypeImplementor<?> viewType, ManagedViewTypeImplementor<?> declaredViewType, EntityViewUpdaterImpl owner, String ownerMapping, EntityViewUpdaterImpl updater) {
+        pendingUpdaters.get().put(getUpdaterKey(viewType, declaredViewType, owner, ownerMapping), updater);
     }
     
     public EntityViewUpdater getUpdater(ManagedViewTypeImplementor<?> viewType, ManagedViewTypeImplementor<?> declaredViewType, EntityViewUpdaterImpl owner, String ownerMapping) {
-        if (declaredViewType != null && declaredViewType != viewType || owner != null) {
-            ContextAwareUpdaterKey key = new ContextAwareUpdaterKey(viewType, declaredViewType, owner, ownerMapping);
-            EntityViewUpdaterImpl value = contextAwareEntityViewUpdaterCache.get(key);
+        Object key = getUpdaterKey(viewType, declaredViewType, owner, ownerMapping);
+        EntityViewUpdaterImpl value = getCachedUpdater(key);
 
-            if (value == null) {
-                new EntityViewUpdaterImpl(this, viewType, declaredViewType, owner, ownerMapping);
-                value = contextAwareEntityViewUpdaterCache.get(key);
+        if (value == null) {
+            Map<Object, EntityViewUpdaterImpl> pending = pendingUpdaters.get();
+            if (pending == null) {
+                // Updaters register themselves before they are fully initialized to support cyclic models,
+                // so we only publish them to other threads after the outermost updater was created
+                pending = new HashMap<>();
+                pendingUpdaters.set(pending);
+                try {
+                    new EntityViewUpdaterImpl(this, viewType, declaredViewType, owner, ownerMapping);
+                    for (Map.Entry<Object, EntityViewUpdaterImpl> entry : pending.entrySet()) {
+                        if (entry.getKey() instanceof ContextAwareUpdaterKey) {
+                            contextAwareEntityViewUpdaterCache.putIfAbsent((ContextAwareUpdaterKey) entry.getKey(), entry.getValue());
+                        } else {
+                            entityViewUpdaterCache.putIfAbsent((ManagedViewType<?>) entry.getKey(), entry.getValue());
+                        }
+                    }
+                } finally {
+                    pendingUpdaters.remove();
+                }
+                value = getCachedUpdater(key);
+            } else {
+                value = pending.get(key);
+                if (value == null) {
+                    new EntityViewUpdaterImpl(this, viewType, declaredViewType, owner, ownerMapping);
+                    value = pending.get(key);
+                }
             }
+        }
 
-            return value;
-        } else {
-            EntityViewUpdaterImpl value = entityViewUpdaterCache.get(viewType);
+        return value;
+    }
 
-            if (value == null) {
-                new EntityViewUpdaterImpl(this, viewType, null, null, null);
-                value = entityViewUpdaterCache.get(viewType);
-            }
+    private static Object getUpdaterKey(ManagedViewTypeImplementor<?> viewType, ManagedViewTypeImplementor<?> declaredViewType, EntityViewUpdaterImpl owner, String ownerMapping) {
+        if (declaredViewType != null && declaredViewType != viewType || owner != null) {
+            return new ContextAwareUpdaterKey(viewType, declaredViewType, owner, ownerMapping);
+        } else {
+            return viewType;
+        }
+    }
 
-            return value;
+    private EntityViewUpdaterImpl getCachedUpdater(Object key) {
+        if (key instanceof ContextAwareUpdaterKey) {
+            return contextAwareEntityViewUpdaterCache.get(key);
+        } else {
+            return entityViewUpdaterCache.get(key);
         }
     }
 
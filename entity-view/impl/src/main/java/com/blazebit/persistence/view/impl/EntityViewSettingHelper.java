@@ -42,6 +42,8 @@ import com.blazebit.persistence.view.metamodel.ViewType;
 import javax.persistence.metamodel.Metamodel;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -67,7 +69,8 @@ public final class EntityViewSettingHelper {
         }
 
         ExpressionFactory ef = criteriaBuilder.getService(ExpressionFactory.class);
-        EntityViewConfiguration configuration = new EntityViewConfiguration(criteriaBuilder, ef, new MutableEmbeddingViewJpqlMacro(), setting.getOptionalParameters(), setting.getProperties());
+        EntityViewConfiguration configuration = new EntityViewConfiguration(criteriaBuilder, ef, new MutableEmbeddingViewJpqlMacro(), setting.getOptionalParameters(), setting.getProperties(),
+                evm.getBatchCorrelationStatistics(), evm.isAdaptiveBatching(), getFetches(setting, managedView));
         boolean isQueryRoot = entityViewRoot == null || entityViewRoot.isEmpty();
         entityViewRoot = evm.applyObjectBuilder(setting.getEntityViewClass(), setting.getViewConstructorName(), entityViewRoot, configuration);
         applyAttributeFilters(setting, evm, criteriaBuilder, ef, managedView);
@@ -132,6 +135,30 @@ public final class EntityViewSettingHelper {
         }
     }
 
+    private static Set<String> getFetches(EntityViewSetting<?, ?> setting, ManagedViewTypeImplementor<?> managedView) {
+        if (!setting.hasFetches()) {
+            return Collections.emptySet();
+        }
+
+        // The recursive attributes only contain the attributes of the base type, so we can't validate fetches of polymorphic views
+        if (!managedView.hasSubtypes()) {
+            NavigableMap<String, ?> recursiveAttributes = managedView.getRecursiveAttributes();
+            for (String attributePath : setting.getFetches()) {
+                String subviewPrefix = attributePath + ".";
+                String subAttributePath = recursiveAttributes.ceilingKey(subviewPrefix);
+                if (!recursiveAttributes.containsKey(attributePath) && (subAttributePath == null || !subAttributePath.startsWith(subviewPrefix))) {
+                    throw new IllegalArgumentException("The attribute with the name '" + attributePath + "' couldn't be found on the view type '" + getName(managedView) + "'");
+                }
+            }
+        }
+
+        // Filters and sorters refer to the select aliases of attributes, so we have to fetch these attributes as well
+        Set<String> fetches = new HashSet<>(setting.getFetches());
+        fetches.addAll(setting.getAttributeFilters().keySet());
+        fetches.addAll(setting.getAttributeSorters().keySet());
+        return fetches;
+    }
+
     private static String getMapping(String prefix, MethodAttribute<?, ?> attribute, ExpressionFactory ef) {
         String mapping = ((MappingAttribute<?, ?>) attribute).getMapping();
         // Id attributes are normally simple mappings, so we try to improve that case
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.cache;
+
+import com.blazebit.persistence.view.impl.ConfigurationProperties;
+import com.blazebit.persistence.view.spi.EntityViewCache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The default entity view cache that keeps at most a configurable number of entity views per entity view class
+ * and evicts the least recently used entries first.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BoundedEntityViewCache implements EntityViewCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private final int maximumSize;
+    private final ConcurrentMap<Class<?>, Region> regions = new ConcurrentHashMap<>();
+
+    public BoundedEntityViewCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public BoundedEntityViewCache(Map<?, ?> properties) {
+        this(parseMaximumSize(properties.get(ConfigurationProperties.CACHE_MAXIMUM_SIZE)));
+    }
+
+    public BoundedEntityViewCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Invalid maximum size " + maximumSize + " configured via " + ConfigurationProperties.CACHE_MAXIMUM_SIZE + ". Only positive values are allowed!");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    private static int parseMaximumSize(Object value) {
+        if (value == null || value.toString().isEmpty()) {
+            return DEFAULT_MAXIMUM_SIZE;
+        }
+        return Integer.parseInt(value.toString().trim());
+    }
+
+    @Override
+    public Object get(Class<?> entityViewClass, Object id, Object fingerprint) {
+        Region region = regions.get(entityViewClass);
+        if (region == null) {
+            return null;
+        }
+        synchronized (region) {
+            return region.get(new Key(id, fingerprint));
+        }
+    }
+
+    @Override
+    public void put(Class<?> entityViewClass, Object id, Object fingerprint, Object entityView) {
+        Region region = regions.get(entityViewClass);
+        if (region == null) {
+            region = new Region(maximumSize);
+            Region oldRegion = regions.putIfAbsent(entityViewClass, region);
+            if (oldRegion != null) {
+                region = oldRegion;
+            }
+        }
+        synchronized (region) {
+            region.put(new Key(id, fingerprint), entityView);
+        }
+    }
+
+    @Override
+    public void evict(Class<?> entityViewClass, Object id) {
+        Region region = regions.get(entityViewClass);
+        if (region == null) {
+            return;
+        }
+        synchronized (region) {
+            Iterator<Key> iterator = region.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (id.equals(iterator.next().id)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void evictAll(Class<?> entityViewClass) {
+        Region region = regions.get(entityViewClass);
+        if (region != null) {
+            synchronized (region) {
+                region.clear();
+            }
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        for (Region region : regions.values()) {
+            synchronized (region) {
+                region.clear();
+            }
+        }
+    }
+
+    /**
+     * An access ordered map that removes the least recently used entry when exceeding the maximum size.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class Region extends LinkedHashMap<Key, Object> {
+
+        private final int maximumSize;
+
+        public Region(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+            return size() > maximumSize;
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class Key {
+
+        private final Object id;
+        private final Object fingerprint;
+
+        public Key(Object id, Object fingerprint) {
+            this.id = id;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return id.equals(key.id) && fingerprint.equals(key.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id.hashCode() + fingerprint.hashCode();
+        }
+    }
+}
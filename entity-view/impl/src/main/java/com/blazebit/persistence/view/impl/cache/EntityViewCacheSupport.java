@@ -0,0 +1,320 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.cache;
+
+import com.blazebit.annotation.AnnotationUtils;
+import com.blazebit.persistence.parser.EntityMetamodel;
+import com.blazebit.persistence.view.CacheableView;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.FetchStrategy;
+import com.blazebit.persistence.view.impl.metamodel.AbstractAttribute;
+import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
+import com.blazebit.persistence.view.impl.metamodel.ViewMetamodelImpl;
+import com.blazebit.persistence.view.impl.update.UpdateContext;
+import com.blazebit.persistence.view.metamodel.Attribute;
+import com.blazebit.persistence.view.metamodel.ManagedViewType;
+import com.blazebit.persistence.view.metamodel.MapAttribute;
+import com.blazebit.persistence.view.metamodel.MappingConstructor;
+import com.blazebit.persistence.view.metamodel.PluralAttribute;
+import com.blazebit.persistence.view.metamodel.SingularAttribute;
+import com.blazebit.persistence.view.metamodel.Type;
+import com.blazebit.persistence.view.metamodel.ViewType;
+import com.blazebit.persistence.view.spi.EntityViewCache;
+import com.blazebit.persistence.view.spi.type.EntityViewProxy;
+
+import javax.persistence.metamodel.ManagedType;
+import javax.transaction.Synchronization;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Determines the entity types that {@link CacheableView} entity views depend on and evicts cached entity views
+ * when entity views mapping one of these entity types are flushed.
+ *
+ * The dependencies are determined conservatively. Subquery mappings, correlation providers and mapping expressions that
+ * aren't simple paths, can't be analyzed, so entity views using them are evicted completely on every flush.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class EntityViewCacheSupport {
+
+    private static final Pattern SIMPLE_PATH_PATTERN = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*(\\.[A-Za-z_$][A-Za-z0-9_$]*)*");
+
+    private final EntityViewCache cache;
+    private final EntityMetamodel entityMetamodel;
+    private final Map<Class<?>, Dependencies> cacheableViews;
+    private final Map<ManagedViewType<?>, Dependencies> flushedViewDependencies = new HashMap<>();
+
+    public EntityViewCacheSupport(EntityViewCache cache, ViewMetamodelImpl metamodel) {
+        this.cache = cache;
+        this.entityMetamodel = metamodel.getEntityMetamodel();
+        Map<Class<?>, Dependencies> cacheableViews = new HashMap<>();
+        for (ViewType<?> viewType : metamodel.getViews()) {
+            if (AnnotationUtils.findAnnotation(viewType.getJavaType(), CacheableView.class) != null) {
+                if (viewType.isUpdatable() || viewType.isCreatable()) {
+                    throw new IllegalArgumentException("The entity view " + viewType.getJavaType().getName() + " is annotated with @CacheableView but is updatable or creatable which is not allowed!");
+                }
+                cacheableViews.put(viewType.getJavaType(), createDependencies(viewType));
+            }
+        }
+        if (!cacheableViews.isEmpty()) {
+            for (ManagedViewType<?> managedViewType : metamodel.getManagedViews()) {
+                if (managedViewType.isUpdatable() || managedViewType.isCreatable()) {
+                    flushedViewDependencies.put(managedViewType, createDependencies(managedViewType));
+                }
+            }
+        }
+        this.cacheableViews = Collections.unmodifiableMap(cacheableViews);
+    }
+
+    public EntityViewCache getCache() {
+        return cache;
+    }
+
+    public boolean isCacheable(Class<?> entityViewClass) {
+        return cacheableViews.containsKey(entityViewClass);
+    }
+
+    /**
+     * Returns the fingerprint of the given setting for cache lookups or <code>null</code> if the entity view can't be served from the cache.
+     *
+     * @param setting The entity view setting
+     * @param entityId The entity id
+     * @return The fingerprint or <code>null</code>
+     */
+    public Object getFingerprint(EntityViewSetting<?, ?> setting, Object entityId) {
+        if (entityId == null || !cacheableViews.containsKey(setting.getEntityViewClass())) {
+            return null;
+        }
+        // Filters, sorters and pagination can influence whether an entity view is found, so we don't cache these
+        if (setting.isPaginated() || setting.isKeysetPaginated() || setting.hasAttributeFilters() || setting.hasViewFilters() || setting.hasAttributeSorters()) {
+            return null;
+        }
+        // Fetches prune the loaded attributes, so an entity view loaded with fetches must only be served for the same fetches
+        return Arrays.asList(setting.getViewConstructorName(), new HashMap<>(setting.getOptionalParameters()), new HashMap<>(setting.getProperties()), new TreeSet<>(setting.getFetches()));
+    }
+
+    /**
+     * Evicts the cached entity views that depend on the entity types of the given flushed entity view type,
+     * and again after the transaction completed so that entity views that were loaded concurrently before the commit are evicted as well.
+     *
+     * @param context The update context
+     * @param flushedViewType The updated or removed entity view type
+     * @param id The id of the entity view or <code>null</code> if unknown
+     */
+    public void invalidate(UpdateContext context, ManagedViewType<?> flushedViewType, final Object id) {
+        if (cacheableViews.isEmpty()) {
+            return;
+        }
+        Dependencies dependencies = flushedViewDependencies.get(flushedViewType);
+        if (dependencies == null) {
+            dependencies = createDependencies(flushedViewType);
+        }
+        final Dependencies flushedDependencies = dependencies;
+        invalidate(flushedDependencies, id);
+        context.getSynchronizationStrategy().registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // No-op
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(flushedDependencies, id);
+            }
+        });
+    }
+
+    private void invalidate(Dependencies flushedDependencies, Object id) {
+        for (Map.Entry<Class<?>, Dependencies> entry : cacheableViews.entrySet()) {
+            Dependencies dependencies = entry.getValue();
+            if (dependencies.unknown || dependencies.dependsOnAnyOf(flushedDependencies.nestedEntityClasses) || dependencies.dependsOn(flushedDependencies.entityClass)
+                    || isRelated(dependencies.entityClass, flushedDependencies.nestedEntityClasses)) {
+                cache.evictAll(entry.getKey());
+            } else if (isRelated(dependencies.entityClass, flushedDependencies.entityClass)) {
+                // An entity view id that is an entity view itself doesn't correspond to the entity id used as cache key
+                if (id == null || id instanceof EntityViewProxy) {
+                    cache.evictAll(entry.getKey());
+                } else {
+                    cache.evict(entry.getKey(), id);
+                }
+            }
+        }
+    }
+
+    private Dependencies createDependencies(ManagedViewType<?> viewType) {
+        Dependencies dependencies = new Dependencies(viewType.getEntityClass());
+        collectDependencies(viewType, dependencies, new HashSet<ManagedViewType<?>>());
+        return dependencies;
+    }
+
+    private void collectDependencies(ManagedViewType<?> viewType, Dependencies dependencies, Set<ManagedViewType<?>> visited) {
+        if (!visited.add(viewType)) {
+            return;
+        }
+        List<Attribute<?, ?>> attributes = new ArrayList<Attribute<?, ?>>(viewType.getAttributes());
+        for (MappingConstructor<?> constructor : viewType.getConstructors()) {
+            attributes.addAll(constructor.getParameterAttributes());
+        }
+        ManagedType<?> managedType = ((ManagedViewTypeImplementor<?>) viewType).getJpaManagedType();
+        for (Attribute<?, ?> attribute : attributes) {
+            AbstractAttribute<?, ?> abstractAttribute = (AbstractAttribute<?, ?>) attribute;
+            if (attribute.getFetchStrategy() == FetchStrategy.LAZY) {
+                // A cached entity view must not require an entity manager when accessing its attributes
+                throw new IllegalArgumentException("The " + abstractAttribute.getLocation() + " uses the fetch strategy LAZY which is not allowed for entity views that are annotated with @CacheableView!");
+            }
+            switch (attribute.getMappingType()) {
+                case PARAMETER:
+                    // Parameters are part of the fingerprint
+                    break;
+                case SUBQUERY:
+                    dependencies.unknown = true;
+                    break;
+                case CORRELATED:
+                    collectCorrelatedDependencies(abstractAttribute, dependencies);
+                    break;
+                default:
+                    if (attribute.getFetchStrategy() != FetchStrategy.JOIN) {
+                        collectCorrelatedDependencies(abstractAttribute, dependencies);
+                    } else {
+                        collectPathDependencies(managedType, abstractAttribute.getMapping(), dependencies);
+                    }
+                    break;
+            }
+
+            if (attribute instanceof SingularAttribute<?, ?>) {
+                collectTypeDependencies(((SingularAttribute<?, ?>) attribute).getType(), dependencies, visited);
+            } else {
+                collectTypeDependencies(((PluralAttribute<?, ?, ?>) attribute).getElementType(), dependencies, visited);
+                if (attribute instanceof MapAttribute<?, ?, ?>) {
+                    collectTypeDependencies(((MapAttribute<?, ?, ?>) attribute).getKeyType(), dependencies, visited);
+                }
+            }
+        }
+        for (ManagedViewType<?> subtype : viewType.getInheritanceSubtypes()) {
+            collectDependencies(subtype, dependencies, visited);
+        }
+    }
+
+    private void collectTypeDependencies(Type<?> type, Dependencies dependencies, Set<ManagedViewType<?>> visited) {
+        if (type instanceof ManagedViewType<?>) {
+            ManagedViewType<?> subviewType = (ManagedViewType<?>) type;
+            dependencies.nestedEntityClasses.add(subviewType.getEntityClass());
+            collectDependencies(subviewType, dependencies, visited);
+        }
+    }
+
+    private void collectCorrelatedDependencies(AbstractAttribute<?, ?> attribute, Dependencies dependencies) {
+        String correlationResult = attribute.getCorrelationResult();
+        if (attribute.getCorrelated() == null) {
+            dependencies.unknown = true;
+        } else {
+            dependencies.nestedEntityClasses.add(attribute.getCorrelated());
+            if (correlationResult != null && !correlationResult.isEmpty()) {
+                collectPathDependencies(entityMetamodel.getManagedType(attribute.getCorrelated()), correlationResult, dependencies);
+            }
+        }
+    }
+
+    private void collectPathDependencies(ManagedType<?> managedType, String mapping, Dependencies dependencies) {
+        if (mapping == null || !SIMPLE_PATH_PATTERN.matcher(mapping).matches()) {
+            dependencies.unknown = true;
+            return;
+        }
+        if ("this".equals(mapping)) {
+            return;
+        }
+        ManagedType<?> currentType = managedType;
+        for (String attributeName : mapping.split("\\.")) {
+            if (currentType == null) {
+                dependencies.unknown = true;
+                return;
+            }
+            javax.persistence.metamodel.Attribute<?, ?> jpaAttribute;
+            try {
+                jpaAttribute = currentType.getAttribute(attributeName);
+            } catch (IllegalArgumentException ex) {
+                dependencies.unknown = true;
+                return;
+            }
+            Class<?> targetClass;
+            javax.persistence.metamodel.Type<?> targetType;
+            if (jpaAttribute instanceof javax.persistence.metamodel.PluralAttribute<?, ?, ?>) {
+                targetType = ((javax.persistence.metamodel.PluralAttribute<?, ?, ?>) jpaAttribute).getElementType();
+            } else {
+                targetType = ((javax.persistence.metamodel.SingularAttribute<?, ?>) jpaAttribute).getType();
+            }
+            targetClass = targetType.getJavaType();
+            if (jpaAttribute.isAssociation()) {
+                dependencies.nestedEntityClasses.add(targetClass);
+            }
+            currentType = targetType instanceof ManagedType<?> ? (ManagedType<?>) targetType : null;
+        }
+    }
+
+    private static boolean isRelated(Class<?> entityClass, Class<?> otherEntityClass) {
+        return entityClass.isAssignableFrom(otherEntityClass) || otherEntityClass.isAssignableFrom(entityClass);
+    }
+
+    private static boolean isRelated(Class<?> entityClass, Set<Class<?>> otherEntityClasses) {
+        for (Class<?> otherEntityClass : otherEntityClasses) {
+            if (isRelated(entityClass, otherEntityClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The entity types an entity view type depends on.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class Dependencies {
+
+        private final Class<?> entityClass;
+        private final Set<Class<?>> nestedEntityClasses = new HashSet<>();
+        private boolean unknown;
+
+        public Dependencies(Class<?> entityClass) {
+            this.entityClass = entityClass;
+        }
+
+        public boolean dependsOn(Class<?> otherEntityClass) {
+            return isRelated(otherEntityClass, nestedEntityClasses);
+        }
+
+        public boolean dependsOnAnyOf(Set<Class<?>> otherEntityClasses) {
+            for (Class<?> otherEntityClass : otherEntityClasses) {
+                if (dependsOn(otherEntityClass)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
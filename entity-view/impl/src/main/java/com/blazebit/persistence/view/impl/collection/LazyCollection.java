@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.collection;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * A collection that is initialized on first access by loading the values via a {@link LazyCollectionLoader}.
+ * After loading, the actual collection is found at the given index of the tuple.
+ * The source key identifies the values within the loader, so that lazy collections can be compared without loading them.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class LazyCollection<C extends Collection<E>, E> implements Collection<E> {
+
+    private final LazyCollectionLoader loader;
+    private final Object[] tuple;
+    private final int index;
+    private final Object sourceKey;
+    private volatile C delegate;
+
+    public LazyCollection(LazyCollectionLoader loader, Object[] tuple, int index, Object sourceKey) {
+        this.loader = loader;
+        this.tuple = tuple;
+        this.index = index;
+        this.sourceKey = sourceKey;
+    }
+
+    public boolean isLoaded() {
+        return delegate != null || loader.isLoaded();
+    }
+
+    /**
+     * Returns whether the given lazy collection is loaded by the same loader for the same source key
+     * and will thus have the same contents as this collection.
+     *
+     * @param other The other lazy collection
+     * @return true if the lazy collections have the same source, false otherwise
+     */
+    public boolean isSameSource(LazyCollection<?, ?> other) {
+        return loader == other.loader && sourceKey.equals(other.sourceKey);
+    }
+
+    public int sourceHashCode() {
+        return 31 * System.identityHashCode(loader) + sourceKey.hashCode();
+    }
+
+    @SuppressWarnings("unchecked")
+    public C getDelegate() {
+        C c = delegate;
+        if (c == null) {
+            loader.load();
+            delegate = c = (C) tuple[index];
+        }
+        return c;
+    }
+
+    @Override
+    public int size() {
+        return getDelegate().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getDelegate().isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return getDelegate().contains(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return getDelegate().iterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return getDelegate().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return getDelegate().toArray(a);
+    }
+
+    @Override
+    public boolean add(E e) {
+        return getDelegate().add(e);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return getDelegate().remove(o);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        return getDelegate().containsAll(c);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return getDelegate().addAll(c);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        return getDelegate().removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return getDelegate().retainAll(c);
+    }
+
+    @Override
+    public void clear() {
+        getDelegate().clear();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return getDelegate().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return getDelegate().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getDelegate().toString();
+    }
+}
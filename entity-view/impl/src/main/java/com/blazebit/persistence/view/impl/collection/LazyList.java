@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.collection;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class LazyList<E> extends LazyCollection<List<E>, E> implements List<E> {
+
+    public LazyList(LazyCollectionLoader loader, Object[] tuple, int index, Object sourceKey) {
+        super(loader, tuple, index, sourceKey);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        return getDelegate().addAll(index, c);
+    }
+
+    @Override
+    public E get(int index) {
+        return getDelegate().get(index);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        return getDelegate().set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        getDelegate().add(index, element);
+    }
+
+    @Override
+    public E remove(int index) {
+        return getDelegate().remove(index);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return getDelegate().indexOf(o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return getDelegate().lastIndexOf(o);
+    }
+
+    @Override
+    public ListIterator<E> listIterator() {
+        return getDelegate().listIterator();
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        return getDelegate().listIterator(index);
+    }
+
+    @Override
+    public List<E> subList(int fromIndex, int toIndex) {
+        return getDelegate().subList(fromIndex, toIndex);
+    }
+}
@@ -241,7 +241,7 @@ public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
             this.fetches = mappingCorrelated.fetches();
             this.fetchStrategy = mappingCorrelated.fetch();
 
-            if (fetchStrategy == FetchStrategy.SELECT) {
+            if (fetchStrategy == FetchStrategy.SELECT || fetchStrategy == FetchStrategy.LAZY) {
                 this.batchSize = batchSize;
             } else {
                 this.batchSize = -1;
@@ -269,7 +269,7 @@ public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
             this.fetches = mappingCorrelated.fetches();
             this.fetchStrategy = mappingCorrelated.fetch();
 
-            if (fetchStrategy == FetchStrategy.SELECT) {
+            if (fetchStrategy == FetchStrategy.SELECT || fetchStrategy == FetchStrategy.LAZY) {
                 this.batchSize = batchSize;
             } else {
                 this.batchSize = -1;
@@ -706,6 +706,15 @@ public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
 
         // TODO: key fetches?
 
+        if (fetchStrategy == FetchStrategy.LAZY) {
+            Class<?> javaType = getJavaType();
+            if (!isCollection() || javaType != Collection.class && javaType != List.class && javaType != Set.class) {
+                context.addError("The fetch strategy LAZY is only allowed for attributes of the type Collection, List or Set but was used for the " + getLocation());
+            } else if (isUpdatable() || isMutable()) {
+                context.addError("The fetch strategy LAZY is not allowed for the updatable or mutable " + getLocation());
+            }
+        }
+
         if (isCollection()) {
             elementType = getElementType().getJavaType();
 
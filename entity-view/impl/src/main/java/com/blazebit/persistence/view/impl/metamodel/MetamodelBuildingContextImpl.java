@@ -493,7 +493,10 @@ public class MetamodelBuildingContextImpl implements MetamodelBuildingContext {
 
     @Override
     public void addError(String error) {
-        errors.add(error);
+        // Errors might be added concurrently during a parallel boot
+        synchronized (errors) {
+            errors.add(error);
+        }
     }
 
     @Override
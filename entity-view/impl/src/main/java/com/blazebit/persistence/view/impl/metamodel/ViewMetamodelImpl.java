@@ -18,6 +18,7 @@ package com.blazebit.persistence.view.impl.metamodel;
 
 import com.blazebit.persistence.parser.EntityMetamodel;
 import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
+import com.blazebit.persistence.view.impl.BootTaskExecutor;
 import com.blazebit.persistence.view.impl.ConfigurationProperties;
 import com.blazebit.persistence.view.metamodel.FlatViewType;
 import com.blazebit.persistence.view.metamodel.ManagedViewType;
@@ -47,6 +48,7 @@ import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  *
@@ -61,6 +63,10 @@ public class ViewMetamodelImpl implements ViewMetamodel {
     private final Map<Class<?>, ManagedViewTypeImplementor<?>> managedViews;
 
     public ViewMetamodelImpl(EntityMetamodel entityMetamodel, MetamodelBuildingContext context, Map<Class<?>, Object> typeTestValues, boolean validateManagedTypes, boolean validateExpressions) {
+        this(entityMetamodel, context, typeTestValues, validateManagedTypes, validateExpressions, BootTaskExecutor.serial());
+    }
+
+    public ViewMetamodelImpl(EntityMetamodel entityMetamodel, final MetamodelBuildingContext context, final Map<Class<?>, Object> typeTestValues, boolean validateManagedTypes, boolean validateExpressions, BootTaskExecutor bootTaskExecutor) {
         this.metamodel = entityMetamodel;
 
         Collection<ViewMapping> viewMappings = context.getViewMappings();
@@ -98,11 +104,18 @@ public class ViewMetamodelImpl implements ViewMetamodel {
         // Phase 4: Validate expressions against the entity model
         if (!context.hasErrors()) {
             if (validateExpressions) {
-                List<AbstractAttribute<?, ?>> parents = new ArrayList<>();
-                for (ManagedViewTypeImplementor<?> t : managedViews.values()) {
-                    t.checkAttributes(context);
-                    t.checkNestedAttributes(parents, context);
+                List<Callable<Void>> tasks = new ArrayList<>(managedViews.size());
+                for (final ManagedViewTypeImplementor<?> t : managedViews.values()) {
+                    tasks.add(new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            t.checkAttributes(context);
+                            t.checkNestedAttributes(new ArrayList<AbstractAttribute<?, ?>>(), context);
+                            return null;
+                        }
+                    });
                 }
+                bootTaskExecutor.invokeAll(tasks);
             }
         }
 
@@ -136,45 +149,57 @@ public class ViewMetamodelImpl implements ViewMetamodel {
 
             // A null might end up in here because we don't filter it out before adding, so remove it here again
             jpaManagedTypes.remove(null);
-            for (ManagedType<?> jpaManagedType : jpaManagedTypes) {
-                Class<?> javaType = jpaManagedType.getJavaType();
-                if ((javaType.getModifiers() & Modifier.ABSTRACT) == 0) {
-                    try {
-                        Constructor<?> declaredConstructor = javaType.getDeclaredConstructor();
-                        declaredConstructor.setAccessible(true);
-                        Object instance1 = declaredConstructor.newInstance();
-                        Object instance2 = declaredConstructor.newInstance();
-                        Object instance3 = declaredConstructor.newInstance();
-
-                        // Try to set any value on instance3 so that it would differ from instance1
-                        String error = createValue(jpaManagedType, instance2, typeTestValues, true);
+            List<Callable<Void>> tasks = new ArrayList<>(jpaManagedTypes.size());
+            for (final ManagedType<?> jpaManagedType : jpaManagedTypes) {
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        validateManagedType(context, jpaManagedType, typeTestValues);
+                        return null;
+                    }
+                });
+            }
+            bootTaskExecutor.invokeAll(tasks);
+        }
+    }
 
-                        if (error != null) {
-                            context.addError(error);
-                        } else {
-                            error = createValue(jpaManagedType, instance3, typeTestValues, true);
-                            if (error != null) {
-                                context.addError(error);
-                            } else {
-                                String infoText = "Equals/hashCode should be based on the identifier for entities and the full state for embeddables. Consider using a subview instead or add a proper equals/hashCode implementation!";
-                                if (!instance2.equals(instance3)) {
-                                    context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with the same state are not equal. " + infoText);
-                                }
-                                if (instance2.hashCode() != instance3.hashCode()) {
-                                    context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with the same state do not have the same hashCode. " + infoText);
-                                }
-                                if (instance1.equals(instance3)) {
-                                    context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with different state are equal. " + infoText);
-                                }
-                            }
+    private void validateManagedType(MetamodelBuildingContext context, ManagedType<?> jpaManagedType, Map<Class<?>, Object> typeTestValues) {
+        Class<?> javaType = jpaManagedType.getJavaType();
+        if ((javaType.getModifiers() & Modifier.ABSTRACT) == 0) {
+            try {
+                Constructor<?> declaredConstructor = javaType.getDeclaredConstructor();
+                declaredConstructor.setAccessible(true);
+                Object instance1 = declaredConstructor.newInstance();
+                Object instance2 = declaredConstructor.newInstance();
+                Object instance3 = declaredConstructor.newInstance();
+
+                // Try to set any value on instance3 so that it would differ from instance1
+                String error = createValue(jpaManagedType, instance2, typeTestValues, true);
+
+                if (error != null) {
+                    context.addError(error);
+                } else {
+                    error = createValue(jpaManagedType, instance3, typeTestValues, true);
+                    if (error != null) {
+                        context.addError(error);
+                    } else {
+                        String infoText = "Equals/hashCode should be based on the identifier for entities and the full state for embeddables. Consider using a subview instead or add a proper equals/hashCode implementation!";
+                        if (!instance2.equals(instance3)) {
+                            context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with the same state are not equal. " + infoText);
+                        }
+                        if (instance2.hashCode() != instance3.hashCode()) {
+                            context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with the same state do not have the same hashCode. " + infoText);
+                        }
+                        if (instance1.equals(instance3)) {
+                            context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with different state are equal. " + infoText);
                         }
-                    } catch (Exception ex) {
-                        StringWriter sw = new StringWriter();
-                        sw.append("Error during validation of equals/hashCode implementations of managed type [").append(javaType.getName()).append("]. If you think this is due to a bug, please report the problem and temporarily deactivate the type checking by setting the property '").append(ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED).append("' to true.\n");
-                        ex.printStackTrace(new PrintWriter(sw));
-                        context.addError(sw.toString());
                     }
                 }
+            } catch (Exception ex) {
+                StringWriter sw = new StringWriter();
+                sw.append("Error during validation of equals/hashCode implementations of managed type [").append(javaType.getName()).append("]. If you think this is due to a bug, please report the problem and temporarily deactivate the type checking by setting the property '").append(ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED).append("' to true.\n");
+                ex.printStackTrace(new PrintWriter(sw));
+                context.addError(sw.toString());
             }
         }
     }
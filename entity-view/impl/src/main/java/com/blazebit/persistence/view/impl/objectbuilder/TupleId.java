@@ -29,9 +29,24 @@ import java.util.Arrays;
 public class TupleId {
 
     private final Object[] id;
+    private int hash;
 
     public TupleId(int[] idPositions, Object[] tuple) {
-        id = new Object[idPositions.length];
+        this(idPositions.length);
+        set(idPositions, tuple);
+    }
+
+    /**
+     * Creates a tuple id that can be reused for lookups by populating it via {@link #set(int[], Object[])}.
+     * A reusable tuple id must never be used as key in a map, use a {@link #copy()} instead.
+     *
+     * @param size The number of id elements
+     */
+    public TupleId(int size) {
+        this.id = new Object[size];
+    }
+
+    public TupleId set(int[] idPositions, Object[] tuple) {
         for (int i = 0; i < idPositions.length; i++) {
             int idPosition = idPositions[i];
             if (idPosition < 0) {
@@ -40,6 +55,15 @@ public class TupleId {
                 id[i] = tuple[idPosition];
             }
         }
+        hash = computeHashCode();
+        return this;
+    }
+
+    public TupleId copy() {
+        TupleId copy = new TupleId(id.length);
+        System.arraycopy(id, 0, copy.id, 0, id.length);
+        copy.hash = hash;
+        return copy;
     }
 
     public boolean isEmpty() {
@@ -53,6 +77,10 @@ public class TupleId {
 
     @Override
     public int hashCode() {
+        return hash;
+    }
+
+    private int computeHashCode() {
         int hash = 7;
         int result = 1;
         // Special handling for RecordingCollection and RecordingMap to avoid full equality checks
@@ -38,12 +38,16 @@ public class TupleIndexValue {
         return tupleValue;
     }
 
-    public boolean addRestTuple(Object[] tuple, int tupleIndex, int offset) {
+    public boolean addRestTuple(TupleRest.Lookup lookupTupleRest, Object[] tuple, int tupleIndex, int offset) {
+        // Only copy the offset elements of tuples that aren't duplicates
+        if (restTuples.contains(lookupTupleRest.setWithOffset(tuple, tupleIndex, offset))) {
+            return false;
+        }
         return restTuples.add(new TupleRest(tuple, tupleIndex, offset));
     }
 
-    public boolean containsRestTuple(Object[] tuple, int tupleIndex, int offset) {
-        return restTuples.contains(new TupleRest(tuple, tupleIndex + offset));
+    public boolean containsRestTuple(TupleRest.Lookup lookupTupleRest, Object[] tuple, int tupleIndex, int offset) {
+        return restTuples.contains(lookupTupleRest.set(tuple, tupleIndex + offset));
     }
 
 }
@@ -16,6 +16,8 @@
 
 package com.blazebit.persistence.view.impl.objectbuilder;
 
+import com.blazebit.persistence.view.impl.collection.LazyCollection;
+
 import java.util.Arrays;
 
 /**
@@ -26,15 +28,21 @@ import java.util.Arrays;
 public class TupleRest {
 
     private static final Object[] ANY_OFFSET_TUPLE = new Object[0];
+    private static final Object[] EMPTY_OFFSET_TUPLE = new Object[0];
 
-    private final Object[] tuple;
+    private Object[] tuple;
     // We need to keep a separate reference to that element since it will be replaced by a collection during flattening
-    private final Object[] offsetTuple;
-    private final int index;
+    private Object[] offsetTuple;
+    private int index;
 
     public TupleRest(Object[] tuple, int index, int offset) {
-        Object[] offsetTuple = new Object[offset];
-        System.arraycopy(tuple, index, offsetTuple, 0, offset);
+        Object[] offsetTuple;
+        if (offset == 0) {
+            offsetTuple = EMPTY_OFFSET_TUPLE;
+        } else {
+            offsetTuple = new Object[offset];
+            System.arraycopy(tuple, index, offsetTuple, 0, offset);
+        }
         this.tuple = tuple;
         this.offsetTuple = offsetTuple;
         this.index = index + offset;
@@ -46,6 +54,24 @@ public class TupleRest {
         this.index = index;
     }
 
+    private TupleRest() {
+        this.offsetTuple = ANY_OFFSET_TUPLE;
+    }
+
+    private void setState(Object[] tuple, Object[] offsetTuple, int index) {
+        this.tuple = tuple;
+        this.offsetTuple = offsetTuple;
+        this.index = index;
+    }
+
+    protected int getOffsetIndex() {
+        return 0;
+    }
+
+    protected int getOffsetLength() {
+        return offsetTuple.length;
+    }
+
     @Override
     public int hashCode() {
         int hash = 7;
@@ -78,6 +104,9 @@ public class TupleRest {
             return Arrays.hashCode((double[]) element);
         } else if (element instanceof boolean[]) {
             return Arrays.hashCode((boolean[]) element);
+        } else if (element instanceof LazyCollection<?, ?>) {
+            // Avoid loading lazy collections
+            return ((LazyCollection<?, ?>) element).sourceHashCode();
         } else if (element != null) {
             return element.hashCode();
         }
@@ -90,7 +119,8 @@ public class TupleRest {
         if (this == obj) {
             return true;
         }
-        if (obj == null || getClass() != obj.getClass()) {
+        // Lookup tuple rests must be able to match stored tuple rests
+        if (!(obj instanceof TupleRest)) {
             return false;
         }
         final TupleRest other = (TupleRest) obj;
@@ -107,11 +137,9 @@ public class TupleRest {
         int otherIndex = other.index;
         boolean checkOffsetTuple = offsetTuple != ANY_OFFSET_TUPLE && otherOffsetTuple != ANY_OFFSET_TUPLE;
 
+        int offsetLength = getOffsetLength();
         if (checkOffsetTuple) {
-            if (offsetTuple == null || otherOffsetTuple == null) {
-                return false;
-            }
-            if (offsetTuple.length != other.offsetTuple.length) {
+            if (offsetLength != other.getOffsetLength()) {
                 return false;
             }
         } else if (tuple == otherTuple) {
@@ -129,9 +157,11 @@ public class TupleRest {
         }
 
         if (checkOffsetTuple) {
-            for (int i = 0; i < offsetTuple.length; i++) {
-                Object e1 = offsetTuple[i];
-                Object e2 = otherOffsetTuple[i];
+            int offsetIndex = getOffsetIndex();
+            int otherOffsetIndex = other.getOffsetIndex();
+            for (int i = 0; i < offsetLength; i++) {
+                Object e1 = offsetTuple[offsetIndex + i];
+                Object e2 = otherOffsetTuple[otherOffsetIndex + i];
 
                 if (e1 == e2) {
                     continue;
@@ -192,9 +222,61 @@ public class TupleRest {
             eq = Arrays.equals((double[]) e1, (double[]) e2);
         } else if (e1 instanceof boolean[] && e2 instanceof boolean[]) {
             eq = Arrays.equals((boolean[]) e1, (boolean[]) e2);
+        } else if (e1 instanceof LazyCollection<?, ?>) {
+            // Avoid loading lazy collections
+            eq = e2 instanceof LazyCollection<?, ?> && ((LazyCollection<?, ?>) e1).isSameSource((LazyCollection<?, ?>) e2);
         } else {
             eq = e1.equals(e2);
         }
         return eq;
     }
+
+    /**
+     * A tuple rest that can be reused for lookups. Contrary to a stored tuple rest, the offset elements are read from the tuple
+     * instead of being copied, so a lookup tuple rest must never be stored.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    public static final class Lookup extends TupleRest {
+
+        private int offsetLength;
+
+        /**
+         * Populates this lookup so that it matches the tuple rest of any offset.
+         *
+         * @param tuple The tuple
+         * @param index The index at which the tuple rest starts
+         * @return this
+         */
+        public Lookup set(Object[] tuple, int index) {
+            super.setState(tuple, ANY_OFFSET_TUPLE, index);
+            this.offsetLength = 0;
+            return this;
+        }
+
+        /**
+         * Populates this lookup so that it only matches a tuple rest with the same offset elements.
+         *
+         * @param tuple The tuple
+         * @param index The index at which the offset elements start
+         * @param offset The number of offset elements
+         * @return this
+         */
+        public Lookup setWithOffset(Object[] tuple, int index, int offset) {
+            super.setState(tuple, tuple, index + offset);
+            this.offsetLength = offset;
+            return this;
+        }
+
+        @Override
+        protected int getOffsetIndex() {
+            return super.index - offsetLength;
+        }
+
+        @Override
+        protected int getOffsetLength() {
+            return offsetLength;
+        }
+    }
 }
@@ -113,6 +113,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  *
@@ -150,10 +151,12 @@ public class ViewTypeObjectBuilderTemplate<T> {
     private final ExpressionFactory ef;
     private final ProxyFactory proxyFactory;
     private final TupleTransformatorFactory tupleTransformatorFactory;
+    private final Set<String> fetches;
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     private ViewTypeObjectBuilderTemplate(ManagedViewTypeImplementor<?> viewRoot, String viewRootAlias, String attributePath, String aliasPrefix, String mappingPrefix, String idPrefix, TupleIdDescriptor tupleIdDescriptor, TupleIdDescriptor viewIdDescriptor, int tupleOffset, EmbeddingViewJpqlMacro embeddingViewJpqlMacro,
-                                          Map<ManagedViewTypeImplementor<? extends T>, String> inheritanceSubtypeMappings, EntityViewManagerImpl evm, ExpressionFactory ef, ManagedViewTypeImplementor<T> managedViewType, MappingConstructorImpl<T> mappingConstructor, ProxyFactory proxyFactory) {
+                                          Map<ManagedViewTypeImplementor<? extends T>, String> inheritanceSubtypeMappings, EntityViewManagerImpl evm, ExpressionFactory ef, ManagedViewTypeImplementor<T> managedViewType, MappingConstructorImpl<T> mappingConstructor, ProxyFactory proxyFactory,
+                                          Set<String> fetches) {
         ViewType<T> viewType;
         if (managedViewType instanceof ViewType<?>) {
             viewType = (ViewType<T>) managedViewType;
@@ -182,6 +185,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
         this.evm = evm;
         this.ef = ef;
         this.proxyFactory = proxyFactory;
+        this.fetches = fetches;
 
         ManagedViewTypeImpl.InheritanceSubtypeConfiguration<T> inheritanceSubtypeConfiguration = managedViewType.getInheritanceSubtypeConfiguration(inheritanceSubtypeMappings);
         Map<ManagedViewTypeImpl.AttributeKey, ConstrainedAttribute<AbstractMethodAttribute<? super T, ?>>> attributeMap = new LinkedHashMap<>(inheritanceSubtypeConfiguration.getAttributesClosure());
@@ -459,6 +463,11 @@ public class ViewTypeObjectBuilderTemplate<T> {
     @SuppressWarnings("unchecked")
     private void applyMapping(AbstractAttribute<?, ?> attribute, String parentAttributePath, TupleElementMapperBuilder mapperBuilder, boolean[] featuresFound, TupleIdDescriptor tupleIdDescriptor, EmbeddingViewJpqlMacro embeddingViewJpqlMacro) {
         String attributePath = getAttributePath(parentAttributePath, attribute, false);
+        if (!isFetched(attribute, attributePath)) {
+            // Pruned attributes are selected as NULL to avoid the joins, subqueries and correlations of the actual mapping
+            mapperBuilder.addMapper(createMapper(evm.getJpaProvider().getNullExpression(), mapperBuilder.getAlias(attribute, false), mapperBuilder.getMapping(""), EMPTY));
+            return;
+        }
         int batchSize = attribute.getBatchSize();
 
         if (batchSize == -1) {
@@ -598,6 +607,23 @@ public class ViewTypeObjectBuilderTemplate<T> {
         }
     }
 
+    private boolean isFetched(AbstractAttribute<?, ?> attribute, String attributePath) {
+        if (fetches.isEmpty() || !(attribute instanceof MethodAttribute<?, ?>) || attribute.isQueryParameter() || attribute.getConvertedJavaType().isPrimitive()) {
+            return true;
+        }
+        // Pruning attributes of updatable or creatable views would flush null values for these attributes
+        if (viewType.isUpdatable() || viewType.isCreatable()) {
+            return true;
+        }
+        String subAttributePrefix = attributePath + ".";
+        for (String fetch : fetches) {
+            if (fetch.equals(attributePath) || fetch.startsWith(subAttributePrefix) || attributePath.startsWith(fetch + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void applyCollectionFunctionMapping(String function, String aliasSuffix, MappingAttribute<? super T, ?> mappingAttribute, TupleElementMapperBuilder mapperBuilder, String[] fetches) {
         String expression = function + "(" + mapperBuilder.getMapping(mappingAttribute) + ")";
         String alias = mapperBuilder.getAlias(mappingAttribute, false);
@@ -652,7 +678,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
         String oldEmbeddingViewPath = embeddingViewJpqlMacro.getEmbeddingViewPath();
         embeddingViewJpqlMacro.setEmbeddingViewPath(embeddingViewPath);
         ViewTypeObjectBuilderTemplate<Object[]> template = new ViewTypeObjectBuilderTemplate<Object[]>(viewRoot, viewRootAlias, subviewAttributePath, subviewAliasPrefix, subviewMappingPrefix, subviewIdPrefix, subviewTupleIdDescriptor, subviewIdDescriptor,
-                startIndex, embeddingViewJpqlMacro, inheritanceSubtypeMappings, evm, ef, managedViewType, getSubviewMappingConstructor(managedViewType), proxyFactory);
+                startIndex, embeddingViewJpqlMacro, inheritanceSubtypeMappings, evm, ef, managedViewType, getSubviewMappingConstructor(managedViewType), proxyFactory, fetches);
         mapperBuilder.addMappers(template.mappers);
         mapperBuilder.addTupleTransformatorFactory(template.tupleTransformatorFactory);
         mapperBuilder.addTupleTransformerFactory(new SubviewTupleTransformerFactory(template, updatableObjectCache, nullIfEmpty));
@@ -706,13 +732,13 @@ public class ViewTypeObjectBuilderTemplate<T> {
             embeddingViewJpqlMacro.setEmbeddingViewPath(embeddingViewPath);
             @SuppressWarnings("unchecked")
             ViewTypeObjectBuilderTemplate<Object[]> template = new ViewTypeObjectBuilderTemplate<Object[]>(viewRoot, viewRootAlias, attributePath, subviewAliasPrefix, subviewMappingPrefix, subviewIdPrefix, subviewTupleIdDescriptor, subviewIdDescriptor,
-                    startIndex, embeddingViewJpqlMacro, inheritanceSubtypeMappings, evm, ef, managedViewType, getSubviewMappingConstructor(managedViewType), proxyFactory);
+                    startIndex, embeddingViewJpqlMacro, inheritanceSubtypeMappings, evm, ef, managedViewType, getSubviewMappingConstructor(managedViewType), proxyFactory, fetches);
             mapperBuilder.addMappers(template.mappers);
 
             mapperBuilder.addTupleTransformatorFactory(template.tupleTransformatorFactory);
             mapperBuilder.addTupleTransformerFactory(new CorrelatedSubviewJoinTupleTransformerFactory(template, factory, mapperBuilder.getMapping(""), correlationBasis, correlationResult, attributePath, embeddingViewPath, attribute.getFetches()));
             embeddingViewJpqlMacro.setEmbeddingViewPath(oldEmbeddingViewPath);
-        } else if (attribute.getFetchStrategy() == FetchStrategy.SELECT) {
+        } else if (attribute.getFetchStrategy() == FetchStrategy.SELECT || attribute.getFetchStrategy() == FetchStrategy.LAZY) {
             String subviewAliasPrefix = mapperBuilder.getAlias(attribute, false);
             int viewRootIndex = viewRoot.hasSubtypes() ? 1 : 0;
             int embeddingViewIndex = tupleOffset;
@@ -755,7 +781,8 @@ public class ViewTypeObjectBuilderTemplate<T> {
                         viewRoot, viewType, correlationResult, factory, attributePath, attribute.getFetches(), correlatesThis, viewRootIndex, embeddingViewIndex, startIndex, batchSize, correlationBasisType, correlationBasisEntity,
                         attribute.getCollectionInstantiator(),
                         !attribute.isCorrelated(),
-                        dirtyTracking
+                        dirtyTracking,
+                        attribute.getFetchStrategy() == FetchStrategy.LAZY ? attribute.getJavaType() : null
                 ));
             } else {
                 mapperBuilder.setTupleListTransformerFactory(new CorrelatedSingularBatchTupleListTransformerFactory(
@@ -966,7 +993,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                 mapper = new ExpressionCorrelationJoinTupleElementMapper(factory.create(null, null), ef, joinBase, correlationBasis, correlationResult, alias, joinCorrelationAttributePath, embeddingViewPath, attribute.getFetches());
             }
             mapperBuilder.addMapper(mapper);
-        } else if (attribute.getFetchStrategy() == FetchStrategy.SELECT) {
+        } else if (attribute.getFetchStrategy() == FetchStrategy.SELECT || attribute.getFetchStrategy() == FetchStrategy.LAZY) {
             String subviewAliasPrefix = mapperBuilder.getAlias(attribute, false);
             int viewRootIndex = viewRoot.hasSubtypes() ? 1 : 0;
             int embeddingViewIndex = tupleOffset;
@@ -1011,7 +1038,8 @@ public class ViewTypeObjectBuilderTemplate<T> {
                         viewRoot, viewType, correlationResult, factory, attributePath, attribute.getFetches(), correlatesThis, viewRootIndex, embeddingViewIndex, startIndex, batchSize, correlationBasisType, correlationBasisEntity,
                         attribute.getCollectionInstantiator(),
                         !attribute.isCorrelated(),
-                        dirtyTracking
+                        dirtyTracking,
+                        attribute.getFetchStrategy() == FetchStrategy.LAZY ? attribute.getJavaType() : null
                 ));
             } else {
                 // TODO: shouldn't we embed this query no matter what strategy is used?
@@ -1207,8 +1235,9 @@ public class ViewTypeObjectBuilderTemplate<T> {
         private final String entityViewRoot;
         private final String embeddingViewPath;
         private final int offset;
+        private final Set<String> fetches;
 
-        public Key(ExpressionFactory ef, ManagedViewTypeImplementor<?> viewType, MappingConstructorImpl<?> constructor, String name, String entityViewRoot, String embeddingViewPath, int offset) {
+        public Key(ExpressionFactory ef, ManagedViewTypeImplementor<?> viewType, MappingConstructorImpl<?> constructor, String name, String entityViewRoot, String embeddingViewPath, int offset, Set<String> fetches) {
             this.ef = ef;
             this.viewType = (ManagedViewTypeImpl<Object>) viewType;
             this.constructor = (MappingConstructorImpl<Object>) constructor;
@@ -1216,10 +1245,11 @@ public class ViewTypeObjectBuilderTemplate<T> {
             this.entityViewRoot = entityViewRoot;
             this.embeddingViewPath = embeddingViewPath;
             this.offset = offset;
+            this.fetches = fetches;
         }
 
         public ViewTypeObjectBuilderTemplate<?> createValue(EntityViewManagerImpl evm, ProxyFactory proxyFactory, EmbeddingViewJpqlMacro embeddingViewJpqlMacro) {
-            return new ViewTypeObjectBuilderTemplate<Object>(viewType, entityViewRoot, "", name, entityViewRoot, entityViewRoot, new TupleIdDescriptor(), new TupleIdDescriptor(), offset, embeddingViewJpqlMacro, null, evm, ef, viewType, constructor, proxyFactory);
+            return new ViewTypeObjectBuilderTemplate<Object>(viewType, entityViewRoot, "", name, entityViewRoot, entityViewRoot, new TupleIdDescriptor(), new TupleIdDescriptor(), offset, embeddingViewJpqlMacro, null, evm, ef, viewType, constructor, proxyFactory, fetches);
         }
 
         @Override
@@ -1232,6 +1262,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
             hash = 83 * hash + (this.entityViewRoot != null ? this.entityViewRoot.hashCode() : 0);
             hash = 83 * hash + (this.embeddingViewPath != null ? this.embeddingViewPath.hashCode() : 0);
             hash = 83 * hash + offset;
+            hash = 83 * hash + (this.fetches != null ? this.fetches.hashCode() : 0);
             return hash;
         }
 
@@ -1265,6 +1296,9 @@ public class ViewTypeObjectBuilderTemplate<T> {
             if (this.offset != other.offset) {
                 return false;
             }
+            if (this.fetches != other.fetches && (this.fetches == null || !this.fetches.equals(other.fetches))) {
+                return false;
+            }
             return true;
         }
     }
@@ -23,6 +23,7 @@ import java.util.Map;
 
 import com.blazebit.persistence.view.impl.objectbuilder.TupleId;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleIndexValue;
+import com.blazebit.persistence.view.impl.objectbuilder.TupleRest;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleReuse;
 import com.blazebit.persistence.view.spi.type.TypeConverter;
 
@@ -58,10 +59,13 @@ public abstract class AbstractIndexedTupleListTransformer<C, K> extends TupleLis
         Map<TupleId, TupleIndexValue> tupleIndex = new HashMap<TupleId, TupleIndexValue>(tuples.size());
         // Implementation detail: the tuple list is a LinkedList
         Iterator<Object[]> tupleListIter = tuples.iterator();
+        // Reusable lookup objects to avoid allocations for every tuple of an already known parent
+        TupleId lookupId = new TupleId(parentIdPositions.length);
+        TupleRest.Lookup lookupTupleRest = new TupleRest.Lookup();
 
         while (tupleListIter.hasNext()) {
             Object[] tuple = tupleListIter.next();
-            TupleId id = new TupleId(parentIdPositions, tuple);
+            TupleId id = lookupId.set(parentIdPositions, tuple);
             // Skip constructing the collection and removing tuples when the parent is empty i.e. null
             if (!id.isEmpty()) {
                 TupleIndexValue tupleIndexValue = tupleIndex.get(id);
@@ -75,15 +79,15 @@ public abstract class AbstractIndexedTupleListTransformer<C, K> extends TupleLis
                     add(collection, key, tuple[valueStartIndex]);
                     tuple[startIndex] = collection;
                     tuple[valueStartIndex] = TupleReuse.CONSUMED;
-                    tupleIndex.put(id, tupleIndexValue);
-                } else if (tupleIndexValue.addRestTuple(tuple, startIndex, valueOffset + 1)) {
+                    tupleIndex.put(id.copy(), tupleIndexValue);
+                } else if (tupleIndexValue.addRestTuple(lookupTupleRest, tuple, startIndex, valueOffset + 1)) {
                     Object collection = tupleIndexValue.getTupleValue();
                     Object key = tuple[startIndex];
                     add(collection, key, tuple[valueStartIndex]);
                     tuple[startIndex] = collection;
                     tuple[valueStartIndex] = TupleReuse.CONSUMED;
                     // Check if the tuple after the offset is contained
-                    if (tupleIndexValue.containsRestTuple(tuple, startIndex, valueOffset + 1)) {
+                    if (tupleIndexValue.containsRestTuple(lookupTupleRest, tuple, startIndex, valueOffset + 1)) {
                         tupleListIter.remove();
                     }
                 } else {
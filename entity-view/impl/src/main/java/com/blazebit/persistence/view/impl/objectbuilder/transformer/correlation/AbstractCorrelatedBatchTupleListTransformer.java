@@ -19,8 +19,10 @@ package com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation
 import com.blazebit.persistence.CTEBuilder;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.FullQueryBuilder;
+import com.blazebit.persistence.QueryTemplate;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.view.CorrelationProvider;
+import com.blazebit.persistence.view.impl.AttributeBatchCorrelationStatisticsImpl;
 import com.blazebit.persistence.view.impl.BatchCorrelationMode;
 import com.blazebit.persistence.view.impl.CorrelationProviderFactory;
 import com.blazebit.persistence.view.impl.EntityViewConfiguration;
@@ -30,12 +32,22 @@ import com.blazebit.persistence.view.metamodel.ManagedViewType;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Parameter;
+import javax.persistence.PersistenceException;
 import javax.persistence.Query;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  *
@@ -52,6 +64,8 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
     protected final BatchCorrelationMode expectBatchCorrelationMode;
     protected final int valueIndex;
     protected final int keyIndex;
+    protected final AttributeBatchCorrelationStatisticsImpl statistics;
+    protected final AtomicReference<CorrelationQueryTemplate> correlationQueryTemplateCache;
 
     protected String correlationParamName;
     protected String correlationSelectExpression;
@@ -59,13 +73,30 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
     protected CorrelatedSubqueryViewRootJpqlMacro viewRootJpqlMacro;
     protected CorrelatedSubqueryEmbeddingViewJpqlMacro embeddingViewJpqlMacro;
     protected Query query;
+    protected CorrelationQueryTemplate correlationQueryTemplate;
 
     public AbstractCorrelatedBatchTupleListTransformer(ExpressionFactory ef, Correlator correlator, ManagedViewType<?> viewRootType, ManagedViewType<?> embeddingViewType, String correlationResult, CorrelationProviderFactory correlationProviderFactory, String attributePath, String[] fetches,
-                                                       boolean correlatesThis, int viewRootIndex, int embeddingViewIndex, int tupleIndex, int defaultBatchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity, EntityViewConfiguration entityViewConfiguration) {
+                                                       boolean correlatesThis, int viewRootIndex, int embeddingViewIndex, int tupleIndex, int defaultBatchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity, EntityViewConfiguration entityViewConfiguration,
+                                                       AtomicReference<CorrelationQueryTemplate> correlationQueryTemplateCache) {
         super(ef, correlator, viewRootType, embeddingViewType, correlationResult, correlationProviderFactory, attributePath, fetches, viewRootIndex, embeddingViewIndex, tupleIndex, correlationBasisType, correlationBasisEntity, entityViewConfiguration);
-        this.batchSize = entityViewConfiguration.getBatchSize(attributePath, defaultBatchSize);
+        this.correlationQueryTemplateCache = correlationQueryTemplateCache;
+        this.statistics = entityViewConfiguration.getBatchCorrelationStatistics(viewRootType, attributePath);
+        int batchSize = entityViewConfiguration.getBatchSize(attributePath, defaultBatchSize);
+        BatchCorrelationMode expectBatchCorrelationMode = entityViewConfiguration.getExpectBatchCorrelationValues(attributePath);
+        if (statistics == null) {
+            this.batchSize = batchSize;
+            this.expectBatchCorrelationMode = expectBatchCorrelationMode;
+        } else {
+            // With adaptive batching, the configuration is only used until statistics are available
+            this.batchSize = statistics.getRecommendedBatchSize(batchSize);
+            // The batch correlation mode only matters when batching
+            if (this.batchSize > 1) {
+                this.expectBatchCorrelationMode = statistics.getRecommendedBatchCorrelationMode(expectBatchCorrelationMode);
+            } else {
+                this.expectBatchCorrelationMode = expectBatchCorrelationMode;
+            }
+        }
         this.correlatesThis = correlatesThis;
-        this.expectBatchCorrelationMode = entityViewConfiguration.getExpectBatchCorrelationValues(attributePath);
         this.valueIndex = correlator.getElementOffset();
         this.keyIndex = valueIndex + 1;
     }
@@ -88,6 +119,16 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
     }
 
     private String applyAndGetCorrelationRoot(BatchCorrelationMode batchCorrelationMode) {
+        CorrelationQuery correlationQuery = createCorrelationQuery(entityViewConfiguration.getCriteriaBuilder().getEntityManager(), batchCorrelationMode);
+        this.criteriaBuilder = correlationQuery.criteriaBuilder;
+        this.viewRootJpqlMacro = correlationQuery.viewRootJpqlMacro;
+        this.embeddingViewJpqlMacro = correlationQuery.embeddingViewJpqlMacro;
+        correlationParamName = correlationQuery.correlationParamName;
+        correlationSelectExpression = correlationQuery.correlationSelectExpression;
+        return correlationQuery.correlationRoot;
+    }
+
+    private CorrelationQuery createCorrelationQuery(EntityManager em, BatchCorrelationMode batchCorrelationMode) {
         Class<?> viewRootEntityClass = viewRootType.getEntityClass();
         Class<?> embeddingViewEntityClass = embeddingViewType.getEntityClass();
         String viewRootIdAttributePath = getEntityIdName(viewRootEntityClass);
@@ -115,25 +156,27 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             embeddingViewExpression = CORRELATION_KEY_ALIAS;
         }
 
-        this.criteriaBuilder = queryBuilder.getCriteriaBuilderFactory().create(queryBuilder.getEntityManager(), Object[].class);
+        CriteriaBuilder<?> criteriaBuilder = queryBuilder.getCriteriaBuilderFactory().create(em, Object[].class);
         if (queryBuilder instanceof CTEBuilder<?>) {
-            this.criteriaBuilder.withCtesFrom((CTEBuilder<?>) queryBuilder);
+            criteriaBuilder.withCtesFrom((CTEBuilder<?>) queryBuilder);
         }
-        this.viewRootJpqlMacro = new CorrelatedSubqueryViewRootJpqlMacro(criteriaBuilder, optionalParameters, viewRootExpression != null, viewRootEntityClass, viewRootIdAttributePath, viewRootExpression);
-        this.embeddingViewJpqlMacro = new CorrelatedSubqueryEmbeddingViewJpqlMacro(criteriaBuilder, optionalParameters, embeddingViewExpression != null, embeddingViewEntityClass, embeddingViewIdAttributePath, embeddingViewExpression, batchedIdValues, viewRootJpqlMacro);
-        this.criteriaBuilder.registerMacro("view_root", viewRootJpqlMacro);
-        this.criteriaBuilder.registerMacro("embedding_view", embeddingViewJpqlMacro);
+        CorrelatedSubqueryViewRootJpqlMacro viewRootJpqlMacro = new CorrelatedSubqueryViewRootJpqlMacro(criteriaBuilder, optionalParameters, viewRootExpression != null, viewRootEntityClass, viewRootIdAttributePath, viewRootExpression);
+        CorrelatedSubqueryEmbeddingViewJpqlMacro embeddingViewJpqlMacro = new CorrelatedSubqueryEmbeddingViewJpqlMacro(criteriaBuilder, optionalParameters, embeddingViewExpression != null, embeddingViewEntityClass, embeddingViewIdAttributePath, embeddingViewExpression, batchedIdValues, viewRootJpqlMacro);
+        criteriaBuilder.registerMacro("view_root", viewRootJpqlMacro);
+        criteriaBuilder.registerMacro("embedding_view", embeddingViewJpqlMacro);
 
         SubqueryCorrelationBuilder correlationBuilder = new SubqueryCorrelationBuilder(criteriaBuilder, correlationAlias, correlationResult, correlationBasisType, correlationBasisEntityType, CORRELATION_KEY_ALIAS, batchSize, false, attributePath);
         CorrelationProvider provider = correlationProviderFactory.create(entityViewConfiguration.getCriteriaBuilder(), entityViewConfiguration.getOptionalParameters());
 
+        String correlationParamName;
+        String correlationSelectExpression;
         String correlationKeyExpression;
         if (batchSize > 1) {
             if (batchCorrelationMode == BatchCorrelationMode.VALUES) {
-                this.correlationParamName = CORRELATION_KEY_ALIAS;
+                correlationParamName = CORRELATION_KEY_ALIAS;
                 // TODO: when using EMBEDDING_VIEW, we could make use of correlationBasis instead of binding parameters separately
             } else {
-                this.correlationParamName = generateCorrelationParamName();
+                correlationParamName = generateCorrelationParamName();
             }
             if (correlationBasisEntityType != null) {
                 correlationKeyExpression = CORRELATION_KEY_ALIAS;
@@ -147,8 +190,8 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
                 correlationSelectExpression = correlationKeyExpression = CORRELATION_KEY_ALIAS;
             }
         } else {
-            this.correlationParamName = generateCorrelationParamName();
-            this.correlationSelectExpression = correlationKeyExpression = null;
+            correlationParamName = generateCorrelationParamName();
+            correlationSelectExpression = correlationKeyExpression = null;
         }
 
         if (batchSize > 1 && batchCorrelationMode == BatchCorrelationMode.VALUES) {
@@ -163,7 +206,7 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             }
         }
 
-        return correlationBuilder.getCorrelationRoot();
+        return new CorrelationQuery(criteriaBuilder, viewRootJpqlMacro, embeddingViewJpqlMacro, correlationParamName, correlationSelectExpression, correlationBuilder.getCorrelationRoot());
     }
 
     @Override
@@ -172,6 +215,17 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         // We have the correlation key on the first position if we do batching
         int tupleOffset = batchSize > 1 ? 1 : 0;
 
+        CorrelationQueryTemplate correlationQueryTemplate = getCorrelationQueryTemplate();
+        if (correlationQueryTemplate != null) {
+            // The correlation query was already built by a previous transformation, so we only have to bind parameters
+            FullQueryBuilder<?, ?> mainBuilder = entityViewConfiguration.getCriteriaBuilder();
+            this.correlationQueryTemplate = correlationQueryTemplate;
+            this.correlationParamName = correlationQueryTemplate.getCorrelationParamName();
+            this.query = correlationQueryTemplate.createQuery(mainBuilder.getEntityManager(), mainBuilder, entityViewConfiguration.getOptionalParameters());
+            transformCorrelationValues(tuples, correlationParams, tupleOffset);
+            return tuples;
+        }
+
         final String correlationRoot = applyAndGetCorrelationRoot(expectBatchCorrelationMode);
         // Add select items so that macros are properly used and we can query usage
         correlator.finish(criteriaBuilder, entityViewConfiguration, tupleOffset, correlationRoot, embeddingViewJpqlMacro);
@@ -185,9 +239,6 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         } else if (viewRootJpqlMacro.usesViewMacro()) {
             transformViewMacroAware(tuples, correlationParams, tupleOffset, correlationRoot, viewRootJpqlMacro, BatchCorrelationMode.VIEW_ROOTS, viewRootType, viewRootIndex);
         } else {
-            EntityManager em = criteriaBuilder.getEntityManager();
-            // Implementation detail: the tuple list is a LinkedList
-            Iterator<Object[]> tupleListIter = tuples.iterator();
             if (batchSize > 1) {
                 // If the expectation was wrong, we have to create a new criteria builder
                 if (expectBatchCorrelationMode != BatchCorrelationMode.VALUES) {
@@ -195,53 +246,113 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
                     correlator.finish(criteriaBuilder, entityViewConfiguration, tupleOffset, correlationRoot, embeddingViewJpqlMacro);
                     criteriaBuilder.select(correlationSelectExpression);
                 }
+            } else if (correlationQueryTemplateCache != null && correlationQueryTemplateCache.get() == null) {
+                // Capture before populating parameters so that the template doesn't retain parameter values of this transformation
+                captureCorrelationQueryTemplate();
             }
             populateParameters(criteriaBuilder);
             query = criteriaBuilder.getQuery();
+            transformCorrelationValues(tuples, correlationParams, tupleOffset);
+        }
 
-            Map<Object, TuplePromise> correlationValues = new HashMap<>(tuples.size());
-            while (tupleListIter.hasNext()) {
-                Object[] tuple = tupleListIter.next();
-                Object correlationValue = tuple[startIndex];
+        return tuples;
+    }
 
-                TuplePromise tupleIndexValue = correlationValues.get(correlationValue);
+    private CorrelationQueryTemplate getCorrelationQueryTemplate() {
+        // Batched correlation queries use a VALUES clause which requires SQL replacement and thus can't be represented as query template
+        if (batchSize > 1 || correlationQueryTemplateCache == null) {
+            return null;
+        }
+        CorrelationQueryTemplate correlationQueryTemplate = correlationQueryTemplateCache.get();
+        if (correlationQueryTemplate == null || correlationQueryTemplate == CorrelationQueryTemplate.UNSUPPORTED) {
+            return null;
+        }
+        if (!correlationQueryTemplate.isApplicable(entityViewConfiguration.getCriteriaBuilder(), entityViewConfiguration.getOptionalParameters())) {
+            return null;
+        }
+        return correlationQueryTemplate;
+    }
 
-                if (tupleIndexValue == null) {
-                    tupleIndexValue = new TuplePromise(startIndex);
-                    tupleIndexValue.add(tuple);
-                    correlationValues.put(correlationValue, tupleIndexValue);
+    private void captureCorrelationQueryTemplate() {
+        QueryTemplate<?> queryTemplate;
+        try {
+            queryTemplate = criteriaBuilder.getCriteriaBuilderFactory().createQueryTemplate(criteriaBuilder);
+        } catch (IllegalArgumentException ex) {
+            // The query requires SQL replacement e.g. because of CTEs or selects a subview through an object builder that can't be recreated, so we don't try again
+            correlationQueryTemplateCache.compareAndSet(null, CorrelationQueryTemplate.UNSUPPORTED);
+            return;
+        }
+        // The parameters that are populated from the main query builder or the optional parameters
+        List<String> parameterNames = new ArrayList<>(queryTemplate.getParameterNames().size());
+        for (String parameterName : queryTemplate.getParameterNames()) {
+            if (!parameterName.equals(correlationParamName) && !criteriaBuilder.isParameterSet(parameterName)) {
+                parameterNames.add(parameterName);
+            }
+        }
+        correlationQueryTemplateCache.compareAndSet(null, new CorrelationQueryTemplate(queryTemplate, correlationParamName, parameterNames.toArray(new String[parameterNames.size()])));
+    }
+
+    private void transformCorrelationValues(List<Object[]> tuples, FixedArrayList correlationParams, int tupleOffset) {
+        if (entityViewConfiguration.isConcurrentCorrelation()) {
+            transformConcurrently(tuples, tupleOffset);
+            return;
+        }
+
+        EntityManager em = entityViewConfiguration.getCriteriaBuilder().getEntityManager();
+        // Implementation detail: the tuple list is a LinkedList
+        Iterator<Object[]> tupleListIter = tuples.iterator();
+        Map<Object, TuplePromise> correlationValues = new HashMap<>(tuples.size());
+        while (tupleListIter.hasNext()) {
+            Object[] tuple = tupleListIter.next();
+            Object correlationValue = tuple[startIndex];
 
-                    // Can't correlate null
-                    if (correlationValue != null) {
+            TuplePromise tupleIndexValue = correlationValues.get(correlationValue);
+
+            if (tupleIndexValue == null) {
+                tupleIndexValue = new TuplePromise(startIndex);
+                tupleIndexValue.add(tuple);
+                correlationValues.put(correlationValue, tupleIndexValue);
+
+                // Can't correlate null
+                if (correlationValue != null) {
+                    if (correlationBasisEntity != null) {
+                        correlationParams.add(em.getReference(correlationBasisEntity, correlationValue));
+                    } else {
+                        correlationParams.add(correlationValue);
+                    }
+
+                    if (batchSize == correlationParams.realSize()) {
+                        Object defaultKey;
                         if (correlationBasisEntity != null) {
-                            correlationParams.add(em.getReference(correlationBasisEntity, correlationValue));
+                            defaultKey = jpaProvider.getIdentifier(correlationParams.get(0));
                         } else {
-                            correlationParams.add(correlationValue);
-                        }
-
-                        if (batchSize == correlationParams.realSize()) {
-                            Object defaultKey;
-                            if (correlationBasisEntity != null) {
-                                defaultKey = jpaProvider.getIdentifier(correlationParams.get(0));
-                            } else {
-                                defaultKey = correlationParams.get(0);
-                            }
-                            batchLoad(correlationValues, correlationParams, null, defaultKey, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
+                            defaultKey = correlationParams.get(0);
                         }
+                        batchLoad(correlationValues, correlationParams, null, defaultKey, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
                     }
-                } else {
-                    tupleIndexValue.add(tuple);
                 }
+            } else {
+                tupleIndexValue.add(tuple);
             }
+        }
 
-            if (correlationParams.realSize() > 0) {
-                batchLoad(correlationValues, correlationParams, null, null, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
-            }
-
-            fillDefaultValues(Collections.singletonMap(null, correlationValues));
+        if (correlationParams.realSize() > 0) {
+            batchLoad(correlationValues, correlationParams, null, null, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
         }
 
-        return tuples;
+        fillDefaultValues(Collections.singletonMap(null, correlationValues));
+        recordExecution(tuples, correlationValues.size());
+    }
+
+    private void recordExecution(List<Object[]> tuples, int correlationValueCount) {
+        if (statistics != null) {
+            Set<Object> viewRoots = new HashSet<>(tuples.size());
+            for (Object[] tuple : tuples) {
+                viewRoots.add(tuple[viewRootIndex]);
+            }
+            boolean expectationMiss = batchSize > 1 && expectBatchCorrelationMode != BatchCorrelationMode.VALUES;
+            statistics.recordExecution(BatchCorrelationMode.VALUES, expectationMiss, tuples.size(), viewRoots.size(), correlationValueCount);
+        }
     }
 
     @Override
@@ -300,6 +411,10 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
 
         boolean batchCorrelationValues = !macro.usesViewMacro() && viewRoots.size() <= correlationValues.size();
         FixedArrayList viewRootIds = new FixedArrayList(batchSize);
+        if (statistics != null) {
+            BatchCorrelationMode usedMode = batchCorrelationValues ? BatchCorrelationMode.VALUES : correlationMode;
+            statistics.recordExecution(usedMode, batchSize > 1 && expectBatchCorrelationMode != usedMode, totalSize, viewRoots.size(), correlationValues.size());
+        }
 
         if (batchCorrelationValues) {
             if (batchSize > 1) {
@@ -400,7 +515,10 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             query.setParameter(correlationParamName, batchParameters);
         } else {
             query.setParameter(correlationParamName, batchParameters.get(0));
-            criteriaBuilder.setParameter(correlationParamName, batchParameters.get(0));
+            // There is no criteria builder when the query was created from a correlation query template
+            if (criteriaBuilder != null) {
+                criteriaBuilder.setParameter(correlationParamName, batchParameters.get(0));
+            }
         }
 
         if (viewRootIds != null) {
@@ -412,7 +530,14 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             }
         }
 
-        populateResult(correlationValues, defaultKey, (List<Object>) query.getResultList());
+        if (statistics == null) {
+            populateResult(correlationValues, defaultKey, (List<Object>) query.getResultList());
+        } else {
+            long start = System.nanoTime();
+            List<Object> result = (List<Object>) query.getResultList();
+            statistics.recordBatch(result.size(), System.nanoTime() - start);
+            populateResult(correlationValues, defaultKey, result);
+        }
 
         batchParameters.reset();
         if (viewRootIds != null) {
@@ -420,6 +545,244 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         }
     }
 
+    private void transformConcurrently(List<Object[]> tuples, final int tupleOffset) {
+        Map<Object, TuplePromise> correlationValues = new HashMap<>(tuples.size());
+        final List<CorrelationBatch> batches = new ArrayList<>();
+        List<Object> batchValues = new ArrayList<>(batchSize);
+        for (Object[] tuple : tuples) {
+            Object correlationValue = tuple[startIndex];
+            TuplePromise tupleIndexValue = correlationValues.get(correlationValue);
+
+            if (tupleIndexValue == null) {
+                tupleIndexValue = new TuplePromise(startIndex);
+                tupleIndexValue.add(tuple);
+                correlationValues.put(correlationValue, tupleIndexValue);
+
+                // Can't correlate null
+                if (correlationValue != null) {
+                    batchValues.add(correlationValue);
+                    if (batchSize == batchValues.size()) {
+                        batches.add(new CorrelationBatch(batchValues));
+                        batchValues = new ArrayList<>(batchSize);
+                    }
+                }
+            } else {
+                tupleIndexValue.add(tuple);
+            }
+        }
+        if (!batchValues.isEmpty()) {
+            batches.add(new CorrelationBatch(batchValues));
+        }
+        recordExecution(tuples, correlationValues.size());
+
+        final Queue<CorrelationBatch> queue = new ConcurrentLinkedQueue<>(batches);
+        final CountDownLatch latch = new CountDownLatch(batches.size());
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Executor executor = entityViewConfiguration.getCorrelationExecutor();
+        // Every worker uses a separate entity manager i.e. connection and the caller thread loads batches too, so we don't need more workers than batches - 1
+        int workerCount = Math.min(batches.size() - 1, entityViewConfiguration.getCorrelationParallelism());
+        Map<String, Object> templateParameterValues = null;
+        if (correlationQueryTemplate != null && workerCount > 0) {
+            templateParameterValues = correlationQueryTemplate.getParameterValues(entityViewConfiguration.getCriteriaBuilder(), entityViewConfiguration.getOptionalParameters());
+        }
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                // Workers must not access the main query builder or the correlation provider, so their queries are built by the caller thread
+                final CorrelationWorker worker = createCorrelationWorker(tupleOffset, templateParameterValues);
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            worker.loadBatches(queue, latch, failure);
+                        }
+                    });
+                } catch (RejectedExecutionException ex) {
+                    worker.close();
+                    throw ex;
+                }
+            }
+        } catch (RejectedExecutionException ex) {
+            // The remaining batches are loaded by the caller thread
+        }
+
+        // The caller thread also loads batches with the original query so that we make progress even if the executor is saturated
+        EntityManager em = entityViewConfiguration.getCriteriaBuilder().getEntityManager();
+        FixedArrayList batchParameters = new FixedArrayList(batchSize);
+        CorrelationBatch batch;
+        while ((batch = queue.poll()) != null) {
+            try {
+                if (failure.get() == null) {
+                    batch.result = loadBatch(criteriaBuilder, query, em, batch.values, batchParameters, correlationParamName);
+                }
+            } catch (RuntimeException | Error ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                latch.countDown();
+            }
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PersistenceException("Interrupted while waiting for correlation batches of attribute " + attributePath, ex);
+        }
+
+        Throwable throwable = failure.get();
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        } else if (throwable instanceof Error) {
+            throw (Error) throwable;
+        } else if (throwable != null) {
+            throw new PersistenceException("Could not load correlation batches of attribute " + attributePath, throwable);
+        }
+
+        for (int i = 0; i < batches.size(); i++) {
+            CorrelationBatch correlationBatch = batches.get(i);
+            populateResult(correlationValues, correlationBatch.values.get(0), correlationBatch.result);
+        }
+
+        fillDefaultValues(Collections.singletonMap(null, correlationValues));
+    }
+
+    private CorrelationWorker createCorrelationWorker(int tupleOffset, Map<String, Object> templateParameterValues) {
+        // A separate entity manager is used as entity managers are not thread safe. It is only opened when the worker uses it on its own thread
+        EntityManager em = LazyEntityManagerProxy.generateProxy(entityViewConfiguration.getCorrelationEntityManagerFactory());
+        if (correlationQueryTemplate != null) {
+            return new CorrelationWorker(em, null, templateParameterValues, correlationQueryTemplate.getCorrelationParamName());
+        }
+        CorrelationQuery correlationQuery = createCorrelationQuery(em, BatchCorrelationMode.VALUES);
+        correlator.finish(correlationQuery.criteriaBuilder, entityViewConfiguration, tupleOffset, correlationQuery.correlationRoot, correlationQuery.embeddingViewJpqlMacro);
+        if (batchSize > 1) {
+            correlationQuery.criteriaBuilder.select(correlationQuery.correlationSelectExpression);
+        }
+        populateParameters(correlationQuery.criteriaBuilder);
+        return new CorrelationWorker(em, correlationQuery.criteriaBuilder, null, correlationQuery.correlationParamName);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> loadBatch(CriteriaBuilder<?> criteriaBuilder, Query query, EntityManager em, List<Object> values, FixedArrayList batchParameters, String paramName) {
+        for (int i = 0; i < values.size(); i++) {
+            if (correlationBasisEntity != null) {
+                batchParameters.add(em.getReference(correlationBasisEntity, values.get(i)));
+            } else {
+                batchParameters.add(values.get(i));
+            }
+        }
+        batchParameters.clearRest();
+        try {
+            if (batchSize > 1) {
+                criteriaBuilder.setParameter(paramName, batchParameters);
+                query.setParameter(paramName, batchParameters);
+            } else {
+                query.setParameter(paramName, batchParameters.get(0));
+                if (criteriaBuilder != null) {
+                    criteriaBuilder.setParameter(paramName, batchParameters.get(0));
+                }
+            }
+            if (statistics == null) {
+                return (List<Object>) query.getResultList();
+            }
+            long start = System.nanoTime();
+            List<Object> result = (List<Object>) query.getResultList();
+            statistics.recordBatch(result.size(), System.nanoTime() - start);
+            return result;
+        } finally {
+            batchParameters.reset();
+        }
+    }
+
     protected abstract void populateResult(Map<Object, TuplePromise> correlationValues, Object defaultKey, List<Object> list);
 
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class CorrelationQuery {
+
+        private final CriteriaBuilder<?> criteriaBuilder;
+        private final CorrelatedSubqueryViewRootJpqlMacro viewRootJpqlMacro;
+        private final CorrelatedSubqueryEmbeddingViewJpqlMacro embeddingViewJpqlMacro;
+        private final String correlationParamName;
+        private final String correlationSelectExpression;
+        private final String correlationRoot;
+
+        public CorrelationQuery(CriteriaBuilder<?> criteriaBuilder, CorrelatedSubqueryViewRootJpqlMacro viewRootJpqlMacro, CorrelatedSubqueryEmbeddingViewJpqlMacro embeddingViewJpqlMacro, String correlationParamName, String correlationSelectExpression, String correlationRoot) {
+            this.criteriaBuilder = criteriaBuilder;
+            this.viewRootJpqlMacro = viewRootJpqlMacro;
+            this.embeddingViewJpqlMacro = embeddingViewJpqlMacro;
+            this.correlationParamName = correlationParamName;
+            this.correlationSelectExpression = correlationSelectExpression;
+            this.correlationRoot = correlationRoot;
+        }
+    }
+
+    /**
+     * The state of a worker thread that loads correlation batches with its own entity manager and query.
+     * The entity manager is opened when the worker creates its query and closed after loading, so loaded entities are detached.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private final class CorrelationWorker {
+
+        private final EntityManager em;
+        private final CriteriaBuilder<?> criteriaBuilder;
+        private final Map<String, Object> templateParameterValues;
+        private final String correlationParamName;
+        private final FixedArrayList batchParameters = new FixedArrayList(batchSize);
+
+        public CorrelationWorker(EntityManager em, CriteriaBuilder<?> criteriaBuilder, Map<String, Object> templateParameterValues, String correlationParamName) {
+            this.em = em;
+            this.criteriaBuilder = criteriaBuilder;
+            this.templateParameterValues = templateParameterValues;
+            this.correlationParamName = correlationParamName;
+        }
+
+        public void loadBatches(Queue<CorrelationBatch> queue, CountDownLatch latch, AtomicReference<Throwable> failure) {
+            try {
+                Query query = null;
+                CorrelationBatch batch;
+                while ((batch = queue.poll()) != null) {
+                    try {
+                        if (failure.get() == null) {
+                            if (query == null) {
+                                // Creating the query opens the entity manager on this thread
+                                if (criteriaBuilder == null) {
+                                    query = correlationQueryTemplate.createQuery(em, templateParameterValues);
+                                } else {
+                                    query = criteriaBuilder.getQuery();
+                                }
+                            }
+                            batch.result = loadBatch(criteriaBuilder, query, em, batch.values, batchParameters, correlationParamName);
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            } finally {
+                close();
+            }
+        }
+
+        public void close() {
+            em.close();
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class CorrelationBatch {
+
+        private final List<Object> values;
+        private List<Object> result;
+
+        public CorrelationBatch(List<Object> values) {
+            this.values = values;
+        }
+    }
 }
@@ -20,6 +20,8 @@ import com.blazebit.persistence.view.impl.CorrelationProviderFactory;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformerFactory;
 import com.blazebit.persistence.view.metamodel.ManagedViewType;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  *
  * @author Christian Beikov
@@ -41,6 +43,7 @@ public abstract class AbstractCorrelatedBatchTupleListTransformerFactory impleme
     protected final int tupleIndex;
     protected final Class<?> correlationBasisType;
     protected final Class<?> correlationBasisEntity;
+    protected final AtomicReference<CorrelationQueryTemplate> correlationQueryTemplateCache;
 
     public AbstractCorrelatedBatchTupleListTransformerFactory(Correlator correlator, ManagedViewType<?> viewRootType, ManagedViewType<?> embeddingViewType, String correlationResult, CorrelationProviderFactory correlationProviderFactory, String attributePath, String[] fetches,
                                                               boolean correlatesThis, int viewRootIndex, int embeddingViewIndex, int tupleIndex, int batchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity) {
@@ -58,6 +61,13 @@ public abstract class AbstractCorrelatedBatchTupleListTransformerFactory impleme
         this.fetches = fetches;
         this.correlationBasisType = correlationBasisType;
         this.correlationBasisEntity = correlationBasisEntity;
+        // Subview correlators create object builders for the entity view configuration of a transformation,
+        // and parameterized correlation providers might produce different queries, so we can only reuse basic correlation queries
+        if (correlator instanceof BasicCorrelator && !correlationProviderFactory.isParameterized()) {
+            this.correlationQueryTemplateCache = new AtomicReference<>();
+        } else {
+            this.correlationQueryTemplateCache = null;
+        }
     }
 
     @Override
@@ -20,13 +20,21 @@ import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.view.impl.CorrelationProviderFactory;
 import com.blazebit.persistence.view.impl.EntityViewConfiguration;
 import com.blazebit.persistence.view.impl.collection.CollectionInstantiator;
+import com.blazebit.persistence.view.impl.collection.LazyCollection;
+import com.blazebit.persistence.view.impl.collection.LazyCollectionLoader;
+import com.blazebit.persistence.view.impl.collection.LazyList;
+import com.blazebit.persistence.view.impl.collection.LazySet;
 import com.blazebit.persistence.view.impl.collection.RecordingCollection;
 import com.blazebit.persistence.view.metamodel.ManagedViewType;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  *
@@ -38,15 +46,48 @@ public class CorrelatedCollectionBatchTupleListTransformer extends AbstractCorre
     private final CollectionInstantiator collectionInstantiator;
     private final boolean filterNulls;
     private final boolean recording;
+    private final Class<?> lazyCollectionType;
 
     public CorrelatedCollectionBatchTupleListTransformer(ExpressionFactory ef, Correlator correlator, ManagedViewType<?> viewRootType, ManagedViewType<?> embeddingViewType, String correlationResult, CorrelationProviderFactory correlationProviderFactory, String attributePath, String[] fetches, boolean correlatesThis,
-                                                         int viewRootIndex, int embeddingViewIndex, int tupleIndex, int batchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity, EntityViewConfiguration entityViewConfiguration, CollectionInstantiator collectionInstantiator, boolean filterNulls, boolean recording) {
-        super(ef, correlator, viewRootType, embeddingViewType, correlationResult, correlationProviderFactory, attributePath, fetches, correlatesThis, viewRootIndex, embeddingViewIndex, tupleIndex, batchSize, correlationBasisType, correlationBasisEntity, entityViewConfiguration);
+                                                         int viewRootIndex, int embeddingViewIndex, int tupleIndex, int batchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity, EntityViewConfiguration entityViewConfiguration, CollectionInstantiator collectionInstantiator, boolean filterNulls, boolean recording, Class<?> lazyCollectionType,
+                                                         AtomicReference<CorrelationQueryTemplate> correlationQueryTemplateCache) {
+        super(ef, correlator, viewRootType, embeddingViewType, correlationResult, correlationProviderFactory, attributePath, fetches, correlatesThis, viewRootIndex, embeddingViewIndex, tupleIndex, batchSize, correlationBasisType, correlationBasisEntity, entityViewConfiguration, correlationQueryTemplateCache);
         this.collectionInstantiator = collectionInstantiator;
         this.filterNulls = filterNulls;
         this.recording = recording;
+        this.lazyCollectionType = lazyCollectionType;
     }
 
+    @Override
+    public List<Object[]> transform(List<Object[]> tuples) {
+        if (lazyCollectionType == null) {
+            return super.transform(tuples);
+        }
+
+        // The correlated collections are loaded in batches for all tuples on first access of any of the lazy collections
+        // We copy the tuples so that the batch loading sees the tuple state of now and can place the results at the usual index
+        List<Object[]> loadTuples = new ArrayList<>(tuples.size());
+        LazyCollectionLoader loader = new BatchLoader(loadTuples);
+        for (Object[] tuple : tuples) {
+            Object[] loadTuple = tuple.clone();
+            loadTuples.add(loadTuple);
+            tuple[startIndex] = createLazyCollection(loader, loadTuple);
+        }
+
+        return tuples;
+    }
+
+    private Collection<Object> createLazyCollection(LazyCollectionLoader loader, Object[] loadTuple) {
+        // The correlated values only depend on these tuple elements
+        Object sourceKey = Arrays.asList(loadTuple[viewRootIndex], loadTuple[embeddingViewIndex], loadTuple[startIndex]);
+        if (lazyCollectionType == List.class) {
+            return new LazyList<Object>(loader, loadTuple, startIndex, sourceKey);
+        } else if (lazyCollectionType == Set.class) {
+            return new LazySet<Object>(loader, loadTuple, startIndex, sourceKey);
+        } else {
+            return new LazyCollection<Collection<Object>, Object>(loader, loadTuple, startIndex, sourceKey);
+        }
+    }
 
     @Override
     protected void populateResult(Map<Object, TuplePromise> correlationValues, Object defaultKey, List<Object> list) {
@@ -100,4 +141,32 @@ public class CorrelatedCollectionBatchTupleListTransformer extends AbstractCorre
     protected CollectionInstantiator getCollectionInstantiator() {
         return collectionInstantiator;
     }
+
+    /**
+     * Loads the correlated collections for all tuples of a query once.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private final class BatchLoader implements LazyCollectionLoader {
+
+        private List<Object[]> tuples;
+
+        public BatchLoader(List<Object[]> tuples) {
+            this.tuples = tuples;
+        }
+
+        @Override
+        public synchronized void load() {
+            if (tuples != null) {
+                CorrelatedCollectionBatchTupleListTransformer.super.transform(tuples);
+                tuples = null;
+            }
+        }
+
+        @Override
+        public synchronized boolean isLoaded() {
+            return tuples == null;
+        }
+    }
 }
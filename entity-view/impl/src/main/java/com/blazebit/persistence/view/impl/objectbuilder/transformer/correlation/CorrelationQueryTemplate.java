@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation;
+
+import com.blazebit.persistence.FullQueryBuilder;
+import com.blazebit.persistence.QueryTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The captured correlation query of a correlated attribute that is reused across transformations,
+ * so that a transformation only has to bind parameters rather than building and rendering the correlation query.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public final class CorrelationQueryTemplate {
+
+    /**
+     * Marker for attributes for which the correlation query can't be represented as query template.
+     */
+    static final CorrelationQueryTemplate UNSUPPORTED = new CorrelationQueryTemplate(null, null, null);
+
+    private final QueryTemplate<?> queryTemplate;
+    private final String correlationParamName;
+    private final String[] parameterNames;
+
+    public CorrelationQueryTemplate(QueryTemplate<?> queryTemplate, String correlationParamName, String[] parameterNames) {
+        this.queryTemplate = queryTemplate;
+        this.correlationParamName = correlationParamName;
+        this.parameterNames = parameterNames;
+    }
+
+    public String getCorrelationParamName() {
+        return correlationParamName;
+    }
+
+    /**
+     * Returns whether the query template can be used for the given query builder and optional parameters.
+     * This is not the case when a parameter clashes with the correlation parameter name.
+     *
+     * @param mainBuilder The main query builder
+     * @param optionalParameters The optional parameters
+     * @return Whether the query template can be used
+     */
+    public boolean isApplicable(FullQueryBuilder<?, ?> mainBuilder, Map<String, Object> optionalParameters) {
+        return mainBuilder.getParameter(correlationParamName) == null && !optionalParameters.containsKey(correlationParamName);
+    }
+
+    public Query createQuery(EntityManager em, FullQueryBuilder<?, ?> mainBuilder, Map<String, Object> optionalParameters) {
+        return createQuery(em, getParameterValues(mainBuilder, optionalParameters));
+    }
+
+    /**
+     * Returns the values of the parameters that are populated from the main query builder or the optional parameters,
+     * so that queries can be created without accessing the main query builder.
+     *
+     * @param mainBuilder The main query builder
+     * @param optionalParameters The optional parameters
+     * @return The parameter values
+     */
+    public Map<String, Object> getParameterValues(FullQueryBuilder<?, ?> mainBuilder, Map<String, Object> optionalParameters) {
+        Map<String, Object> parameterValues = new HashMap<>(parameterNames.length);
+        // Same parameter population as for the correlation query builder
+        for (int i = 0; i < parameterNames.length; i++) {
+            String parameterName = parameterNames[i];
+            if (mainBuilder.getParameter(parameterName) != null) {
+                parameterValues.put(parameterName, mainBuilder.getParameterValue(parameterName));
+            } else if (optionalParameters.containsKey(parameterName)) {
+                parameterValues.put(parameterName, optionalParameters.get(parameterName));
+            }
+        }
+        return parameterValues;
+    }
+
+    public Query createQuery(EntityManager em, Map<String, Object> parameterValues) {
+        Query query = queryTemplate.createQuery(em);
+        for (Map.Entry<String, Object> entry : parameterValues.entrySet()) {
+            query.setParameter(entry.getKey(), entry.getValue());
+        }
+        return query;
+    }
+}
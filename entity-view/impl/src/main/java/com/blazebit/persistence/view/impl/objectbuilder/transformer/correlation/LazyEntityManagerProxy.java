@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * An entity manager that only creates the actual entity manager on first use,
+ * so that the connection is acquired by the thread that uses the entity manager rather than the one that creates it.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+final class LazyEntityManagerProxy implements InvocationHandler {
+
+    private static final Class<?>[] PROXY_INTERFACES = new Class[] { EntityManager.class };
+
+    private final EntityManagerFactory entityManagerFactory;
+    private EntityManager delegate;
+    private boolean closed;
+
+    private LazyEntityManagerProxy(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public static EntityManager generateProxy(EntityManagerFactory entityManagerFactory) {
+        return (EntityManager) Proxy.newProxyInstance(LazyEntityManagerProxy.class.getClassLoader(), PROXY_INTERFACES, new LazyEntityManagerProxy(entityManagerFactory));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        //CHECKSTYLE:OFF: MissingSwitchDefault
+        switch (method.getName()) {
+            case "toString":
+                return this.toString();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "isOpen":
+                if (delegate == null) {
+                    return !closed;
+                }
+                break;
+            case "close":
+                // Closing an entity manager that was never used must not create one
+                if (delegate == null) {
+                    closed = true;
+                    return null;
+                }
+                break;
+        }
+        //CHECKSTYLE:ON: MissingSwitchDefault
+
+        if (delegate == null) {
+            if (closed) {
+                throw new IllegalStateException("Entity manager is closed!");
+            }
+            delegate = entityManagerFactory.createEntityManager();
+        }
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
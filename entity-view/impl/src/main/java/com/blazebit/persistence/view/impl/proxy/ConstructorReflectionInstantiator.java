@@ -32,6 +32,7 @@ import java.util.List;
 public class ConstructorReflectionInstantiator<T> extends AbstractReflectionInstantiator<T> {
 
     private final Constructor<T> constructor;
+    private final InstantiationInvoker<T> invoker;
 
     public ConstructorReflectionInstantiator(MappingConstructor<T> mappingConstructor, ProxyFactory proxyFactory, ManagedViewTypeImplementor<T> viewType, ManagedViewTypeImplementor<T> viewTypeBase, Class<?>[] parameterTypes,
                                              EntityViewManager entityViewManager, List<MutableBasicUserTypeEntry> mutableBasicUserTypes, List<TypeConverterEntry> typeConverterEntries) {
@@ -52,13 +53,14 @@ public class ConstructorReflectionInstantiator<T> extends AbstractReflectionInst
         }
 
         this.constructor = javaConstructor;
+        this.invoker = proxyFactory.getInvoker(javaConstructor);
     }
 
     @Override
     public T newInstance(Object[] tuple) {
         try {
             prepareTuple(tuple);
-            T instance = constructor.newInstance(tuple);
+            T instance = invoker.newInstance(tuple);
             finalizeInstance(instance);
             return instance;
         } catch (Exception ex) {
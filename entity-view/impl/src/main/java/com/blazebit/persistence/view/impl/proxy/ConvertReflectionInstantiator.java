@@ -33,6 +33,7 @@ public class ConvertReflectionInstantiator<T> implements ObjectInstantiator<T> {
 
     private final boolean resetInitialState;
     private final Constructor<T> constructor;
+    private final InstantiationInvoker<T> invoker;
     private final AbstractReflectionInstantiator.TypeConverterEntry[] typeConverterEntries;
 
     public ConvertReflectionInstantiator(ProxyFactory proxyFactory, ManagedViewType<T> viewType, Class<?>[] parameterTypes, boolean resetInitialState, EntityViewManager entityViewManager) {
@@ -48,6 +49,7 @@ public class ConvertReflectionInstantiator<T> implements ObjectInstantiator<T> {
 
         this.resetInitialState = resetInitialState && DirtyStateTrackable.class.isAssignableFrom(proxyClazz);
         this.constructor = javaConstructor;
+        this.invoker = proxyFactory.getInvoker(javaConstructor);
         this.typeConverterEntries = AbstractReflectionInstantiator.withPrimitiveConverters(Collections.<AbstractReflectionInstantiator.TypeConverterEntry>emptyList(), parameterTypes);
     }
 
@@ -60,7 +62,7 @@ public class ConvertReflectionInstantiator<T> implements ObjectInstantiator<T> {
                 AbstractReflectionInstantiator.TypeConverterEntry entry = typeConverterEntries[i];
                 tuple[entry.index] = entry.typeConverter.convertToViewType(tuple[entry.index]);
             }
-            T t = constructor.newInstance(tuple);
+            T t = invoker.newInstance(tuple);
             if (resetInitialState) {
                 Object[] initialState = ((DirtyStateTrackable) t).$$_getInitialState();
                 for (int i = 0; i < initialState.length; i++) {
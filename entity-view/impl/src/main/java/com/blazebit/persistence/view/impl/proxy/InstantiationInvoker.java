@@ -0,0 +1,30 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.proxy;
+
+/**
+ * Invokes a constructor or static factory method of a proxy class.
+ * Implementations are generated by the {@link ProxyFactory} so that the invocation doesn't require reflection.
+ *
+ * @param <T> The type of the created object
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public interface InstantiationInvoker<T> {
+
+    public T newInstance(Object[] args) throws Exception;
+}
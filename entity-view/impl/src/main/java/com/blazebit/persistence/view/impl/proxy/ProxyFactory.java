@@ -59,6 +59,7 @@ import javassist.CtClass;
 import javassist.CtConstructor;
 import javassist.CtField;
 import javassist.CtMethod;
+import javassist.CtNewConstructor;
 import javassist.Modifier;
 import javassist.NotFoundException;
 import javassist.bytecode.AccessFlag;
@@ -83,7 +84,9 @@ import javassist.compiler.ast.Stmnt;
 import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.IdentifiableType;
 import java.io.IOException;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -95,10 +98,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -111,13 +116,18 @@ public class ProxyFactory {
     private static final Logger LOG = Logger.getLogger(ProxyFactory.class.getName());
     // This has to be static since runtime generated correlation providers can't be matched in a later run, so we always create a new one with a unique name
     private static final ConcurrentMap<Class<?>, AtomicInteger> CORRELATION_PROVIDER_CLASS_COUNT = new ConcurrentHashMap<>();
+    // Same reasoning as for correlation providers, invokers of different proxy factories for the same proxy class need unique names
+    private static final ConcurrentMap<Class<?>, AtomicInteger> INVOKER_CLASS_COUNT = new ConcurrentHashMap<>();
     private static final Path DEBUG_DUMP_DIRECTORY;
     private final ConcurrentMap<ProxyClassKey, Class<?>> proxyClasses = new ConcurrentHashMap<>();
     private final ConcurrentMap<ProxyClassKey, Class<?>> unsafeProxyClasses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Member, InstantiationInvoker<?>> invokers = new ConcurrentHashMap<>();
     private final Object proxyLock = new Object();
     private final ClassPool pool;
     private final boolean unsafeDisabled;
     private final PackageOpener packageOpener;
+    private final Path dumpDirectory;
+    private final boolean pregenerated;
 
     static {
         String property = System.getProperty("entityview.debugDumpDirectory");
@@ -166,9 +176,15 @@ public class ProxyFactory {
     }
 
     public ProxyFactory(boolean unsafeDisabled, PackageOpener packageOpener) {
+        this(unsafeDisabled, packageOpener, null, false);
+    }
+
+    public ProxyFactory(boolean unsafeDisabled, PackageOpener packageOpener, Path dumpDirectory, boolean pregenerated) {
         this.pool = new ClassPool(ClassPool.getDefault());
         this.unsafeDisabled = unsafeDisabled;
         this.packageOpener = packageOpener;
+        this.dumpDirectory = dumpDirectory == null ? DEBUG_DUMP_DIRECTORY : dumpDirectory;
+        this.pregenerated = pregenerated;
     }
 
     public <T> Class<? extends T> getProxy(EntityViewManager entityViewManager, ManagedViewTypeImplementor<T> viewType, ManagedViewTypeImplementor<? super T> inheritanceBase) {
@@ -235,6 +251,139 @@ public class ProxyFactory {
         }
     }
     
+    @SuppressWarnings("unchecked")
+    public <T> InstantiationInvoker<T> getInvoker(Constructor<T> constructor) {
+        return (InstantiationInvoker<T>) getInvoker(constructor, constructor.getDeclaringClass(), constructor.getParameterTypes());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> InstantiationInvoker<T> getInvoker(Method factoryMethod) {
+        return (InstantiationInvoker<T>) getInvoker(factoryMethod, factoryMethod.getDeclaringClass(), factoryMethod.getParameterTypes());
+    }
+
+    private InstantiationInvoker<?> getInvoker(Member member, Class<?> proxyClass, Class<?>[] parameterTypes) {
+        InstantiationInvoker<?> invoker = invokers.get(member);
+        if (invoker == null) {
+            invoker = createInvoker(member, proxyClass, parameterTypes);
+            InstantiationInvoker<?> oldInvoker = invokers.putIfAbsent(member, invoker);
+            if (oldInvoker != null) {
+                invoker = oldInvoker;
+            }
+        }
+
+        return invoker;
+    }
+
+    private InstantiationInvoker<?> createInvoker(Member member, Class<?> proxyClass, Class<?>[] parameterTypes) {
+        AtomicInteger counter = INVOKER_CLASS_COUNT.get(proxyClass);
+        if (counter == null) {
+            counter = new AtomicInteger(0);
+            AtomicInteger oldCounter = INVOKER_CLASS_COUNT.putIfAbsent(proxyClass, counter);
+            if (oldCounter != null) {
+                counter = oldCounter;
+            }
+        }
+        String invokerClassName = proxyClass.getName() + "_$$_invoker_" + counter.getAndIncrement();
+        String proxyClassName = proxyClass.getName();
+
+        // The class pool is not thread safe, so we have to use the same lock as for proxy class generation
+        synchronized (proxyLock) {
+            ClassPath classPath = new ClassClassPath(InstantiationInvoker.class);
+            pool.insertClassPath(classPath);
+
+            try {
+                CtClass cc = pool.makeClass(invokerClassName);
+                cc.addInterface(pool.get(InstantiationInvoker.class.getName()));
+                cc.addConstructor(CtNewConstructor.defaultConstructor(cc));
+
+                ConstPool constPool = cc.getClassFile().getConstPool();
+                StringBuilder descriptor = new StringBuilder();
+                descriptor.append('(');
+                int stackSize = 2;
+                for (Class<?> parameterType : parameterTypes) {
+                    descriptor.append(getDescriptor(parameterType));
+                    stackSize += parameterType == long.class || parameterType == double.class ? 2 : 1;
+                }
+                descriptor.append(')');
+                // Account for the array reference and index that are on the stack while loading an argument
+                Bytecode bytecode = new Bytecode(constPool, stackSize + 2, 2);
+
+                if (member instanceof Constructor<?>) {
+                    bytecode.addNew(proxyClassName);
+                    bytecode.addOpcode(Opcode.DUP);
+                }
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    bytecode.addAload(1);
+                    bytecode.addIconst(i);
+                    bytecode.addOpcode(Opcode.AALOAD);
+                    Class<?> parameterType = parameterTypes[i];
+                    if (parameterType.isPrimitive()) {
+                        Class<?> wrapperType = ReflectionUtils.getObjectClassOfPrimitve(parameterType);
+                        bytecode.addCheckcast(wrapperType.getName());
+                        bytecode.addInvokevirtual(wrapperType.getName(), parameterType.getName() + "Value", "()" + getDescriptor(parameterType));
+                    } else if (parameterType != Object.class) {
+                        bytecode.addCheckcast(parameterType.getName());
+                    }
+                }
+                if (member instanceof Constructor<?>) {
+                    bytecode.addInvokespecial(proxyClassName, "<init>", descriptor.append('V').toString());
+                } else {
+                    Method method = (Method) member;
+                    bytecode.addInvokestatic(proxyClassName, method.getName(), descriptor.append(getDescriptor(method.getReturnType())).toString());
+                }
+                bytecode.addOpcode(Opcode.ARETURN);
+
+                CtClass objectCc = pool.get(Object.class.getName());
+                CtMethod method = new CtMethod(objectCc, "newInstance", new CtClass[]{ pool.get(Object[].class.getName()) }, cc);
+                method.setModifiers(Modifier.PUBLIC);
+                method.getMethodInfo().setCodeAttribute(bytecode.toCodeAttribute());
+                cc.addMethod(method);
+
+                packageOpener.openPackageIfNeeded(proxyClass, proxyClass.getPackage().getName(), ProxyFactory.class);
+                if (dumpDirectory != null) {
+                    cc.writeFile(dumpDirectory.toString());
+                }
+
+                return (InstantiationInvoker<?>) cc.toClass(proxyClass.getClassLoader(), null).newInstance();
+            } catch (Exception | LinkageError ex) {
+                LOG.log(Level.WARNING, "Could not generate an invoker for '" + member + "', falling back to reflection", ex);
+                return createReflectionInvoker(member);
+            } finally {
+                pool.removeClassPath(classPath);
+            }
+        }
+    }
+
+    private static InstantiationInvoker<?> createReflectionInvoker(Member member) {
+        if (member instanceof Constructor<?>) {
+            final Constructor<?> constructor = (Constructor<?>) member;
+            return new InstantiationInvoker<Object>() {
+                @Override
+                public Object newInstance(Object[] args) throws Exception {
+                    return constructor.newInstance(args);
+                }
+            };
+        } else {
+            final Method method = (Method) member;
+            return new InstantiationInvoker<Object>() {
+                @Override
+                public Object newInstance(Object[] args) throws Exception {
+                    return method.invoke(null, args);
+                }
+            };
+        }
+    }
+
+    private static String getDescriptor(Class<?> type) {
+        if (type.isArray()) {
+            return type.getName().replace('.', '/');
+        } else if (type.isPrimitive()) {
+            return Descriptor.of(type.getName());
+        } else {
+            return "L" + type.getName().replace('.', '/') + ";";
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> Class<? extends T> getProxy(EntityViewManager entityViewManager, ManagedViewTypeImplementor<T> viewType, ManagedViewTypeImplementor<? super T> inheritanceBase, boolean unsafe) {
         Class<T> clazz = viewType.getJavaType();
@@ -281,6 +430,15 @@ public class ProxyFactory {
         }
 
         String proxyClassName = baseName + "_$$_javassist_entityview_" + suffix;
+        int viewModelHash = getViewModelHash(managedViewType, inheritanceBase, subtypeIndex);
+        // Unsafe proxies can't be loaded through the class loader as they would fail bytecode verification
+        if (pregenerated && !unsafe) {
+            Class<? extends T> pregeneratedClass = loadPregeneratedClass(entityViewManager, clazz, proxyClassName, viewModelHash);
+            if (pregeneratedClass != null) {
+                return pregeneratedClass;
+            }
+        }
+
         CtClass cc = pool.makeClass(proxyClassName);
         CtClass superCc;
 
@@ -313,6 +471,10 @@ public class ProxyFactory {
             evmField.setModifiers(Modifier.PUBLIC | Modifier.STATIC | Modifier.VOLATILE);
             cc.addField(evmField);
 
+            CtField viewModelHashField = new CtField(CtClass.intType, "$$_viewModelHash", cc);
+            viewModelHashField.setModifiers(Modifier.PUBLIC | Modifier.STATIC | Modifier.FINAL);
+            cc.addField(viewModelHashField, CtField.Initializer.constant(viewModelHash));
+
             if (managedViewType.isUpdatable() || managedViewType.isCreatable()) {
                 if (true || managedViewType.getFlushMode() == FlushMode.LAZY || managedViewType.getFlushMode() == FlushMode.PARTIAL) {
                     cc.addInterface(pool.get(DirtyStateTrackable.class.getName()));
@@ -501,13 +663,103 @@ public class ProxyFactory {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> Class<? extends T> loadPregeneratedClass(EntityViewManager entityViewManager, Class<?> clazz, String proxyClassName, int viewModelHash) {
+        Class<?> c;
+        try {
+            c = Class.forName(proxyClassName, false, clazz.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            LOG.fine("No pre-generated proxy class found for entity view type '" + clazz.getName() + "', generating it at runtime");
+            return null;
+        }
+
+        // The class is already loaded at this point, so we can't generate a class with the same name anymore
+        if (!clazz.isAssignableFrom(c)) {
+            throw new IllegalArgumentException("The pre-generated proxy class '" + proxyClassName + "' is not a subtype of the entity view type '" + clazz.getName() + "'! Please regenerate the proxy classes for the current entity view model.");
+        }
+
+        try {
+            if (c.getField("$$_viewModelHash").getInt(null) != viewModelHash) {
+                throw new IllegalArgumentException("The pre-generated proxy class '" + proxyClassName + "' was generated for a different entity view model! Please regenerate the proxy classes for the current entity view model.");
+            }
+            c.getField("$$_evm").set(null, entityViewManager);
+        } catch (NoSuchFieldException | IllegalAccessException ex) {
+            throw new IllegalArgumentException("The pre-generated proxy class '" + proxyClassName + "' is invalid! Please regenerate the proxy classes for the current entity view model.", ex);
+        }
+
+        return (Class<? extends T>) c;
+    }
+
+    /**
+     * Computes a hash of the parts of the view model that determine the structure of a proxy class.
+     * The hash is based on {@link String#hashCode()} which is stable across JVM runs.
+     */
+    private static int getViewModelHash(ManagedViewType<?> managedViewType, ManagedViewType<?> inheritanceBase, int subtypeIndex) {
+        StringBuilder sb = new StringBuilder();
+        appendViewModel(sb, managedViewType);
+        if (inheritanceBase != null) {
+            sb.append("|base=").append(subtypeIndex);
+            appendViewModel(sb, inheritanceBase);
+            Map<String, ManagedViewType<?>> subtypes = new TreeMap<>();
+            for (ManagedViewType<?> subtype : inheritanceBase.getInheritanceSubtypes()) {
+                subtypes.put(subtype.getJavaType().getName(), subtype);
+            }
+            for (ManagedViewType<?> subtype : subtypes.values()) {
+                appendViewModel(sb, subtype);
+            }
+        }
+        return sb.toString().hashCode();
+    }
+
+    private static void appendViewModel(StringBuilder sb, ManagedViewType<?> managedViewType) {
+        sb.append('|').append(managedViewType.getJavaType().getName())
+                .append(':').append(managedViewType.getEntityClass().getName())
+                .append(':').append(managedViewType.isUpdatable())
+                .append(':').append(managedViewType.isCreatable());
+        if (managedViewType.getPostCreateMethod() != null) {
+            sb.append(":postCreate=").append(managedViewType.getPostCreateMethod().getName());
+        }
+        if (managedViewType instanceof ViewType<?>) {
+            ViewType<?> viewType = (ViewType<?>) managedViewType;
+            sb.append(":id=").append(viewType.getIdAttribute().getName());
+            if (viewType.getVersionAttribute() != null) {
+                sb.append(":version=").append(viewType.getVersionAttribute().getName());
+            }
+        }
+
+        Map<String, MethodAttribute<?, ?>> attributes = new TreeMap<>();
+        for (MethodAttribute<?, ?> attribute : managedViewType.getAttributes()) {
+            attributes.put(attribute.getName(), attribute);
+        }
+        for (MethodAttribute<?, ?> attribute : attributes.values()) {
+            sb.append("|attribute=").append(attribute.getName())
+                    .append(':').append(attribute.getJavaType().getName())
+                    .append(':').append(attribute.getConvertedJavaType().getName())
+                    .append(':').append(attribute.getMappingType())
+                    .append(':').append(attribute.isUpdatable())
+                    .append(':').append(attribute.isMutable())
+                    .append(':').append(attribute.isOptimisticLockProtected());
+        }
+
+        Map<String, MappingConstructor<?>> constructors = new TreeMap<>();
+        for (MappingConstructor<?> constructor : managedViewType.getConstructors()) {
+            constructors.put(constructor.getName(), constructor);
+        }
+        for (MappingConstructor<?> constructor : constructors.values()) {
+            sb.append("|constructor=").append(constructor.getName());
+            for (ParameterAttribute<?, ?> parameterAttribute : constructor.getParameterAttributes()) {
+                sb.append(':').append(parameterAttribute.getJavaType().getName());
+            }
+        }
+    }
+
     private <T> Class<? extends T> defineOrGetClass(EntityViewManager entityViewManager, boolean unsafe, Class<?> clazz, String proxyClassName, CtClass cc) throws IOException, IllegalAccessException, NoSuchFieldException, CannotCompileException {
         try {
             // Ask the package opener to allow deep access, otherwise defining the class will fail
             packageOpener.openPackageIfNeeded(clazz, clazz.getPackage().getName(), ProxyFactory.class);
 
-            if (DEBUG_DUMP_DIRECTORY != null) {
-                cc.writeFile(DEBUG_DUMP_DIRECTORY.toString());
+            if (dumpDirectory != null) {
+                cc.writeFile(dumpDirectory.toString());
             }
 
             Class<? extends T> c;
@@ -32,6 +32,7 @@ import java.util.List;
 public class StaticFactoryReflectionInstantiator<T> extends AbstractReflectionInstantiator<T> {
 
     private final Method factoryMethod;
+    private final InstantiationInvoker<T> invoker;
 
     public StaticFactoryReflectionInstantiator(MappingConstructor<T> mappingConstructor, ProxyFactory proxyFactory, ManagedViewTypeImplementor<T> viewType, ManagedViewTypeImplementor<T> viewTypeBase, int inheritanceConfigurationIndex, Class<?>[] parameterTypes,
                                                EntityViewManager entityViewManager, List<MutableBasicUserTypeEntry> mutableBasicUserTypes, List<TypeConverterEntry> typeConverterEntries) {
@@ -56,14 +57,14 @@ public class StaticFactoryReflectionInstantiator<T> extends AbstractReflectionIn
         }
 
         this.factoryMethod = factoryMethod;
+        this.invoker = proxyFactory.getInvoker(factoryMethod);
     }
 
     @Override
     public T newInstance(Object[] tuple) {
         try {
             prepareTuple(tuple);
-            @SuppressWarnings("unchecked")
-            T instance = (T) factoryMethod.invoke(null, tuple);
+            T instance = invoker.newInstance(tuple);
             finalizeInstance(instance);
             return instance;
         } catch (Exception ex) {
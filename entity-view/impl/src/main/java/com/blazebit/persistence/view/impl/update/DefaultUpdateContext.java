@@ -42,14 +42,20 @@ public class DefaultUpdateContext implements UpdateContext {
     private final boolean forceFull;
     private final TransactionSynchronizationStrategy synchronizationStrategy;
     private final InitialStateResetter initialStateResetter;
+    private final UpdateQueryBatcher updateQueryBatcher;
     private Map<Object, Object> removedObjects;
     private Set<EntityKey> versionChecked;
     private List<PostFlushDeleter> orphanRemovalDeleters = new ArrayList<>();
 
     public DefaultUpdateContext(EntityViewManagerImpl evm, EntityManager em, boolean forceFull) {
+        this(evm, em, forceFull, null);
+    }
+
+    public DefaultUpdateContext(EntityViewManagerImpl evm, EntityManager em, boolean forceFull, UpdateQueryBatcher updateQueryBatcher) {
         this.evm = evm;
         this.em = em;
         this.forceFull = forceFull;
+        this.updateQueryBatcher = updateQueryBatcher;
         this.synchronizationStrategy = TransactionHelper.getSynchronizationStrategy(em);
 
         if (!synchronizationStrategy.isActive()) {
@@ -123,6 +129,11 @@ public class DefaultUpdateContext implements UpdateContext {
         }
     }
 
+    @Override
+    public UpdateQueryBatcher getUpdateQueryBatcher() {
+        return updateQueryBatcher;
+    }
+
     /**
      * @author Christian Beikov
      * @since 1.2.0
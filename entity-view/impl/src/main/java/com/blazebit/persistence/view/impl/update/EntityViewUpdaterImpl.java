@@ -69,6 +69,7 @@ import com.blazebit.persistence.view.impl.update.flush.FetchGraphNode;
 import com.blazebit.persistence.view.impl.update.flush.IndexedListAttributeFlusher;
 import com.blazebit.persistence.view.impl.update.flush.InverseFlusher;
 import com.blazebit.persistence.view.impl.update.flush.MapAttributeFlusher;
+import com.blazebit.persistence.view.impl.update.flush.PostFlushDeleter;
 import com.blazebit.persistence.view.impl.update.flush.SimpleMapViewToEntityMapper;
 import com.blazebit.persistence.view.impl.update.flush.SubviewAttributeFlusher;
 import com.blazebit.persistence.view.impl.update.flush.TypeDescriptor;
@@ -615,35 +616,35 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
 
     @Override
     public Query createUpdateQuery(UpdateContext context, MutableStateTrackable updatableProxy, DirtyAttributeFlusher<?, ?, ?> flusher) {
-        String queryString;
-        boolean needsOptimisticLocking;
+        return createUpdateQuery(context, updatableProxy, flusher, getUpdateQueryString(context, flusher));
+    }
+
+    private String getUpdateQueryString(UpdateContext context, DirtyAttributeFlusher<?, ?, ?> flusher) {
         if (flusher == fullFlusher) {
-            queryString = fullUpdateQueryString;
-            needsOptimisticLocking = fullFlusher.hasVersionFlusher();
-        } else {
-            StringBuilder sb = new StringBuilder(updatePrefixString.length() + updatePostfixString.length() + 250);
-            sb.append(updatePrefixString);
-            int initialLength = sb.length();
-            flusher.appendUpdateQueryFragment(context, sb, null, null, ", ");
-            if (sb.length() == initialLength) {
-                // If we still need optimistic locking, we just append a flush for the version increment
-                if (needsOptimisticLocking = fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected()) {
-                    versionFlusher.appendUpdateQueryFragment(context, sb, null, null, ", ");
-                    sb.append(updatePostfixString);
-                    queryString = sb.toString();
-                } else {
-                    queryString = null;
-                    needsOptimisticLocking = false;
-                }
+            return fullUpdateQueryString;
+        }
+
+        StringBuilder sb = new StringBuilder(updatePrefixString.length() + updatePostfixString.length() + 250);
+        sb.append(updatePrefixString);
+        int initialLength = sb.length();
+        flusher.appendUpdateQueryFragment(context, sb, null, null, ", ");
+        if (sb.length() == initialLength) {
+            // If we still need optimistic locking, we just append a flush for the version increment
+            if (fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected()) {
+                versionFlusher.appendUpdateQueryFragment(context, sb, null, null, ", ");
             } else {
-                sb.append(updatePostfixString);
-                queryString = sb.toString();
-                needsOptimisticLocking = fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected();
+                return null;
             }
         }
 
+        sb.append(updatePostfixString);
+        return sb.toString();
+    }
+
+    private Query createUpdateQuery(UpdateContext context, MutableStateTrackable updatableProxy, DirtyAttributeFlusher<?, ?, ?> flusher, String queryString) {
         Query query = null;
         if (queryString != null) {
+            boolean needsOptimisticLocking = fullFlusher.hasVersionFlusher() && (flusher == fullFlusher || flusher.isOptimisticLockProtected());
             query = context.getEntityManager().createQuery(queryString);
             if (idFlusher != null) {
                 idFlusher.flushQuery(context, WHERE_CLAUSE_PREFIX, query, updatableProxy, updatableProxy, updatableProxy.$$_getId(), null);
@@ -674,16 +675,27 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
                 return flusher.flushEntity(context, entity, updatableProxy, updatableProxy, updatableProxy, null);
             } else {
                 int orphanRemovalStartIndex = context.getOrphanRemovalDeleters().size();
-                Query query = createUpdateQuery(context, updatableProxy, flusher);
+                String queryString = getUpdateQueryString(context, flusher);
+                Query query = createUpdateQuery(context, updatableProxy, flusher, queryString);
                 flusher.flushQuery(context, null, query, updatableProxy, updatableProxy, updatableProxy, null);
-                if (query != null) {
-                    int updated = query.executeUpdate();
+                UpdateQueryBatcher updateQueryBatcher = context.getUpdateQueryBatcher();
+                if (updateQueryBatcher == null) {
+                    if (query != null) {
+                        int updated = query.executeUpdate();
 
-                    if (updated != 1) {
-                        throw new OptimisticLockException(entity, updatableProxy);
+                        if (updated != 1) {
+                            throw new OptimisticLockException(entity, updatableProxy);
+                        }
+                    }
+                    context.removeOrphans(orphanRemovalStartIndex);
+                } else {
+                    // The update count is verified when the batch is executed and orphans are removed afterwards
+                    if (query != null) {
+                        updateQueryBatcher.add(context, queryString, query, entity, updatableProxy, true);
                     }
+                    List<PostFlushDeleter> orphanRemovalDeleters = context.getOrphanRemovalDeleters();
+                    updateQueryBatcher.addOrphanRemovalDeleters(orphanRemovalDeleters.subList(orphanRemovalStartIndex, orphanRemovalDeleters.size()));
                 }
-                context.removeOrphans(orphanRemovalStartIndex);
                 return true;
             }
         } finally {
@@ -91,4 +91,9 @@ public class SimpleUpdateContext implements UpdateContext {
     public void removeOrphans(int orphanRemovalStartIndex) {
     }
 
+    @Override
+    public UpdateQueryBatcher getUpdateQueryBatcher() {
+        return null;
+    }
+
 }
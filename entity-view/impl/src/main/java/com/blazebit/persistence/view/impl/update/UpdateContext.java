@@ -51,4 +51,6 @@ public interface UpdateContext {
     public List<PostFlushDeleter> getOrphanRemovalDeleters();
 
     public void removeOrphans(int orphanRemovalStartIndex);
+
+    public UpdateQueryBatcher getUpdateQueryBatcher();
 }
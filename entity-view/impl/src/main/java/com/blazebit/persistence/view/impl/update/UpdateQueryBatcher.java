@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.update;
+
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.view.OptimisticLockException;
+import com.blazebit.persistence.view.impl.update.flush.PostFlushDeleter;
+
+import javax.persistence.Query;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects modification queries of entity views and executes consecutive queries with the same query string as JDBC batch.
+ * Since the query string of an update query is determined by the dirty attributes of an entity view,
+ * consecutive entity views of the same type with the same dirty state end up in the same batch.
+ * Queries are never reordered, so a pending batch is executed as soon as a query with a different query string is added,
+ * which is necessary to retain the order of e.g. deletes of children and parents.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class UpdateQueryBatcher {
+
+    private final ExtendedQuerySupport extendedQuerySupport;
+    private final int batchSize;
+    private final List<PostFlushDeleter> orphanRemovalDeleters = new ArrayList<>();
+    private Batch batch;
+    private String batchQueryString;
+
+    public UpdateQueryBatcher(ExtendedQuerySupport extendedQuerySupport, int batchSize) {
+        this.extendedQuerySupport = extendedQuerySupport;
+        this.batchSize = batchSize;
+    }
+
+    public void add(UpdateContext context, String queryString, Query query, Object entity, Object view, boolean verifyUpdateCount) {
+        if (batch != null && !queryString.equals(batchQueryString)) {
+            flush(context);
+        }
+        if (batch == null) {
+            batch = new Batch(verifyUpdateCount);
+            batchQueryString = queryString;
+        }
+
+        batch.add(query, entity, view);
+        if (batch.size() >= batchSize) {
+            flush(context);
+        }
+    }
+
+    public void addOrphanRemovalDeleters(List<PostFlushDeleter> deleters) {
+        orphanRemovalDeleters.addAll(deleters);
+    }
+
+    /**
+     * Executes the pending batch so that a query that is executed directly runs after the queries that were added before.
+     *
+     * @param context The update context
+     */
+    public void flush(UpdateContext context) {
+        if (batch != null) {
+            Batch pendingBatch = batch;
+            batch = null;
+            batchQueryString = null;
+            pendingBatch.execute(context);
+        }
+    }
+
+    public void execute(UpdateContext context) {
+        flush(context);
+
+        // Orphans can only be removed after the queries that removed the references to them were executed
+        for (PostFlushDeleter orphanRemovalDeleter : orphanRemovalDeleters) {
+            orphanRemovalDeleter.execute(context);
+        }
+        orphanRemovalDeleters.clear();
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private final class Batch {
+
+        private final boolean verifyUpdateCount;
+        private final List<Query> queries = new ArrayList<>();
+        private final List<Object> entities = new ArrayList<>();
+        private final List<Object> views = new ArrayList<>();
+
+        public Batch(boolean verifyUpdateCount) {
+            this.verifyUpdateCount = verifyUpdateCount;
+        }
+
+        public void add(Query query, Object entity, Object view) {
+            queries.add(query);
+            entities.add(entity);
+            views.add(view);
+        }
+
+        public int size() {
+            return queries.size();
+        }
+
+        public void execute(UpdateContext context) {
+            if (queries.isEmpty()) {
+                return;
+            }
+
+            int[] updateCounts;
+            if (extendedQuerySupport != null && queries.size() > 1) {
+                updateCounts = extendedQuerySupport.executeBatchUpdate(context.getEntityManager(), queries);
+            } else {
+                updateCounts = new int[queries.size()];
+                for (int i = 0; i < updateCounts.length; i++) {
+                    updateCounts[i] = queries.get(i).executeUpdate();
+                }
+            }
+
+            if (verifyUpdateCount) {
+                for (int i = 0; i < updateCounts.length; i++) {
+                    // Some JDBC drivers don't report update counts for batches, so we can't verify these
+                    if (updateCounts[i] != 1 && updateCounts[i] != Statement.SUCCESS_NO_INFO) {
+                        throw new OptimisticLockException(entities.get(i), views.get(i));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -34,6 +34,7 @@ import com.blazebit.persistence.view.impl.mapper.ViewMapper;
 import com.blazebit.persistence.view.impl.proxy.DirtyTracker;
 import com.blazebit.persistence.view.impl.update.EntityViewUpdaterImpl;
 import com.blazebit.persistence.view.impl.update.UpdateContext;
+import com.blazebit.persistence.view.impl.update.UpdateQueryBatcher;
 import com.blazebit.persistence.view.impl.entity.FlusherBasedEntityLoader;
 import com.blazebit.persistence.view.impl.entity.ViewToEntityMapper;
 import com.blazebit.persistence.view.impl.proxy.DirtyStateTrackable;
@@ -798,15 +799,21 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
             if (persistable && !updatableProxy.$$_hasParent() && context.addRemovedObject(value) && !updatableProxy.$$_isNew()) {
                 Object[] state = updatableProxy.$$_getMutableState();
                 List<PostFlushDeleter> postFlushDeleters = new ArrayList<>();
+                boolean hasPostRemoveFlushers = false;
 
                 for (int i = 0; i < state.length; i++) {
                     final DirtyAttributeFlusher<?, Object, Object> flusher = flushers[i];
-                    if (flusher != null && !flusher.requiresDeleteCascadeAfterRemove()) {
-                        postFlushDeleters.addAll(flusher.remove(context, entity, value, state[i]));
+                    if (flusher != null) {
+                        if (flusher.requiresDeleteCascadeAfterRemove()) {
+                            hasPostRemoveFlushers = true;
+                        } else {
+                            postFlushDeleters.addAll(flusher.remove(context, entity, value, state[i]));
+                        }
                     }
                 }
 
-                remove(context, entity, updatableProxy, updatableProxy, updatableProxy.$$_getId(), updatableProxy.$$_getVersion(), false);
+                boolean deferrable = !hasPostRemoveFlushers && postFlushDeleters.isEmpty();
+                remove(context, entity, updatableProxy, updatableProxy, updatableProxy.$$_getId(), updatableProxy.$$_getVersion(), false, deferrable);
 
                 for (PostFlushDeleter postFlushDeleter : postFlushDeleters) {
                     postFlushDeleter.execute(context);
@@ -821,7 +828,7 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
             }
         } else {
             if (context.addRemovedObject(entityView)) {
-                remove(context, entity, entityView, entityView, entityView.$$_getId(), entityView.$$_getVersion(), true);
+                remove(context, entity, entityView, entityView, entityView.$$_getId(), entityView.$$_getVersion(), true, true);
             }
         }
         return Collections.emptyList();
@@ -829,7 +836,7 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
 
     @Override
     public void remove(UpdateContext context, Object viewId) {
-        remove(context, null, null, null, viewId, null, true);
+        remove(context, null, null, null, viewId, null, true, true);
     }
 
     @Override
@@ -838,7 +845,7 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         throw new UnsupportedOperationException();
     }
 
-    private void remove(UpdateContext context, Object entity, Object ownerView, Object view, Object viewId, Object version, boolean cascadeMappedDeletes) {
+    private void remove(UpdateContext context, Object entity, Object ownerView, Object view, Object viewId, Object version, boolean cascadeMappedDeletes, boolean deferrable) {
         if (flushStrategy == FlushStrategy.ENTITY) {
             if (entity == null) {
                 entity = referenceEntityLoader.toEntity(context, viewId);
@@ -880,6 +887,12 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
                 entityId = viewId;
             }
 
+            // Statements that are executed directly must run after the statements of previously removed objects that are still pending
+            UpdateQueryBatcher updateQueryBatcher = context.getUpdateQueryBatcher();
+            if (updateQueryBatcher != null && unmappedPreRemoveCascadeDeleters.length != 0) {
+                updateQueryBatcher.flush(context);
+            }
+
             // We only need to cascade delete unmapped attributes for query flushing since entity flushing takes care of that for us
             for (int i = 0; i < unmappedPreRemoveCascadeDeleters.length; i++) {
                 unmappedPreRemoveCascadeDeleters[i].removeByOwnerId(context, entityId);
@@ -891,6 +904,9 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
                 for (int i = 0; i < flushers.length; i++) {
                     final DirtyAttributeFlusher<?, Object, Object> flusher = flushers[i];
                     if (flusher != null && !flusher.requiresDeleteCascadeAfterRemove()) {
+                        if (updateQueryBatcher != null) {
+                            updateQueryBatcher.flush(context);
+                        }
                         postFlushDeleters.addAll(flusher.removeByOwnerId(context, entityId));
                     }
                 }
@@ -916,6 +932,9 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
                 }
 
                 if (!returningAttributes.isEmpty()) {
+                    if (updateQueryBatcher != null) {
+                        updateQueryBatcher.flush(context);
+                    }
                     // If the dbms supports it, we use the returning feature to do this
                     if (context.getEntityViewManager().getDbmsDialect().supportsReturningColumns()) {
                         DeleteCriteriaBuilder<?> cb = context.getEntityViewManager().getCriteriaBuilderFactory().delete(context.getEntityManager(), entityClass);
@@ -952,18 +971,33 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
             }
 
             if (doDelete) {
+                // The delete can only be batched if nothing has to be deleted after the object
+                if (!deferrable || returnedValues != null || !postFlushDeleters.isEmpty()) {
+                    if (updateQueryBatcher != null) {
+                        updateQueryBatcher.flush(context);
+                    }
+                    updateQueryBatcher = null;
+                }
                 if (version != null && versionFlusher != null) {
                     Query query = context.getEntityManager().createQuery(versionedDeleteQuery);
                     idFlusher.flushQuery(context, EntityViewUpdaterImpl.WHERE_CLAUSE_PREFIX, query, ownerView, view, viewId, null);
                     versionFlusher.flushQueryInitialVersion(context, EntityViewUpdaterImpl.WHERE_CLAUSE_PREFIX, query, view, version);
-                    int updated = query.executeUpdate();
-                    if (updated != 1) {
-                        throw new OptimisticLockException(entity, view);
+                    if (updateQueryBatcher == null) {
+                        int updated = query.executeUpdate();
+                        if (updated != 1) {
+                            throw new OptimisticLockException(entity, view);
+                        }
+                    } else {
+                        updateQueryBatcher.add(context, versionedDeleteQuery, query, entity, view, true);
                     }
                 } else {
                     Query query = context.getEntityManager().createQuery(deleteQuery);
                     idFlusher.flushQuery(context, EntityViewUpdaterImpl.WHERE_CLAUSE_PREFIX, query, ownerView, view, viewId, null);
-                    query.executeUpdate();
+                    if (updateQueryBatcher == null) {
+                        query.executeUpdate();
+                    } else {
+                        updateQueryBatcher.add(context, deleteQuery, query, entity, view, false);
+                    }
                 }
             }
 
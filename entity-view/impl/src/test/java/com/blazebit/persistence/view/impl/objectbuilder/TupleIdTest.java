@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class TupleIdTest {
+
+    private static final int[] ID_POSITIONS = { 0, 1 };
+
+    @Test
+    public void testSetEqualsNewTupleId() {
+        Object[] tuple = { 1L, "a", "b" };
+        TupleId lookupId = new TupleId(ID_POSITIONS.length).set(ID_POSITIONS, tuple);
+        TupleId id = new TupleId(ID_POSITIONS, tuple);
+
+        Assert.assertEquals(id, lookupId);
+        Assert.assertEquals(id.hashCode(), lookupId.hashCode());
+    }
+
+    @Test
+    public void testCopyIsIndependentOfReusedTupleId() {
+        TupleId lookupId = new TupleId(ID_POSITIONS.length);
+        TupleId copy = lookupId.set(ID_POSITIONS, new Object[]{ 1L, "a", "b" }).copy();
+
+        Assert.assertNotSame(lookupId, copy);
+        Assert.assertEquals(lookupId, copy);
+        Assert.assertEquals(lookupId.hashCode(), copy.hashCode());
+
+        lookupId.set(ID_POSITIONS, new Object[]{ 2L, "a", "b" });
+        Assert.assertNotEquals(lookupId, copy);
+        Assert.assertEquals(new TupleId(ID_POSITIONS, new Object[]{ 1L, "a", "c" }), copy);
+        Assert.assertEquals(new TupleId(ID_POSITIONS, new Object[]{ 1L, "a", "c" }).hashCode(), copy.hashCode());
+    }
+
+    @Test
+    public void testReusedTupleIdIsNeverMapKey() {
+        Object[][] tuples = {
+            { 1L, "a", "x" },
+            { 2L, "b", "y" },
+            { 1L, "a", "z" }
+        };
+        Map<TupleId, Object[]> index = new HashMap<>();
+        TupleId lookupId = new TupleId(ID_POSITIONS.length);
+
+        // Same usage as in the tuple list transformers, only copies of the reused tuple id are put into the map
+        for (Object[] tuple : tuples) {
+            TupleId id = lookupId.set(ID_POSITIONS, tuple);
+            if (!index.containsKey(id)) {
+                index.put(id.copy(), tuple);
+            }
+        }
+
+        Assert.assertEquals(2, index.size());
+        for (TupleId key : index.keySet()) {
+            Assert.assertNotSame(lookupId, key);
+        }
+        // Resetting the reused tuple id doesn't affect the keys
+        lookupId.set(ID_POSITIONS, new Object[]{ 3L, "c", "w" });
+        Assert.assertSame(tuples[0], index.get(new TupleId(ID_POSITIONS, tuples[2])));
+        Assert.assertSame(tuples[1], index.get(new TupleId(ID_POSITIONS, tuples[1])));
+        Assert.assertFalse(index.containsKey(lookupId));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class TupleRestTest {
+
+    @Test
+    public void testLookupWithOffsetEqualsStoredTupleRest() {
+        TupleRest stored = new TupleRest(new Object[]{ 1L, "a", "b", "c" }, 1, 1);
+        TupleRest.Lookup lookup = new TupleRest.Lookup().setWithOffset(new Object[]{ 1L, "a", "b", "c" }, 1, 1);
+
+        Assert.assertEquals(stored, lookup);
+        Assert.assertEquals(lookup, stored);
+        Assert.assertEquals(stored.hashCode(), lookup.hashCode());
+        Set<TupleRest> set = new HashSet<>(Arrays.asList(stored));
+        Assert.assertTrue(set.contains(lookup));
+    }
+
+    @Test
+    public void testLookupWithOffsetEqualsStoredTupleRestAfterFlattening() {
+        Object[] tuple = { 1L, "a", "b", "c" };
+        TupleRest stored = new TupleRest(tuple, 1, 1);
+        // The offset element is replaced by the collection during flattening, but the stored tuple rest copied it
+        tuple[1] = new ArrayList<>(Arrays.asList("a"));
+        TupleRest.Lookup lookup = new TupleRest.Lookup().setWithOffset(new Object[]{ 1L, "a", "b", "c" }, 1, 1);
+
+        Assert.assertEquals(stored, lookup);
+        Assert.assertEquals(stored.hashCode(), lookup.hashCode());
+    }
+
+    @Test
+    public void testLookupWithOffsetDoesNotEqualDifferentOffsetElements() {
+        TupleRest stored = new TupleRest(new Object[]{ 1L, "a", "b", "c" }, 1, 1);
+        TupleRest.Lookup lookup = new TupleRest.Lookup().setWithOffset(new Object[]{ 1L, "x", "b", "c" }, 1, 1);
+
+        Assert.assertNotEquals(stored, lookup);
+        Assert.assertNotEquals(lookup, stored);
+    }
+
+    @Test
+    public void testLookupWithoutOffsetDoesNotEqualOwnStoredTupleRest() {
+        Object[] tuple = { 1L, "a", "b", "c" };
+        TupleRest stored = new TupleRest(tuple, 1, 1);
+        TupleRest.Lookup lookup = new TupleRest.Lookup().set(tuple, 2);
+
+        Assert.assertEquals(stored.hashCode(), lookup.hashCode());
+        Assert.assertNotEquals(stored, lookup);
+        Assert.assertNotEquals(lookup, stored);
+        Set<TupleRest> set = new HashSet<>(Arrays.asList(stored));
+        Assert.assertFalse(set.contains(lookup));
+    }
+
+    @Test
+    public void testLookupWithoutOffsetEqualsStoredTupleRestOfOtherTuple() {
+        TupleRest stored = new TupleRest(new Object[]{ 1L, "a", "b", "c" }, 1, 1);
+        TupleRest.Lookup lookup = new TupleRest.Lookup().set(new Object[]{ 1L, "x", "b", "c" }, 2);
+
+        Assert.assertEquals(stored, lookup);
+        Assert.assertEquals(stored.hashCode(), lookup.hashCode());
+    }
+
+    @Test
+    public void testReusedLookupMatchesOnlyCurrentState() {
+        TupleRest stored = new TupleRest(new Object[]{ 1L, "a", "b", "c" }, 1, 1);
+        TupleRest.Lookup lookup = new TupleRest.Lookup();
+
+        Assert.assertEquals(stored, lookup.setWithOffset(new Object[]{ 1L, "a", "b", "c" }, 1, 1));
+        Assert.assertNotEquals(stored, lookup.setWithOffset(new Object[]{ 1L, "a", "b", "d" }, 1, 1));
+        Assert.assertEquals(stored, lookup.set(new Object[]{ 1L, "x", "b", "c" }, 2));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.basic;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.Sorters;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
+import com.blazebit.persistence.view.testsuite.basic.model.FetchedAttributesDocumentView;
+import com.blazebit.persistence.view.testsuite.basic.model.IdHolderView;
+import com.blazebit.persistence.view.testsuite.basic.model.PersonView;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+// NOTE: Datanucleus has problems with the correlated SELECT fetched attribute
+@Category({ NoDatanucleus.class })
+public class FetchedAttributesTest extends AbstractEntityViewTest {
+
+    private EntityViewManager evm;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Document doc1 = new Document("doc1");
+                Document doc2 = new Document("doc2");
+                doc1.setAge(10);
+                doc2.setAge(20);
+
+                Person o1 = new Person("pers1");
+                Person o2 = new Person("pers2");
+
+                doc1.setOwner(o1);
+                doc2.setOwner(o1);
+                doc1.getPartners().add(o2);
+                o2.setPartnerDocument(doc1);
+
+                em.persist(o1);
+                em.persist(o2);
+
+                em.persist(doc1);
+                em.persist(doc2);
+            }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(IdHolderView.class);
+        cfg.addEntityView(PersonView.class);
+        cfg.addEntityView(FetchedAttributesDocumentView.class);
+        evm = cfg.createEntityViewManager(cbf);
+    }
+
+    @Test
+    public void testFetchBasicAttribute() {
+        EntityViewSetting<FetchedAttributesDocumentView, CriteriaBuilder<FetchedAttributesDocumentView>> setting = EntityViewSetting.create(FetchedAttributesDocumentView.class);
+        setting.fetch("name");
+        CriteriaBuilder<FetchedAttributesDocumentView> cb = evm.applySetting(setting, cbf.create(em, Document.class).orderByAsc("id"));
+        List<FetchedAttributesDocumentView> results = cb.getResultList();
+
+        // The pruned attributes must not cause joins
+        assertFalse(cb.getQueryString().contains("JOIN"));
+        assertEquals(2, results.size());
+        assertEquals("doc1", results.get(0).getName());
+        // Primitive attributes are always fetched
+        assertEquals(10L, results.get(0).getAge());
+        assertNull(results.get(0).getOwner());
+        assertNull(results.get(0).getPartnerNames());
+        assertNull(results.get(0).getOwnerDocumentIds());
+    }
+
+    @Test
+    public void testFetchSubviewAttribute() {
+        EntityViewSetting<FetchedAttributesDocumentView, CriteriaBuilder<FetchedAttributesDocumentView>> setting = EntityViewSetting.create(FetchedAttributesDocumentView.class);
+        setting.fetch(Arrays.asList("owner.name", "ownerDocumentIds"));
+        List<FetchedAttributesDocumentView> results = evm.applySetting(setting, cbf.create(em, Document.class).orderByAsc("id")).getResultList();
+
+        assertEquals(2, results.size());
+        assertNull(results.get(0).getName());
+        assertEquals("pers1", results.get(0).getOwner().getName());
+        assertNull(results.get(0).getPartnerNames());
+        assertEquals(new HashSet<>(Arrays.asList(results.get(0).getId(), results.get(1).getId())), results.get(0).getOwnerDocumentIds());
+    }
+
+    @Test
+    public void testFetchSortedAttribute() {
+        EntityViewSetting<FetchedAttributesDocumentView, CriteriaBuilder<FetchedAttributesDocumentView>> setting = EntityViewSetting.create(FetchedAttributesDocumentView.class);
+        setting.fetch("partnerNames");
+        setting.addAttributeSorter("name", Sorters.descending());
+        List<FetchedAttributesDocumentView> results = evm.applySetting(setting, cbf.create(em, Document.class)).getResultList();
+
+        assertEquals(2, results.size());
+        assertEquals("doc2", results.get(0).getName());
+        assertEquals("doc1", results.get(1).getName());
+        assertEquals(new HashSet<>(Arrays.asList("pers2")), results.get(1).getPartnerNames());
+        assertNull(results.get(0).getOwner());
+    }
+
+    @Test
+    public void testFetchUnknownAttribute() {
+        EntityViewSetting<FetchedAttributesDocumentView, CriteriaBuilder<FetchedAttributesDocumentView>> setting = EntityViewSetting.create(FetchedAttributesDocumentView.class);
+        setting.fetch("owner.age");
+        try {
+            evm.applySetting(setting, cbf.create(em, Document.class));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+}
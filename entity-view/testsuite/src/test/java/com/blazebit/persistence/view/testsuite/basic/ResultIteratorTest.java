@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.basic;
+
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
+import com.blazebit.persistence.view.testsuite.basic.model.PeopleNamesDocumentView;
+import com.blazebit.persistence.view.testsuite.basic.model.PersonView;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ResultIteratorTest extends AbstractEntityViewTest {
+
+    private EntityViewManager evm;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("pers1");
+                Person p2 = new Person("pers2");
+                Person p3 = new Person("pers3");
+                Person p4 = new Person("pers4");
+                em.persist(p1);
+                em.persist(p2);
+                em.persist(p3);
+                em.persist(p4);
+
+                Document doc1 = new Document("doc1", p1);
+                doc1.getPeople().add(p1);
+                doc1.getPeople().add(p2);
+                Document doc2 = new Document("doc2", p1);
+                doc2.getPeople().add(p3);
+                doc2.getPeople().add(p4);
+                em.persist(doc1);
+                em.persist(doc2);
+            }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(PersonView.class);
+        cfg.addEntityView(PeopleNamesDocumentView.class);
+        evm = cfg.createEntityViewManager(cbf);
+    }
+
+    @Test
+    public void testIterateAcrossChunks() {
+        CriteriaBuilder<Person> criteria = cbf.create(em, Person.class, "p").orderByAsc("p.name");
+        List<String> names = new ArrayList<>();
+        try (CloseableIterator<PersonView> iterator = evm.applySetting(EntityViewSetting.create(PersonView.class), criteria).getResultIterator(2)) {
+            while (iterator.hasNext()) {
+                names.add(iterator.next().getName());
+            }
+        }
+
+        assertEquals(Arrays.asList("pers1", "pers2", "pers3", "pers4"), names);
+    }
+
+    @Test
+    public void testJoinFetchedCollectionAcrossChunksIsRejected() {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("d.name");
+        CriteriaBuilder<PeopleNamesDocumentView> cb = evm.applySetting(EntityViewSetting.create(PeopleNamesDocumentView.class), criteria);
+
+        // Every document has two people, so a fetch size of 1 makes the rows of a view span multiple chunks
+        try {
+            cb.getResultIterator(1).close();
+            fail("Expected the iterator to be rejected");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+
+        List<PeopleNamesDocumentView> results = cb.getResultList();
+        assertEquals(2, results.size());
+        assertEquals(new HashSet<>(Arrays.asList("pers1", "pers2")), results.get(0).getPeopleNames());
+        assertEquals(new HashSet<>(Arrays.asList("pers3", "pers4")), results.get(1).getPeopleNames());
+    }
+}
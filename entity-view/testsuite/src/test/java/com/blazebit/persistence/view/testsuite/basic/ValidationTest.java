@@ -19,7 +19,12 @@ package com.blazebit.persistence.view.testsuite.basic;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.impl.ConfigurationProperties;
+import com.blazebit.persistence.view.impl.EntityViewManagerImpl;
+import com.blazebit.persistence.view.impl.objectbuilder.ViewTypeObjectBuilderTemplate;
+import com.blazebit.persistence.view.metamodel.ViewType;
 import com.blazebit.persistence.view.spi.EntityViewConfiguration;
 import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
 import com.blazebit.persistence.view.testsuite.basic.model.DocumentValidationView;
@@ -27,6 +32,12 @@ import com.blazebit.persistence.view.testsuite.basic.model.PersonDuplicateCollec
 import com.blazebit.persistence.view.testsuite.basic.model.PersonInvalidMappingValidationView;
 import com.blazebit.persistence.view.testsuite.basic.model.PersonValidationView;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 /**
  *
  * @author Christian Beikov
@@ -57,6 +68,66 @@ public class ValidationTest extends AbstractEntityViewTest {
         }
     }
 
+    @Test
+    public void testParallelValidation() {
+        String sequentialMessage = getValidationErrorMessage("1");
+        String parallelMessage = getValidationErrorMessage("4");
+        Assert.assertTrue(parallelMessage, parallelMessage.contains("'ownedDocuments'"));
+        Assert.assertEquals(sequentialMessage, parallelMessage);
+    }
+
+    private String getValidationErrorMessage(String bootParallelism) {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.BOOT_PARALLELISM, bootParallelism);
+        cfg.addEntityView(DocumentValidationView.class);
+        cfg.addEntityView(PersonValidationView.class);
+        cfg.addEntityView(PersonDuplicateCollectionUsageValidationView.class);
+
+        try {
+            cfg.createEntityViewManager(cbf);
+            Assert.fail("Expected validation exception!");
+            return null;
+        } catch (IllegalArgumentException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    @Test
+    public void testParallelEagerLoading() throws Exception {
+        EntityViewManager sequentialEvm = createEagerLoadingEntityViewManager("1");
+        EntityViewManager parallelEvm = createEagerLoadingEntityViewManager("4");
+
+        List<String> sequentialTemplates = getTemplates(sequentialEvm);
+        List<String> parallelTemplates = getTemplates(parallelEvm);
+        Assert.assertEquals(sequentialTemplates, parallelTemplates);
+        for (ViewType<?> view : parallelEvm.getMetamodel().getViews()) {
+            Assert.assertTrue("Missing template for " + view.getJavaType().getName(), parallelTemplates.contains(view.getJavaType().getName()));
+        }
+    }
+
+    private EntityViewManager createEagerLoadingEntityViewManager(String bootParallelism) {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.BOOT_PARALLELISM, bootParallelism);
+        cfg.setProperty(ConfigurationProperties.TEMPLATE_EAGER_LOADING, "true");
+        cfg.setProperty(ConfigurationProperties.UPDATER_EAGER_LOADING, "true");
+        cfg.addEntityView(DocumentValidationView.class);
+        cfg.addEntityView(PersonValidationView.class);
+        return cfg.createEntityViewManager(cbf);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getTemplates(EntityViewManager evm) throws Exception {
+        Field objectBuilderCacheField = EntityViewManagerImpl.class.getDeclaredField("objectBuilderCache");
+        objectBuilderCacheField.setAccessible(true);
+        Map<?, ViewTypeObjectBuilderTemplate<?>> objectBuilderCache = (Map<?, ViewTypeObjectBuilderTemplate<?>>) objectBuilderCacheField.get(evm);
+        List<String> templates = new ArrayList<>(objectBuilderCache.size());
+        for (ViewTypeObjectBuilderTemplate<?> template : objectBuilderCache.values()) {
+            templates.add(template.getViewClass().getName());
+        }
+        Collections.sort(templates);
+        return templates;
+    }
+
     @Test
     public void testValidationInvalidMapping() {
         EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.cache;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
+import com.blazebit.persistence.view.testsuite.cache.model.CacheableDocumentView;
+import com.blazebit.persistence.view.testsuite.cache.model.InvalidCacheableUpdatableView;
+import com.blazebit.persistence.view.testsuite.cache.model.PersonNameView;
+import com.blazebit.persistence.view.testsuite.cache.model.UpdatableDocumentNameView;
+import com.blazebit.persistence.view.testsuite.cache.model.UpdatablePersonNameView;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+// NOTE: No Datanucleus and Eclipselink support for updatable entity views yet
+@Category({ NoDatanucleus.class, NoEclipselink.class })
+public class CacheableViewTest extends AbstractEntityViewTest {
+
+    private Document doc1;
+    private Document doc2;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("pers1");
+                Person o2 = new Person("pers2");
+                doc1 = new Document("doc1", o1);
+                doc2 = new Document("doc2", o2);
+
+                em.persist(o1);
+                em.persist(o2);
+                em.persist(doc1);
+                em.persist(doc2);
+            }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        // The names are changed by some tests, so we rely on the order of the ids
+        List<Document> documents = cbf.create(em, Document.class).fetch("owner").orderByAsc("id").getResultList();
+        doc1 = documents.get(0);
+        doc2 = documents.get(1);
+        build(CacheableDocumentView.class, PersonNameView.class, UpdatableDocumentNameView.class, UpdatablePersonNameView.class);
+    }
+
+    @Test
+    public void testFindIsCached() {
+        CacheableDocumentView view = evm.find(em, CacheableDocumentView.class, doc1.getId());
+        assertSame(view, evm.find(em, CacheableDocumentView.class, doc1.getId()));
+    }
+
+    @Test
+    public void testOptionalParametersArePartOfTheKey() {
+        EntityViewSetting<CacheableDocumentView, CriteriaBuilder<CacheableDocumentView>> setting = EntityViewSetting.create(CacheableDocumentView.class);
+        setting.addOptionalParameter("param", 1);
+        CacheableDocumentView view = evm.find(em, EntityViewSetting.create(CacheableDocumentView.class), doc1.getId());
+        assertNotSame(view, evm.find(em, setting, doc1.getId()));
+    }
+
+    @Test
+    public void testFetchesArePartOfTheKey() {
+        EntityViewSetting<CacheableDocumentView, CriteriaBuilder<CacheableDocumentView>> setting = EntityViewSetting.create(CacheableDocumentView.class);
+        setting.fetch("name");
+        CacheableDocumentView prunedView = evm.find(em, setting, doc1.getId());
+        assertNull(prunedView.getOwner());
+
+        CacheableDocumentView view = evm.find(em, CacheableDocumentView.class, doc1.getId());
+        assertNotSame(prunedView, view);
+        assertEquals(doc1.getOwner().getName(), view.getOwner().getName());
+        assertSame(prunedView, evm.find(em, setting, doc1.getId()));
+    }
+
+    @Test
+    public void testUpdateEvictsById() {
+        CacheableDocumentView doc1View = evm.find(em, CacheableDocumentView.class, doc1.getId());
+        CacheableDocumentView doc2View = evm.find(em, CacheableDocumentView.class, doc2.getId());
+
+        final UpdatableDocumentNameView updatableView = evm.find(em, UpdatableDocumentNameView.class, doc1.getId());
+        updatableView.setName("newDoc1");
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                evm.update(em, updatableView);
+            }
+        });
+
+        CacheableDocumentView newDoc1View = evm.find(em, CacheableDocumentView.class, doc1.getId());
+        assertNotSame(doc1View, newDoc1View);
+        assertEquals("newDoc1", newDoc1View.getName());
+        assertSame(doc2View, evm.find(em, CacheableDocumentView.class, doc2.getId()));
+    }
+
+    @Test
+    public void testUpdateOfSubviewEntityEvictsAll() {
+        CacheableDocumentView doc1View = evm.find(em, CacheableDocumentView.class, doc1.getId());
+        CacheableDocumentView doc2View = evm.find(em, CacheableDocumentView.class, doc2.getId());
+
+        final UpdatablePersonNameView updatableView = evm.find(em, UpdatablePersonNameView.class, doc1.getOwner().getId());
+        updatableView.setName("newPers1");
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                evm.update(em, updatableView);
+            }
+        });
+
+        CacheableDocumentView newDoc1View = evm.find(em, CacheableDocumentView.class, doc1.getId());
+        assertNotSame(doc1View, newDoc1View);
+        assertEquals("newPers1", newDoc1View.getOwner().getName());
+        assertNotSame(doc2View, evm.find(em, CacheableDocumentView.class, doc2.getId()));
+    }
+
+    @Test
+    public void testExplicitEviction() {
+        CacheableDocumentView doc1View = evm.find(em, CacheableDocumentView.class, doc1.getId());
+        CacheableDocumentView doc2View = evm.find(em, CacheableDocumentView.class, doc2.getId());
+
+        evm.evict(CacheableDocumentView.class, doc1.getId());
+        assertNotSame(doc1View, evm.find(em, CacheableDocumentView.class, doc1.getId()));
+        assertSame(doc2View, evm.find(em, CacheableDocumentView.class, doc2.getId()));
+
+        evm.evictAll(CacheableDocumentView.class);
+        assertNotSame(doc2View, evm.find(em, CacheableDocumentView.class, doc2.getId()));
+    }
+
+    @Test
+    public void testUpdatableCacheableViewIsRejected() {
+        try {
+            build(InvalidCacheableUpdatableView.class);
+            fail("Expected exception");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("@CacheableView"));
+        }
+    }
+}
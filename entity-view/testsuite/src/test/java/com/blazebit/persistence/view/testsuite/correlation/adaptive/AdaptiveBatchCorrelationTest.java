@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.correlation.adaptive;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus4;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.BatchCorrelationStatistics;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.impl.AttributeBatchCorrelationStatisticsImpl;
+import com.blazebit.persistence.view.impl.BatchCorrelationMode;
+import com.blazebit.persistence.view.impl.ConfigurationProperties;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.correlation.AbstractCorrelationTest;
+import com.blazebit.persistence.view.testsuite.correlation.concurrent.model.DocumentConcurrentCorrelationView;
+import com.blazebit.persistence.view.testsuite.correlation.embedding.model.DocumentEmbeddingCorrelationViewSubqueryNormal;
+import com.blazebit.persistence.view.testsuite.correlation.embedding.model.SimpleDocumentEmbeddingCorrelatedView;
+import com.blazebit.persistence.view.testsuite.correlation.embedding.model.SimplePersonEmbeddingCorrelatedSubView;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimpleDocumentCorrelatedView;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimplePersonCorrelatedSubView;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class AdaptiveBatchCorrelationTest extends AbstractCorrelationTest {
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testStatisticsAreRecorded() {
+        EntityViewManager evm = createAdaptiveEntityViewManager();
+
+        queryDocuments(evm, null);
+        queryDocuments(evm, null);
+
+        AttributeBatchCorrelationStatisticsImpl statistics = getStatistics(evm, DocumentConcurrentCorrelationView.class, "ownerOnlyRelatedDocumentIds");
+        assertEquals(2, statistics.getExecutions());
+        assertEquals(8, statistics.getViews());
+        assertEquals(8, statistics.getViewRoots());
+        // Two distinct owners per execution
+        assertEquals(4, statistics.getCorrelationValues());
+        // Without batching, every owner is loaded separately
+        assertEquals(4, statistics.getBatches());
+        assertEquals(8, statistics.getRows());
+        assertEquals(0, statistics.getExpectationMisses());
+        assertEquals(1, statistics.getRecommendedBatchSize(1));
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class })
+    public void testBatchSizeAdapts() {
+        EntityViewManager evm = createAdaptiveEntityViewManager();
+
+        queryDocuments(evm, 20);
+        AttributeBatchCorrelationStatisticsImpl statistics = getStatistics(evm, DocumentConcurrentCorrelationView.class, "ownerOnlyRelatedDocumentIds");
+        assertEquals(1, statistics.getBatches());
+        assertEquals(2, statistics.getRecommendedBatchSize(20));
+
+        // The second execution uses a batch size of 2 which still loads both owners in one batch
+        queryDocuments(evm, 20);
+        assertEquals(2, statistics.getBatches());
+        assertEquals(8, statistics.getRows());
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class })
+    public void testBatchCorrelationModeAdapts() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.ADAPTIVE_BATCHING, "true");
+        cfg.addEntityView(DocumentEmbeddingCorrelationViewSubqueryNormal.class);
+        cfg.addEntityView(SimpleDocumentEmbeddingCorrelatedView.class);
+        cfg.addEntityView(SimplePersonEmbeddingCorrelatedSubView.class);
+        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+
+        for (int i = 0; i < 2; i++) {
+            CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+            EntityViewSetting<DocumentEmbeddingCorrelationViewSubqueryNormal, CriteriaBuilder<DocumentEmbeddingCorrelationViewSubqueryNormal>> setting = EntityViewSetting.create(DocumentEmbeddingCorrelationViewSubqueryNormal.class);
+            setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE + ".ownerRelatedDocumentIds", 2);
+            List<DocumentEmbeddingCorrelationViewSubqueryNormal> results = evm.applySetting(setting, criteria).getResultList();
+            assertEquals(4, results.size());
+            // The documents of all other owners
+            assertEquals(new HashSet<>(Arrays.asList(doc2.getId(), doc3.getId(), doc4.getId())), results.get(0).getOwnerRelatedDocumentIds());
+            assertEquals(new HashSet<>(Arrays.asList(doc1.getId())), results.get(1).getOwnerRelatedDocumentIds());
+        }
+
+        AttributeBatchCorrelationStatisticsImpl statistics = getStatistics(evm, DocumentEmbeddingCorrelationViewSubqueryNormal.class, "ownerRelatedDocumentIds");
+        assertEquals(2, statistics.getModeCount(BatchCorrelationMode.EMBEDDING_VIEWS));
+        // Only the first execution expected the wrong batch correlation mode
+        assertEquals(1, statistics.getExpectationMisses());
+        assertEquals(BatchCorrelationMode.EMBEDDING_VIEWS, statistics.getRecommendedBatchCorrelationMode(BatchCorrelationMode.VALUES));
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testAdaptiveBatchingCanBeEnabledPerSetting() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(DocumentConcurrentCorrelationView.class);
+        cfg.addEntityView(SimpleDocumentCorrelatedView.class);
+        cfg.addEntityView(SimplePersonCorrelatedSubView.class);
+        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+
+        queryDocuments(evm, null);
+        assertNull(getStatistics(evm, DocumentConcurrentCorrelationView.class, "ownerOnlyRelatedDocumentIds"));
+
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+        EntityViewSetting<DocumentConcurrentCorrelationView, CriteriaBuilder<DocumentConcurrentCorrelationView>> setting = EntityViewSetting.create(DocumentConcurrentCorrelationView.class);
+        setting.setProperty(ConfigurationProperties.ADAPTIVE_BATCHING, true);
+        evm.applySetting(setting, criteria).getResultList();
+        assertEquals(1, getStatistics(evm, DocumentConcurrentCorrelationView.class, "ownerOnlyRelatedDocumentIds").getExecutions());
+    }
+
+    private EntityViewManager createAdaptiveEntityViewManager() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.ADAPTIVE_BATCHING, "true");
+        cfg.addEntityView(DocumentConcurrentCorrelationView.class);
+        cfg.addEntityView(SimpleDocumentCorrelatedView.class);
+        cfg.addEntityView(SimplePersonCorrelatedSubView.class);
+        return cfg.createEntityViewManager(cbf);
+    }
+
+    private void queryDocuments(EntityViewManager evm, Integer batchSize) {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+        EntityViewSetting<DocumentConcurrentCorrelationView, CriteriaBuilder<DocumentConcurrentCorrelationView>> setting = EntityViewSetting.create(DocumentConcurrentCorrelationView.class);
+        if (batchSize != null) {
+            setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE, batchSize);
+        }
+        List<DocumentConcurrentCorrelationView> results = evm.applySetting(setting, criteria).getResultList();
+
+        assertEquals(4, results.size());
+        assertEquals(new HashSet<>(Arrays.asList(doc1.getId())), results.get(0).getOwnerOnlyRelatedDocumentIds());
+        assertEquals(new HashSet<>(Arrays.asList(doc2.getId(), doc3.getId(), doc4.getId())), results.get(1).getOwnerOnlyRelatedDocumentIds());
+    }
+
+    private AttributeBatchCorrelationStatisticsImpl getStatistics(EntityViewManager evm, Class<?> entityViewClass, String attributePath) {
+        return (AttributeBatchCorrelationStatisticsImpl) evm.getService(BatchCorrelationStatistics.class).getAttributeStatistics(entityViewClass, attributePath);
+    }
+}
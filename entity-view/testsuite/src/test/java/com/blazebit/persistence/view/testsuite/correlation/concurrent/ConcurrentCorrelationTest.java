@@ -0,0 +1,222 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.correlation.concurrent;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.impl.ConfigurationProperties;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.correlation.AbstractCorrelationTest;
+import com.blazebit.persistence.view.testsuite.correlation.concurrent.model.DocumentConcurrentCorrelationView;
+import com.blazebit.persistence.view.testsuite.correlation.concurrent.model.DocumentSelfCorrelationView;
+import com.blazebit.persistence.view.testsuite.correlation.concurrent.model.DocumentThreadRecordingCorrelationView;
+import com.blazebit.persistence.view.testsuite.correlation.concurrent.model.ThreadRecordingCorrelationProvider;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimpleDocumentCorrelatedView;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimplePersonCorrelatedSubView;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ConcurrentCorrelationTest extends AbstractCorrelationTest {
+
+    private ExecutorService executor;
+    private final AtomicInteger submittedTasks = new AtomicInteger();
+
+    @After
+    public void tearDownExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testConcurrentCorrelation() {
+        testConcurrentCorrelation(null);
+        // Two distinct owners result in two batches of which one is loaded by the executor
+        assertTrue(submittedTasks.get() > 0);
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class })
+    public void testConcurrentBatchedCorrelationSize2() {
+        testConcurrentCorrelation(2);
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testConcurrentCorrelationQueriesAreBuiltByCallerThread() {
+        executor = Executors.newFixedThreadPool(2);
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(DocumentThreadRecordingCorrelationView.class);
+        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+        EntityViewSetting<DocumentThreadRecordingCorrelationView, CriteriaBuilder<DocumentThreadRecordingCorrelationView>> setting = EntityViewSetting.create(DocumentThreadRecordingCorrelationView.class);
+        setting.setProperty(ConfigurationProperties.CORRELATION_ENTITY_MANAGER_FACTORY, emf);
+        setting.setProperty(ConfigurationProperties.CORRELATION_EXECUTOR, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                submittedTasks.incrementAndGet();
+                executor.execute(command);
+            }
+        });
+        ThreadRecordingCorrelationProvider.THREADS.clear();
+        List<DocumentThreadRecordingCorrelationView> results = evm.applySetting(setting, criteria).getResultList();
+
+        assertEquals(4, results.size());
+        assertEquals(new HashSet<>(Arrays.asList(doc1.getId())), results.get(0).getOwnerOnlyRelatedDocumentIds());
+        assertEquals(new HashSet<>(Arrays.asList(doc2.getId(), doc3.getId(), doc4.getId())), results.get(1).getOwnerOnlyRelatedDocumentIds());
+        assertTrue(submittedTasks.get() > 0);
+        // Workers must not access the correlation provider or the main query builder
+        assertEquals(Collections.singleton(Thread.currentThread()), ThreadRecordingCorrelationProvider.THREADS);
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testConcurrentCorrelationWorkersAreBoundedByParallelism() {
+        executor = Executors.newFixedThreadPool(4);
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(DocumentSelfCorrelationView.class);
+        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+
+        // Records the threads that open entity managers
+        final List<Thread> entityManagerThreads = Collections.synchronizedList(new ArrayList<Thread>());
+        EntityManagerFactory recordingEmf = (EntityManagerFactory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ EntityManagerFactory.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("createEntityManager".equals(method.getName())) {
+                    entityManagerThreads.add(Thread.currentThread());
+                }
+                try {
+                    return method.invoke(emf, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            }
+        });
+
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+        EntityViewSetting<DocumentSelfCorrelationView, CriteriaBuilder<DocumentSelfCorrelationView>> setting = EntityViewSetting.create(DocumentSelfCorrelationView.class);
+        setting.setProperty(ConfigurationProperties.CORRELATION_ENTITY_MANAGER_FACTORY, recordingEmf);
+        setting.setProperty(ConfigurationProperties.CORRELATION_PARALLELISM, 2);
+        setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE, 1);
+        setting.setProperty(ConfigurationProperties.CORRELATION_EXECUTOR, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                submittedTasks.incrementAndGet();
+                executor.execute(command);
+            }
+        });
+        List<DocumentSelfCorrelationView> results = evm.applySetting(setting, criteria).getResultList();
+
+        assertEquals(4, results.size());
+        assertEquals(doc1.getName(), results.get(0).getCorrelatedName());
+        assertEquals(doc2.getName(), results.get(1).getCorrelatedName());
+        assertEquals(doc3.getName(), results.get(2).getCorrelatedName());
+        assertEquals(doc4.getName(), results.get(3).getCorrelatedName());
+        // Four batches would allow three workers, but the parallelism limits them to two
+        assertEquals(2, submittedTasks.get());
+        // Entity managers are only opened by workers on executor threads
+        assertTrue(entityManagerThreads.size() <= 2);
+        assertFalse(entityManagerThreads.contains(Thread.currentThread()));
+    }
+
+    private void testConcurrentCorrelation(Integer batchSize) {
+        executor = Executors.newFixedThreadPool(2);
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(DocumentConcurrentCorrelationView.class);
+        cfg.addEntityView(SimpleDocumentCorrelatedView.class);
+        cfg.addEntityView(SimplePersonCorrelatedSubView.class);
+        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+        EntityViewSetting<DocumentConcurrentCorrelationView, CriteriaBuilder<DocumentConcurrentCorrelationView>> setting = EntityViewSetting.create(DocumentConcurrentCorrelationView.class);
+        setting.setProperty(ConfigurationProperties.CORRELATION_ENTITY_MANAGER_FACTORY, emf);
+        setting.setProperty(ConfigurationProperties.CORRELATION_EXECUTOR, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                submittedTasks.incrementAndGet();
+                executor.execute(command);
+            }
+        });
+        if (batchSize != null) {
+            setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE, batchSize);
+        }
+        List<DocumentConcurrentCorrelationView> results = evm.applySetting(setting, criteria).getResultList();
+
+        assertEquals(4, results.size());
+        assertCorrelations(doc1, Arrays.asList(doc1), results.get(0));
+        assertCorrelations(doc2, Arrays.asList(doc2, doc3, doc4), results.get(1));
+        assertCorrelations(doc3, Arrays.asList(doc2, doc3, doc4), results.get(2));
+        assertCorrelations(doc4, Arrays.asList(doc2, doc3, doc4), results.get(3));
+    }
+
+    private void assertCorrelations(Document doc, List<Document> ownerDocuments, DocumentConcurrentCorrelationView view) {
+        assertEquals(doc.getName(), view.getName());
+        assertEquals(doc.getOwner().getId(), view.getCorrelatedOwnerView().getId());
+        assertEquals(doc.getOwner().getName().toUpperCase(), view.getCorrelatedOwnerView().getName());
+
+        HashSet<Long> expectedIds = new HashSet<>();
+        HashSet<String> expectedNames = new HashSet<>();
+        for (Document ownerDocument : ownerDocuments) {
+            expectedIds.add(ownerDocument.getId());
+            expectedNames.add(ownerDocument.getName());
+        }
+        HashSet<String> names = new HashSet<>();
+        for (SimpleDocumentCorrelatedView documentView : view.getOwnerOnlyRelatedDocumentViews()) {
+            names.add(documentView.getName());
+        }
+        assertEquals(expectedIds, view.getOwnerOnlyRelatedDocumentIds());
+        assertEquals(expectedNames, names);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.correlation.concurrent.model;
+
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.CorrelationBuilder;
+import com.blazebit.persistence.view.CorrelationProvider;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the threads on which the correlation is applied.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ThreadRecordingCorrelationProvider implements CorrelationProvider {
+
+    public static final Set<Thread> THREADS = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+    @Override
+    public void applyCorrelation(CorrelationBuilder correlationBuilder, String correlationExpression) {
+        THREADS.add(Thread.currentThread());
+        String correlatedDocument = correlationBuilder.getCorrelationAlias();
+        correlationBuilder.correlate(Document.class)
+            .on(correlatedDocument + ".owner.id").inExpressions(correlationExpression)
+        .end();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.correlation.lazy;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.impl.ConfigurationProperties;
+import com.blazebit.persistence.view.impl.collection.LazyCollection;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.correlation.AbstractCorrelationTest;
+import com.blazebit.persistence.view.testsuite.correlation.lazy.model.DocumentInvalidLazyCorrelationView;
+import com.blazebit.persistence.view.testsuite.correlation.lazy.model.DocumentLazyCorrelationView;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimpleDocumentCorrelatedView;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimplePersonCorrelatedSubView;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class LazyCorrelationTest extends AbstractCorrelationTest {
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testLazyCorrelation() {
+        testLazyCorrelation(null);
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class })
+    public void testLazyBatchedCorrelationSize2() {
+        testLazyCorrelation(2);
+    }
+
+    @Test
+    public void testLazySingularAttributeIsRejected() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(DocumentInvalidLazyCorrelationView.class);
+        cfg.addEntityView(SimplePersonCorrelatedSubView.class);
+        try {
+            cfg.createEntityViewManager(cbf);
+            fail("Expected failure");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("LAZY"));
+        }
+    }
+
+    private void testLazyCorrelation(Integer batchSize) {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(DocumentLazyCorrelationView.class);
+        cfg.addEntityView(SimpleDocumentCorrelatedView.class);
+        cfg.addEntityView(SimplePersonCorrelatedSubView.class);
+        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+        EntityViewSetting<DocumentLazyCorrelationView, CriteriaBuilder<DocumentLazyCorrelationView>> setting = EntityViewSetting.create(DocumentLazyCorrelationView.class);
+        if (batchSize != null) {
+            setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE, batchSize);
+        }
+        List<DocumentLazyCorrelationView> results = evm.applySetting(setting, criteria).getResultList();
+
+        assertEquals(4, results.size());
+        for (DocumentLazyCorrelationView view : results) {
+            assertFalse(((LazyCollection<?, ?>) view.getOwnerOnlyRelatedDocumentIds()).isLoaded());
+            assertFalse(((LazyCollection<?, ?>) view.getOwnerOnlyRelatedDocumentViews()).isLoaded());
+        }
+
+        // Accessing the collection of one view loads the collections of all views of the query
+        assertEquals(1, results.get(0).getOwnerOnlyRelatedDocumentIds().size());
+        for (DocumentLazyCorrelationView view : results) {
+            assertTrue(((LazyCollection<?, ?>) view.getOwnerOnlyRelatedDocumentIds()).isLoaded());
+            assertFalse(((LazyCollection<?, ?>) view.getOwnerOnlyRelatedDocumentViews()).isLoaded());
+        }
+
+        assertCorrelations(doc1, Arrays.asList(doc1), results.get(0));
+        assertCorrelations(doc2, Arrays.asList(doc2, doc3, doc4), results.get(1));
+        assertCorrelations(doc3, Arrays.asList(doc2, doc3, doc4), results.get(2));
+        assertCorrelations(doc4, Arrays.asList(doc2, doc3, doc4), results.get(3));
+    }
+
+    private void assertCorrelations(Document doc, List<Document> ownerDocuments, DocumentLazyCorrelationView view) {
+        assertEquals(doc.getName(), view.getName());
+
+        HashSet<Long> expectedIds = new HashSet<>();
+        HashSet<String> expectedNames = new HashSet<>();
+        for (Document ownerDocument : ownerDocuments) {
+            expectedIds.add(ownerDocument.getId());
+            expectedNames.add(ownerDocument.getName());
+        }
+        HashSet<String> names = new HashSet<>();
+        Collection<SimpleDocumentCorrelatedView> documentViews = view.getOwnerOnlyRelatedDocumentViews();
+        for (SimpleDocumentCorrelatedView documentView : documentViews) {
+            names.add(documentView.getName());
+        }
+        assertEquals(expectedIds, view.getOwnerOnlyRelatedDocumentIds());
+        assertEquals(expectedNames, names);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.correlation.template;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.impl.ConfigurationProperties;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.correlation.AbstractCorrelationTest;
+import com.blazebit.persistence.view.testsuite.correlation.template.model.CountingCorrelationProvider;
+import com.blazebit.persistence.view.testsuite.correlation.template.model.DocumentCorrelationQueryTemplateView;
+import com.blazebit.persistence.view.testsuite.correlation.template.model.DocumentCountingCorrelationQueryTemplateView;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that correlation queries which are reused across executions bind the parameters of the current execution.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CorrelationQueryTemplateTest extends AbstractCorrelationTest {
+
+    private EntityViewManager evm;
+
+    @Before
+    public void setUpEntityViewManager() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(DocumentCorrelationQueryTemplateView.class);
+        cfg.addEntityView(DocumentCountingCorrelationQueryTemplateView.class);
+        evm = cfg.createEntityViewManager(cbf);
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testCorrelationQueryIsBuiltOnce() {
+        CountingCorrelationProvider.COUNT.set(0);
+        EntityViewSetting<DocumentCountingCorrelationQueryTemplateView, CriteriaBuilder<DocumentCountingCorrelationQueryTemplateView>> setting = EntityViewSetting.create(DocumentCountingCorrelationQueryTemplateView.class);
+        List<DocumentCountingCorrelationQueryTemplateView> results = evm.applySetting(setting, cbf.create(em, Document.class, "d").orderByAsc("id")).getResultList();
+        assertEquals(4, results.size());
+        assertEquals(1, CountingCorrelationProvider.COUNT.get());
+
+        results = evm.applySetting(setting, cbf.create(em, Document.class, "d").orderByAsc("id")).getResultList();
+        assertEquals(4, results.size());
+        assertEquals(new HashSet<>(Arrays.asList(doc1.getId())), results.get(0).getOwnerRelatedDocumentIds());
+        assertEquals(new HashSet<>(Arrays.asList(doc2.getId(), doc3.getId(), doc4.getId())), results.get(1).getOwnerRelatedDocumentIds());
+        // The second execution only binds parameters to the query template that was captured by the first execution
+        assertEquals(1, CountingCorrelationProvider.COUNT.get());
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testReusedCorrelationQueryUsesCurrentParameters() {
+        List<DocumentCorrelationQueryTemplateView> results = query(cbf.create(em, Document.class, "d").orderByAsc("id"), "doc2");
+        assertEquals(4, results.size());
+        assertEquals(new HashSet<>(Arrays.asList(doc1.getId())), results.get(0).getOwnerRelatedDocumentIds());
+        assertEquals(new HashSet<>(Arrays.asList(doc3.getId(), doc4.getId())), results.get(1).getOwnerRelatedDocumentIds());
+
+        results = query(cbf.create(em, Document.class, "d").orderByAsc("id"), "doc3");
+        assertEquals(4, results.size());
+        assertEquals(new HashSet<>(Arrays.asList(doc1.getId())), results.get(0).getOwnerRelatedDocumentIds());
+        assertEquals(new HashSet<>(Arrays.asList(doc2.getId(), doc4.getId())), results.get(1).getOwnerRelatedDocumentIds());
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testReusedCorrelationQueryUsesMainQueryParameters() {
+        query(cbf.create(em, Document.class, "d").orderByAsc("id"), "doc3");
+
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.name").notEqExpression(":excludedName")
+                .setParameter("excludedName", "doc2")
+                .orderByAsc("id");
+        List<DocumentCorrelationQueryTemplateView> results = query(criteria, null);
+        assertEquals(3, results.size());
+        assertEquals(new HashSet<>(Arrays.asList(doc3.getId(), doc4.getId())), results.get(1).getOwnerRelatedDocumentIds());
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testCorrelationParameterNameClash() {
+        query(cbf.create(em, Document.class, "d").orderByAsc("id"), "doc2");
+
+        // The main query uses the parameter name of the reused correlation query, so the correlation query has to be rebuilt
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.name").notEqExpression(":correlationParam_0")
+                .setParameter("correlationParam_0", "doc1")
+                .orderByAsc("id");
+        List<DocumentCorrelationQueryTemplateView> results = query(criteria, "doc3");
+        assertEquals(3, results.size());
+        assertEquals(new HashSet<>(Arrays.asList(doc2.getId(), doc4.getId())), results.get(1).getOwnerRelatedDocumentIds());
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testReusedCorrelationQueryWithConcurrentLoading() {
+        query(cbf.create(em, Document.class, "d").orderByAsc("id"), "doc2");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EntityViewSetting<DocumentCorrelationQueryTemplateView, CriteriaBuilder<DocumentCorrelationQueryTemplateView>> setting = EntityViewSetting.create(DocumentCorrelationQueryTemplateView.class);
+            setting.addOptionalParameter("excludedName", "doc3");
+            setting.setProperty(ConfigurationProperties.CORRELATION_ENTITY_MANAGER_FACTORY, emf);
+            setting.setProperty(ConfigurationProperties.CORRELATION_EXECUTOR, executor);
+            List<DocumentCorrelationQueryTemplateView> results = evm.applySetting(setting, cbf.create(em, Document.class, "d").orderByAsc("id")).getResultList();
+            assertEquals(4, results.size());
+            assertEquals(new HashSet<>(Arrays.asList(doc1.getId())), results.get(0).getOwnerRelatedDocumentIds());
+            assertEquals(new HashSet<>(Arrays.asList(doc2.getId(), doc4.getId())), results.get(1).getOwnerRelatedDocumentIds());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<DocumentCorrelationQueryTemplateView> query(CriteriaBuilder<Document> criteria, String excludedName) {
+        EntityViewSetting<DocumentCorrelationQueryTemplateView, CriteriaBuilder<DocumentCorrelationQueryTemplateView>> setting = EntityViewSetting.create(DocumentCorrelationQueryTemplateView.class);
+        if (excludedName != null) {
+            setting.addOptionalParameter("excludedName", excludedName);
+        }
+        return evm.applySetting(setting, criteria).getResultList();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.correlation.template.model;
+
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.CorrelationBuilder;
+import com.blazebit.persistence.view.CorrelationProvider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts how often a correlation query is built.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CountingCorrelationProvider implements CorrelationProvider {
+
+    public static final AtomicInteger COUNT = new AtomicInteger();
+
+    @Override
+    public void applyCorrelation(CorrelationBuilder correlationBuilder, String correlationExpression) {
+        COUNT.incrementAndGet();
+        String correlatedDocument = correlationBuilder.getCorrelationAlias();
+        correlationBuilder.correlate(Document.class)
+            .on(correlatedDocument + ".owner.id").inExpressions(correlationExpression)
+        .end();
+    }
+}
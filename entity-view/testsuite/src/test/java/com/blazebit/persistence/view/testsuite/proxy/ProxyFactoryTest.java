@@ -17,12 +17,17 @@
 package com.blazebit.persistence.view.testsuite.proxy;
 
 import com.blazebit.persistence.spi.PackageOpener;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViews;
 import com.blazebit.persistence.testsuite.entity.Person;
 import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
 import com.blazebit.persistence.view.impl.proxy.ConstructorReflectionInstantiator;
+import com.blazebit.persistence.view.impl.proxy.InstantiationInvoker;
 import com.blazebit.persistence.view.impl.proxy.ObjectInstantiator;
 import com.blazebit.persistence.view.impl.proxy.ProxyFactory;
 import com.blazebit.persistence.view.metamodel.ViewMetamodel;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.spi.EntityViewMapping;
 import com.blazebit.persistence.view.metamodel.ViewType;
 import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
 import com.blazebit.persistence.view.testsuite.proxy.model.DocumentClassView;
@@ -32,13 +37,21 @@ import com.blazebit.persistence.view.testsuite.proxy.model.UnsafeDocumentClassVi
 import com.blazebit.reflection.ReflectionUtils;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -235,8 +248,8 @@ public class ProxyFactoryTest extends AbstractEntityViewTest {
         assertNotNull(proxyClass.getDeclaredConstructor(Long.class));
         assertNotNull(proxyClass.getDeclaredConstructor());
 
-        // 5 Fields, 1 static field for EntityViewManager
-        assertEquals(6, proxyClass.getDeclaredFields().length);
+        // 5 Fields, 1 static field for EntityViewManager, 1 static field for the view model hash
+        assertEquals(7, proxyClass.getDeclaredFields().length);
         // 5 Getters, 2 Setter, 1 Bridge-Getter, 1 Bridge-Setter, 1 Equals, 1 HashCode, 6 EntityViewProxy methods
         assertEquals(17, proxyClass.getDeclaredMethods().length);
         assertAttribute(proxyClass, "contacts", Modifier.PRIVATE, Map.class, Integer.class, Person.class);
@@ -255,8 +268,8 @@ public class ProxyFactoryTest extends AbstractEntityViewTest {
         assertNotNull(proxyClass.getDeclaredConstructor(Long.class, Map.class, Person.class, Person.class,
                                                         String.class, Long.class, Integer.class));
 
-        // 5 Fields, 1 static field for EntityViewManager
-        assertEquals(6, proxyClass.getDeclaredFields().length);
+        // 5 Fields, 1 static field for EntityViewManager, 1 static field for the view model hash
+        assertEquals(7, proxyClass.getDeclaredFields().length);
         // 5 Getters, 2 Setter, 1 Bridge-Getter, 1 Bridge-Setter, 1 Equals, 1 HashCode, 6 EntityViewProxy methods
         assertEquals(17, proxyClass.getDeclaredMethods().length);
         assertAttribute(proxyClass, "contacts", Modifier.PRIVATE, Map.class, Integer.class, Person.class);
@@ -285,6 +298,164 @@ public class ProxyFactoryTest extends AbstractEntityViewTest {
         }
     }
 
+    @Test
+    public void testInvoker() throws Exception {
+        ViewType<DocumentInterfaceView> viewType = getViewMetamodel().view(DocumentInterfaceView.class);
+        Class<? extends DocumentInterfaceView> proxyClass = proxyFactory.getProxy(evm, (ManagedViewTypeImplementor<DocumentInterfaceView>) viewType, null);
+        Constructor<? extends DocumentInterfaceView> constructor = proxyClass.getConstructor(Long.class, Map.class, Person.class, Person.class, String.class);
+        InstantiationInvoker<? extends DocumentInterfaceView> invoker = proxyFactory.getInvoker(constructor);
+
+        // The invoker should be generated rather than fall back to reflection
+        assertEquals(proxyClass.getClassLoader(), invoker.getClass().getClassLoader());
+        assertSame(invoker, proxyFactory.getInvoker(constructor));
+
+        Map<Integer, Person> expectedContacts = new HashMap<Integer, Person>();
+        DocumentInterfaceView instance = invoker.newInstance(new Object[]{ 1L, expectedContacts, null, null, "doc" });
+        assertEquals(Long.valueOf(1L), instance.getId());
+        assertTrue(expectedContacts == instance.getContacts());
+        assertEquals("doc", instance.getName());
+    }
+
+    @Test
+    public void testPregeneratedProxy() throws Exception {
+        ViewType<DocumentInterfaceView> viewType = getViewMetamodel().view(DocumentInterfaceView.class);
+        Path dumpDirectory = Files.createTempDirectory("proxies");
+        try {
+            ProxyFactory dumpingProxyFactory = new ProxyFactory(false, PackageOpener.NOOP, dumpDirectory, false);
+            Class<? extends DocumentInterfaceView> proxyClass = dumpingProxyFactory.getProxy(evm, (ManagedViewTypeImplementor<DocumentInterfaceView>) viewType, null);
+            assertTrue(Files.exists(dumpDirectory.resolve(proxyClass.getName().replace('.', '/') + ".class")));
+
+            // Load the entity view type through a fresh class loader so that the proxy class can only come from the dump directory
+            PregeneratedProxyClassLoader classLoader = new PregeneratedProxyClassLoader(getClass().getClassLoader(), DocumentInterfaceView.class.getPackage().getName(), dumpDirectory);
+            Class<?> freshViewClass = classLoader.loadClass(DocumentInterfaceView.class.getName());
+            EntityViewManager freshEvm = EntityViews.createDefaultConfiguration()
+                    .addEntityView(freshViewClass)
+                    .createEntityViewManager(cbf);
+            ManagedViewTypeImplementor<Object> freshViewType = (ManagedViewTypeImplementor) freshEvm.getMetamodel().managedView(freshViewClass);
+
+            ProxyFactory pregeneratedProxyFactory = new ProxyFactory(false, PackageOpener.NOOP, null, true);
+            Class<?> pregeneratedClass = pregeneratedProxyFactory.getProxy(freshEvm, freshViewType, null);
+            assertNotSame(proxyClass, pregeneratedClass);
+            assertSame(classLoader, pregeneratedClass.getClassLoader());
+            assertEquals(Collections.singleton(proxyClass.getName()), classLoader.getPregeneratedClassNames());
+            assertSame(freshEvm, pregeneratedClass.getField("$$_evm").get(null));
+            assertEquals(proxyClass.getField("$$_viewModelHash").getInt(null), pregeneratedClass.getField("$$_viewModelHash").getInt(null));
+        } finally {
+            deleteRecursively(dumpDirectory);
+        }
+    }
+
+    @Test
+    public void testPregeneratedProxyForDifferentViewModel() throws Exception {
+        ViewType<DocumentInterfaceView> viewType = getViewMetamodel().view(DocumentInterfaceView.class);
+        Path dumpDirectory = Files.createTempDirectory("proxies");
+        try {
+            ProxyFactory dumpingProxyFactory = new ProxyFactory(false, PackageOpener.NOOP, dumpDirectory, false);
+            dumpingProxyFactory.getProxy(evm, (ManagedViewTypeImplementor<DocumentInterfaceView>) viewType, null);
+
+            PregeneratedProxyClassLoader classLoader = new PregeneratedProxyClassLoader(getClass().getClassLoader(), DocumentInterfaceView.class.getPackage().getName(), dumpDirectory);
+            Class<?> freshViewClass = classLoader.loadClass(DocumentInterfaceView.class.getName());
+            EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+            cfg.addEntityView(freshViewClass);
+            // Making the entity view updatable changes the structure of the proxy class
+            for (EntityViewMapping mapping : cfg.getEntityViewMappings()) {
+                mapping.setUpdatable(true);
+            }
+            EntityViewManager freshEvm = cfg.createEntityViewManager(cbf);
+            ManagedViewTypeImplementor<Object> freshViewType = (ManagedViewTypeImplementor) freshEvm.getMetamodel().managedView(freshViewClass);
+
+            ProxyFactory pregeneratedProxyFactory = new ProxyFactory(false, PackageOpener.NOOP, null, true);
+            try {
+                pregeneratedProxyFactory.getProxy(freshEvm, freshViewType, null);
+                fail("Expected the outdated pre-generated proxy class to be rejected");
+            } catch (IllegalArgumentException ex) {
+                assertTrue(ex.getMessage().contains("different entity view model"));
+            }
+        } finally {
+            deleteRecursively(dumpDirectory);
+        }
+    }
+
+    /**
+     * Loads the entity view types of a package and their proxy classes itself instead of delegating to the parent class loader.
+     * Proxy classes are only loaded from the dump directory.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class PregeneratedProxyClassLoader extends ClassLoader {
+
+        private final String packagePrefix;
+        private final Path dumpDirectory;
+        private final Set<String> pregeneratedClassNames = new HashSet<>();
+
+        public PregeneratedProxyClassLoader(ClassLoader parent, String packageName, Path dumpDirectory) {
+            super(parent);
+            this.packagePrefix = packageName + ".";
+            this.dumpDirectory = dumpDirectory;
+        }
+
+        public Set<String> getPregeneratedClassNames() {
+            return pregeneratedClassNames;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(packagePrefix)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null) {
+                    String resourceName = name.replace('.', '/') + ".class";
+                    byte[] bytes;
+                    try {
+                        if (!name.contains("_$$_javassist_entityview_")) {
+                            try (InputStream is = getParent().getResourceAsStream(resourceName)) {
+                                bytes = readFully(is);
+                            }
+                        } else {
+                            Path classFile = dumpDirectory.resolve(resourceName);
+                            if (!Files.exists(classFile)) {
+                                throw new ClassNotFoundException(name);
+                            }
+                            bytes = Files.readAllBytes(classFile);
+                            pregeneratedClassNames.add(name);
+                        }
+                    } catch (IOException ex) {
+                        throw new ClassNotFoundException(name, ex);
+                    }
+                    c = defineClass(name, bytes, 0, bytes.length);
+                }
+                if (resolve) {
+                    resolveClass(c);
+                }
+                return c;
+            }
+        }
+
+        private static byte[] readFully(InputStream is) throws IOException {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                baos.write(buffer, 0, read);
+            }
+            return baos.toByteArray();
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                for (Path child : stream) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.delete(path);
+    }
+
     private void assertField(Class<?> proxyClass, String fieldName, int modifiers, Class<?> type, Class<?>... typeArguments) throws Exception {
         Field field = proxyClass.getDeclaredField(fieldName);
         assertNotNull(field);
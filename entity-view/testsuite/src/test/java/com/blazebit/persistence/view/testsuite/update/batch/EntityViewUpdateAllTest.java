@@ -0,0 +1,212 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.update.batch;
+
+import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.FlushMode;
+import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.OptimisticLockException;
+import com.blazebit.persistence.view.testsuite.update.AbstractEntityViewUpdateDocumentTest;
+import com.blazebit.persistence.view.testsuite.update.batch.model.UpdatableDocumentBatchView;
+import com.blazebit.persistence.view.testsuite.update.batch.model.UpdatablePersonBatchView;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@RunWith(Parameterized.class)
+// NOTE: No Datanucleus support yet
+@Category({ NoDatanucleus.class, NoEclipselink.class})
+public class EntityViewUpdateAllTest extends AbstractEntityViewUpdateDocumentTest<UpdatableDocumentBatchView> {
+
+    public EntityViewUpdateAllTest(FlushMode mode, FlushStrategy strategy, boolean version) {
+        super(mode, strategy, version, UpdatableDocumentBatchView.class, UpdatablePersonBatchView.class);
+    }
+
+    @Parameterized.Parameters(name = "{0} - {1} - VERSIONED={2}")
+    public static Object[][] combinations() {
+        return MODE_STRATEGY_VERSION_COMBINATIONS;
+    }
+
+    @Test
+    public void testUpdateAll() {
+        // Given
+        final UpdatableDocumentBatchView docView1 = getDoc1View();
+        final UpdatableDocumentBatchView docView2 = getDoc2View();
+
+        // When
+        docView1.setName("newDoc1");
+        docView2.setName("newDoc2");
+        clearQueries();
+        updateAll(docView1, docView2);
+
+        // Then
+        if (isQueryStrategy()) {
+            // The first update is executed as usual, the second one as JDBC batch
+            assertQueryCount(2);
+            assertBatchQueryCount(1);
+        }
+        restartTransactionAndReload();
+        assertEquals("newDoc1", doc1.getName());
+        assertEquals("newDoc2", doc2.getName());
+        if (version) {
+            assertEquals(docView1.getVersion(), doc1.getVersion());
+            assertEquals(docView2.getVersion(), doc2.getVersion());
+        }
+    }
+
+    @Test
+    public void testUpdateAllVerifiesEveryElement() {
+        if (!version) {
+            return;
+        }
+        // Given
+        final UpdatableDocumentBatchView docView1 = getDoc1View();
+        final UpdatableDocumentBatchView docView2 = getDoc2View();
+        transactional(new TxVoidWork() {
+
+            @Override
+            public void work(EntityManager em) {
+                em.createQuery("UPDATE Document d SET d.version = d.version + 1 WHERE d.id = :id")
+                        .setParameter("id", doc2.getId())
+                        .executeUpdate();
+            }
+        });
+
+        // When
+        docView1.setName("newDoc1");
+        docView2.setName("newDoc2");
+        try {
+            updateAll(docView1, docView2);
+            fail("Expected optimistic lock exception");
+        } catch (OptimisticLockException ex) {
+            // Then
+            assertEquals(docView2, ex.getEntityView());
+        }
+
+        restartTransactionAndReload();
+        assertEquals("doc1", doc1.getName());
+        assertEquals("doc2", doc2.getName());
+    }
+
+    @Test
+    public void testRemoveAll() {
+        // Given
+        transactional(new TxVoidWork() {
+
+            @Override
+            public void work(EntityManager em) {
+                em.createQuery("UPDATE Person SET partnerDocument = NULL").executeUpdate();
+            }
+        });
+        final UpdatableDocumentBatchView docView1 = getDoc1View();
+        final UpdatableDocumentBatchView docView2 = getDoc2View();
+
+        // When
+        transactional(new TxVoidWork() {
+
+            @Override
+            public void work(EntityManager em) {
+                evm.removeAll(em, Arrays.asList(docView1, docView2));
+                em.flush();
+            }
+        });
+
+        // Then
+        restartTransaction();
+        assertNull(em.find(Document.class, doc1.getId()));
+        assertNull(em.find(Document.class, doc2.getId()));
+    }
+
+    @Test
+    public void testRemoveAllRetainsOrderOfChildAndParent() {
+        // Only query flushing batches statements
+        if (!isQueryStrategy()) {
+            return;
+        }
+        // Given
+        transactional(new TxVoidWork() {
+
+            @Override
+            public void work(EntityManager em) {
+                em.createQuery("UPDATE Person SET partnerDocument = NULL, friend = NULL").executeUpdate();
+            }
+        });
+        final UpdatablePersonBatchView p3View = getPersonView(p3.getId(), UpdatablePersonBatchView.class);
+        final UpdatableDocumentBatchView docView2 = getDoc2View();
+        final UpdatablePersonBatchView p2View = getP2View(UpdatablePersonBatchView.class);
+
+        // When
+        transactional(new TxVoidWork() {
+
+            @Override
+            public void work(EntityManager em) {
+                // The owner of doc2 can only be deleted after doc2, although the delete statement is the same as the one of p3
+                evm.removeAll(em, Arrays.asList(p3View, docView2, p2View));
+                em.flush();
+            }
+        });
+
+        // Then
+        restartTransaction();
+        assertNull(em.find(Person.class, p3.getId()));
+        assertNull(em.find(Document.class, doc2.getId()));
+        assertNull(em.find(Person.class, p2.getId()));
+        assertNotNull(em.find(Document.class, doc1.getId()));
+    }
+
+    private void updateAll(final Object... views) {
+        transactional(new TxVoidWork() {
+
+            @Override
+            public void work(EntityManager em) {
+                evm.updateAll(em, Arrays.asList(views));
+                em.flush();
+            }
+        });
+    }
+
+    @Override
+    protected AssertStatementBuilder fullFetch(AssertStatementBuilder builder) {
+        return builder.assertSelect()
+                .fetching(Document.class)
+                .and();
+    }
+
+    @Override
+    protected AssertStatementBuilder versionUpdate(AssertStatementBuilder builder) {
+        return builder.update(Document.class);
+    }
+}
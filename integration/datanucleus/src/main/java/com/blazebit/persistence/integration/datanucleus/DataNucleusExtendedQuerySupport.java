@@ -17,6 +17,7 @@
 package com.blazebit.persistence.integration.datanucleus;
 
 import com.blazebit.apt.service.ServiceProvider;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.ReturningResult;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import org.datanucleus.store.rdbms.query.JPQLQuery;
@@ -25,6 +26,7 @@ import org.datanucleus.store.rdbms.query.RDBMSQueryCompilation;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import java.lang.reflect.Field;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -87,6 +89,34 @@ public class DataNucleusExtendedQuerySupport implements ExtendedQuerySupport {
         return query.getResultList();
     }
     
+    @Override
+    @SuppressWarnings("rawtypes")
+    public CloseableIterator getResultIterator(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query query, String sqlOverride, int fetchSize) {
+        applySql(query, sqlOverride);
+        // Scrolling is not yet supported, so we materialize the results
+        final Iterator<?> iterator = query.getResultList().iterator();
+        return new CloseableIterator<Object>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Object next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Removing results is not supported!");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
     @Override
     public Object getSingleResult(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query query, String sqlOverride) {
         applySql(query, sqlOverride);
@@ -99,6 +129,16 @@ public class DataNucleusExtendedQuerySupport implements ExtendedQuerySupport {
         return query.executeUpdate();
     }
 
+    @Override
+    public int[] executeBatchUpdate(EntityManager em, List<Query> queries) {
+        // JDBC batching of queries is not yet supported, so we execute the queries one by one
+        int[] updateCounts = new int[queries.size()];
+        for (int i = 0; i < updateCounts.length; i++) {
+            updateCounts[i] = queries.get(i).executeUpdate();
+        }
+        return updateCounts;
+    }
+
     @Override
     public ReturningResult<Object[]> executeReturning(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query modificationBaseQuery, Query exampleQuery, String sqlOverride) {
         // TODO: implement
@@ -18,6 +18,7 @@ package com.blazebit.persistence.integration.hibernate.base;
 
 import antlr.collections.AST;
 import com.blazebit.apt.service.ServiceProvider;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.ReturningResult;
 import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.spi.CteQueryWrapper;
@@ -28,6 +29,8 @@ import com.blazebit.reflection.ReflectionUtils;
 import org.hibernate.HibernateException;
 import org.hibernate.LockMode;
 import org.hibernate.LockOptions;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.TypeMismatchException;
 import org.hibernate.engine.query.spi.HQLQueryPlan;
 import org.hibernate.engine.query.spi.QueryPlanCache;
@@ -49,6 +52,7 @@ import org.hibernate.hql.internal.ast.exec.StatementExecutor;
 import org.hibernate.hql.internal.ast.tree.AbstractStatement;
 import org.hibernate.hql.internal.ast.tree.DotNode;
 import org.hibernate.hql.internal.ast.tree.FromElement;
+import org.hibernate.hql.internal.ast.tree.InsertStatement;
 import org.hibernate.hql.internal.ast.tree.QueryNode;
 import org.hibernate.hql.internal.ast.tree.SelectClause;
 import org.hibernate.hql.spi.ParameterTranslations;
@@ -183,6 +187,9 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
 
         if (statement instanceof QueryNode) {
             queryNode = (QueryNode) statement;
+        } else if (statement instanceof InsertStatement) {
+            // The query node of an INSERT ... SELECT statement follows the into clause
+            queryNode = (QueryNode) ((InsertStatement) statement).getIntoClause().getNextSibling();
         } else {
             queryNode = (QueryNode) statement.getNextSibling();
         }
@@ -354,29 +361,60 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
     @SuppressWarnings("rawtypes")
     private List list(com.blazebit.persistence.spi.ServiceProvider serviceProvider, EntityManager em, List<Query> participatingQueries, Query query, String finalSql) {
         SessionImplementor session = em.unwrap(SessionImplementor.class);
+        // Create combined query parameters
+        List<String> queryStrings = new ArrayList<>(participatingQueries.size());
+        Set<String> querySpaces = new HashSet<>();
+        QueryParamEntry queryParametersEntry = createQueryParameters(em, participatingQueries, queryStrings, querySpaces);
+        HQLQueryPlan queryPlan = prepareSelectQuery(serviceProvider, session, query, finalSql, queryStrings, querySpaces, queryParametersEntry);
+        return hibernateAccess.performList(queryPlan, session, queryParametersEntry.queryParameters);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public CloseableIterator getResultIterator(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query query, String sqlOverride, int fetchSize) {
+        EntityManager em = serviceProvider.getService(EntityManager.class);
+        try {
+            SessionImplementor session = em.unwrap(SessionImplementor.class);
+            List<String> queryStrings = new ArrayList<>(participatingQueries.size());
+            Set<String> querySpaces = new HashSet<>();
+            QueryParamEntry queryParametersEntry = createQueryParameters(em, participatingQueries, queryStrings, querySpaces);
+            HQLQueryPlan queryPlan = prepareSelectQuery(serviceProvider, session, query, sqlOverride, queryStrings, querySpaces, queryParametersEntry);
+            QueryParameters queryParameters = queryParametersEntry.queryParameters;
+            queryParameters.setScrollMode(ScrollMode.FORWARD_ONLY);
+            queryParameters.getRowSelection().setFetchSize(fetchSize);
+            ScrollableResults scrollableResults = hibernateAccess.performScroll(queryPlan, session, queryParameters);
+            boolean singleColumn = queryPlan.getReturnMetadata().getReturnTypes().length == 1;
+            return new ScrollableResultsIterator(hibernateAccess, em, scrollableResults, singleColumn);
+        } catch (QueryExecutionRequestException he) {
+            LOG.severe("Could not execute the following SQL query: " + sqlOverride);
+            throw new IllegalStateException(he);
+        } catch (TypeMismatchException e) {
+            LOG.severe("Could not execute the following SQL query: " + sqlOverride);
+            throw new IllegalArgumentException(e);
+        } catch (HibernateException he) {
+            LOG.severe("Could not execute the following SQL query: " + sqlOverride);
+            throw hibernateAccess.convert(em, he);
+        }
+    }
+
+    private HQLQueryPlan prepareSelectQuery(com.blazebit.persistence.spi.ServiceProvider serviceProvider, SessionImplementor session, Query query, String finalSql, List<String> queryStrings, Set<String> querySpaces, QueryParamEntry queryParametersEntry) {
         SessionFactoryImplementor sfi = session.getFactory();
 
         if (session.isClosed()) {
             throw new PersistenceException("Entity manager is closed!");
         }
 
-        // Create combined query parameters
-        List<String> queryStrings = new ArrayList<>(participatingQueries.size());
-        Set<String> querySpaces = new HashSet<>();
-        QueryParamEntry queryParametersEntry = createQueryParameters(em, participatingQueries, queryStrings, querySpaces);
-        QueryParameters queryParameters = queryParametersEntry.queryParameters;
-
         QueryPlanCacheKey cacheKey = createCacheKey(queryStrings);
         CacheEntry<HQLQueryPlan> queryPlanEntry = getQueryPlan(sfi, query, cacheKey);
         HQLQueryPlan queryPlan = queryPlanEntry.getValue();
-        
+
         if (!queryPlanEntry.isFromCache()) {
             prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, null, false, serviceProvider.getService(DbmsDialect.class));
             queryPlan = putQueryPlanIfAbsent(sfi, cacheKey, queryPlan);
         }
 
         autoFlush(querySpaces, session);
-        return hibernateAccess.performList(queryPlan, session, queryParameters);
+        return queryPlan;
     }
 
     @Override
@@ -449,6 +487,63 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    @Override
+    public int[] executeBatchUpdate(EntityManager em, List<Query> queries) {
+        int size = queries.size();
+        int[] updateCounts = new int[size];
+        if (size == 0) {
+            return updateCounts;
+        }
+
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        if (session.isClosed()) {
+            throw new PersistenceException("Entity manager is closed!");
+        }
+
+        String queryString = null;
+        List<QueryParameters> queryParameters = new ArrayList<>(size - 1);
+        for (int i = 0; i < size; i++) {
+            org.hibernate.Query hibernateQuery = queries.get(i).unwrap(org.hibernate.Query.class);
+            Map<String, TypedValue> namedParams = new HashMap<String, TypedValue>(hibernateAccess.getNamedParams(hibernateQuery));
+            String expandedQueryString = hibernateAccess.expandParameterLists(session, hibernateQuery, namedParams);
+            if (queryString == null) {
+                queryString = expandedQueryString;
+            } else if (!queryString.equals(expandedQueryString)) {
+                throw new IllegalArgumentException("Batched queries must have the same query string but got [" + queryString + "] and [" + expandedQueryString + "]");
+            }
+            if (i != 0) {
+                queryParameters.add(hibernateAccess.getQueryParameters(hibernateQuery, namedParams));
+            }
+        }
+
+        // Executing the first query as usual takes care of auto flushing and invalidating caches for the affected query spaces
+        updateCounts[0] = queries.get(0).executeUpdate();
+        if (size == 1) {
+            return updateCounts;
+        }
+
+        HQLQueryPlan queryPlan = session.getFactory().getQueryPlanCache().getHQLQueryPlan(queryString, false, Collections.EMPTY_MAP);
+        StatementExecutor executor = queryPlan.getTranslators().length == 1 ? getStatementExecutor(queryPlan.getTranslators()[0]) : null;
+        if (!(executor instanceof BasicExecutor)) {
+            // Multi-table modification queries require temporary tables, so we execute them one by one
+            for (int i = 1; i < size; i++) {
+                updateCounts[i] = queries.get(i).executeUpdate();
+            }
+            return updateCounts;
+        }
+
+        String sql = getField(executor, "sql");
+        List<ParameterSpecification> parameterSpecifications = getField(executor, "parameterSpecifications");
+        try {
+            int[] batchUpdateCounts = hibernateAccess.performBatchExecuteUpdate(session, sql, parameterSpecifications, queryParameters);
+            System.arraycopy(batchUpdateCounts, 0, updateCounts, 1, batchUpdateCounts.length);
+        } catch (HibernateException he) {
+            LOG.severe("Could not execute the following SQL query: " + sql);
+            hibernateAccess.throwPersistenceException(em, he);
+        }
+        return updateCounts;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public ReturningResult<Object[]> executeReturning(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query modificationBaseQuery, Query exampleQuery, String sqlOverride) {
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.hibernate.base;
+
+import com.blazebit.persistence.CloseableIterator;
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollableResults;
+
+import javax.persistence.EntityManager;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator over forward only scrollable results that closes the results when exhausted.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ScrollableResultsIterator implements CloseableIterator<Object> {
+
+    private final HibernateAccess hibernateAccess;
+    private final EntityManager em;
+    private final ScrollableResults scrollableResults;
+    private final boolean singleColumn;
+    private boolean advanced;
+    private boolean hasNext;
+    private boolean closed;
+
+    public ScrollableResultsIterator(HibernateAccess hibernateAccess, EntityManager em, ScrollableResults scrollableResults, boolean singleColumn) {
+        this.hibernateAccess = hibernateAccess;
+        this.em = em;
+        this.scrollableResults = scrollableResults;
+        this.singleColumn = singleColumn;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!advanced) {
+            try {
+                hasNext = scrollableResults.next();
+            } catch (HibernateException he) {
+                close();
+                throw hibernateAccess.convert(em, he);
+            }
+            advanced = true;
+            if (!hasNext) {
+                close();
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        advanced = false;
+        try {
+            Object[] row = scrollableResults.get();
+            return singleColumn ? row[0] : row;
+        } catch (HibernateException he) {
+            close();
+            throw hibernateAccess.convert(em, he);
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing results is not supported!");
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            scrollableResults.close();
+        }
+    }
+}
@@ -20,6 +20,7 @@ package com.blazebit.persistence.spring.data.base.query;
 import com.blazebit.persistence.CriteriaBuilderFactory;
 import com.blazebit.persistence.PagedList;
 import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.SlicedList;
 import com.blazebit.persistence.criteria.BlazeCriteria;
 import com.blazebit.persistence.criteria.BlazeCriteriaBuilder;
 import com.blazebit.persistence.criteria.BlazeCriteriaQuery;
@@ -176,7 +177,7 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
         @SuppressWarnings("unchecked")
         protected Object doExecute(AbstractJpaQuery repositoryQuery, Object[] values) {
             Query paginatedCriteriaBuilder = ((AbstractPartTreeBlazePersistenceQuery) repositoryQuery).createPaginatedQuery(values, false);
-            PagedList<Object> resultList = (PagedList<Object>) paginatedCriteriaBuilder.getResultList();
+            SlicedList<Object> resultList = (SlicedList<Object>) paginatedCriteriaBuilder.getResultList();
             ParameterAccessor accessor = new ParametersParameterAccessor(parameters, values);
             Pageable pageable = accessor.getPageable();
 
@@ -323,7 +324,7 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
                 if (withCount) {
                     jpaQuery = (TypedQuery<Object>) cb.page(firstResult, maxResults).withCountQuery(true).getQuery();
                 } else {
-                    jpaQuery = (TypedQuery<Object>) cb.page(firstResult, maxResults + 1).withHighestKeysetOffset(1).withCountQuery(false).getQuery();
+                    jpaQuery = (TypedQuery<Object>) cb.page(firstResult, maxResults).withSlice(true).getQuery();
                 }
             } else {
                 if (withCount) {
@@ -331,9 +332,9 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
                     setting = processSetting(setting, values);
                     jpaQuery = (TypedQuery<Object>) ((PaginatedCriteriaBuilder<?>) evm.applySetting(setting, cb)).withCountQuery(true).getQuery();
                 } else {
-                    EntityViewSetting<?, ?> setting = EntityViewSetting.create(entityViewClass, firstResult, maxResults + 1);
+                    EntityViewSetting<?, ?> setting = EntityViewSetting.create(entityViewClass, firstResult, maxResults);
                     setting = processSetting(setting, values);
-                    jpaQuery = (TypedQuery<Object>) ((PaginatedCriteriaBuilder<?>) evm.applySetting(setting, cb)).withHighestKeysetOffset(1).withCountQuery(false).getQuery();
+                    jpaQuery = (TypedQuery<Object>) ((PaginatedCriteriaBuilder<?>) evm.applySetting(setting, cb)).withSlice(true).getQuery();
                 }
             }
 
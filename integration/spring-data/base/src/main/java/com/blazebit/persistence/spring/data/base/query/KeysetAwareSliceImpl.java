@@ -18,6 +18,7 @@ package com.blazebit.persistence.spring.data.base.query;
 
 import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.SlicedList;
 import com.blazebit.persistence.spring.data.repository.KeysetAwareSlice;
 import com.blazebit.persistence.spring.data.repository.KeysetPageRequest;
 import com.blazebit.persistence.spring.data.repository.KeysetPageable;
@@ -44,6 +45,11 @@ public class KeysetAwareSliceImpl<T> extends SliceImpl<T> implements KeysetAware
         this.keysetPage = list.getKeysetPage();
     }
 
+    public KeysetAwareSliceImpl(SlicedList<T> list, Pageable pageable) {
+        super(list, keysetPageable(list.getKeysetPage(), pageable), list.hasNext());
+        this.keysetPage = list.getKeysetPage();
+    }
+
     public KeysetAwareSliceImpl(List<T> list, KeysetPage keysetPage, Pageable pageable) {
         super(list.size() > pageable.getPageSize() ? list.subList(0, pageable.getPageSize()) : list, keysetPageable(keysetPage, pageable), list.size() > pageable.getPageSize());
         this.keysetPage = keysetPage;
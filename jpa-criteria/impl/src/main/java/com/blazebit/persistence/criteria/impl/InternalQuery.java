@@ -44,6 +44,7 @@ import com.blazebit.persistence.criteria.impl.path.AbstractJoin;
 import com.blazebit.persistence.criteria.impl.path.EntityJoin;
 import com.blazebit.persistence.criteria.impl.path.RootImpl;
 import com.blazebit.persistence.criteria.impl.path.TreatedPath;
+import com.blazebit.persistence.parser.predicate.PredicateRestrictionSupport;
 
 import javax.persistence.Tuple;
 import javax.persistence.criteria.Expression;
@@ -677,6 +678,13 @@ public class InternalQuery<T> implements Serializable {
 
         context.setClauseType(ClauseType.WHERE);
         context.getBuffer().setLength(0);
+        if (treatedSelections.isEmpty()) {
+            com.blazebit.persistence.parser.predicate.Predicate predicate = createPredicate(wb, context, restriction);
+            if (predicate != null) {
+                ((PredicateRestrictionSupport) wb).setWherePredicate(predicate);
+                return;
+            }
+        }
         ((AbstractSelection<?>) restriction).render(context);
         renderTreatTypeRestrictions(context, treatedSelections);
         String expression = context.takeBuffer();
@@ -697,6 +705,21 @@ public class InternalQuery<T> implements Serializable {
         }
     }
 
+    private com.blazebit.persistence.parser.predicate.Predicate createPredicate(Object builder, RenderContextImpl context, Selection<?> restriction) {
+        // Builders that support it get the predicate tree directly, which avoids rendering it to JPQL and parsing it again
+        if (!(builder instanceof PredicateRestrictionSupport)) {
+            return null;
+        }
+        context.markParameters();
+        com.blazebit.persistence.parser.expression.Expression expression = context.createExpression(restriction);
+        if (expression instanceof com.blazebit.persistence.parser.predicate.Predicate) {
+            context.releaseParameters();
+            return (com.blazebit.persistence.parser.predicate.Predicate) expression;
+        }
+        context.rollbackParameters();
+        return null;
+    }
+
     private void renderTreatTypeRestrictions(RenderContextImpl context, List<TreatedPath<?>> treatedSelections) {
         final StringBuilder buffer = context.getBuffer();
         boolean first = buffer.length() == 0;
@@ -751,6 +774,11 @@ public class InternalQuery<T> implements Serializable {
 
         context.setClauseType(ClauseType.HAVING);
         context.getBuffer().setLength(0);
+        com.blazebit.persistence.parser.predicate.Predicate predicate = createPredicate(hb, context, having);
+        if (predicate != null) {
+            ((PredicateRestrictionSupport) hb).setHavingPredicate(predicate);
+            return;
+        }
         ((AbstractSelection<?>) having).render(context);
         String expression = context.takeBuffer();
         Map<String, InternalQuery<?>> aliasToSubqueries = context.takeAliasToSubqueryMap();
@@ -17,6 +17,7 @@
 package com.blazebit.persistence.criteria.impl;
 
 import com.blazebit.persistence.SubqueryInitiator;
+import com.blazebit.persistence.parser.expression.Expression;
 
 import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Selection;
@@ -35,6 +36,8 @@ public interface RenderContext {
 
     public void apply(Selection<?> selection);
 
+    public Expression createExpression(Selection<?> selection);
+
     /**
      * @author Christian Beikov
      * @since 1.2.0
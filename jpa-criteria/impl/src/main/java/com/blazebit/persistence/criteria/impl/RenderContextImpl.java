@@ -20,12 +20,14 @@ import com.blazebit.persistence.CommonQueryBuilder;
 import com.blazebit.persistence.SubqueryInitiator;
 import com.blazebit.persistence.criteria.impl.expression.AbstractSelection;
 import com.blazebit.persistence.criteria.impl.expression.ParameterExpressionImpl;
+import com.blazebit.persistence.parser.expression.Expression;
 
 import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Selection;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -46,6 +48,10 @@ public class RenderContextImpl implements RenderContext {
     private int aliasCount = 0;
     private int explicitParameterCount = 0;
 
+    private Map<ParameterExpression<?>, Boolean> markedExplicitParameters;
+    private int markedExplicitParameterCount;
+    private int markedImplicitParameterBindingCount;
+
     private int subqueryAliasCount = 0;
     private Map<String, InternalQuery<?>> aliasToSubqueries = new HashMap<String, InternalQuery<?>>();
 
@@ -92,6 +98,11 @@ public class RenderContextImpl implements RenderContext {
         ((AbstractSelection<?>) selection).render(this);
     }
 
+    @Override
+    public Expression createExpression(Selection<?> selection) {
+        return ((AbstractSelection<?>) selection).createExpression(this);
+    }
+
     @Override
     public String generateAlias(Class<?> entityClass) {
         return "generated" + entityClass.getSimpleName() + "_" + aliasCount++;
@@ -125,15 +136,22 @@ public class RenderContextImpl implements RenderContext {
         if (explicitParameterMapping.containsKey(criteriaQueryParameter)) {
             jpaqlParameterName = explicitParameterMapping.get(criteriaQueryParameter);
         } else {
+            final boolean generatedName;
             if (criteriaQueryParameter.getName() == null || criteriaQueryParameter.getName().isEmpty()) {
                 if (criteriaQueryParameter.getPosition() != null) {
                     throw new IllegalArgumentException("Positional parameters are not supported in criteria queries!");
                 } else {
                     jpaqlParameterName = generateParameterName();
+                    generatedName = true;
                     ((ParameterExpressionImpl<?>) criteriaQueryParameter).setName(jpaqlParameterName);
                 }
             } else {
                 jpaqlParameterName = criteriaQueryParameter.getName();
+                generatedName = false;
+            }
+
+            if (markedExplicitParameters != null) {
+                markedExplicitParameters.put(criteriaQueryParameter, generatedName);
             }
 
             explicitParameterNameMapping.put(jpaqlParameterName, criteriaQueryParameter);
@@ -163,4 +181,30 @@ public class RenderContextImpl implements RenderContext {
     public List<ImplicitParameterBinding> getImplicitParameterBindings() {
         return implicitParameterBindings;
     }
+
+    public void markParameters() {
+        this.markedExplicitParameters = new LinkedHashMap<ParameterExpression<?>, Boolean>();
+        this.markedExplicitParameterCount = explicitParameterCount;
+        this.markedImplicitParameterBindingCount = implicitParameterBindings.size();
+    }
+
+    public void releaseParameters() {
+        this.markedExplicitParameters = null;
+    }
+
+    public void rollbackParameters() {
+        // Undo the parameter registrations since the mark, so that rendering the expression again produces the same parameter names
+        for (Map.Entry<ParameterExpression<?>, Boolean> entry : markedExplicitParameters.entrySet()) {
+            String parameterName = explicitParameterMapping.remove(entry.getKey());
+            explicitParameterNameMapping.remove(parameterName);
+            if (entry.getValue()) {
+                ((ParameterExpressionImpl<?>) entry.getKey()).setName(null);
+            }
+        }
+        while (implicitParameterBindings.size() > markedImplicitParameterBindingCount) {
+            implicitParameterBindings.remove(implicitParameterBindings.size() - 1);
+        }
+        this.explicitParameterCount = markedExplicitParameterCount;
+        this.markedExplicitParameters = null;
+    }
 }
@@ -17,7 +17,12 @@
 package com.blazebit.persistence.criteria.impl.expression;
 
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
+import com.blazebit.persistence.criteria.impl.RenderContext;
+import com.blazebit.persistence.parser.expression.NumericLiteral;
+import com.blazebit.persistence.parser.expression.NumericType;
+import com.blazebit.persistence.parser.predicate.EqPredicate;
 
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Selection;
 import java.util.List;
@@ -48,6 +53,24 @@ public abstract class AbstractPredicate extends AbstractExpression<Boolean> impl
 
     public abstract AbstractPredicate copyNegated();
 
+    @Override
+    public com.blazebit.persistence.parser.predicate.Predicate createExpression(RenderContext context) {
+        return null;
+    }
+
+    protected static com.blazebit.persistence.parser.predicate.Predicate createPredicate(RenderContext context, Expression<Boolean> expression) {
+        com.blazebit.persistence.parser.expression.Expression result = context.createExpression(expression);
+        if (result instanceof com.blazebit.persistence.parser.predicate.Predicate) {
+            return (com.blazebit.persistence.parser.predicate.Predicate) result;
+        }
+        return null;
+    }
+
+    protected static com.blazebit.persistence.parser.predicate.Predicate createConstantPredicate(boolean value) {
+        // Equivalent to the rendered 1=1 or 1=0
+        return new EqPredicate(new NumericLiteral("1", NumericType.INTEGER), new NumericLiteral(value ? "1" : "0", NumericType.INTEGER));
+    }
+
     @Override
     public final boolean isCompoundSelection() {
         return false;
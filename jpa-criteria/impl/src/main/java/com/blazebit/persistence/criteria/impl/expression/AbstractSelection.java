@@ -56,4 +56,15 @@ public abstract class AbstractSelection<X> extends AbstractTupleElement<X> imple
 
     public abstract void render(RenderContext context);
 
+    /**
+     * Creates the expression tree for this selection directly, so that it doesn't have to be rendered and parsed again.
+     * Returns <code>null</code> if the selection can't be represented that way, in which case it has to be rendered.
+     *
+     * @param context The render context
+     * @return The expression tree or <code>null</code>
+     */
+    public com.blazebit.persistence.parser.expression.Expression createExpression(RenderContext context) {
+        return null;
+    }
+
 }
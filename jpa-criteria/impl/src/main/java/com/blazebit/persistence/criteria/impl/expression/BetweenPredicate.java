@@ -67,4 +67,21 @@ public class BetweenPredicate<Y> extends AbstractSimplePredicate {
         context.apply(upperBound);
     }
 
+    @Override
+    public com.blazebit.persistence.parser.predicate.Predicate createExpression(RenderContext context) {
+        com.blazebit.persistence.parser.expression.Expression left = context.createExpression(expression);
+        if (left == null) {
+            return null;
+        }
+        com.blazebit.persistence.parser.expression.Expression start = context.createExpression(lowerBound);
+        if (start == null) {
+            return null;
+        }
+        com.blazebit.persistence.parser.expression.Expression end = context.createExpression(upperBound);
+        if (end == null) {
+            return null;
+        }
+        return new com.blazebit.persistence.parser.predicate.BetweenPredicate(left, start, end, isNegated());
+    }
+
 }
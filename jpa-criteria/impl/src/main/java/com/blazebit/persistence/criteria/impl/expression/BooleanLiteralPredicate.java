@@ -54,4 +54,9 @@ public class BooleanLiteralPredicate extends AbstractSimplePredicate {
         }
     }
 
+    @Override
+    public com.blazebit.persistence.parser.predicate.Predicate createExpression(RenderContext context) {
+        return createConstantPredicate(value ^ isNegated());
+    }
+
 }
@@ -20,6 +20,11 @@ import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.ParameterVisitor;
 import com.blazebit.persistence.criteria.impl.RenderContext;
 import com.blazebit.persistence.parser.util.TypeUtils;
+import com.blazebit.persistence.parser.predicate.EqPredicate;
+import com.blazebit.persistence.parser.predicate.GePredicate;
+import com.blazebit.persistence.parser.predicate.GtPredicate;
+import com.blazebit.persistence.parser.predicate.LePredicate;
+import com.blazebit.persistence.parser.predicate.LtPredicate;
 
 import javax.persistence.criteria.Expression;
 
@@ -151,4 +156,32 @@ public class ComparisonPredicate extends AbstractSimplePredicate {
         context.apply(rightHandSide);
     }
 
+    @Override
+    public com.blazebit.persistence.parser.predicate.Predicate createExpression(RenderContext context) {
+        com.blazebit.persistence.parser.expression.Expression left = context.createExpression(leftHandSide);
+        if (left == null) {
+            return null;
+        }
+        com.blazebit.persistence.parser.expression.Expression right = context.createExpression(rightHandSide);
+        if (right == null) {
+            return null;
+        }
+        switch (comparisonOperator) {
+            case EQUAL:
+                return new EqPredicate(left, right);
+            case NOT_EQUAL:
+                return new EqPredicate(left, right, true);
+            case LESS_THAN:
+                return new LtPredicate(left, right);
+            case LESS_THAN_OR_EQUAL:
+                return new LePredicate(left, right);
+            case GREATER_THAN:
+                return new GtPredicate(left, right);
+            case GREATER_THAN_OR_EQUAL:
+                return new GePredicate(left, right);
+            default:
+                return null;
+        }
+    }
+
 }
@@ -103,6 +103,43 @@ public class CompoundPredicate extends AbstractPredicate {
         }
     }
 
+    @Override
+    public com.blazebit.persistence.parser.predicate.Predicate createExpression(RenderContext context) {
+        List<Expression<Boolean>> exprs = expressions;
+        int size = exprs.size();
+        switch (size) {
+            case 0: {
+                return createConstantPredicate(operator == BooleanOperator.AND ^ isNegated());
+            }
+            case 1: {
+                return createPredicate(context, exprs.get(0));
+            }
+            default: {
+                com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator booleanOperator = operator == BooleanOperator.AND
+                        ? com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator.AND
+                        : com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator.OR;
+                com.blazebit.persistence.parser.predicate.Predicate result = createPredicate(context, exprs.get(0));
+                if (result == null) {
+                    return null;
+                }
+                for (int i = 1; i < size; i++) {
+                    com.blazebit.persistence.parser.predicate.Predicate predicate = createPredicate(context, exprs.get(i));
+                    if (predicate == null) {
+                        return null;
+                    }
+                    // Flatten a left nested compound predicate with the same operator, just like the parser does
+                    if (result instanceof com.blazebit.persistence.parser.predicate.CompoundPredicate && !result.isNegated()
+                            && ((com.blazebit.persistence.parser.predicate.CompoundPredicate) result).getOperator() == booleanOperator) {
+                        ((com.blazebit.persistence.parser.predicate.CompoundPredicate) result).getChildren().add(predicate);
+                    } else {
+                        result = new com.blazebit.persistence.parser.predicate.CompoundPredicate(booleanOperator, result, predicate);
+                    }
+                }
+                return result;
+            }
+        }
+    }
+
     @Override
     public AbstractPredicate copyNegated() {
         BooleanOperator operator = getNegatedOperator();
@@ -58,4 +58,13 @@ public class IsNullPredicate extends AbstractSimplePredicate {
         }
     }
 
+    @Override
+    public com.blazebit.persistence.parser.predicate.Predicate createExpression(RenderContext context) {
+        com.blazebit.persistence.parser.expression.Expression expression = context.createExpression(operand);
+        if (expression == null) {
+            return null;
+        }
+        return new com.blazebit.persistence.parser.predicate.IsNullPredicate(expression, isNegated());
+    }
+
 }
@@ -92,4 +92,21 @@ public class LikePredicate extends AbstractSimplePredicate {
         }
     }
 
+    @Override
+    public com.blazebit.persistence.parser.predicate.Predicate createExpression(RenderContext context) {
+        // The parser only supports character literals as escape character
+        if (escapeCharacter != null) {
+            return null;
+        }
+        com.blazebit.persistence.parser.expression.Expression left = context.createExpression(matchExpression);
+        if (left == null) {
+            return null;
+        }
+        com.blazebit.persistence.parser.expression.Expression right = context.createExpression(pattern);
+        if (right == null) {
+            return null;
+        }
+        return new com.blazebit.persistence.parser.predicate.LikePredicate(left, right, true, null, isNegated());
+    }
+
 }
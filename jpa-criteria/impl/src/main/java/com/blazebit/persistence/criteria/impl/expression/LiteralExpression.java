@@ -22,6 +22,11 @@ import com.blazebit.persistence.criteria.impl.RenderContext;
 import com.blazebit.persistence.criteria.impl.RenderContext.ClauseType;
 import com.blazebit.persistence.parser.util.TypeConverter;
 import com.blazebit.persistence.parser.util.TypeUtils;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.NumericLiteral;
+import com.blazebit.persistence.parser.expression.NumericType;
+import com.blazebit.persistence.parser.expression.ParameterExpression;
+import com.blazebit.persistence.parser.predicate.BooleanLiteral;
 
 /**
  * @author Christian Beikov
@@ -81,6 +86,28 @@ public class LiteralExpression<T> extends AbstractExpression<T> {
         }
     }
 
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Expression createExpression(RenderContext context) {
+        if (context.getClauseType() == ClauseType.SELECT) {
+            return null;
+        }
+        if (TypeUtils.isNumeric(literal) || TypeUtils.isBoolean(literal)) {
+            // Only create the literals that are parsed as plain literals, others like negative numbers are rendered
+            if (literal instanceof Boolean) {
+                return new BooleanLiteral((Boolean) literal);
+            } else if (literal instanceof Integer && (Integer) literal >= 0) {
+                return new NumericLiteral(literal.toString(), NumericType.INTEGER);
+            } else if (literal instanceof Long && (Long) literal >= 0L) {
+                StringBuilder sb = new StringBuilder();
+                ((TypeConverter) TypeUtils.getConverter(literal.getClass())).appendTo(literal, sb);
+                return new NumericLiteral(sb.toString(), NumericType.LONG);
+            }
+            return null;
+        }
+        return new ParameterExpression(context.registerLiteralParameterBinding(getLiteral(), getJavaType()));
+    }
+
     @Override
     @SuppressWarnings({ "unchecked", "rawtypes" })
     protected void setJavaType(Class targetType) {
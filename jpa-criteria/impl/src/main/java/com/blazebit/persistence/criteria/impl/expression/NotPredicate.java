@@ -18,6 +18,7 @@ package com.blazebit.persistence.criteria.impl.expression;
 
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.RenderContext;
+import com.blazebit.persistence.parser.predicate.Predicate;
 
 /**
  * @author Christian Beikov
@@ -50,4 +51,18 @@ public class NotPredicate extends AbstractSimplePredicate {
             context.apply(predicate);
         }
     }
+
+    @Override
+    public Predicate createExpression(RenderContext context) {
+        Predicate result = createPredicate(context, predicate);
+        if (result == null) {
+            return null;
+        }
+        if (result.isNegated()) {
+            // Wrap to maintain the negational structure, just like the parser does
+            result = new com.blazebit.persistence.parser.predicate.CompoundPredicate(com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator.AND, result);
+        }
+        result.negate();
+        return result;
+    }
 }
@@ -73,6 +73,11 @@ public class ParameterExpressionImpl<T> extends AbstractExpression<T> implements
         context.getBuffer().append(':').append(paramName);
     }
 
+    @Override
+    public com.blazebit.persistence.parser.expression.ParameterExpression createExpression(RenderContext context) {
+        return new com.blazebit.persistence.parser.expression.ParameterExpression(context.registerExplicitParameter(this));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -28,6 +28,8 @@ import com.blazebit.persistence.criteria.impl.ParameterVisitor;
 import com.blazebit.persistence.criteria.impl.RenderContext;
 import com.blazebit.persistence.criteria.impl.expression.FromSelection;
 import com.blazebit.persistence.criteria.impl.expression.SubqueryExpression;
+import com.blazebit.persistence.parser.expression.PathElementExpression;
+import com.blazebit.persistence.parser.expression.PropertyExpression;
 
 import javax.persistence.criteria.Fetch;
 import javax.persistence.criteria.Join;
@@ -48,6 +50,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -120,6 +123,16 @@ public abstract class AbstractFrom<Z, X> extends AbstractPath<X> implements Blaz
         context.getBuffer().append(getAlias());
     }
 
+    @Override
+    protected boolean appendPathElements(RenderContext context, List<PathElementExpression> pathElements) {
+        if (this instanceof TreatedPath<?>) {
+            return false;
+        }
+        prepareAlias(context);
+        pathElements.add(new PropertyExpression(getAlias()));
+        return true;
+    }
+
     @Override
     public Attribute<?, ?> getAttribute() {
         return null;
@@ -22,6 +22,9 @@ import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.RenderContext;
 import com.blazebit.persistence.criteria.impl.expression.AbstractExpression;
 import com.blazebit.persistence.criteria.impl.expression.PathTypeExpression;
+import com.blazebit.persistence.parser.expression.PathElementExpression;
+import com.blazebit.persistence.parser.expression.PathExpression;
+import com.blazebit.persistence.parser.expression.PropertyExpression;
 
 import javax.persistence.criteria.Path;
 import javax.persistence.metamodel.Attribute;
@@ -29,8 +32,10 @@ import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.MapAttribute;
 import javax.persistence.metamodel.PluralAttribute;
 import javax.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -198,6 +203,25 @@ public abstract class AbstractPath<X> extends AbstractExpression<X> implements B
         }
     }
 
+    @Override
+    public PathExpression createExpression(RenderContext context) {
+        List<PathElementExpression> pathElements = new ArrayList<>();
+        // Single element paths could also be entity type literals, so we leave these to the parser
+        if (!appendPathElements(context, pathElements) || pathElements.size() < 2) {
+            return null;
+        }
+        return new PathExpression(pathElements);
+    }
+
+    protected boolean appendPathElements(RenderContext context, List<PathElementExpression> pathElements) {
+        AbstractPath<?> base = getBasePath();
+        if (this instanceof TreatedPath<?> || base == null || !base.appendPathElements(context, pathElements)) {
+            return false;
+        }
+        pathElements.add(new PropertyExpression(getAttribute().getName()));
+        return true;
+    }
+
     private void checkDereferenceAllowed() {
         if (!isDereferencable()) {
             throw new IllegalArgumentException("Dereferencing attributes in '" + getBasePath().getPathExpression() + "' is not allowed!");
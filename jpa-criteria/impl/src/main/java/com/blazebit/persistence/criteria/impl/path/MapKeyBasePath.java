@@ -18,11 +18,13 @@ package com.blazebit.persistence.criteria.impl.path;
 
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.RenderContext;
+import com.blazebit.persistence.parser.expression.PathElementExpression;
 
 import javax.persistence.criteria.Path;
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.Bindable;
 import javax.persistence.metamodel.MapAttribute;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -66,6 +68,12 @@ public class MapKeyBasePath<K, V> extends AbstractPath<Map<K, V>> implements Pat
         return mapJoin.getPathExpression();
     }
 
+    @Override
+    protected boolean appendPathElements(RenderContext context, List<PathElementExpression> pathElements) {
+        // This is only the base of map key paths which are rendered with the KEY function, so they aren't plain paths
+        return false;
+    }
+
     @Override
     public void renderPathExpression(RenderContext context) {
         if (mapJoin instanceof TreatedPath<?>) {
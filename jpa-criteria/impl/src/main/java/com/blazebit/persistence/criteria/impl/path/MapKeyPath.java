@@ -18,11 +18,13 @@ package com.blazebit.persistence.criteria.impl.path;
 
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.RenderContext;
+import com.blazebit.persistence.parser.expression.PathElementExpression;
 
 import javax.persistence.criteria.Path;
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.Bindable;
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * @author Christian Beikov
@@ -69,6 +71,12 @@ public class MapKeyPath<K> extends AbstractPath<K> implements Path<K>, Serializa
         return "KEY(" + name + ')';
     }
 
+    @Override
+    protected boolean appendPathElements(RenderContext context, List<PathElementExpression> pathElements) {
+        // Map key paths are rendered with the KEY function, so they aren't plain paths
+        return false;
+    }
+
     @Override
     public void renderPathExpression(RenderContext context) {
         render(context);
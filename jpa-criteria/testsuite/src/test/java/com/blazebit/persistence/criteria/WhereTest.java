@@ -421,6 +421,27 @@ public class WhereTest extends AbstractCoreTest {
         assertEquals("abc%", criteriaBuilder.getParameterValue("generated_param_0"));
     }
 
+    @Test
+    public void mixedDirectAndRenderedRestrictions() {
+        BlazeCriteriaQuery<Long> cq = BlazeCriteria.get(cbf, Long.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        Root<Document> root = cq.from(Document.class, "document");
+
+        cq.select(root.get(Document_.id));
+        cq.where(
+            cb.equal(root.get(Document_.name), "abc"),
+            cb.notEqual(root.get(Document_.name), cb.parameter(String.class, "name")),
+            cb.equal(cb.upper(root.get(Document_.name)), "ABC"),
+            cb.isNull(root.get(Document_.archived)).not()
+        );
+
+        CriteriaBuilder<?> criteriaBuilder = cq.createCriteriaBuilder(em);
+        assertEquals("SELECT document.id FROM Document document WHERE document.name = :generated_param_0 AND document.name <> :name AND UPPER(document.name) = :generated_param_1 AND document.archived IS NOT NULL", criteriaBuilder.getQueryString());
+        assertEquals("abc", criteriaBuilder.getParameterValue("generated_param_0"));
+        assertEquals("ABC", criteriaBuilder.getParameterValue("generated_param_1"));
+        criteriaBuilder.setParameter("name", "def").getResultList();
+    }
+
     @Test
     public void inParameterNotEqualGtLtCaseWhenAllSubquery() {
         BlazeCriteriaQuery<Long> cq = BlazeCriteria.get(cbf, Long.class);
@@ -526,6 +526,7 @@ public abstract class AbstractJpaPersistenceTest {
 
         public static final QueryInspectorListener INSTANCE = new QueryInspectorListener();
         private static final List<String> EXECUTED_QUERIES = new ArrayList<>();
+        private static final List<String> EXECUTED_BATCH_QUERIES = new ArrayList<>();
         private static boolean enabled = false;
         private static boolean collectSequences = false;
 
@@ -543,6 +544,9 @@ public abstract class AbstractJpaPersistenceTest {
                     String query = q.getQuery();
                     if (collectSequences || (!query.contains("next_val") && !query.contains("nextval"))) {
                         EXECUTED_QUERIES.add(query);
+                        if (executionInfo.isBatch()) {
+                            EXECUTED_BATCH_QUERIES.add(query);
+                        }
                     }
                 }
             }
@@ -551,6 +555,7 @@ public abstract class AbstractJpaPersistenceTest {
 
     public static void clearQueries() {
         QueryInspectorListener.EXECUTED_QUERIES.clear();
+        QueryInspectorListener.EXECUTED_BATCH_QUERIES.clear();
     }
 
     public static void enableQueryCollecting() {
@@ -560,6 +565,7 @@ public abstract class AbstractJpaPersistenceTest {
     public static void disableQueryCollecting() {
         QueryInspectorListener.enabled = false;
         QueryInspectorListener.EXECUTED_QUERIES.clear();
+        QueryInspectorListener.EXECUTED_BATCH_QUERIES.clear();
     }
 
     public static void assertUnorderedEquals(List<?> list1, List<?> list2) {
@@ -582,6 +588,21 @@ public abstract class AbstractJpaPersistenceTest {
         }
     }
 
+    public static void assertBatchQueryCount(int count) {
+        List<String> queries = QueryInspectorListener.EXECUTED_BATCH_QUERIES;
+        if (count != queries.size()) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Unexpected batch query count for batch queries:");
+            for (String q : queries) {
+                sb.append("\n").append(q);
+            }
+            Assert.assertEquals(
+                    sb.toString(),
+                    count,
+                    queries.size());
+        }
+    }
+
     public AssertStatementBuilder assertOrderedQuerySequence() {
         return new AssertStatementBuilder(getRelationalModelAccessor(), QueryInspectorListener.EXECUTED_QUERIES);
     }